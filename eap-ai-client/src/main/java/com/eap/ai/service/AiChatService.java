@@ -24,7 +24,7 @@ public class AiChatService {
     private final ObjectMapper objectMapper;
 
     private static final Set<String> READ_ONLY = Set.of(
-        "getOrderBook", "getMarketMetrics", "getUserWallet", "getUserOrders", "checkUserExists", "exportReport");
+        "getOrderBook", "getMarketMetrics", "quoteMarketImpact", "getUserWallet", "getUserOrders", "checkUserExists", "exportReport");
     private static final Set<String> STATE_CHANGING = Set.of(
         "placeOrder", "cancelOrder", "registerUser", "runSimulation");
 
@@ -57,6 +57,7 @@ public class AiChatService {
           【可用工具與參數】
           - getOrderBook -> arguments: {} | {"depth": number}
           - getMarketMetrics -> arguments: {}
+          - quoteMarketImpact -> {"side":"BUY|SELL","qty":number,"symbol":"string"}  // 試算市價成交均價與滑價，不下單
           - getUserWallet -> {"userId":"string"}
           - getUserOrders -> {"userId":"string"}
           - placeOrder -> {"userId":"string","side":"BUY|SELL","price":"string","qty":"string","symbol":"string"}
@@ -70,6 +71,7 @@ public class AiChatService {
             【語義對應建議】
             - 「訂單簿/買賣單/order book/五檔/十檔/深度」→ getOrderBook（若文本含「前N檔」，則 depth=N）
             - 「市場/市況/行情/指標/metrics」→ getMarketMetrics
+            - 「買/賣 N 會成交在什麼價格/滑價/衝擊成本/試算」→ quoteMarketImpact（不要為了試算而實際下單）
             - 「下單/成交/取消」→ placeOrder/cancelOrder
 
             【最小範例 (JSON 規劃)】
@@ -205,6 +207,12 @@ public class AiChatService {
             if (!args.hasNonNull("symbol"))
                 return "symbol";
         }
+        if ("quoteMarketImpact".equals(name)) {
+            if (!args.hasNonNull("side"))
+                return "side";
+            if (!args.hasNonNull("qty"))
+                return "qty";
+        }
         if ("cancelOrder".equals(name)) {
             if (!args.hasNonNull("orderId"))
                 return "orderId";
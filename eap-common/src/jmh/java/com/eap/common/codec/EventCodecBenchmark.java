@@ -0,0 +1,114 @@
+package com.eap.common.codec;
+
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMatchedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 目前的 Jackson2JsonMessageConverter 與二進位 EventMessageConverter 的編碼、解碼成本比較。
+ * 訊息大小於 setup 時輸出。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventCodecBenchmark {
+
+    private MessageConverter json;
+    private MessageConverter binary;
+    private OrderCreatedEvent created;
+    private OrderMatchedEvent matched;
+    private Message jsonCreated;
+    private Message binaryCreated;
+    private Message jsonMatched;
+    private Message binaryMatched;
+
+    @Setup
+    public void setUp() {
+        json = new Jackson2JsonMessageConverter("com.eap.common.event");
+        binary = new EventMessageConverter(new Jackson2JsonMessageConverter("com.eap.common.event"), true);
+        LocalDateTime now = LocalDateTime.now();
+        created = OrderCreatedEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .price(1050)
+                .amount(25)
+                .orderType("BUY")
+                .symbol("ELC")
+                .createdAt(now)
+                .build();
+        matched = OrderMatchedEvent.builder()
+                .buyerId(UUID.randomUUID())
+                .sellerId(UUID.randomUUID())
+                .originBuyerPrice(1050)
+                .originSellerPrice(1040)
+                .dealPrice(1040)
+                .amount(25)
+                .matchedAt(now)
+                .orderType("BUY")
+                .symbol("ELC")
+                .sequence(123456L)
+                .build();
+        jsonCreated = json.toMessage(created, new MessageProperties());
+        binaryCreated = binary.toMessage(created, new MessageProperties());
+        jsonMatched = json.toMessage(matched, new MessageProperties());
+        binaryMatched = binary.toMessage(matched, new MessageProperties());
+        System.out.printf("%nOrderCreatedEvent: json %d bytes, binary %d bytes%n",
+                jsonCreated.getBody().length, binaryCreated.getBody().length);
+        System.out.printf("OrderMatchedEvent: json %d bytes, binary %d bytes%n",
+                jsonMatched.getBody().length, binaryMatched.getBody().length);
+    }
+
+    @Benchmark
+    public Message jsonEncodeCreated() {
+        return json.toMessage(created, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message binaryEncodeCreated() {
+        return binary.toMessage(created, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object jsonDecodeCreated() {
+        return json.fromMessage(jsonCreated);
+    }
+
+    @Benchmark
+    public Object binaryDecodeCreated() {
+        return binary.fromMessage(binaryCreated);
+    }
+
+    @Benchmark
+    public Message jsonEncodeMatched() {
+        return json.toMessage(matched, new MessageProperties());
+    }
+
+    @Benchmark
+    public Message binaryEncodeMatched() {
+        return binary.toMessage(matched, new MessageProperties());
+    }
+
+    @Benchmark
+    public Object jsonDecodeMatched() {
+        return json.fromMessage(jsonMatched);
+    }
+
+    @Benchmark
+    public Object binaryDecodeMatched() {
+        return binary.fromMessage(binaryMatched);
+    }
+}
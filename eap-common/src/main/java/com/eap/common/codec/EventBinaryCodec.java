@@ -0,0 +1,206 @@
+package com.eap.common.codec;
+
+import com.eap.common.constants.TimeInForce;
+import com.eap.common.event.OrderCreateEvent;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMatchedEvent;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * 服務間事件的精簡二進位編碼
+ * 格式：schema 版本(1) | 事件種類(1) | 欄位存在旗標 | 固定位置欄位
+ * UUID 以兩個 long 表示，買賣方向以 {@link OrderSide} 一個 byte 表示，時間為 UTC epoch 奈秒，
+ * 標的為長度(1) + UTF-8。值為 null 的欄位只清除旗標、不佔空間。
+ * 版本 2 起訂單事件的旗標由 1 byte 擴為 2 bytes 以容納 timeInForce；解碼仍接受版本 1 的訂單事件。
+ */
+public final class EventBinaryCodec {
+
+    public static final byte VERSION = 2;
+
+    // 訂單事件旗標為 1 byte、沒有 timeInForce 的舊版格式
+    static final byte VERSION_1 = 1;
+
+    static final byte TYPE_ORDER_CREATE = 1;
+    static final byte TYPE_ORDER_CREATED = 2;
+    static final byte TYPE_ORDER_MATCHED = 3;
+
+    // 版本、種類、旗標、2 個 UUID、4 個 int、2 個時間、方向、有效方式、標的（最長 255 bytes）、序號
+    private static final int MAX_SIZE = 1 + 1 + 2 + 32 + 16 + 16 + 1 + 1 + 1 + 255 + 8;
+
+    private EventBinaryCodec() {
+    }
+
+    /**
+     * 是否為可用二進位編碼的事件
+     */
+    public static boolean supports(Class<?> type) {
+        return type == OrderCreateEvent.class || type == OrderCreatedEvent.class || type == OrderMatchedEvent.class;
+    }
+
+    public static byte[] encode(Object event) {
+        ByteBuffer buffer = ByteBuffer.allocate(MAX_SIZE);
+        buffer.put(VERSION);
+        if (event instanceof OrderCreateEvent e) {
+            buffer.put(TYPE_ORDER_CREATE);
+            encodeOrder(buffer, e.getOrderId(), e.getUserId(), e.getPrice(), e.getAmount(), e.getOrderType(),
+                    e.getSymbol(), e.getCreatedAt(), e.getExpireAt(), e.getTimeInForce());
+        } else if (event instanceof OrderCreatedEvent e) {
+            buffer.put(TYPE_ORDER_CREATED);
+            encodeOrder(buffer, e.getOrderId(), e.getUserId(), e.getPrice(), e.getAmount(), e.getOrderType(),
+                    e.getSymbol(), e.getCreatedAt(), e.getExpireAt(), e.getTimeInForce());
+        } else if (event instanceof OrderMatchedEvent e) {
+            buffer.put(TYPE_ORDER_MATCHED);
+            encodeMatched(buffer, e);
+        } else {
+            throw new IllegalArgumentException("Unsupported event type: " + event.getClass().getName());
+        }
+        byte[] bytes = new byte[buffer.position()];
+        buffer.flip().get(bytes);
+        return bytes;
+    }
+
+    public static Object decode(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        byte version = buffer.get();
+        if (version != VERSION && version != VERSION_1) {
+            throw new IllegalArgumentException("Unsupported event schema version: " + version);
+        }
+        byte type = buffer.get();
+        switch (type) {
+            case TYPE_ORDER_CREATE: {
+                OrderCreateEvent e = new OrderCreateEvent();
+                int flags = orderFlags(buffer, version);
+                e.setOrderId(has(flags, 0) ? getUuid(buffer) : null);
+                e.setUserId(has(flags, 1) ? getUuid(buffer) : null);
+                e.setPrice(has(flags, 2) ? buffer.getInt() : null);
+                e.setAmount(has(flags, 3) ? buffer.getInt() : null);
+                e.setOrderType(has(flags, 4) ? OrderSide.fromCode(buffer.get()).name() : null);
+                e.setSymbol(has(flags, 5) ? getString(buffer) : null);
+                e.setCreatedAt(has(flags, 6) ? getTime(buffer) : null);
+                e.setExpireAt(has(flags, 7) ? getTime(buffer) : null);
+                e.setTimeInForce(has(flags, 8) ? TimeInForce.fromCode(buffer.get()).name() : null);
+                return e;
+            }
+            case TYPE_ORDER_CREATED: {
+                OrderCreatedEvent e = new OrderCreatedEvent();
+                int flags = orderFlags(buffer, version);
+                e.setOrderId(has(flags, 0) ? getUuid(buffer) : null);
+                e.setUserId(has(flags, 1) ? getUuid(buffer) : null);
+                e.setPrice(has(flags, 2) ? buffer.getInt() : null);
+                e.setAmount(has(flags, 3) ? buffer.getInt() : null);
+                e.setOrderType(has(flags, 4) ? OrderSide.fromCode(buffer.get()).name() : null);
+                e.setSymbol(has(flags, 5) ? getString(buffer) : null);
+                e.setCreatedAt(has(flags, 6) ? getTime(buffer) : null);
+                e.setExpireAt(has(flags, 7) ? getTime(buffer) : null);
+                e.setTimeInForce(has(flags, 8) ? TimeInForce.fromCode(buffer.get()).name() : null);
+                return e;
+            }
+            case TYPE_ORDER_MATCHED: {
+                OrderMatchedEvent e = new OrderMatchedEvent();
+                int flags = buffer.getShort();
+                e.setBuyerId(has(flags, 0) ? getUuid(buffer) : null);
+                e.setSellerId(has(flags, 1) ? getUuid(buffer) : null);
+                e.setOriginBuyerPrice(has(flags, 2) ? buffer.getInt() : null);
+                e.setOriginSellerPrice(has(flags, 3) ? buffer.getInt() : null);
+                e.setDealPrice(has(flags, 4) ? buffer.getInt() : null);
+                e.setAmount(has(flags, 5) ? buffer.getInt() : null);
+                e.setMatchId(has(flags, 6) ? buffer.getInt() : null);
+                e.setMatchedAt(has(flags, 7) ? getTime(buffer) : null);
+                e.setOrderType(has(flags, 8) ? OrderSide.fromCode(buffer.get()).name() : null);
+                e.setSymbol(has(flags, 9) ? getString(buffer) : null);
+                e.setSequence(has(flags, 10) ? buffer.getLong() : null);
+                return e;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown event type: " + type);
+        }
+    }
+
+    private static void encodeOrder(ByteBuffer buffer, UUID orderId, UUID userId, Integer price, Integer amount,
+                                    String orderType, String symbol, LocalDateTime createdAt,
+                                    LocalDateTime expireAt, String timeInForce) {
+        int flags = flag(orderId, 0) | flag(userId, 1) | flag(price, 2) | flag(amount, 3)
+                | flag(orderType, 4) | flag(symbol, 5) | flag(createdAt, 6) | flag(expireAt, 7)
+                | flag(timeInForce, 8);
+        buffer.putShort((short) flags);
+        if (orderId != null) putUuid(buffer, orderId);
+        if (userId != null) putUuid(buffer, userId);
+        if (price != null) buffer.putInt(price);
+        if (amount != null) buffer.putInt(amount);
+        if (orderType != null) buffer.put(OrderSide.of(orderType).code());
+        if (symbol != null) putString(buffer, symbol);
+        if (createdAt != null) putTime(buffer, createdAt);
+        if (expireAt != null) putTime(buffer, expireAt);
+        if (timeInForce != null) buffer.put(TimeInForce.of(timeInForce).code());
+    }
+
+    private static int orderFlags(ByteBuffer buffer, byte version) {
+        return version == VERSION_1 ? buffer.get() & 0xFF : buffer.getShort() & 0xFFFF;
+    }
+
+    private static void encodeMatched(ByteBuffer buffer, OrderMatchedEvent e) {
+        int flags = flag(e.getBuyerId(), 0) | flag(e.getSellerId(), 1) | flag(e.getOriginBuyerPrice(), 2)
+                | flag(e.getOriginSellerPrice(), 3) | flag(e.getDealPrice(), 4) | flag(e.getAmount(), 5)
+                | flag(e.getMatchId(), 6) | flag(e.getMatchedAt(), 7) | flag(e.getOrderType(), 8)
+                | flag(e.getSymbol(), 9) | flag(e.getSequence(), 10);
+        buffer.putShort((short) flags);
+        if (e.getBuyerId() != null) putUuid(buffer, e.getBuyerId());
+        if (e.getSellerId() != null) putUuid(buffer, e.getSellerId());
+        if (e.getOriginBuyerPrice() != null) buffer.putInt(e.getOriginBuyerPrice());
+        if (e.getOriginSellerPrice() != null) buffer.putInt(e.getOriginSellerPrice());
+        if (e.getDealPrice() != null) buffer.putInt(e.getDealPrice());
+        if (e.getAmount() != null) buffer.putInt(e.getAmount());
+        if (e.getMatchId() != null) buffer.putInt(e.getMatchId());
+        if (e.getMatchedAt() != null) putTime(buffer, e.getMatchedAt());
+        if (e.getOrderType() != null) buffer.put(OrderSide.of(e.getOrderType()).code());
+        if (e.getSymbol() != null) putString(buffer, e.getSymbol());
+        if (e.getSequence() != null) buffer.putLong(e.getSequence());
+    }
+
+    private static int flag(Object value, int bit) {
+        return value != null ? 1 << bit : 0;
+    }
+
+    private static boolean has(int flags, int bit) {
+        return (flags & (1 << bit)) != 0;
+    }
+
+    private static void putUuid(ByteBuffer buffer, UUID value) {
+        buffer.putLong(value.getMostSignificantBits());
+        buffer.putLong(value.getLeastSignificantBits());
+    }
+
+    private static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 255) {
+            throw new IllegalArgumentException("Symbol too long for binary encoding: " + value);
+        }
+        buffer.put((byte) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.get() & 0xFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime value) {
+        buffer.putLong(value.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + value.getNano());
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        long nanos = buffer.getLong();
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
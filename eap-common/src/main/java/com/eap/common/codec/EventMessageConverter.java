@@ -0,0 +1,92 @@
+package com.eap.common.codec;
+
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConversionException;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.amqp.support.converter.SmartMessageConverter;
+
+import java.lang.reflect.Type;
+
+/**
+ * 依 content-type 選擇編碼的 AMQP 訊息轉換器
+ * 收到 {@link #CONTENT_TYPE} 的訊息以 {@link EventBinaryCodec} 解碼，其餘交給原本的轉換器（JSON），
+ * 因此在逐步切換期間 JSON 與二進位的發送端可以同時存在。
+ * 發送時只有 binaryOutbound 開啟且事件支援二進位編碼才使用二進位，其他事件仍走原本的轉換器。
+ */
+public class EventMessageConverter implements SmartMessageConverter {
+
+    public static final String CONTENT_TYPE = "application/x-eap-event";
+
+    private final MessageConverter fallback;
+    private final boolean binaryOutbound;
+
+    /**
+     * @param fallback       非二進位訊息使用的轉換器，通常為 Jackson2JsonMessageConverter
+     * @param binaryOutbound 是否以二進位發送支援的事件；所有消費端都部署了本轉換器後才開啟
+     */
+    public EventMessageConverter(MessageConverter fallback, boolean binaryOutbound) {
+        this.fallback = fallback;
+        this.binaryOutbound = binaryOutbound;
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties) throws MessageConversionException {
+        if (!binaryOutbound || !EventBinaryCodec.supports(object.getClass())) {
+            return fallback.toMessage(object, messageProperties);
+        }
+        return toBinaryMessage(object, messageProperties);
+    }
+
+    @Override
+    public Message toMessage(Object object, MessageProperties messageProperties, Type genericType)
+            throws MessageConversionException {
+        if (!binaryOutbound || !EventBinaryCodec.supports(object.getClass())) {
+            return fallback.toMessage(object, messageProperties, genericType);
+        }
+        return toBinaryMessage(object, messageProperties);
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws MessageConversionException {
+        if (isBinary(message)) {
+            return fromBinaryMessage(message);
+        }
+        return fallback.fromMessage(message);
+    }
+
+    @Override
+    public Object fromMessage(Message message, Object conversionHint) throws MessageConversionException {
+        if (isBinary(message)) {
+            return fromBinaryMessage(message);
+        }
+        if (fallback instanceof SmartMessageConverter smart) {
+            return smart.fromMessage(message, conversionHint);
+        }
+        return fallback.fromMessage(message);
+    }
+
+    private Message toBinaryMessage(Object object, MessageProperties messageProperties) {
+        byte[] body;
+        try {
+            body = EventBinaryCodec.encode(object);
+        } catch (RuntimeException e) {
+            throw new MessageConversionException("Failed to encode " + object.getClass().getSimpleName(), e);
+        }
+        messageProperties.setContentType(CONTENT_TYPE);
+        messageProperties.setContentLength(body.length);
+        return new Message(body, messageProperties);
+    }
+
+    private Object fromBinaryMessage(Message message) {
+        try {
+            return EventBinaryCodec.decode(message.getBody());
+        } catch (RuntimeException e) {
+            throw new MessageConversionException("Failed to decode binary event", e);
+        }
+    }
+
+    private static boolean isBinary(Message message) {
+        return CONTENT_TYPE.equals(message.getMessageProperties().getContentType());
+    }
+}
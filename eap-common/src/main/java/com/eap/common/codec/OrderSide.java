@@ -0,0 +1,40 @@
+package com.eap.common.codec;
+
+/**
+ * 訂單買賣方向在二進位編碼中的表示
+ */
+public enum OrderSide {
+    BUY((byte) 1),
+    SELL((byte) 2);
+
+    private final byte code;
+
+    OrderSide(byte code) {
+        this.code = code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * 由事件中的 orderType 字串（不分大小寫）取得方向
+     */
+    public static OrderSide of(String orderType) {
+        if ("BUY".equalsIgnoreCase(orderType)) {
+            return BUY;
+        }
+        if ("SELL".equalsIgnoreCase(orderType)) {
+            return SELL;
+        }
+        throw new IllegalArgumentException("Unknown order type: " + orderType);
+    }
+
+    public static OrderSide fromCode(byte code) {
+        return switch (code) {
+            case 1 -> BUY;
+            case 2 -> SELL;
+            default -> throw new IllegalArgumentException("Unknown order side code: " + code);
+        };
+    }
+}
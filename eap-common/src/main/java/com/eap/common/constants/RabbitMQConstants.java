@@ -13,6 +13,8 @@ public class RabbitMQConstants {
     public static final String WALLET_MATCHED_QUEUE = "wallet.matched.queue";
     public static final String ODER_CANCEL_QUEUE = "order.cancel.queue";
     public static final String ORDER_FAILED_QUEUE = "order.failed.queue";  // 新增
+    public static final String WALLET_RELEASED_QUEUE = "wallet.released.queue";
+    public static final String ORDER_MATCHED_DLQ = "order.matched.dlq";  // 重試後仍無法送出的成交事件
 
     // Exchange 名稱
     public static final String ORDER_EXCHANGE = "order.exchange";
@@ -24,6 +26,17 @@ public class RabbitMQConstants {
     public static final String WALLET_MATCHED_KEY = "wallet.matched";
     public static final String ORDER_CANCEL_KEY = "order.cancel";
     public static final String ORDER_FAILED_KEY = "order.failed";  // 新增
+    public static final String ORDER_RELEASED_KEY = "order.released";  // 掛單到期等未成交移除，釋放錢包鎖定
+    public static final String ORDER_MATCHED_DLQ_KEY = "order.matched.dlq";
+
+    // 依標的分區撮合：consistent-hash exchange 依訊息 header 中的標的分配到各分區佇列
+    public static final String ORDER_CREATED_PARTITION_EXCHANGE = "order.created.partitioned";
+    public static final String ORDER_CREATED_PARTITION_QUEUE_PREFIX = "order.created.queue.p";
+    public static final String SYMBOL_HEADER = "symbol";
+
+    // 訂單簿價格層級增量（L2 delta）
+    public static final String ORDERBOOK_DELTA_KEY = "orderbook.delta";
+
     private RabbitMQConstants() {
         // 私有構造函數防止實例化
     }
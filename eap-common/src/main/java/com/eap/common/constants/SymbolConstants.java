@@ -0,0 +1,25 @@
+package com.eap.common.constants;
+
+/**
+ * 交易標的相關常量
+ * 每個標的（例如不同交割時段、不同區域的電力商品）各自擁有一本獨立的訂單簿
+ */
+public class SymbolConstants {
+
+    // 未指定標的時使用的預設標的
+    public static final String DEFAULT_SYMBOL = "ELC";
+
+    /**
+     * 正規化標的代碼：去除空白並轉為大寫，未指定時回傳預設標的
+     */
+    public static String normalize(String symbol) {
+        if (symbol == null || symbol.isBlank()) {
+            return DEFAULT_SYMBOL;
+        }
+        return symbol.trim().toUpperCase();
+    }
+
+    private SymbolConstants() {
+        // 私有構造函數防止實例化
+    }
+}
@@ -0,0 +1,64 @@
+package com.eap.common.constants;
+
+/**
+ * 訂單的有效方式（time in force）
+ * GTC：未成交部分入簿，直到成交、取消或到期（expireAt）為止，未指定時的預設值
+ * IOC：以限價立即撮合，未成交部分不入簿
+ * FOK：僅在對手方可全部成交時撮合，否則整筆不成交，不入簿
+ * MARKET：不限價立即撮合，未成交部分不入簿；買單仍以 price 為上限，即錢包依 price * amount 鎖定的金額
+ * 未入簿的剩餘數量由撮合引擎以 OrderReleasedEvent 通知錢包解除鎖定
+ */
+public enum TimeInForce {
+    GTC((byte) 0),
+    IOC((byte) 1),
+    FOK((byte) 2),
+    MARKET((byte) 3);
+
+    private final byte code;
+
+    TimeInForce(byte code) {
+        this.code = code;
+    }
+
+    public byte code() {
+        return code;
+    }
+
+    /**
+     * 未成交部分是否入簿
+     */
+    public boolean rests() {
+        return this == GTC;
+    }
+
+    /**
+     * 撮合時可接受的最差價格：市價賣單接受任何買價，其餘皆以訂單價格為限
+     */
+    public int limitPrice(boolean buy, int price) {
+        return this == MARKET && !buy ? 0 : price;
+    }
+
+    /**
+     * 由事件中的 timeInForce 字串（不分大小寫）取得有效方式，未指定時為 GTC
+     */
+    public static TimeInForce of(String timeInForce) {
+        if (timeInForce == null || timeInForce.isBlank()) {
+            return GTC;
+        }
+        for (TimeInForce value : values()) {
+            if (value.name().equalsIgnoreCase(timeInForce.trim())) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown time in force: " + timeInForce);
+    }
+
+    public static TimeInForce fromCode(byte code) {
+        for (TimeInForce value : values()) {
+            if (value.code == code) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Unknown time in force code: " + code);
+    }
+}
@@ -0,0 +1,113 @@
+package com.eap.common.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * 市場衝擊試算 DTO（跨服務通信用）
+ * 假設以市價送出指定方向與數量的訂單，依目前價格層級逐層試算的成交結果；不會異動訂單簿
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MarketQuoteDto {
+
+    /**
+     * 交易標的
+     */
+    private String symbol;
+
+    /**
+     * 試算的方向（BUY / SELL）
+     */
+    private String side;
+
+    /**
+     * 試算的數量
+     */
+    private Integer requestedAmount;
+
+    /**
+     * 目前流動性可成交的數量
+     */
+    private Integer filledAmount;
+
+    /**
+     * 是否可全部成交
+     */
+    private boolean fullyFilled;
+
+    /**
+     * 逐層成交明細（最佳價在前）
+     */
+    private List<QuoteFill> fills;
+
+    /**
+     * 成交均價（VWAP），無成交時為 null
+     */
+    private BigDecimal averagePrice;
+
+    /**
+     * 試算當下的最佳對手價
+     */
+    private Integer bestPrice;
+
+    /**
+     * 最差一筆的成交價
+     */
+    private Integer worstPrice;
+
+    /**
+     * 滑價：成交均價相對最佳對手價的不利差額（價格單位，恆 >= 0）
+     */
+    private BigDecimal slippage;
+
+    /**
+     * 滑價（基點，相對最佳對手價）
+     */
+    private BigDecimal slippageBps;
+
+    /**
+     * 無法試算時的原因
+     */
+    private String message;
+
+    /**
+     * 試算失敗（參數錯誤或無法讀取訂單簿）時的錯誤；有值時其餘欄位不代表目前的流動性
+     */
+    private String error;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class QuoteFill {
+        /**
+         * 成交價格
+         */
+        private Integer price;
+
+        /**
+         * 該價格可成交的數量
+         */
+        private Integer amount;
+    }
+
+    public static MarketQuoteDto failure(String symbol, String side, Integer requestedAmount, String message) {
+        return MarketQuoteDto.builder()
+                .symbol(symbol)
+                .side(side)
+                .requestedAmount(requestedAmount)
+                .filledAmount(0)
+                .fills(List.of())
+                .message(message)
+                .error(message)
+                .build();
+    }
+}
@@ -26,6 +26,26 @@ public class OrderBookResponseDto {
      * 賣盤數據 (價格從低到高)
      */
     private List<OrderBookLevel> asks;
+
+    /**
+     * 交易標的（快照端點才填）
+     */
+    private String symbol;
+
+    /**
+     * 撮合引擎增量序號的 epoch（快照端點才填）
+     */
+    private Long epoch;
+
+    /**
+     * 快照對應的增量序號，之後套用 sequence 大於此值的 OrderBookDeltaEvent（快照端點才填）
+     */
+    private Long sequence;
+
+    /**
+     * 快照前 N 層的 OrderBookChecksum（快照端點才填）
+     */
+    private Long checksum;
     
     @Data
     @Builder
@@ -1,5 +1,6 @@
 package com.eap.common.dto;
 
+import com.eap.common.constants.TimeInForce;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -7,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Data
 @NoArgsConstructor
@@ -33,6 +35,14 @@ public class PlaceOrderRequest {
     @JsonProperty("symbol")
     @Builder.Default
     private String symbol = "ELC";
+
+    // 有效期限（GTT），未指定則掛到成交或取消為止
+    @JsonProperty("expireAt")
+    private LocalDateTime expireAt;
+
+    // GTC / IOC / FOK，未指定為 GTC；type 為 MARKET 時一律以市價立即撮合
+    @JsonProperty("timeInForce")
+    private String timeInForce;
     
     // 便利方法
     public boolean isBuy() {
@@ -50,13 +60,33 @@ public class PlaceOrderRequest {
     public int getQtyAsInt() {
         return qty.intValue();
     }
+
+    public boolean isMarket() {
+        return "MARKET".equalsIgnoreCase(type);
+    }
+
+    /**
+     * 下單時實際使用的有效方式：市價單為 MARKET，其餘依 timeInForce
+     */
+    public String getEffectiveTimeInForce() {
+        return isMarket() ? TimeInForce.MARKET.name() : TimeInForce.of(timeInForce).name();
+    }
+
+    private boolean isValidTimeInForce() {
+        try {
+            return TimeInForce.of(timeInForce) != TimeInForce.MARKET;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
     
     // 驗證方法
     public boolean isValid() {
         return userId != null && !userId.trim().isEmpty() &&
                side != null && (isBuy() || isSell()) &&
                price != null && price.compareTo(BigDecimal.ZERO) > 0 &&
-               qty != null && qty.compareTo(BigDecimal.ZERO) > 0;
+               qty != null && qty.compareTo(BigDecimal.ZERO) > 0 &&
+               isValidTimeInForce();
     }
     
     public String getValidationError() {
@@ -72,6 +102,9 @@ public class PlaceOrderRequest {
         if (qty == null || qty.compareTo(BigDecimal.ZERO) <= 0) {
             return "數量必須大於0";
         }
+        if (!isValidTimeInForce()) {
+            return "timeInForce 必須是 GTC、IOC 或 FOK";
+        }
         return null;
     }
 }
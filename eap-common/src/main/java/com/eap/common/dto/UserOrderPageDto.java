@@ -0,0 +1,35 @@
+package com.eap.common.dto;
+
+import com.eap.common.event.OrderCreatedEvent;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 用戶掛單分頁 DTO（跨服務通信用）
+ * 掛單依 orderId 排序，以上一頁最後一筆的 orderId 作為游標取下一頁；翻頁期間新增或成交的掛單不會造成重複或跳頁
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserOrderPageDto {
+
+    /**
+     * 本頁掛單（依 orderId 排序）
+     */
+    private List<OrderCreatedEvent> orders;
+
+    /**
+     * 下一頁的游標，已是最後一頁時為 null
+     */
+    private String nextCursor;
+
+    /**
+     * 查詢當下該用戶的掛單總數
+     */
+    private Integer totalCount;
+}
@@ -0,0 +1,39 @@
+package com.eap.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 訂單簿價格層級增量（L2 delta）
+ * 撮合引擎每次新增、成交、取消改變價格層級時發出，changes 為變更後各層級的完整聚合值。
+ * 同一標的的 sequence 連續遞增；epoch 改變（撮合引擎重啟或分區換手）代表序號重新起算，
+ * 消費端遇到 epoch 改變、序號缺口或 checksum 不符時應重新取得快照。
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderBookDeltaEvent {
+    private String symbol;
+    private Long epoch;
+    private Long sequence;
+    private List<LevelChange> changes;
+    private Long checksum; // 套用後買賣雙方前 N 層的 OrderBookChecksum
+    private LocalDateTime timestamp;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class LevelChange {
+        private String side; // BUY or SELL
+        private Integer price;
+        private Integer amount; // 0 表示該價格層級已移除
+        private Integer orderCount;
+    }
+}
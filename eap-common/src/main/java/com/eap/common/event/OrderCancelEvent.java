@@ -13,4 +13,5 @@ import java.util.UUID;
 @Builder
 public class OrderCancelEvent {
   private UUID orderId;
+  private String symbol; // 可選；未帶時由撮合引擎依訂單查出
 }
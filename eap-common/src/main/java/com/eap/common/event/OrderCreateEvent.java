@@ -18,5 +18,8 @@ public class OrderCreateEvent {
   private Integer price;
   private Integer amount;
   private String orderType; // "BUY" or "SELL"
+  private String symbol; // 交易標的，未指定時為 SymbolConstants.DEFAULT_SYMBOL
   private LocalDateTime createdAt;
+  private LocalDateTime expireAt; // 掛單有效期限（GTT），null 表示掛到成交或取消為止
+  private String timeInForce; // GTC / IOC / FOK / MARKET，見 TimeInForce，null 視為 GTC
 }
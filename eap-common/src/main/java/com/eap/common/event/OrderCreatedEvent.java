@@ -19,7 +19,15 @@ public class OrderCreatedEvent {
     private Integer price;
     private Integer amount;  // 修正拼寫錯誤
     private String orderType;
+    private String symbol; // 交易標的，未指定時為 SymbolConstants.DEFAULT_SYMBOL
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSS")
     private LocalDateTime createdAt;
+
+    // 掛單有效期限（GTT），到期後由撮合引擎移除並發出 OrderReleasedEvent；null 表示掛到成交或取消為止
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSS")
+    private LocalDateTime expireAt;
+
+    // GTC / IOC / FOK / MARKET，見 TimeInForce，null 視為 GTC；非 GTC 的訂單未成交部分不入簿
+    private String timeInForce;
 }
@@ -0,0 +1,24 @@
+package com.eap.common.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * 批次取消某用戶的掛單，例如在集合競價截止前撤回全部委託
+ * 除 userId 外的條件皆為可選，未帶時不限制
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderMassCancelEvent {
+  private UUID userId;
+  private String symbol; // 未帶時取消所有標的
+  private String side; // BUY or SELL
+  private Integer minPrice; // 含
+  private Integer maxPrice; // 含
+}
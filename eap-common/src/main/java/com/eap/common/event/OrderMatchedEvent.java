@@ -22,4 +22,6 @@ public class OrderMatchedEvent {
     private Integer matchId;
     private LocalDateTime matchedAt;
     private String orderType; // BUY or SELL
+    private String symbol;
+    private Long sequence; // 撮合引擎輸入序號（啟用 sequencer 時才有值）
 }
@@ -0,0 +1,31 @@
+package com.eap.common.event;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 訂單未成交的剩餘數量已由撮合引擎移除（或不入簿），錢包據此解除鎖定
+ * 買單解鎖 price * amount 的貨幣，賣單解鎖 amount 的電量
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderReleasedEvent {
+    private UUID orderId;
+    private UUID userId;
+    private Integer price;
+    private Integer amount; // 移除時尚未成交的數量
+    private String orderType;
+    private String symbol;
+    private String reason; // EXPIRED：GTT 到期；UNFILLED：IOC / FOK / MARKET 未成交的部分；REJECTED：訂單驗證失敗，或成交後剩餘數量入簿失敗；OUT_OF_BAND：價格超出價格區間
+
+    @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSS")
+    private LocalDateTime releasedAt;
+}
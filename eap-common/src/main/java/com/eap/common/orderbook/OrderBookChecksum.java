@@ -0,0 +1,45 @@
+package com.eap.common.orderbook;
+
+import com.eap.common.dto.OrderBookResponseDto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * 訂單簿前 N 層的 checksum，撮合引擎與消費端以相同算法計算，用來確認本地訂單簿與引擎一致
+ * 內容為依序交錯的「買 i 價:買 i 量:賣 i 價:賣 i 量」（i 由最優價起，缺層略過）以 ':' 串接後的 CRC32
+ */
+public final class OrderBookChecksum {
+
+    private OrderBookChecksum() {
+    }
+
+    /**
+     * @param bids  買盤，價格由高至低
+     * @param asks  賣盤，價格由低至高
+     * @param depth 參與計算的層數
+     */
+    public static long compute(List<OrderBookResponseDto.OrderBookLevel> bids,
+                               List<OrderBookResponseDto.OrderBookLevel> asks, int depth) {
+        StringBuilder sb = new StringBuilder(depth * 24);
+        for (int i = 0; i < depth; i++) {
+            if (i < bids.size()) {
+                append(sb, bids.get(i));
+            }
+            if (i < asks.size()) {
+                append(sb, asks.get(i));
+            }
+        }
+        CRC32 crc = new CRC32();
+        crc.update(sb.toString().getBytes(StandardCharsets.US_ASCII));
+        return crc.getValue();
+    }
+
+    private static void append(StringBuilder sb, OrderBookResponseDto.OrderBookLevel level) {
+        if (!sb.isEmpty()) {
+            sb.append(':');
+        }
+        sb.append(level.getPrice()).append(':').append(level.getAmount());
+    }
+}
@@ -0,0 +1,160 @@
+package com.eap.common.codec;
+
+import com.eap.common.event.OrderCreateEvent;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMatchedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventBinaryCodecTest {
+
+    private final LocalDateTime createdAt = LocalDateTime.of(2026, 1, 1, 9, 30, 15, 123_456_789);
+    private final LocalDateTime expireAt = LocalDateTime.of(2026, 1, 1, 10, 0);
+
+    @Test
+    void testOrderCreateEvent_ShouldRoundTripAllFields() {
+        OrderCreateEvent event = OrderCreateEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .price(120)
+                .amount(7)
+                .orderType("BUY")
+                .symbol("ELC")
+                .createdAt(createdAt)
+                .expireAt(expireAt)
+                .timeInForce("IOC")
+                .build();
+
+        assertEquals(event, EventBinaryCodec.decode(EventBinaryCodec.encode(event)));
+    }
+
+    @Test
+    void testOrderCreateEvent_WithNullFields_ShouldDecodeNulls() {
+        OrderCreateEvent event = OrderCreateEvent.builder()
+                .userId(UUID.randomUUID())
+                .amount(3)
+                .orderType("SELL")
+                .build();
+
+        OrderCreateEvent decoded = (OrderCreateEvent) EventBinaryCodec.decode(EventBinaryCodec.encode(event));
+
+        assertEquals(event, decoded);
+        assertNull(decoded.getOrderId());
+        assertNull(decoded.getPrice());
+        assertNull(decoded.getTimeInForce());
+    }
+
+    @Test
+    void testOrderCreatedEvent_ShouldRoundTripAllFields() {
+        OrderCreatedEvent event = OrderCreatedEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .price(95)
+                .amount(12)
+                .orderType("SELL")
+                .symbol("電力")
+                .createdAt(createdAt)
+                .expireAt(expireAt)
+                .timeInForce("FOK")
+                .build();
+
+        assertEquals(event, EventBinaryCodec.decode(EventBinaryCodec.encode(event)));
+    }
+
+    @Test
+    void testOrderCreatedEvent_WithNullFields_ShouldDecodeNulls() {
+        OrderCreatedEvent event = new OrderCreatedEvent();
+
+        OrderCreatedEvent decoded = (OrderCreatedEvent) EventBinaryCodec.decode(EventBinaryCodec.encode(event));
+
+        assertEquals(event, decoded);
+        // 版本 + 種類 + 2 bytes 旗標
+        assertEquals(4, EventBinaryCodec.encode(event).length);
+    }
+
+    @Test
+    void testOrderMatchedEvent_ShouldRoundTripAllFields() {
+        OrderMatchedEvent event = OrderMatchedEvent.builder()
+                .buyerId(UUID.randomUUID())
+                .sellerId(UUID.randomUUID())
+                .originBuyerPrice(110)
+                .originSellerPrice(100)
+                .dealPrice(100)
+                .amount(4)
+                .matchId(42)
+                .matchedAt(createdAt)
+                .orderType("BUY")
+                .symbol("ELC")
+                .sequence(9_000_000_000L)
+                .build();
+
+        assertEquals(event, EventBinaryCodec.decode(EventBinaryCodec.encode(event)));
+    }
+
+    @Test
+    void testOrderMatchedEvent_WithNullFields_ShouldDecodeNulls() {
+        OrderMatchedEvent event = OrderMatchedEvent.builder()
+                .buyerId(UUID.randomUUID())
+                .dealPrice(100)
+                .amount(1)
+                .build();
+
+        OrderMatchedEvent decoded = (OrderMatchedEvent) EventBinaryCodec.decode(EventBinaryCodec.encode(event));
+
+        assertEquals(event, decoded);
+        assertNull(decoded.getSellerId());
+        assertNull(decoded.getSequence());
+    }
+
+    @Test
+    void testDecode_Version1OrderCreatedEvent_ShouldReadOneByteFlags() {
+        // Given：版本 1、OrderCreatedEvent、旗標 0x7D（orderId, price, amount, orderType, symbol, createdAt）
+        byte[] bytes = {
+                0x01, 0x02, 0x7D,
+                0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x01,
+                0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x02,
+                0x00, 0x00, 0x00, 0x64,
+                0x00, 0x00, 0x00, 0x05,
+                0x02,
+                0x03, 'E', 'L', 'C',
+                (byte) 0x18, (byte) 0x86, (byte) 0x72, (byte) 0x51, (byte) 0xED, (byte) 0xFA, (byte) 0x01, (byte) 0xF4
+        };
+
+        // When
+        Object decoded = EventBinaryCodec.decode(bytes);
+
+        // Then
+        OrderCreatedEvent event = assertInstanceOf(OrderCreatedEvent.class, decoded);
+        assertEquals(new UUID(1, 2), event.getOrderId());
+        assertNull(event.getUserId());
+        assertEquals(100, event.getPrice());
+        assertEquals(5, event.getAmount());
+        assertEquals("SELL", event.getOrderType());
+        assertEquals("ELC", event.getSymbol());
+        assertEquals(LocalDateTime.of(2026, 1, 1, 0, 0, 0, 500), event.getCreatedAt());
+        assertNull(event.getExpireAt());
+        assertNull(event.getTimeInForce());
+    }
+
+    @Test
+    void testDecode_UnknownVersion_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> EventBinaryCodec.decode(new byte[]{0x7F, 0x02, 0x00}));
+    }
+
+    @Test
+    void testSupports_ShouldOnlyAcceptOrderEvents() {
+        assertTrue(EventBinaryCodec.supports(OrderCreateEvent.class));
+        assertTrue(EventBinaryCodec.supports(OrderCreatedEvent.class));
+        assertTrue(EventBinaryCodec.supports(OrderMatchedEvent.class));
+        assertFalse(EventBinaryCodec.supports(String.class));
+    }
+}
@@ -0,0 +1,101 @@
+package com.eap.common.codec;
+
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMatchedEvent;
+import com.eap.common.event.OrderReleasedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConversionException;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventMessageConverterTest {
+
+    private final OrderCreatedEvent created = OrderCreatedEvent.builder()
+            .orderId(UUID.randomUUID())
+            .userId(UUID.randomUUID())
+            .price(100)
+            .amount(5)
+            .orderType("BUY")
+            .symbol("ELC")
+            .createdAt(LocalDateTime.of(2026, 1, 1, 9, 0, 0, 123_456_000))
+            .build();
+
+    @Test
+    void testToMessage_WithBinaryOutbound_ShouldEncodeSupportedEventsAsBinary() {
+        EventMessageConverter converter = converter(true);
+
+        Message message = converter.toMessage(created, new MessageProperties());
+
+        assertEquals(EventMessageConverter.CONTENT_TYPE, message.getMessageProperties().getContentType());
+        assertArrayEquals(EventBinaryCodec.encode(created), message.getBody());
+        assertEquals(created, converter.fromMessage(message));
+    }
+
+    @Test
+    void testToMessage_WithoutBinaryOutbound_ShouldUseJson() {
+        EventMessageConverter converter = converter(false);
+
+        Message message = converter.toMessage(created, new MessageProperties());
+
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, message.getMessageProperties().getContentType());
+        assertEquals(created, converter.fromMessage(message));
+    }
+
+    @Test
+    void testToMessage_UnsupportedEvent_ShouldUseJsonEvenWithBinaryOutbound() {
+        EventMessageConverter converter = converter(true);
+        OrderReleasedEvent released = OrderReleasedEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .price(100)
+                .amount(2)
+                .orderType("BUY")
+                .reason("EXPIRED")
+                .build();
+
+        Message message = converter.toMessage(released, new MessageProperties());
+
+        assertEquals(MessageProperties.CONTENT_TYPE_JSON, message.getMessageProperties().getContentType());
+        assertEquals(released, converter.fromMessage(message));
+    }
+
+    @Test
+    void testFromMessage_ShouldSelectDecoderByContentType() {
+        // Given：JSON 發送端與二進位發送端並存
+        OrderMatchedEvent matched = OrderMatchedEvent.builder()
+                .buyerId(UUID.randomUUID())
+                .sellerId(UUID.randomUUID())
+                .dealPrice(100)
+                .amount(3)
+                .orderType("SELL")
+                .build();
+        Message json = converter(false).toMessage(matched, new MessageProperties());
+        Message binary = converter(true).toMessage(matched, new MessageProperties());
+
+        // When / Then：同一個接收端依 content-type 解碼
+        EventMessageConverter consumer = converter(false);
+        assertEquals(matched, consumer.fromMessage(json));
+        assertEquals(matched, consumer.fromMessage(binary));
+    }
+
+    @Test
+    void testFromMessage_CorruptBinaryBody_ShouldThrowConversionException() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(EventMessageConverter.CONTENT_TYPE);
+
+        assertThrows(MessageConversionException.class,
+                () -> converter(false).fromMessage(new Message(new byte[]{EventBinaryCodec.VERSION}, properties)));
+    }
+
+    private EventMessageConverter converter(boolean binaryOutbound) {
+        return new EventMessageConverter(new Jackson2JsonMessageConverter("com.eap.common.event"), binaryOutbound);
+    }
+}
@@ -0,0 +1,137 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.constants.SymbolConstants;
+import com.eap.common.event.OrderCancelEvent;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMatchedEvent;
+import com.eap.eap_matchengine.configuration.constants.RedisKeyLayout;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 基準測試用的訂單簿：依後端（memory / redis）組出與正式環境相同的 MatchingEngineService 與 OrderBookEngine，
+ * 並鋪上指定形狀的買賣盤。
+ * 買盤由 {@link #BEST_BID} 往下、賣盤由 {@link #BEST_ASK} 往上各 levels 個價位，每個價位 ordersPerLevel 筆、每筆 {@link #ORDER_AMOUNT}。
+ * 成交事件只建立不發送（不需 RabbitMQ）；記憶體後端不寫回 Redis。
+ */
+final class BenchmarkBook implements AutoCloseable {
+
+    static final String SYMBOL = SymbolConstants.DEFAULT_SYMBOL;
+    static final int BEST_BID = 9_999;
+    static final int BEST_ASK = 10_000;
+    static final int ORDER_AMOUNT = 10;
+
+    private final BenchmarkRedis redis;
+    private final RedisOrderBookService redisOrderBookService;
+    private final RedisMarketDataService redisMarketDataService;
+    private final OrderBookEngine engine;
+    private final MatchingEngineService matchingEngineService;
+    private final int ordersPerLevel;
+
+    BenchmarkBook(String backend, int levels, int ordersPerLevel) throws IOException {
+        this.ordersPerLevel = ordersPerLevel;
+        OrderBookDeltaFeed deltaFeed = new OrderBookDeltaFeed(null, new MatchEngineProperties());
+        MatchEngineMetrics metrics = new MatchEngineMetrics(new SimpleMeterRegistry());
+        OrderReleasePublisher releasePublisher = new OrderReleasePublisher(null);
+        if ("redis".equals(backend)) {
+            redis = new BenchmarkRedis();
+            redisOrderBookService = new RedisOrderBookService(redis.template(), RedisKeyLayout.STANDALONE,
+                    RedisReadPool.shared(redis.template()));
+            redisMarketDataService = new RedisMarketDataService(redis.template(), RedisKeyLayout.STANDALONE,
+                    RedisReadPool.shared(redis.template()));
+            engine = new RedisOrderBookEngine(redisOrderBookService, redisMarketDataService, deltaFeed, metrics,
+                    releasePublisher);
+        } else {
+            redis = null;
+            redisOrderBookService = null;
+            redisMarketDataService = null;
+            engine = new InMemoryOrderBookEngine(null, new DiscardingPersister(),
+                    new StaticListableBeanFactory().getBeanProvider(OrderBookJournal.class), deltaFeed, metrics,
+                    new MatchEngineProperties(), releasePublisher);
+        }
+        // 基準訂單不帶期限，到期服務只需建立時間輪，不會啟動推進執行緒
+        OrderExpiryService expiryService = new OrderExpiryService(engine, null, null, new MatchEngineProperties());
+        matchingEngineService = new MatchingEngineService(engine, null, metrics,
+                new OrderBookGauges(engine, new SimpleMeterRegistry()), expiryService, releasePublisher,
+                new MatchClock());
+        for (int level = 0; level < levels; level++) {
+            refillLevel(true, BEST_BID - level);
+            refillLevel(false, BEST_ASK + level);
+        }
+    }
+
+    static OrderCreatedEvent order(boolean buy, int price, int amount) {
+        return OrderCreatedEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .price(price)
+                .amount(amount)
+                .orderType(buy ? "BUY" : "SELL")
+                .symbol(SYMBOL)
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    /**
+     * 撮合並建立成交事件，即 {@link MatchingEngineService#tryMatch} 扣除發送的部分
+     */
+    List<OrderMatchedEvent> match(OrderCreatedEvent order) {
+        return matchingEngineService.match(order, null);
+    }
+
+    boolean cancel(OrderCreatedEvent order) {
+        return engine.cancel(new OrderCancelEvent(order.getOrderId(), SYMBOL));
+    }
+
+    /**
+     * 在不交叉的價位補上一整個價位的掛單
+     */
+    void refillLevel(boolean buy, int price) {
+        for (int i = 0; i < ordersPerLevel; i++) {
+            engine.match(order(buy, price, ORDER_AMOUNT));
+        }
+    }
+
+    RedisOrderBookService redisOrderBookService() {
+        return redisOrderBookService;
+    }
+
+    RedisMarketDataService redisMarketDataService() {
+        return redisMarketDataService;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (redis != null) {
+            redis.close();
+        }
+    }
+
+    /**
+     * 記憶體後端的寫回全部丟棄，只量測撮合本身
+     */
+    private static final class DiscardingPersister extends AsyncOrderBookPersister {
+
+        DiscardingPersister() {
+            super(null);
+        }
+
+        @Override
+        public void persistAdd(OrderCreatedEvent snapshot) {
+        }
+
+        @Override
+        public void persistPartialFill(String symbol, UUID orderId, boolean buy, int matchedAmount) {
+        }
+
+        @Override
+        public void persistRemove(OrderCreatedEvent snapshot) {
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.eap.eap_matchengine.application;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * 基準測試用的本機 Redis：啟動 embedded-redis 內附的 redis-server（不需網路或 docker），
+ * 與正式環境執行相同的 Lua 腳本，量測結果可作為 Redis 後端的回歸基準。
+ */
+final class BenchmarkRedis implements AutoCloseable {
+
+    private final int port;
+    private final RedisServer server;
+    private final LettuceConnectionFactory connectionFactory;
+    private final StringRedisTemplate template;
+
+    BenchmarkRedis() throws IOException {
+        port = freePort();
+        server = new RedisServer(port);
+        server.start();
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration("localhost", port));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+        flush();
+    }
+
+    StringRedisTemplate template() {
+        return template;
+    }
+
+    int port() {
+        return port;
+    }
+
+    void flush() {
+        template.execute(connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        }, true);
+    }
+
+    @Override
+    public void close() throws IOException {
+        connectionFactory.destroy();
+        server.stop();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderCreatedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static com.eap.eap_matchengine.application.BenchmarkBook.*;
+
+/**
+ * MatchingEngineService 撮合路徑（不含成交事件發送）在不同訂單簿形狀下的成本。
+ * restAndCancel：不交叉的新單加入最佳買價的隊尾再取消，量測掛單與取消一來一回，訂單簿形狀維持不變。
+ * 吃單見 {@link SweepBenchmark}。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MatchingBenchmark {
+
+    @Param({"memory", "redis"})
+    public String backend;
+
+    @Param({"100", "1000"})
+    public int levels;
+
+    @Param({"1", "50"})
+    public int ordersPerLevel;
+
+    private BenchmarkBook book;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        book = new BenchmarkBook(backend, levels, ordersPerLevel);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        book.close();
+    }
+
+    @Benchmark
+    public boolean restAndCancel() {
+        OrderCreatedEvent order = order(true, BEST_BID, ORDER_AMOUNT);
+        book.match(order);
+        return book.cancel(order);
+    }
+}
@@ -0,0 +1,106 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.eap_matchengine.configuration.constants.RedisKeyLayout;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.eap.eap_matchengine.application.BenchmarkBook.*;
+
+/**
+ * 查詢風暴下的撮合延遲：queryThreads 條執行緒持續查詢一個有 makerOrders 筆掛單的用戶與超過快取深度的訂單簿，
+ * 同時量測「掛一筆賣單再以買單吃掉」的撮合往返（SampleTime 的 p0.99 / p0.999 即撮合尾端延遲）。
+ * shared 時查詢與撮合共用同一條連線，dedicated 時查詢走 {@link RedisReadPool} 的獨立連線池。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class QueryIsolationBenchmark {
+
+    private static final int QUERY_DEPTH = 500;
+
+    @Param({"shared", "dedicated"})
+    public String readPool;
+
+    @Param({"0", "8"})
+    public int queryThreads;
+
+    @Param({"2000"})
+    public int makerOrders;
+
+    private BenchmarkRedis redis;
+    private RedisReadPool pool;
+    private RedisOrderBookService orderBookService;
+    private RedisMarketDataService marketDataService;
+    private final List<Thread> queries = new ArrayList<>();
+    private volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        redis = new BenchmarkRedis();
+        pool = "dedicated".equals(readPool) ? dedicatedPool() : RedisReadPool.shared(redis.template());
+        orderBookService = new RedisOrderBookService(redis.template(), RedisKeyLayout.STANDALONE, pool);
+        marketDataService = new RedisMarketDataService(redis.template(), RedisKeyLayout.STANDALONE, pool);
+        UUID maker = UUID.randomUUID();
+        for (int i = 0; i < makerOrders; i++) {
+            OrderCreatedEvent bid = order(true, BEST_BID - i % QUERY_DEPTH, ORDER_AMOUNT);
+            bid.setUserId(maker);
+            orderBookService.addOrder(bid);
+        }
+        running = true;
+        for (int i = 0; i < queryThreads; i++) {
+            Thread query = new Thread(() -> {
+                while (running) {
+                    orderBookService.getOrderByUserId(maker);
+                    marketDataService.getOrderBookData(SYMBOL, QUERY_DEPTH);
+                }
+            }, "query-storm-" + i);
+            query.setDaemon(true);
+            query.start();
+            queries.add(query);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException, InterruptedException {
+        running = false;
+        for (Thread query : queries) {
+            query.join();
+        }
+        pool.close();
+        redis.close();
+    }
+
+    @Benchmark
+    public List<MatchFill> restAndMatch() {
+        orderBookService.addOrder(order(false, BEST_ASK, ORDER_AMOUNT));
+        return orderBookService.sweepMatch(SYMBOL, true, BEST_ASK, ORDER_AMOUNT);
+    }
+
+    private RedisReadPool dedicatedPool() {
+        RedisProperties redisProperties = new RedisProperties();
+        redisProperties.setHost("localhost");
+        redisProperties.setPort(redis.port());
+        MatchEngineProperties properties = new MatchEngineProperties();
+        properties.getRedis().getReadPool().setEnabled(true);
+        return new RedisReadPool(redis.template(), redisProperties, properties, new SimpleMeterRegistry());
+    }
+}
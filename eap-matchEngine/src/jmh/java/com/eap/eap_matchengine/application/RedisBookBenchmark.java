@@ -0,0 +1,83 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.dto.OrderBookResponseDto;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.eap.eap_matchengine.application.BenchmarkBook.*;
+
+/**
+ * RedisOrderBookService 各操作與 RedisMarketDataService.getOrderBookData 的單次往返成本（embedded Redis）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RedisBookBenchmark {
+
+    @Param({"100", "1000"})
+    public int levels;
+
+    @Param({"1", "50"})
+    public int ordersPerLevel;
+
+    @Param({"10", "50"})
+    public int depth;
+
+    private BenchmarkBook book;
+    private RedisOrderBookService orderBookService;
+    private RedisMarketDataService marketDataService;
+    private String restingOrderId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        book = new BenchmarkBook("redis", levels, ordersPerLevel);
+        orderBookService = book.redisOrderBookService();
+        marketDataService = book.redisMarketDataService();
+        OrderCreatedEvent resting = order(true, BEST_BID - levels / 2, ORDER_AMOUNT);
+        orderBookService.addOrder(resting);
+        restingOrderId = resting.getOrderId().toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        book.close();
+    }
+
+    @Benchmark
+    public OrderCreatedEvent addAndRemoveOrder() {
+        OrderCreatedEvent order = order(false, BEST_ASK + levels / 2, ORDER_AMOUNT);
+        orderBookService.addOrder(order);
+        orderBookService.removeOrder(order);
+        return order;
+    }
+
+    @Benchmark
+    public List<MatchFill> sweepMatchWithoutCross() {
+        // 腳本走訪到第一個價位即停止，量測 EVALSHA 往返的固定成本
+        return orderBookService.sweepMatch(SYMBOL, true, BEST_ASK - 1, ORDER_AMOUNT);
+    }
+
+    @Benchmark
+    public OrderCreatedEvent getOrder() {
+        return orderBookService.getOrder(SYMBOL, restingOrderId);
+    }
+
+    @Benchmark
+    public OrderBookResponseDto getOrderBookData() {
+        return marketDataService.getOrderBookData(SYMBOL, depth);
+    }
+}
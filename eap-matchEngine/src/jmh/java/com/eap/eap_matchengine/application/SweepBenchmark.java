@@ -0,0 +1,66 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderMatchedEvent;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.eap.eap_matchengine.application.BenchmarkBook.*;
+
+/**
+ * 大單一次吃掉賣盤前 sweepLevels 個價位（每個價位 ordersPerLevel 筆全部成交）的撮合成本。
+ * 被吃掉的價位在每次呼叫後補回，補單不計入量測。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SweepBenchmark {
+
+    @Param({"memory", "redis"})
+    public String backend;
+
+    @Param({"1000"})
+    public int levels;
+
+    @Param({"1", "50"})
+    public int ordersPerLevel;
+
+    @Param({"1", "10"})
+    public int sweepLevels;
+
+    private BenchmarkBook book;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        book = new BenchmarkBook(backend, levels, ordersPerLevel);
+    }
+
+    @TearDown(Level.Invocation)
+    public void refill() {
+        for (int level = 0; level < sweepLevels; level++) {
+            book.refillLevel(false, BEST_ASK + level);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        book.close();
+    }
+
+    @Benchmark
+    public List<OrderMatchedEvent> sweep() {
+        int amount = sweepLevels * ordersPerLevel * ORDER_AMOUNT;
+        return book.match(order(true, BEST_ASK + sweepLevels - 1, amount));
+    }
+}
@@ -0,0 +1,95 @@
+package com.eap.eap_matchengine.domain.book;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 撮合迴圈每次撮合的配置量：pooled 寫入重複使用的 {@link FillBuffer}，allocating 為每次撮合建立新的成交串列。
+ * 賣盤 8 個價位各 8 筆近乎無限量的掛單，買單每次吃最佳價一筆，吃完把數量加回去重複使用，訂單簿形狀不變。
+ * 以 -prof gc 觀察 gc.alloc.rate.norm（./gradlew :eap-matchEngine:jmh -PjmhIncludes=MatchAllocationBenchmark -PjmhProfilers=gc）；
+ * 直接執行 {@link #main} 會帶 GC profiler 跑 pooled，每次撮合配置超過 {@link #MAX_BYTES_PER_MATCH} bytes 即失敗；
+ * 同樣的上限由 FillBufferAllocationTest 在 ./gradlew test 中檢查。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MatchAllocationBenchmark {
+
+    static final double MAX_BYTES_PER_MATCH = 1.0;
+    private static final int TAKER_AMOUNT = 10;
+
+    @Param({"pooled", "allocating"})
+    public String fills;
+
+    private OrderBook book;
+    private RestingOrder taker;
+    private FillBuffer buffer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID userId = UUID.randomUUID();
+        book = new OrderBook();
+        for (int level = 0; level < 8; level++) {
+            for (int i = 0; i < 8; i++) {
+                book.add(new RestingOrder(UUID.randomUUID(), userId, "ELC", 10_000 + level, Integer.MAX_VALUE, false, now));
+            }
+        }
+        taker = new RestingOrder(UUID.randomUUID(), userId, "ELC", 20_000, TAKER_AMOUNT, true, now);
+        buffer = new FillBuffer();
+    }
+
+    @Benchmark
+    public int match() {
+        int filled;
+        if ("pooled".equals(fills)) {
+            buffer.clear();
+            book.match(taker, buffer);
+            filled = buffer.size();
+        } else {
+            filled = book.match(taker).size();
+        }
+        // 把買單數量重設回原量，下一次撮合重複使用同一筆
+        taker.resetRemaining(TAKER_AMOUNT);
+        return filled;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        RunResult result = new Runner(new OptionsBuilder()
+                .include(MatchAllocationBenchmark.class.getSimpleName())
+                .param("fills", "pooled")
+                .addProfiler(GCProfiler.class)
+                .forks(1)
+                .warmupIterations(2)
+                .measurementIterations(3)
+                .build()).runSingle();
+        double bytesPerMatch = Double.NaN;
+        for (Map.Entry<String, Result> entry : result.getSecondaryResults().entrySet()) {
+            if (entry.getKey().endsWith("gc.alloc.rate.norm")) {
+                bytesPerMatch = entry.getValue().getScore();
+            }
+        }
+        if (!(bytesPerMatch <= MAX_BYTES_PER_MATCH)) {
+            throw new IllegalStateException("Pooled matching allocated " + bytesPerMatch + " bytes per match");
+        }
+        System.out.printf("Pooled matching allocated %.3f bytes per match%n", bytesPerMatch);
+    }
+}
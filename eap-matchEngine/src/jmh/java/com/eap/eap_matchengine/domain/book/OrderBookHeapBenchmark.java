@@ -0,0 +1,59 @@
+package com.eap.eap_matchengine.domain.book;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1M 筆掛單的訂單簿在 GC 後實際佔用的 heap，以 bytesPerOrder 輔助計數器回報（另附建簿時間）。
+ * 訂單以原始型別保存 UUID 與時間、以 {@link OrderIndex} 依 id 索引之前，同樣的訂單簿約為每筆 216 bytes。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class OrderBookHeapBenchmark {
+
+    private static final int RESTING_ORDERS = 1_000_000;
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class HeapCounters {
+        public long bytesPerOrder;
+    }
+
+    @Benchmark
+    public OrderBook buildBook(HeapCounters counters) {
+        long before = usedHeap();
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        OrderBook book = new OrderBook();
+        for (int i = 0; i < RESTING_ORDERS; i++) {
+            boolean buy = (i & 1) == 0;
+            int price = buy ? 900 + random.nextInt(100) : 1001 + random.nextInt(100);
+            book.add(new RestingOrder(UUID.randomUUID(), UUID.randomUUID(), "ELC", price,
+                    1 + random.nextInt(100), buy, now.plusNanos(i)));
+        }
+        counters.bytesPerOrder = (usedHeap() - before) / RESTING_ORDERS;
+        return book;
+    }
+
+    private long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return memory.getHeapMemoryUsage().getUsed();
+    }
+}
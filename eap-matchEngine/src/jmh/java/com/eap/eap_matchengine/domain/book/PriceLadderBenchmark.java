@@ -0,0 +1,105 @@
+package com.eap.eap_matchengine.domain.book;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 排序 map 與陣列索引（階層式 bitset）兩種價格階梯的比較，價格區間 0-20000。
+ * random：買賣價在各自半邊均勻分佈，價格層級稀疏；clustered：集中在中間價附近（常態分佈，標準差 25 檔）。
+ * 訂單簿維持固定掛單數，以新單替換最舊的掛單，涵蓋價格層級的新增、移除與最佳價重算。
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PriceLadderBenchmark {
+
+    private static final int MIN_PRICE = 0;
+    private static final int MAX_PRICE = 20_000;
+    private static final int MID_PRICE = 10_000;
+    private static final int PRICES = 1 << 16;
+
+    @Param({"tree", "array"})
+    public String ladder;
+
+    @Param({"random", "clustered"})
+    public String distribution;
+
+    @Param({"10000"})
+    public int restingOrders;
+
+    private OrderBook book;
+    private RestingOrder[] resting;
+    private int[] prices;
+    private boolean[] sides;
+    private LocalDateTime now;
+    private long cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        book = "array".equals(ladder) ? new OrderBook(MIN_PRICE, MAX_PRICE) : new OrderBook();
+        Random random = new Random(42);
+        prices = new int[PRICES];
+        sides = new boolean[PRICES];
+        for (int i = 0; i < PRICES; i++) {
+            sides[i] = random.nextBoolean();
+            prices[i] = price(random, sides[i]);
+        }
+        now = LocalDateTime.now();
+        resting = new RestingOrder[restingOrders];
+        for (int i = 0; i < restingOrders; i++) {
+            resting[i] = newOrder();
+            book.add(resting[i]);
+        }
+    }
+
+    private int price(Random random, boolean buy) {
+        // 與中間價的距離 1..MID_PRICE，買賣價不交叉
+        int offset = "clustered".equals(distribution)
+                ? 1 + (int) Math.min(MID_PRICE - 1, Math.abs(random.nextGaussian() * 25))
+                : 1 + random.nextInt(MID_PRICE);
+        return buy ? MID_PRICE - offset : MID_PRICE + offset;
+    }
+
+    private RestingOrder newOrder() {
+        int i = (int) (cursor++ & (PRICES - 1));
+        return new RestingOrder(new UUID(0, cursor), new UUID(1, cursor), "ELC", prices[i], 10, sides[i], now);
+    }
+
+    /**
+     * 移除最舊的掛單並新增一筆
+     */
+    @Benchmark
+    public RestingOrder replaceOldest() {
+        int slot = (int) (cursor % restingOrders);
+        book.remove(resting[slot].getOrderId());
+        RestingOrder order = newOrder();
+        book.add(order);
+        resting[slot] = order;
+        return order;
+    }
+
+    /**
+     * 讀取買賣各 10 檔
+     */
+    @Benchmark
+    public void topLevels(Blackhole blackhole) {
+        List<PriceLevel> bids = book.levels(true, 10);
+        List<PriceLevel> asks = book.levels(false, 10);
+        blackhole.consume(bids);
+        blackhole.consume(asks);
+    }
+}
@@ -0,0 +1,89 @@
+package com.eap.eap_matchengine.journal;
+
+import com.eap.eap_matchengine.domain.book.OrderBook;
+import com.eap.eap_matchengine.domain.book.RestingOrder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 啟動恢復時間：1M 筆掛單的快照加上不同長度的 journal 尾端。
+ * 對照組為 book-backend=memory 未開 journal 時從 Redis 逐筆 HGETALL 重建（需實際 Redis，不在此量測）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RecoveryBenchmark {
+
+    private static final int RESTING_ORDERS = 1_000_000;
+    private static final int SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    @Param({"0", "100000", "1000000"})
+    public int tailEvents;
+
+    private Path directory;
+    private BookSnapshotStore snapshots;
+    private MappedJournal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("recovery-benchmark");
+        journal = new MappedJournal(directory, SEGMENT_SIZE);
+        snapshots = new BookSnapshotStore(directory, 1);
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+
+        // 買價 900-999、賣價 1001-1100，互不交叉
+        OrderBook book = new OrderBook();
+        for (int i = 0; i < RESTING_ORDERS; i++) {
+            boolean buy = (i & 1) == 0;
+            int price = buy ? 900 + random.nextInt(100) : 1001 + random.nextInt(100);
+            book.add(new RestingOrder(UUID.randomUUID(), UUID.randomUUID(), "ELC", price, 1 + random.nextInt(100), buy, now));
+        }
+        snapshots.write(0, List.of(BookSnapshotStore.capture("ELC", 0, book)));
+
+        // 尾端混合會成交與不成交的新訂單
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        for (int i = 0; i < tailEvents; i++) {
+            boolean buy = random.nextBoolean();
+            int price = buy ? 950 + random.nextInt(100) : 951 + random.nextInt(100);
+            buffer.clear();
+            JournalCodec.encodeCreate(buffer, new RestingOrder(UUID.randomUUID(), UUID.randomUUID(), "ELC", price,
+                    1 + random.nextInt(100), buy, now));
+            journal.append(MappedJournal.CREATE, buffer.flip());
+        }
+        journal.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public OrderBookRecovery.Result recover() throws IOException {
+        return OrderBookRecovery.recover(snapshots, journal);
+    }
+}
@@ -0,0 +1,89 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderCreatedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 非同步將記憶體訂單簿的變更寫回 Redis
+ * 使用單一執行緒依序套用，確保寫入順序與撮合順序一致；
+ * 查詢類 API（用戶訂單、訂單簿深度）仍讀取 Redis，因此為最終一致
+ */
+@Component
+@ConditionalOnProperty(prefix = "eap.match-engine", name = "book-backend", havingValue = "memory")
+@RequiredArgsConstructor
+@Slf4j
+public class AsyncOrderBookPersister {
+
+    private final RedisOrderBookService redisOrderBookService;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "orderbook-persister");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 寫入一筆新掛單
+     *
+     * @param snapshot 訂單快照，呼叫端不可再修改
+     */
+    public void persistAdd(OrderCreatedEvent snapshot) {
+        executor.execute(() -> {
+            try {
+                redisOrderBookService.addOrder(snapshot);
+            } catch (Exception e) {
+                log.error("寫入 Redis 訂單簿失敗: {}", snapshot.getOrderId(), e);
+            }
+        });
+    }
+
+    /**
+     * 套用部分成交：以 HINCRBY 原地扣減剩餘數量
+     *
+     * @param symbol 交易標的
+     * @param orderId 掛單 ID
+     * @param buy 是否為買單
+     * @param matchedAmount 本次成交數量
+     */
+    public void persistPartialFill(String symbol, UUID orderId, boolean buy, int matchedAmount) {
+        executor.execute(() -> {
+            try {
+                redisOrderBookService.decreaseAmount(symbol, orderId, buy, matchedAmount);
+            } catch (Exception e) {
+                log.error("更新 Redis 訂單剩餘數量失敗: {}", orderId, e);
+            }
+        });
+    }
+
+    /**
+     * 移除一筆已完全成交或已取消的掛單
+     *
+     * @param snapshot 訂單快照，呼叫端不可再修改
+     */
+    public void persistRemove(OrderCreatedEvent snapshot) {
+        executor.execute(() -> {
+            try {
+                redisOrderBookService.removeOrder(snapshot);
+            } catch (Exception e) {
+                log.error("從 Redis 訂單簿移除失敗: {}", snapshot.getOrderId(), e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Redis 訂單簿持久化佇列未在時限內清空");
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderCancelEvent;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMassCancelEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Matches on the calling thread.
+ * Concurrent callers are serialized by the book backend itself (Lua scripts or a monitor).
+ */
+@Component
+@ConditionalOnProperty(prefix = "eap.match-engine.sequencer", name = "enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class DirectOrderIntake implements OrderIntake {
+
+  private final MatchingEngineService matchingEngineService;
+  private final OrderBookEngine orderBookEngine;
+
+  @Override
+  public CompletableFuture<Void> submit(OrderCreatedEvent incomingOrder) {
+    matchingEngineService.tryMatch(incomingOrder);
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public CompletableFuture<Void> submitAll(List<OrderCreatedEvent> incomingOrders) {
+    matchingEngineService.tryMatchBatch(incomingOrders);
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public CompletableFuture<Boolean> cancel(OrderCancelEvent event) {
+    return CompletableFuture.completedFuture(orderBookEngine.cancel(event));
+  }
+
+  @Override
+  public CompletableFuture<List<UUID>> massCancel(OrderMassCancelEvent event) {
+    return CompletableFuture.completedFuture(orderBookEngine.massCancel(event));
+  }
+
+  @Override
+  public CompletableFuture<List<OrderCreatedEvent>> expire(String symbol, List<UUID> orderIds) {
+    return CompletableFuture.completedFuture(orderBookEngine.expire(symbol, orderIds));
+  }
+}
@@ -0,0 +1,471 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.constants.SymbolConstants;
+import com.eap.common.dto.MarketQuoteDto;
+import com.eap.common.dto.OrderBookResponseDto;
+import com.eap.common.event.OrderBookDeltaEvent;
+import com.eap.common.event.OrderCancelEvent;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMassCancelEvent;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import com.eap.eap_matchengine.domain.book.BookSummary;
+import com.eap.eap_matchengine.domain.book.FillBuffer;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import com.eap.eap_matchengine.domain.book.OrderBook;
+import com.eap.eap_matchengine.domain.book.PriceLevel;
+import com.eap.eap_matchengine.domain.book.RestingOrder;
+import com.eap.eap_matchengine.journal.OrderBookRecovery;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order book backend that matches entirely in memory.
+ * Every book mutation is mirrored to Redis through {@link AsyncOrderBookPersister},
+ * which keeps the existing {@link RedisOrderBookService} layout as the persistence/snapshot target.
+ * Each symbol has its own book; operations on one book are serialized by locking that book,
+ * so different symbols can be matched concurrently (e.g. by separate sequencer lanes).
+ * A symbol with a configured price band keeps its levels in array-indexed ladders instead of sorted maps;
+ * a resting order priced outside the band is rejected and released to the wallet without matching.
+ * On startup the books are rebuilt from Redis, or, when {@link OrderBookJournal} is enabled,
+ * from the latest snapshot plus the journal tail written after it.
+ */
+@Service
+@ConditionalOnProperty(prefix = "eap.match-engine", name = "book-backend", havingValue = "memory")
+@RequiredArgsConstructor
+@Slf4j
+public class InMemoryOrderBookEngine implements OrderBookEngine {
+
+  private final RedisOrderBookService redisOrderBookService;
+  private final AsyncOrderBookPersister persister;
+  private final ObjectProvider<OrderBookJournal> journalProvider;
+  private final OrderBookDeltaFeed deltaFeed;
+  private final MatchEngineMetrics metrics;
+  private final MatchEngineProperties properties;
+  private final OrderReleasePublisher orderReleasePublisher;
+  private final Map<String, OrderBook> books = new ConcurrentHashMap<>();
+  // 由 journal 重播恢復的訂單與重播得出的成交；其 order.created 訊息在成交確認送出（ack）前當機而被重送時，
+  // 不可再撮合一次，改為回傳這些成交讓它們補發出去。重送後移除，未重送的在 recovered-fills-retention 後整批丟棄
+  private final Map<UUID, List<MatchFill>> recoveredFills = new ConcurrentHashMap<>();
+  // matching.pooled-fills 開啟時每個撮合執行緒重複使用的成交緩衝區
+  private final ThreadLocal<FillBuffer> fillBuffers = ThreadLocal.withInitial(FillBuffer::new);
+  private OrderBookJournal journal;
+
+  /**
+   * Rebuilds the in-memory books, from the journal when it is enabled and has content, otherwise from Redis.
+   */
+  @PostConstruct
+  public void restore() {
+    journal = journalProvider.getIfAvailable();
+    if (journal == null) {
+      restoreFromRedis();
+      return;
+    }
+    OrderBookRecovery.Result result = journal.recover(this::newBook);
+    if (!result.isFromSnapshot() && result.getReplayed() == 0) {
+      // 尚未有 journal 內容：從 Redis 重建後立即建立第一個快照作為重播起點
+      restoreFromRedis();
+      journal.snapshot(books);
+    } else {
+      books.putAll(result.getBooks());
+      recoveredFills.putAll(result.getTakerFills());
+      // 重播期間異動的訂單可能尚未寫回 Redis，以恢復後的狀態覆寫
+      for (RestingOrder order : result.getTouched()) {
+        recoveredFills.putIfAbsent(order.getOrderId(), List.of());
+        if (order.isResting()) {
+          persister.persistAdd(order.toEvent());
+        } else {
+          persister.persistRemove(order.toEvent());
+        }
+      }
+    }
+    journal.scheduleSnapshots(this::snapshot);
+  }
+
+  /**
+   * Drops the recovered fills once the retention after startup has passed. Orders left unacknowledged by the
+   * crash are redelivered as soon as the listeners start, so the fills of orders not redelivered by then were
+   * already confirmed and are never needed.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void scheduleRecoveredFillsEviction() {
+    if (recoveredFills.isEmpty()) {
+      return;
+    }
+    Duration retention = properties.getJournal().getRecoveredFillsRetention();
+    CompletableFuture.delayedExecutor(retention.toMillis(), TimeUnit.MILLISECONDS).execute(this::evictRecoveredFills);
+  }
+
+  void evictRecoveredFills() {
+    int dropped = recoveredFills.size();
+    recoveredFills.clear();
+    if (dropped > 0) {
+      log.info("Dropped the journaled fills of {} recovered order(s) that were not redelivered", dropped);
+    }
+  }
+
+  /**
+   * Writes a snapshot of all books to the journal directory; no-op when the journal is disabled.
+   */
+  public void snapshot() {
+    if (journal != null) {
+      journal.snapshot(books);
+    }
+  }
+
+  /**
+   * Takes a final snapshot so the next start replays nothing.
+   */
+  @PreDestroy
+  public void shutdown() {
+    snapshot();
+  }
+
+  private void restoreFromRedis() {
+    List<OrderCreatedEvent> orders = redisOrderBookService.getRestingOrders();
+    for (OrderCreatedEvent order : orders) {
+      RestingOrder restingOrder = RestingOrder.from(order);
+      OrderBook book = book(restingOrder.getSymbol());
+      synchronized (book) {
+        book.add(restingOrder);
+      }
+    }
+    log.info("Restored {} resting orders of {} symbol(s) from Redis into the in-memory order books",
+        orders.size(), books.size());
+  }
+
+  @Override
+  public List<MatchFill> match(OrderCreatedEvent incomingOrder) {
+    RestingOrder taker = RestingOrder.from(incomingOrder);
+    List<MatchFill> recovered = recoveredFills.isEmpty() ? null : recoveredFills.remove(taker.getOrderId());
+    if (recovered != null) {
+      log.warn("Order {} redelivered after recovery, returning its {} journaled fill(s) without matching again",
+          taker.getOrderId(), recovered.size());
+      // 剩餘數量已在原本的撮合中入簿或解除鎖定，這次只補發成交
+      incomingOrder.setAmount(0);
+      return recovered;
+    }
+    OrderBook book = book(taker.getSymbol());
+    if (taker.getTimeInForce().rests() && !book.accepts(taker.getPrice())) {
+      log.warn("Rejecting order {}: price {} is outside the price band of {}",
+          taker.getOrderId(), taker.getPrice(), taker.getSymbol());
+      // 價格無法入簿的掛單不撮合，整筆解除鎖定
+      orderReleasePublisher.publish(List.of(incomingOrder), OrderReleasePublisher.REASON_OUT_OF_BAND);
+      incomingOrder.setAmount(0);
+      return List.of();
+    }
+    List<MatchFill> fills;
+    synchronized (book) {
+      long sequence = journal != null ? journal.appendCreate(taker) : 0;
+      long bookStart = System.nanoTime();
+      fills = matchInBook(book, taker);
+      metrics.stage(MatchEngineMetrics.Stage.BOOK).record(System.nanoTime() - bookStart, TimeUnit.NANOSECONDS);
+      // 訂單簿已異動：之後的失敗不拋出，保留已產生的成交，未能入簿的剩餘數量解除鎖定
+      try {
+        completeMatch(book, taker, fills, sequence);
+      } catch (RuntimeException e) {
+        log.error("Failed to complete order {} after {} fill(s)", taker.getOrderId(), fills.size(), e);
+        if (!taker.isResting() && taker.getRemaining() > 0 && taker.getTimeInForce().rests()) {
+          incomingOrder.setAmount(taker.getRemaining());
+          orderReleasePublisher.publish(List.of(incomingOrder), OrderReleasePublisher.REASON_REJECTED);
+          incomingOrder.setAmount(0);
+          return fills;
+        }
+      }
+      if (deltaFeed.isEnabled()) {
+        try {
+          emitDeltas(taker.getSymbol(), book, !taker.isBuy(), fills, taker.isResting() ? taker : null);
+        } catch (RuntimeException e) {
+          // 訂單簿已更新，消費端由下一筆增量的 checksum 發現差異後重新同步
+          log.error("Failed to emit order book delta for {}", taker.getSymbol(), e);
+        }
+      }
+    }
+    incomingOrder.setAmount(taker.getRemaining());
+    return fills;
+  }
+
+  /**
+   * Journals the fills, mirrors the maker changes to Redis and rests the taker's remainder; called under the
+   * book lock after {@link #matchInBook}.
+   */
+  private void completeMatch(OrderBook book, RestingOrder taker, List<MatchFill> fills, long sequence) {
+    if (journal != null) {
+      journal.appendFills(taker, fills);
+      book.setSequence(sequence);
+    }
+    for (MatchFill fill : fills) {
+      RestingOrder maker = fill.getMaker();
+      if (fill.getMakerRemaining() > 0) {
+        persister.persistPartialFill(maker.getSymbol(), maker.getOrderId(), maker.isBuy(), fill.getAmount());
+      } else {
+        persister.persistRemove(maker.toEvent());
+      }
+    }
+    if (taker.getRemaining() > 0 && taker.getTimeInForce().rests()) {
+      long restStart = System.nanoTime();
+      book.add(taker);
+      persister.persistAdd(taker.toEvent());
+      metrics.stage(MatchEngineMetrics.Stage.REST).record(System.nanoTime() - restStart, TimeUnit.NANOSECONDS);
+      if (log.isDebugEnabled()) {
+        log.debug("Rested order {} on {} with remaining amount {}", taker.getOrderId(), taker.getSymbol(), taker.getRemaining());
+      }
+    }
+  }
+
+  /**
+   * Matches into this thread's reusable buffer when fills are pooled; the returned fills are then only valid
+   * until the next match on the same thread, which is how {@link MatchingEngineService} consumes them.
+   */
+  private List<MatchFill> matchInBook(OrderBook book, RestingOrder taker) {
+    if (!properties.getMatching().isPooledFills()) {
+      return book.match(taker);
+    }
+    FillBuffer buffer = fillBuffers.get();
+    buffer.clear();
+    book.match(taker, buffer);
+    return buffer;
+  }
+
+  @Override
+  public boolean cancel(OrderCancelEvent event) {
+    String symbol = SymbolConstants.normalize(event.getSymbol());
+    OrderBook book = books.get(symbol);
+    if (book == null) {
+      return false;
+    }
+    RestingOrder removed;
+    synchronized (book) {
+      if (book.get(event.getOrderId()) == null) {
+        return false;
+      }
+      if (journal != null) {
+        book.setSequence(journal.appendCancel(symbol, event.getOrderId()));
+      }
+      removed = book.remove(event.getOrderId());
+      persister.persistRemove(removed.toEvent());
+      if (deltaFeed.isEnabled()) {
+        emitDeltas(symbol, book, removed.isBuy(), List.of(), removed);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Scans the symbol's book under its lock; the in-memory book keeps no per-user index,
+   * so the cost grows with the size of the book rather than with the user's order count.
+   */
+  @Override
+  public List<UUID> massCancel(OrderMassCancelEvent event) {
+    String symbol = SymbolConstants.normalize(event.getSymbol());
+    OrderBook book = books.get(symbol);
+    if (book == null) {
+      return List.of();
+    }
+    List<UUID> cancelled = new ArrayList<>();
+    synchronized (book) {
+      List<RestingOrder> targets = new ArrayList<>();
+      book.forEachOrder(order -> {
+        if (matches(event, order)) {
+          targets.add(order);
+        }
+      });
+      for (RestingOrder order : removeAll(symbol, book, targets)) {
+        cancelled.add(order.getOrderId());
+      }
+    }
+    return cancelled;
+  }
+
+  @Override
+  public List<OrderCreatedEvent> expire(String symbol, Collection<UUID> orderIds) {
+    OrderBook book = books.get(symbol);
+    if (book == null) {
+      return List.of();
+    }
+    List<OrderCreatedEvent> expired = new ArrayList<>(orderIds.size());
+    synchronized (book) {
+      List<RestingOrder> targets = new ArrayList<>(orderIds.size());
+      for (UUID orderId : orderIds) {
+        RestingOrder order = book.get(orderId);
+        if (order != null) {
+          targets.add(order);
+        }
+      }
+      for (RestingOrder order : removeAll(symbol, book, targets)) {
+        expired.add(order.toEvent());
+      }
+    }
+    return expired;
+  }
+
+  @Override
+  public List<OrderCreatedEvent> expiringOrders() {
+    List<OrderCreatedEvent> expiring = new ArrayList<>();
+    for (OrderBook book : books.values()) {
+      synchronized (book) {
+        book.forEachOrder(order -> {
+          if (order.hasExpiry()) {
+            expiring.add(order.toEvent());
+          }
+        });
+      }
+    }
+    return expiring;
+  }
+
+  /**
+   * Journals, removes and persists the removal of resting orders of one book; called under the book lock.
+   *
+   * @return {@code targets}
+   */
+  private List<RestingOrder> removeAll(String symbol, OrderBook book, List<RestingOrder> targets) {
+    for (RestingOrder order : targets) {
+      if (journal != null) {
+        book.setSequence(journal.appendCancel(symbol, order.getOrderId()));
+      }
+      book.remove(order.getOrderId());
+      persister.persistRemove(order.toEvent());
+    }
+    if (deltaFeed.isEnabled() && !targets.isEmpty()) {
+      emitRemovals(symbol, book, targets);
+    }
+    return targets;
+  }
+
+  private static boolean matches(OrderMassCancelEvent event, RestingOrder order) {
+    return order.getUserId().equals(event.getUserId())
+        && (event.getSide() == null || event.getSide().equalsIgnoreCase(order.isBuy() ? "BUY" : "SELL"))
+        && (event.getMinPrice() == null || order.getPrice() >= event.getMinPrice())
+        && (event.getMaxPrice() == null || order.getPrice() <= event.getMaxPrice());
+  }
+
+  @Override
+  public OrderBookResponseDto snapshot(String symbol, int depth) {
+    int levels = Math.max(depth, deltaFeed.getChecksumDepth());
+    OrderBook book = book(symbol);
+    synchronized (book) {
+      return deltaFeed.toSnapshot(symbol, levels(book, true, levels), levels(book, false, levels));
+    }
+  }
+
+  /**
+   * Emits the new aggregates of the levels touched by one book operation; called under the book lock.
+   *
+   * @param makerBuy side of the makers in {@code fills}
+   * @param touched  an order added to or removed from its own side, or null
+   */
+  private void emitDeltas(String symbol, OrderBook book, boolean makerBuy, List<MatchFill> fills, RestingOrder touched) {
+    List<OrderBookDeltaEvent.LevelChange> changes = new ArrayList<>(fills.size() + 1);
+    int lastPrice = 0;
+    for (MatchFill fill : fills) {
+      // 成交依價格優先，同價位的成交相鄰
+      if (changes.isEmpty() || fill.getDealPrice() != lastPrice) {
+        lastPrice = fill.getDealPrice();
+        changes.add(levelChange(book, makerBuy, lastPrice));
+      }
+    }
+    if (touched != null) {
+      changes.add(levelChange(book, touched.isBuy(), touched.getPrice()));
+    }
+    int depth = deltaFeed.getChecksumDepth();
+    deltaFeed.emit(symbol, changes, levels(book, true, depth), levels(book, false, depth));
+  }
+
+  @Override
+  public MarketQuoteDto quote(String symbol, boolean buy, int amount) {
+    MarketQuoteBuilder quote = new MarketQuoteBuilder(symbol, buy, amount);
+    OrderBook book = books.get(symbol);
+    if (book != null) {
+      synchronized (book) {
+        book.forEachLevel(!buy, level -> quote.add(level.getPrice(), level.getTotalAmount()));
+      }
+    }
+    return quote.build();
+  }
+
+  @Override
+  public BookSummary summary(String symbol) {
+    OrderBook book = books.get(symbol);
+    if (book == null) {
+      return new BookSummary(0, 0, null, null);
+    }
+    synchronized (book) {
+      PriceLevel bestBid = book.getBestBid();
+      PriceLevel bestAsk = book.getBestAsk();
+      return new BookSummary(book.levelCount(true), book.levelCount(false),
+          bestBid == null ? null : bestBid.getPrice(), bestAsk == null ? null : bestAsk.getPrice());
+    }
+  }
+
+  @Override
+  public Set<String> symbols() {
+    return Set.copyOf(books.keySet());
+  }
+
+  /**
+   * Emits the new aggregates of every level that lost one of {@code removed}; called under the book lock.
+   */
+  private void emitRemovals(String symbol, OrderBook book, List<RestingOrder> removed) {
+    Set<Integer> buyPrices = new LinkedHashSet<>();
+    Set<Integer> sellPrices = new LinkedHashSet<>();
+    for (RestingOrder order : removed) {
+      (order.isBuy() ? buyPrices : sellPrices).add(order.getPrice());
+    }
+    List<OrderBookDeltaEvent.LevelChange> changes = new ArrayList<>(buyPrices.size() + sellPrices.size());
+    buyPrices.forEach(price -> changes.add(levelChange(book, true, price)));
+    sellPrices.forEach(price -> changes.add(levelChange(book, false, price)));
+    int depth = deltaFeed.getChecksumDepth();
+    deltaFeed.emit(symbol, changes, levels(book, true, depth), levels(book, false, depth));
+  }
+
+  private static OrderBookDeltaEvent.LevelChange levelChange(OrderBook book, boolean buy, int price) {
+    PriceLevel level = book.level(buy, price);
+    return level == null
+        ? OrderBookDeltaFeed.change(buy, price, 0, 0)
+        : OrderBookDeltaFeed.change(buy, price, level.getTotalAmount(), level.getOrderCount());
+  }
+
+  private static List<OrderBookResponseDto.OrderBookLevel> levels(OrderBook book, boolean buy, int depth) {
+    List<PriceLevel> levels = book.levels(buy, depth);
+    List<OrderBookResponseDto.OrderBookLevel> result = new ArrayList<>(levels.size());
+    for (PriceLevel level : levels) {
+      result.add(OrderBookResponseDto.OrderBookLevel.builder()
+          .price(level.getPrice())
+          .amount((int) level.getTotalAmount())
+          .orderCount(level.getOrderCount())
+          .build());
+    }
+    return result;
+  }
+
+  private OrderBook book(String symbol) {
+    return books.computeIfAbsent(symbol, this::newBook);
+  }
+
+  /**
+   * Creates the empty book of a symbol: array-indexed price levels when the symbol has a configured price band.
+   */
+  private OrderBook newBook(String symbol) {
+    MatchEngineProperties.PriceBand band = properties.getPriceLadder().band(symbol);
+    return band != null ? new OrderBook(band.getMinPrice(), band.getMaxPrice()) : new OrderBook();
+  }
+}
@@ -0,0 +1,72 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.dto.MarketQuoteDto;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 逐層累計市場衝擊試算：依最佳價在前的順序餵入對手方各價格層級的聚合數量，直到湊滿試算數量。
+ * 兩種訂單簿後端共用，只讀取層級聚合值，不觸及個別訂單。
+ */
+final class MarketQuoteBuilder {
+
+  private static final BigDecimal BPS = BigDecimal.valueOf(10_000);
+
+  private final String symbol;
+  private final boolean buy;
+  private final int amount;
+  private final List<MarketQuoteDto.QuoteFill> fills = new ArrayList<>();
+  private int filled;
+  private long notional;
+
+  MarketQuoteBuilder(String symbol, boolean buy, int amount) {
+    this.symbol = symbol;
+    this.buy = buy;
+    this.amount = amount;
+  }
+
+  /**
+   * 加入下一個對手價格層級
+   *
+   * @return 是否還需要更多層級
+   */
+  boolean add(int price, long levelAmount) {
+    int take = (int) Math.min(levelAmount, amount - filled);
+    if (take > 0) {
+      fills.add(MarketQuoteDto.QuoteFill.builder().price(price).amount(take).build());
+      filled += take;
+      notional += (long) price * take;
+    }
+    return needsMore();
+  }
+
+  boolean needsMore() {
+    return filled < amount;
+  }
+
+  MarketQuoteDto build() {
+    MarketQuoteDto.MarketQuoteDtoBuilder quote = MarketQuoteDto.builder()
+        .symbol(symbol)
+        .side(buy ? "BUY" : "SELL")
+        .requestedAmount(amount)
+        .filledAmount(filled)
+        .fullyFilled(filled == amount)
+        .fills(fills);
+    if (fills.isEmpty()) {
+      return quote.message("No liquidity on the " + (buy ? "ask" : "bid") + " side").build();
+    }
+    int best = fills.get(0).getPrice();
+    BigDecimal average = BigDecimal.valueOf(notional).divide(BigDecimal.valueOf(filled), 4, RoundingMode.HALF_UP);
+    BigDecimal slippage = buy ? average.subtract(BigDecimal.valueOf(best)) : BigDecimal.valueOf(best).subtract(average);
+    return quote
+        .averagePrice(average)
+        .bestPrice(best)
+        .worstPrice(fills.get(fills.size() - 1).getPrice())
+        .slippage(slippage)
+        .slippageBps(best == 0 ? null : slippage.multiply(BPS).divide(BigDecimal.valueOf(best), 2, RoundingMode.HALF_UP))
+        .build();
+  }
+}
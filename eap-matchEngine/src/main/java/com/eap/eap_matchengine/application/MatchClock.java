@@ -0,0 +1,37 @@
+package com.eap.eap_matchengine.application;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import org.springframework.stereotype.Component;
+
+/**
+ * 撮合路徑使用的時鐘：以 epoch 毫秒為準，同一毫秒內重複使用同一個 {@link LocalDateTime}，
+ * 成交時間不必每筆都經過時區換算與建立新物件。精度為毫秒。
+ */
+@Component
+public class MatchClock {
+
+  private final ZoneId zone = ZoneId.systemDefault();
+  private volatile Tick tick = new Tick(Long.MIN_VALUE, null);
+
+  private record Tick(long epochMillis, LocalDateTime time) {
+  }
+
+  public long epochMillis() {
+    return System.currentTimeMillis();
+  }
+
+  /**
+   * @return 目前時間（截至毫秒），同一毫秒內回傳同一個實例
+   */
+  public LocalDateTime now() {
+    long millis = System.currentTimeMillis();
+    Tick current = tick;
+    if (current.epochMillis() != millis) {
+      current = new Tick(millis, LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), zone));
+      tick = current;
+    }
+    return current.time();
+  }
+}
@@ -0,0 +1,101 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 撮合路徑的各階段延遲與成交計數
+ * 每筆進單的總延遲記在 matchengine.order.latency，各階段記在 matchengine.stage.latency{stage=...}，
+ * 皆發布 percentile histogram，可在 Prometheus 以 histogram_quantile 計算 p99。
+ * 成交、部分成交（掛單未完全成交）與剩餘數量入簿的次數依標的分別計數。
+ */
+@Component
+public class MatchEngineMetrics {
+
+  public enum Stage {
+    /** 對手盤撮合（redis 後端為 sweep 腳本，memory 後端為記憶體撮合） */
+    BOOK,
+    /** 剩餘數量寫入訂單簿 */
+    REST,
+    /** 成交事件序列化 */
+    SERIALIZE,
+    /** 成交事件發送與等待 publisher confirm */
+    PUBLISH
+  }
+
+  private final MeterRegistry meterRegistry;
+  private final Timer orderLatency;
+  private final Map<Stage, Timer> stages = new EnumMap<>(Stage.class);
+  private final Map<String, SymbolCounters> counters = new ConcurrentHashMap<>();
+
+  public MatchEngineMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+    this.orderLatency = Timer.builder("matchengine.order.latency")
+        .description("Time to match one incoming order, including resting its remainder")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+    for (Stage stage : Stage.values()) {
+      stages.put(stage, Timer.builder("matchengine.stage.latency")
+          .description("Time spent in one stage of the matching path")
+          .tag("stage", stage.name().toLowerCase())
+          .publishPercentileHistogram()
+          .register(meterRegistry));
+    }
+  }
+
+  public Timer stage(Stage stage) {
+    return stages.get(stage);
+  }
+
+  /**
+   * 記錄一筆進單的撮合結果
+   *
+   * @param startNanos 開始撮合時的 {@link System#nanoTime()}
+   * @param rested     剩餘數量是否已入簿
+   */
+  public void recordOrder(String symbol, long startNanos, List<MatchFill> fills, boolean rested) {
+    orderLatency.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    SymbolCounters symbolCounters = counters.computeIfAbsent(symbol, SymbolCounters::new);
+    if (!fills.isEmpty()) {
+      symbolCounters.fills.increment(fills.size());
+      for (MatchFill fill : fills) {
+        if (fill.getMakerRemaining() > 0) {
+          symbolCounters.partialFills.increment();
+        }
+      }
+    }
+    if (rested) {
+      symbolCounters.rested.increment();
+    }
+  }
+
+  private final class SymbolCounters {
+    private final Counter fills;
+    private final Counter partialFills;
+    private final Counter rested;
+
+    private SymbolCounters(String symbol) {
+      fills = Counter.builder("matchengine.fills")
+          .description("Number of fills")
+          .tag("symbol", symbol)
+          .register(meterRegistry);
+      partialFills = Counter.builder("matchengine.fills.partial")
+          .description("Number of fills that left the resting order partially filled")
+          .tag("symbol", symbol)
+          .register(meterRegistry);
+      rested = Counter.builder("matchengine.orders.rested")
+          .description("Number of incoming orders whose remainder was rested in the book")
+          .tag("symbol", symbol)
+          .register(meterRegistry);
+    }
+  }
+}
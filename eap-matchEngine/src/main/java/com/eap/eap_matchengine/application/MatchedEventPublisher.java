@@ -0,0 +1,84 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderMatchedEvent;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.stereotype.Component;
+
+import static com.eap.common.constants.RabbitMQConstants.*;
+
+/**
+ * 撮合結果的輸出階段。
+ * 每筆成交只序列化一次、只發送一次到 ORDER_MATCHED_KEY，訂單服務與錢包服務的佇列都綁定在同一個 routing key 上。
+ * 同一筆進單（或同一批進單）產生的所有成交在同一個 channel 上連續送出，最後只等待一次 publisher confirm。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MatchedEventPublisher {
+
+  private final RabbitTemplate rabbitTemplate;
+  private final MatchEngineProperties properties;
+  private final MatchEngineMetrics metrics;
+
+  /**
+   * 發送一組成交事件並等待 broker 確認整組事件。
+   *
+   * @throws org.springframework.amqp.AmqpException broker 在逾時內未確認（或 nack）時拋出
+   */
+  public void publish(List<OrderMatchedEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    long start = System.nanoTime();
+    List<Message> messages = toMessages(events);
+    long serialized = System.nanoTime();
+    metrics.stage(MatchEngineMetrics.Stage.SERIALIZE).record(serialized - start, TimeUnit.NANOSECONDS);
+    send(ORDER_MATCHED_KEY, messages);
+    metrics.stage(MatchEngineMetrics.Stage.PUBLISH).record(System.nanoTime() - serialized, TimeUnit.NANOSECONDS);
+    log.debug("Published {} matched event(s)", messages.size());
+  }
+
+  /**
+   * 將無法送出的成交事件停放到 dead-letter 佇列（ORDER_MATCHED_DLQ），同樣等待 broker 確認。
+   *
+   * @throws org.springframework.amqp.AmqpException broker 在逾時內未確認（或 nack）時拋出
+   */
+  public void park(List<OrderMatchedEvent> events) {
+    if (events.isEmpty()) {
+      return;
+    }
+    send(ORDER_MATCHED_DLQ_KEY, toMessages(events));
+  }
+
+  private List<Message> toMessages(List<OrderMatchedEvent> events) {
+    MessageConverter converter = rabbitTemplate.getMessageConverter();
+    List<Message> messages = new ArrayList<>(events.size());
+    for (OrderMatchedEvent event : events) {
+      messages.add(converter.toMessage(event, new MessageProperties()));
+    }
+    return messages;
+  }
+
+  private void send(String routingKey, List<Message> messages) {
+    long confirmTimeout = properties.getPublish().getConfirmTimeout().toMillis();
+    rabbitTemplate.invoke(operations -> {
+      for (Message message : messages) {
+        operations.send(ORDER_EXCHANGE, routingKey, message);
+      }
+      // 未開啟 publisher-confirm-type: simple 時 channel 不在 confirm 模式，只能直接送出
+      if (operations.getConnectionFactory().isSimplePublisherConfirms()) {
+        operations.waitForConfirmsOrDie(confirmTimeout);
+      }
+      return null;
+    });
+  }
+}
@@ -1,86 +1,200 @@
 package com.eap.eap_matchengine.application;
 
+import com.eap.common.constants.SymbolConstants;
+import com.eap.common.constants.TimeInForce;
 import com.eap.common.event.OrderCreatedEvent;
 import com.eap.common.event.OrderMatchedEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import com.eap.eap_matchengine.domain.book.RestingOrder;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 
-import static com.eap.common.constants.RabbitMQConstants.*;
-
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Service;
 
 /**
  * Service responsible for matching buy and sell orders in the trading system.
- * Implements the order matching logic and manages the order lifecycle through the order book.
+ * Delegates the book operations to the configured {@link OrderBookEngine} and publishes the resulting fills.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class MatchingEngineService {
 
-  private final RedisOrderBookService orderBookService;
-  private final RabbitTemplate rabbitTemplate;
+  private final OrderBookEngine orderBookEngine;
+  private final MatchedEventPublisher matchedEventPublisher;
+  private final MatchEngineMetrics metrics;
+  private final OrderBookGauges orderBookGauges;
+  private final OrderExpiryService orderExpiryService;
+  private final OrderReleasePublisher orderReleasePublisher;
+  private final MatchClock matchClock;
+
+  /**
+   * Upper bound of {@link #unconfirmed}; entries only pile up when a failed publish is never followed by
+   * a redelivery to this instance.
+   */
+  static final int MAX_UNCONFIRMED_ORDERS = 10_000;
+
+  // 已套用到訂單簿、但成交尚未經 broker 確認的訂單與其成交事件。
+  // 發送失敗時 listener 拋出例外讓訊息重送，重送的訂單直接重送這裡的成交，不再對已含其結果的訂單簿撮合一次
+  private final Map<UUID, List<OrderMatchedEvent>> unconfirmed = Collections.synchronizedMap(
+      new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, List<OrderMatchedEvent>> eldest) {
+          return size() > MAX_UNCONFIRMED_ORDERS;
+        }
+      });
 
   /**
    * Attempts to match an incoming order with existing orders in the order book.
    * The matching process follows these steps:
-   * 1. Checks for matching orders in the opposite order book
-   * 2. If no matches found, adds the order to the appropriate order book
-   * 3. If matches found, processes them in order:
-   *    - Matches the maximum possible quantity
-   *    - Updates the quantities of both orders
-   *    - Creates and publishes a matched event
-   *    - Removes fully matched orders
-   *    - Adds remaining quantity back to order book if partially matched
+   * 1. The order book engine matches the order against the opposite side in price-time priority,
+   *    removing fully matched orders and keeping partially matched remainders
+   * 2. Any unmatched quantity of a GTC order is added to the appropriate order book; the unmatched quantity
+   *    of an IOC, FOK or MARKET order is released instead, in the same pass
+   * 3. A matched event is created for every fill and all fills are published as one confirmed batch
+   * A good-till-time order whose expiry has already passed is not matched; its whole amount is released instead.
+   * An order that fails validation is released as well. A match that fails for any other reason propagates
+   * so the message is redelivered. If the publish fails the exception propagates too; the redelivered order
+   * re-publishes its fills instead of being matched again.
    *
    * @param incomingOrder The new order to be matched
    */
   public void tryMatch(OrderCreatedEvent incomingOrder) {
+    matchedEventPublisher.publish(matchOnce(incomingOrder));
+    unconfirmed.remove(incomingOrder.getOrderId());
+  }
+
+  /**
+   * Matches a batch of incoming orders sequentially, in arrival order, and publishes
+   * the fills of the whole batch as one confirmed batch.
+   * An order that fails validation is released and does not hold up the rest of the batch. If a match or the
+   * publish fails the whole batch is redelivered; orders already applied to the book then only re-publish their fills.
+   *
+   * @param incomingOrders orders in the order they were consumed from the queue
+   */
+  public void tryMatchBatch(List<OrderCreatedEvent> incomingOrders) {
+    List<OrderMatchedEvent> matchedEvents = new ArrayList<>();
+    for (OrderCreatedEvent incomingOrder : incomingOrders) {
+      matchedEvents.addAll(matchOnce(incomingOrder));
+    }
+    matchedEventPublisher.publish(matchedEvents);
+    for (OrderCreatedEvent incomingOrder : incomingOrders) {
+      unconfirmed.remove(incomingOrder.getOrderId());
+    }
+  }
+
+  /**
+   * Matches an order unless it was already applied and its fills are still unconfirmed, in which case
+   * those fills are returned again.
+   */
+  private List<OrderMatchedEvent> matchOnce(OrderCreatedEvent incomingOrder) {
+    List<OrderMatchedEvent> pending = unconfirmed.get(incomingOrder.getOrderId());
+    if (pending != null) {
+      log.warn("Order {} redelivered before its fills were confirmed, re-publishing {} fill(s) without matching again",
+          incomingOrder.getOrderId(), pending.size());
+      return pending;
+    }
+    List<OrderMatchedEvent> matchedEvents = matchOrRelease(incomingOrder, null);
+    unconfirmed.put(incomingOrder.getOrderId(), matchedEvents);
+    return matchedEvents;
+  }
+
+  /**
+   * Matches one incoming order; an order that fails validation is released to the wallet without touching
+   * the book and yields no fills. Any other failure propagates: the engines only throw before they have
+   * changed the book, and once it has changed they return the fills made so far instead.
+   *
+   * @param sequence input sequence number assigned by {@link MatchingSequencer}, or null
+   */
+  List<OrderMatchedEvent> matchOrRelease(OrderCreatedEvent incomingOrder, Long sequence) {
+    String invalid = validate(incomingOrder);
+    if (invalid != null) {
+      log.error("Rejecting order {}: {}", incomingOrder.getOrderId(), invalid);
+      orderReleasePublisher.publish(List.of(incomingOrder), OrderReleasePublisher.REASON_REJECTED);
+      return List.of();
+    }
+    return match(incomingOrder, sequence);
+  }
+
+  /**
+   * @return why the order cannot be matched, or null if it is valid
+   */
+  private static String validate(OrderCreatedEvent order) {
+    if (order.getOrderId() == null || order.getUserId() == null) {
+      return "missing order or user id";
+    }
+    if (!"BUY".equalsIgnoreCase(order.getOrderType()) && !"SELL".equalsIgnoreCase(order.getOrderType())) {
+      return "unknown order type " + order.getOrderType();
+    }
+    if (order.getPrice() == null || order.getPrice() < 0 || order.getAmount() == null || order.getAmount() <= 0) {
+      return "invalid price " + order.getPrice() + " or amount " + order.getAmount();
+    }
+    try {
+      TimeInForce.of(order.getTimeInForce());
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+    return null;
+  }
+
+  /**
+   * Matches one incoming order and builds the matched events without publishing them.
+   *
+   * @param incomingOrder The new order to be matched
+   * @param sequence input sequence number assigned by {@link MatchingSequencer}, or null
+   * @return matched events in execution order
+   */
+  List<OrderMatchedEvent> match(OrderCreatedEvent incomingOrder, Long sequence) {
+    long start = System.nanoTime();
     boolean isBuy = incomingOrder.getOrderType().equalsIgnoreCase("BUY");
-    while (incomingOrder.getAmount() > 0) {
-      OrderCreatedEvent matchOrder = orderBookService.getAndRemoveBestMatchOrderLua(isBuy, incomingOrder.getPrice());
-      if (matchOrder == null) {
-        // 沒有可撮合對手單，將剩餘訂單加回 orderbook
-        try {
-          orderBookService.addOrder(incomingOrder);
-          log.info("No matching order found, added to order book: {}", incomingOrder);
-        } catch (JsonProcessingException e) {
-          e.printStackTrace();
-        }
-        break;
-      }
-      int matchedAmount = Math.min(incomingOrder.getAmount(), matchOrder.getAmount());
-      incomingOrder.setAmount(incomingOrder.getAmount() - matchedAmount);
-      matchOrder.setAmount(matchOrder.getAmount() - matchedAmount);
-      OrderMatchedEvent matchedEvent = OrderMatchedEvent.builder()
+    String symbol = SymbolConstants.normalize(incomingOrder.getSymbol());
+    orderBookGauges.track(symbol);
+    if (orderExpiryService.isExpired(incomingOrder)) {
+      log.info("Order {} expired at {} before matching, releasing it", incomingOrder.getOrderId(), incomingOrder.getExpireAt());
+      orderReleasePublisher.publish(List.of(incomingOrder), OrderReleasePublisher.REASON_EXPIRED);
+      return List.of();
+    }
+    TimeInForce timeInForce = TimeInForce.of(incomingOrder.getTimeInForce());
+    List<MatchFill> fills = orderBookEngine.match(incomingOrder);
+    boolean rested = incomingOrder.getAmount() > 0 && timeInForce.rests();
+    metrics.recordOrder(symbol, start, fills, rested);
+    if (rested) {
+      orderExpiryService.schedule(incomingOrder);
+    } else if (incomingOrder.getAmount() > 0) {
+      log.info("{} order {} left {} unfilled, releasing it", timeInForce, incomingOrder.getOrderId(), incomingOrder.getAmount());
+      orderReleasePublisher.publish(List.of(incomingOrder), OrderReleasePublisher.REASON_UNFILLED);
+    }
+    if (fills.isEmpty()) {
+      return List.of();
+    }
+    LocalDateTime matchedAt = matchClock.now();
+    List<OrderMatchedEvent> matchedEvents = new ArrayList<>(fills.size());
+    for (MatchFill fill : fills) {
+      RestingOrder matchOrder = fill.getMaker();
+      matchedEvents.add(OrderMatchedEvent.builder()
           .buyerId(isBuy ? incomingOrder.getUserId() : matchOrder.getUserId())
           .sellerId(isBuy ? matchOrder.getUserId() : incomingOrder.getUserId())
-          .originBuyerPrice(isBuy ? incomingOrder.getPrice(): matchOrder.getPrice())
+          .originBuyerPrice(isBuy ? incomingOrder.getPrice() : matchOrder.getPrice())
           .originSellerPrice(isBuy ? matchOrder.getPrice() : incomingOrder.getPrice())
-          .dealPrice(matchOrder.getPrice())
-          .amount(matchedAmount)
-          .matchedAt(LocalDateTime.now())
+          .dealPrice(fill.getDealPrice())
+          .amount(fill.getAmount())
+          .matchedAt(matchedAt)
           .orderType(incomingOrder.getOrderType())
-          .build();
-      rabbitTemplate.convertAndSend(ORDER_EXCHANGE, ORDER_MATCHED_KEY, matchedEvent);
-      rabbitTemplate.convertAndSend(ORDER_EXCHANGE, WALLET_MATCHED_KEY, matchedEvent);
-      if (matchOrder.getAmount() > 0) {
-        // 對手單部分成交，剩餘部分加回 orderbook
-        try {
-          orderBookService.addOrder(matchOrder);
-          log.info("Partial match, remaining order added back to order book: {}", matchOrder);
-          log.info("Partial match, remaining incomeodre: {}", incomingOrder);
-        } catch (JsonProcessingException e) {
-          e.printStackTrace();
-        }
-      } else {
-        orderBookService.removeOrder(matchOrder);
-        log.info("Order fully matched and removed from order book: {}", matchOrder);
-      }
+          .symbol(matchOrder.getSymbol())
+          .sequence(sequence)
+          .build());
+    }
+    if (log.isDebugEnabled()) {
+      log.debug("Order {} matched {} fill(s), remaining amount {}", incomingOrder.getOrderId(), fills.size(), incomingOrder.getAmount());
     }
+    return matchedEvents;
   }
 }
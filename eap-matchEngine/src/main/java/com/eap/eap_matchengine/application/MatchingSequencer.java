@@ -0,0 +1,101 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.constants.SymbolConstants;
+import com.eap.common.event.OrderCancelEvent;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMassCancelEvent;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 單一寫入者的撮合排序器。
+ * Rabbit listener 只負責解碼並寫入預先配置好的環形緩衝區，由撮合執行緒依序取出並撮合，
+ * 因此訂單簿不需要任何鎖，listener 併發數也可以安全調高。
+ * 訂單依標的分配到固定的通道（{@link SequencerLane}），每條通道有自己的撮合執行緒，
+ * 同一標的永遠由同一條通道循序處理，不同標的則可在多個核心上並行撮合。
+ * 撮合產生的成交交給各通道獨立的發送執行緒批次發送，撮合執行緒不會等待 broker 確認。
+ * <p>
+ * listener 等到訂單的成交經 broker 確認（或停放到 dead-letter 佇列）、或訂單已解除鎖定後才返回並 ack，
+ * 程序崩潰時仍在環上或尚未送出的訂單會由 broker 重送。listener 執行緒在等待期間被佔用，
+ * 因此建議搭配批次消費（eap.match-engine.intake.batch-enabled，整批一次 ack）或較高的 listener 併發數。
+ */
+@Component
+@ConditionalOnProperty(prefix = "eap.match-engine.sequencer", name = "enabled", havingValue = "true")
+@Slf4j
+public class MatchingSequencer implements OrderIntake {
+
+  private final SequencerLane[] lanes;
+
+  public MatchingSequencer(MatchingEngineService matchingEngineService,
+                           OrderBookEngine orderBookEngine,
+                           MatchedEventPublisher matchedEventPublisher,
+                           MatchEngineProperties properties) {
+    MatchEngineProperties.Sequencer config = properties.getSequencer();
+    if (config.getLanes() <= 0) {
+      throw new IllegalArgumentException("eap.match-engine.sequencer.lanes must be positive: " + config.getLanes());
+    }
+    this.lanes = new SequencerLane[config.getLanes()];
+    for (int i = 0; i < lanes.length; i++) {
+      lanes[i] = new SequencerLane(i, config, matchingEngineService, orderBookEngine, matchedEventPublisher);
+    }
+  }
+
+  @PostConstruct
+  public void start() {
+    for (SequencerLane lane : lanes) {
+      lane.start();
+    }
+  }
+
+  @Override
+  public CompletableFuture<Void> submit(OrderCreatedEvent incomingOrder) {
+    return lane(incomingOrder.getSymbol()).submit(incomingOrder);
+  }
+
+  @Override
+  public CompletableFuture<Void> submitAll(List<OrderCreatedEvent> incomingOrders) {
+    CompletableFuture<?>[] done = new CompletableFuture<?>[incomingOrders.size()];
+    for (int i = 0; i < done.length; i++) {
+      done[i] = submit(incomingOrders.get(i));
+    }
+    return CompletableFuture.allOf(done);
+  }
+
+  @Override
+  public CompletableFuture<Boolean> cancel(OrderCancelEvent event) {
+    return lane(event.getSymbol()).cancel(event);
+  }
+
+  @Override
+  public CompletableFuture<List<UUID>> massCancel(OrderMassCancelEvent event) {
+    return lane(event.getSymbol()).massCancel(event);
+  }
+
+  @Override
+  public CompletableFuture<List<OrderCreatedEvent>> expire(String symbol, List<UUID> orderIds) {
+    return lane(symbol).expire(symbol, orderIds);
+  }
+
+  private SequencerLane lane(String symbol) {
+    return lanes[Math.floorMod(SymbolConstants.normalize(symbol).hashCode(), lanes.length)];
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    for (SequencerLane lane : lanes) {
+      lane.stop();
+    }
+    for (SequencerLane lane : lanes) {
+      lane.awaitTermination(TimeUnit.SECONDS.toMillis(10));
+    }
+  }
+}
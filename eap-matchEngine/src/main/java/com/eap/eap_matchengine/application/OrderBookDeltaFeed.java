@@ -0,0 +1,160 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.dto.OrderBookResponseDto;
+import com.eap.common.event.OrderBookDeltaEvent;
+import com.eap.common.orderbook.OrderBookChecksum;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.eap.common.constants.RabbitMQConstants.*;
+
+/**
+ * 訂單簿價格層級增量（L2 delta）的序號分配與發送
+ * 訂單簿後端在改變價格層級後、仍持有該標的的鎖時呼叫 {@link #emit}，因此序號順序即為訂單簿異動順序；
+ * 實際發送交給單一發送執行緒依序送出，不阻擋撮合。
+ * 記憶體後端的訂單簿只存在於本行程，序號在本行程內遞增，epoch 為本行程啟動時間；
+ * Redis 後端由多個實例共用訂單簿，序號與 epoch 存在 Redis，由讀取價格層級的腳本分配後傳入。
+ * 消費端以 epoch 改變判斷需重新取得快照。
+ */
+@Component
+@Slf4j
+public class OrderBookDeltaFeed {
+
+  private final RabbitTemplate rabbitTemplate;
+  private final MatchEngineProperties.MarketData properties;
+  private final long epoch = System.currentTimeMillis();
+  // 每個標的一個序號，同時作為 redis 後端同一標的撮合的鎖
+  private final Map<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+  private final ExecutorService publisher = Executors.newSingleThreadExecutor(r -> {
+    Thread thread = new Thread(r, "orderbook-delta-publisher");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public OrderBookDeltaFeed(RabbitTemplate rabbitTemplate, MatchEngineProperties properties) {
+    this.rabbitTemplate = rabbitTemplate;
+    this.properties = properties.getMarketData();
+  }
+
+  public boolean isEnabled() {
+    return properties.isDeltaEnabled();
+  }
+
+  public int getChecksumDepth() {
+    return properties.getChecksumDepth();
+  }
+
+  /**
+   * 本行程啟動時間；Redis 後端的標的尚無序號時以此起算
+   */
+  public long getEpoch() {
+    return epoch;
+  }
+
+  /**
+   * 同一標的訂單簿異動與增量發出需序列化時使用的鎖
+   */
+  public Object lock(String symbol) {
+    return sequence(symbol);
+  }
+
+  /**
+   * 目前已發出的最後一個序號；呼叫端需持有該標的的鎖才能與訂單簿內容對應
+   */
+  public long currentSequence(String symbol) {
+    AtomicLong sequence = sequences.get(symbol);
+    return sequence == null ? 0 : sequence.get();
+  }
+
+  /**
+   * 依快照內容補上標的、epoch、序號與 checksum；呼叫端需持有該標的的鎖
+   */
+  public OrderBookResponseDto toSnapshot(String symbol, List<OrderBookResponseDto.OrderBookLevel> bids,
+      List<OrderBookResponseDto.OrderBookLevel> asks) {
+    return toSnapshot(symbol, epoch, currentSequence(symbol), bids, asks);
+  }
+
+  /**
+   * 依快照內容與呼叫端取得的 epoch、序號補上 checksum
+   */
+  public OrderBookResponseDto toSnapshot(String symbol, long epoch, long sequence,
+      List<OrderBookResponseDto.OrderBookLevel> bids, List<OrderBookResponseDto.OrderBookLevel> asks) {
+    return OrderBookResponseDto.builder()
+        .bids(bids)
+        .asks(asks)
+        .symbol(symbol)
+        .epoch(epoch)
+        .sequence(sequence)
+        .checksum(OrderBookChecksum.compute(bids, asks, getChecksumDepth()))
+        .build();
+  }
+
+  /**
+   * 分配下一個序號並排入發送；呼叫端需持有該標的的鎖
+   *
+   * @param changes 變更後的價格層級
+   * @param bids    變更後的買盤前 N 層（N 至少為 checksum 層數）
+   * @param asks    變更後的賣盤前 N 層
+   */
+  public void emit(String symbol, List<OrderBookDeltaEvent.LevelChange> changes,
+      List<OrderBookResponseDto.OrderBookLevel> bids, List<OrderBookResponseDto.OrderBookLevel> asks) {
+    if (changes.isEmpty()) {
+      return;
+    }
+    emit(symbol, epoch, sequence(symbol).incrementAndGet(), changes, bids, asks);
+  }
+
+  /**
+   * 以呼叫端已分配的 epoch 與序號排入發送；同一行程內需依序號順序呼叫
+   */
+  public void emit(String symbol, long epoch, long sequence, List<OrderBookDeltaEvent.LevelChange> changes,
+      List<OrderBookResponseDto.OrderBookLevel> bids, List<OrderBookResponseDto.OrderBookLevel> asks) {
+    OrderBookDeltaEvent event = OrderBookDeltaEvent.builder()
+        .symbol(symbol)
+        .epoch(epoch)
+        .sequence(sequence)
+        .changes(changes)
+        .checksum(OrderBookChecksum.compute(bids, asks, getChecksumDepth()))
+        .timestamp(LocalDateTime.now())
+        .build();
+    publisher.execute(() -> {
+      try {
+        rabbitTemplate.convertAndSend(ORDER_EXCHANGE, ORDERBOOK_DELTA_KEY, event);
+      } catch (Exception e) {
+        // 消費端會因序號缺口重新取得快照
+        log.warn("發送訂單簿增量失敗: symbol={}, sequence={}", symbol, sequence, e);
+      }
+    });
+  }
+
+  public static OrderBookDeltaEvent.LevelChange change(boolean buy, int price, long amount, int orderCount) {
+    return OrderBookDeltaEvent.LevelChange.builder()
+        .side(buy ? "BUY" : "SELL")
+        .price(price)
+        .amount((int) amount)
+        .orderCount(orderCount)
+        .build();
+  }
+
+  private AtomicLong sequence(String symbol) {
+    return sequences.computeIfAbsent(symbol, s -> new AtomicLong());
+  }
+
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    publisher.shutdown();
+    publisher.awaitTermination(5, TimeUnit.SECONDS);
+  }
+}
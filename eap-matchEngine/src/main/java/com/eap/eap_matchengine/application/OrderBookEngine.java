@@ -0,0 +1,90 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.dto.MarketQuoteDto;
+import com.eap.common.dto.OrderBookResponseDto;
+import com.eap.common.event.OrderCancelEvent;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMassCancelEvent;
+import com.eap.eap_matchengine.domain.book.BookSummary;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Order book backend used by {@link MatchingEngineService}.
+ * The implementation is selected by {@code eap.match-engine.book-backend}:
+ * {@link RedisOrderBookEngine} (default) matches against the Redis order book directly,
+ * {@link InMemoryOrderBookEngine} matches in process and persists to Redis asynchronously.
+ */
+public interface OrderBookEngine {
+
+    /**
+     * Matches the incoming order against the opposite side of the book.
+     * Any unfilled remainder is rested in the book and the incoming order's amount
+     * is updated to that remainder.
+     * Throws only before the book has changed. A failure after the sweep does not throw: the fills made so far
+     * are returned, and a remainder that could not be rested is released and the amount set to 0.
+     *
+     * @param incomingOrder The new order to be matched
+     * @return fills in execution order, empty if nothing matched; with pooled fills the list is reused
+     *         and only valid until the next match on the calling thread
+     */
+    List<MatchFill> match(OrderCreatedEvent incomingOrder);
+
+    /**
+     * Removes a resting order from the book.
+     *
+     * @return true if the order was resting and has been removed
+     */
+    boolean cancel(OrderCancelEvent event);
+
+    /**
+     * Removes every resting order of a user on one symbol that matches the optional side and price range.
+     *
+     * @param event mass cancel request; the symbol must be set
+     * @return ids of the removed orders
+     */
+    List<UUID> massCancel(OrderMassCancelEvent event);
+
+    /**
+     * Removes the given orders of one symbol in one batch; used for good-till-time orders whose expiry has passed.
+     * Orders that are no longer resting are skipped.
+     *
+     * @return the removed orders with the amounts they still had
+     */
+    List<OrderCreatedEvent> expire(String symbol, Collection<UUID> orderIds);
+
+    /**
+     * Resting orders that carry an expiry time, read once on startup to reschedule their expiry.
+     */
+    List<OrderCreatedEvent> expiringOrders();
+
+    /**
+     * Reads the top price levels of both sides together with the {@link OrderBookDeltaFeed} sequence
+     * they reflect, so a consumer can apply the deltas that follow on top of it.
+     *
+     * @param depth levels per side; at least the checksum depth is always read
+     */
+    OrderBookResponseDto snapshot(String symbol, int depth);
+
+    /**
+     * Walks the opposite side's price levels read-only and returns what a market order of {@code amount} would
+     * fill at right now; the book is not changed.
+     *
+     * @param buy side of the hypothetical order
+     */
+    MarketQuoteDto quote(String symbol, boolean buy, int amount);
+
+    /**
+     * Number of price levels and best price of both sides.
+     */
+    BookSummary summary(String symbol);
+
+    /**
+     * Symbols that currently have a book.
+     */
+    Set<String> symbols();
+}
@@ -0,0 +1,92 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.eap_matchengine.domain.book.BookSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 各標的訂單簿的 gauge：每側價格層級數（matchengine.book.levels）與最佳價（matchengine.book.best.price）
+ * 標的於啟動時或第一次撮合時註冊；同一標的的四個 gauge 共用一次讀取，一秒內重複抓取不再查詢訂單簿。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBookGauges {
+
+  private static final long REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final OrderBookEngine orderBookEngine;
+  private final MeterRegistry meterRegistry;
+  private final Map<String, SymbolSummary> summaries = new ConcurrentHashMap<>();
+
+  @PostConstruct
+  public void registerKnownSymbols() {
+    try {
+      orderBookEngine.symbols().forEach(this::track);
+    } catch (RuntimeException e) {
+      log.warn("無法取得既有標的，訂單簿 gauge 將於第一次撮合時註冊: {}", e.getMessage());
+    }
+  }
+
+  /**
+   * 確保標的的 gauge 已註冊
+   */
+  public void track(String symbol) {
+    if (summaries.containsKey(symbol)) {
+      return;
+    }
+    SymbolSummary summary = new SymbolSummary(symbol);
+    if (summaries.putIfAbsent(symbol, summary) != null) {
+      return;
+    }
+    register("matchengine.book.levels", symbol, "buy", summary, s -> s.get().getBidLevels());
+    register("matchengine.book.levels", symbol, "sell", summary, s -> s.get().getAskLevels());
+    register("matchengine.book.best.price", symbol, "buy", summary, s -> price(s.get().getBestBid()));
+    register("matchengine.book.best.price", symbol, "sell", summary, s -> price(s.get().getBestAsk()));
+  }
+
+  private void register(String name, String symbol, String side, SymbolSummary summary,
+      ToDoubleFunction<SymbolSummary> value) {
+    Gauge.builder(name, summary, value)
+        .tag("symbol", symbol)
+        .tag("side", side)
+        .strongReference(true)
+        .register(meterRegistry);
+  }
+
+  private static double price(Integer price) {
+    return price == null ? Double.NaN : price;
+  }
+
+  private final class SymbolSummary {
+    private final String symbol;
+    private BookSummary summary = new BookSummary(0, 0, null, null);
+    private long readAt;
+
+    private SymbolSummary(String symbol) {
+      this.symbol = symbol;
+    }
+
+    synchronized BookSummary get() {
+      long now = System.nanoTime();
+      if (readAt == 0 || now - readAt > REFRESH_NANOS) {
+        try {
+          summary = orderBookEngine.summary(symbol);
+        } catch (RuntimeException e) {
+          log.warn("讀取 {} 訂單簿摘要失敗: {}", symbol, e.getMessage());
+        }
+        readAt = now;
+      }
+      return summary;
+    }
+  }
+}
@@ -0,0 +1,172 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import com.eap.eap_matchengine.domain.book.OrderBook;
+import com.eap.eap_matchengine.domain.book.RestingOrder;
+import com.eap.eap_matchengine.journal.BookSnapshotStore;
+import com.eap.eap_matchengine.journal.JournalCodec;
+import com.eap.eap_matchengine.journal.MappedJournal;
+import com.eap.eap_matchengine.journal.OrderBookRecovery;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 記憶體訂單簿的 journal 與快照（book-backend=memory 時使用）
+ * 每筆新訂單與取消在套用到訂單簿前先寫入 journal（write-ahead），成交結果隨後寫入；
+ * 定期將所有訂單簿寫成二進位快照，啟動時載入最新快照並只重播其後的 journal 尾端。
+ * 寫入方需持有對應訂單簿的鎖，journal 順序即為各訂單簿的套用順序。
+ */
+@Component
+@ConditionalOnProperty(prefix = "eap.match-engine.journal", name = "enabled", havingValue = "true")
+@Slf4j
+public class OrderBookJournal {
+
+    private final MappedJournal journal;
+    private final BookSnapshotStore snapshotStore;
+    private final MatchEngineProperties.Journal properties;
+    private final ThreadLocal<ByteBuffer> buffers = ThreadLocal.withInitial(() -> ByteBuffer.allocate(256));
+    private ScheduledExecutorService scheduler;
+
+    public OrderBookJournal(MatchEngineProperties properties) throws IOException {
+        this.properties = properties.getJournal();
+        Path directory = Path.of(this.properties.getDirectory());
+        this.journal = new MappedJournal(directory, (int) this.properties.getSegmentSize().toBytes());
+        this.snapshotStore = new BookSnapshotStore(directory, this.properties.getRetainedSnapshots());
+    }
+
+    /**
+     * 載入最新快照並重播其後的 journal，各標的的訂單簿由 bookFactory 建立
+     */
+    public OrderBookRecovery.Result recover(Function<String, OrderBook> bookFactory) {
+        try {
+            long start = System.nanoTime();
+            OrderBookRecovery.Result result = OrderBookRecovery.recover(snapshotStore, journal, bookFactory);
+            log.info("Recovered {} symbol(s) from journal (snapshot: {}, replayed {} event(s)) in {} ms",
+                    result.getBooks().size(), result.isFromSnapshot(), result.getReplayed(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to recover order books from journal", e);
+        }
+    }
+
+    /**
+     * 依設定的間隔定期執行快照
+     */
+    public void scheduleSnapshots(Runnable snapshotTask) {
+        long interval = properties.getSnapshotInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "orderbook-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshotTask.run();
+            } catch (Exception e) {
+                log.error("訂單簿快照失敗", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 寫入新訂單，需在撮合前呼叫
+     *
+     * @return 該筆事件的 journal 序號
+     */
+    public long appendCreate(RestingOrder order) {
+        ByteBuffer buffer = buffer();
+        JournalCodec.encodeCreate(buffer, order);
+        return append(MappedJournal.CREATE, buffer);
+    }
+
+    /**
+     * 寫入取消，需在移除訂單前呼叫
+     *
+     * @return 該筆事件的 journal 序號
+     */
+    public long appendCancel(String symbol, UUID orderId) {
+        ByteBuffer buffer = buffer();
+        JournalCodec.encodeCancel(buffer, symbol, orderId);
+        return append(MappedJournal.CANCEL, buffer);
+    }
+
+    /**
+     * 寫入撮合產生的成交（僅供稽核與對帳，重播時由 CREATE 重新撮合得出）
+     */
+    public void appendFills(RestingOrder taker, List<MatchFill> fills) {
+        for (MatchFill fill : fills) {
+            ByteBuffer buffer = buffer();
+            JournalCodec.encodeFill(buffer, taker.getSymbol(), taker.getOrderId(), fill.getMaker().getOrderId(),
+                    fill.getDealPrice(), fill.getAmount());
+            append(MappedJournal.FILL, buffer);
+        }
+    }
+
+    /**
+     * 對所有訂單簿寫入快照，並刪除快照已涵蓋的 journal segment。
+     * 每本訂單簿僅在複製期間持有其鎖，寫檔不阻擋撮合。
+     */
+    public void snapshot(Map<String, OrderBook> books) {
+        long start = System.nanoTime();
+        long startSequence = journal.lastSequence();
+        List<BookSnapshotStore.BookImage> images = new ArrayList<>(books.size());
+        int orders = 0;
+        for (Map.Entry<String, OrderBook> entry : books.entrySet()) {
+            OrderBook book = entry.getValue();
+            synchronized (book) {
+                long sequence = Math.max(book.getSequence(), startSequence);
+                images.add(BookSnapshotStore.capture(entry.getKey(), sequence, book));
+                orders += book.size();
+            }
+        }
+        try {
+            journal.flush();
+            snapshotStore.write(startSequence, images);
+            journal.deleteSegmentsUpTo(startSequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write order book snapshot", e);
+        }
+        log.info("Wrote order book snapshot at sequence {} ({} order(s) in {} symbol(s)) in {} ms",
+                startSequence, orders, images.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        journal.close();
+    }
+
+    private ByteBuffer buffer() {
+        ByteBuffer buffer = buffers.get();
+        buffer.clear();
+        return buffer;
+    }
+
+    private long append(byte type, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            return journal.append(type, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to order book journal", e);
+        }
+    }
+}
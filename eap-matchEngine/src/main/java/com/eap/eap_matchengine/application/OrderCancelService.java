@@ -1,19 +1,62 @@
 package com.eap.eap_matchengine.application;
 
+import com.eap.common.constants.SymbolConstants;
 import com.eap.common.event.OrderCancelEvent;
+import com.eap.common.event.OrderMassCancelEvent;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class OrderCancelService {
 
     @Autowired
-    RedisOrderBookService redisService;
+    OrderIntake orderIntake;
+
+    @Autowired
+    RedisOrderBookService redisOrderBookService;
+
+    @Autowired
+    OrderBookEngine orderBookEngine;
 
 
     public boolean execute(OrderCancelEvent cancelEvent) {
+        if (cancelEvent.getSymbol() == null) {
+            // 取消請求未帶標的時，由訂單本身查出應送往哪一本訂單簿
+            String symbol = redisOrderBookService.getOrderSymbol(cancelEvent.getOrderId());
+            cancelEvent.setSymbol(symbol != null ? symbol : SymbolConstants.DEFAULT_SYMBOL);
+        }
+        return orderIntake.cancel(cancelEvent).join();
 
-        return redisService.cancelOrder(cancelEvent);
+    }
 
+    /**
+     * 批次取消某用戶的掛單
+     * 未指定標的時對每個標的各送出一次，讓每個標的的取消都與該標的的撮合循序執行
+     *
+     * @return 已取消的訂單 ID
+     */
+    public List<UUID> massCancel(OrderMassCancelEvent event) {
+        Collection<String> symbols = event.getSymbol() != null
+                ? List.of(SymbolConstants.normalize(event.getSymbol()))
+                : orderBookEngine.symbols();
+        List<CompletableFuture<List<UUID>>> results = new ArrayList<>(symbols.size());
+        for (String symbol : symbols) {
+            results.add(orderIntake.massCancel(OrderMassCancelEvent.builder()
+                    .userId(event.getUserId())
+                    .symbol(symbol)
+                    .side(event.getSide())
+                    .minPrice(event.getMinPrice())
+                    .maxPrice(event.getMaxPrice())
+                    .build()));
+        }
+        List<UUID> cancelled = new ArrayList<>();
+        results.forEach(result -> cancelled.addAll(result.join()));
+        return cancelled;
     }
 }
@@ -0,0 +1,45 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderCreatedEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 批次消費 order.created.queue。
+ * 整批訂單依到達順序在同一次撮合中處理，listener 返回後整批一起 ack，
+ * 省去逐筆 listener 呼叫與 ack 的往返成本。
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "eap.match-engine.intake", name = "batch-enabled", havingValue = "true")
+public class OrderConfirmedBatchListener {
+
+  private final OrderIntake orderIntake;
+  private final DistributionSummary batchSize;
+  private final Timer batchLatency;
+
+  public OrderConfirmedBatchListener(OrderIntake orderIntake, MeterRegistry meterRegistry) {
+    this.orderIntake = orderIntake;
+    this.batchSize = DistributionSummary.builder("matchengine.intake.batch.size")
+        .description("Number of orders delivered per intake batch")
+        .baseUnit("orders")
+        .register(meterRegistry);
+    this.batchLatency = Timer.builder("matchengine.intake.batch.latency")
+        .description("Time to match one intake batch")
+        .publishPercentileHistogram()
+        .register(meterRegistry);
+  }
+
+  @RabbitListener(queues = "#{@orderCreatedQueueNames}", containerFactory = "batchListenerContainerFactory")
+  public void handleConfirmedOrders(List<OrderCreatedEvent> events) {
+    batchSize.record(events.size());
+    batchLatency.record(() -> orderIntake.submitAll(events).join());
+    log.debug("Matched intake batch of {} order(s)", events.size());
+  }
+}
@@ -2,21 +2,29 @@ package com.eap.eap_matchengine.application;
 
 
 import com.eap.common.event.OrderCreatedEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
+/**
+ * 逐筆消費 order.created.queue（預設模式）。
+ * 開啟 eap.match-engine.intake.batch-enabled 時改由 {@link OrderConfirmedBatchListener} 批次消費。
+ */
 @Component
 @RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "eap.match-engine.intake", name = "batch-enabled", havingValue = "false", matchIfMissing = true)
 public class OrderConfirmedListener {
 
-  private final MatchingEngineService matchingEngineService;
+  private final OrderIntake orderIntake;
 
-  @RabbitListener(queues = "order.created.queue")
-  public void handleConfirmedOrder(OrderCreatedEvent event) throws JsonProcessingException {
-    System.out.println("Confirmed order received: " + event);
+  @RabbitListener(queues = "#{@orderCreatedQueueNames}")
+  public void handleConfirmedOrder(OrderCreatedEvent event) {
+    log.debug("Confirmed order received: {}", event);
 
-    matchingEngineService.tryMatch(event);
+    // 等撮合結果確認送出後才返回，訊息才會被 ack
+    orderIntake.submit(event).join();
   }
 }
@@ -0,0 +1,134 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.constants.SymbolConstants;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import com.eap.eap_matchengine.domain.book.ExpiryWheel;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GTT（good-till-time）掛單的到期處理
+ * 剩餘數量入簿且帶有 expireAt 的訂單登記到 {@link ExpiryWheel}，單一執行緒每格推進一次時間輪，
+ * 到期的訂單依標的分批經 {@link OrderIntake} 移除（與該標的的撮合循序執行），
+ * 實際移除的訂單經 {@link OrderReleasePublisher} 通知錢包解除鎖定；移除失敗的批次在 retry-backoff 後重新登記，
+ * 避免到期掛單因一次失敗永遠留在簿中並鎖住資金。
+ * 啟動時由訂單簿後端取回所有帶期限的掛單重新登記，已過期的在第一格即移除。
+ * expireAt 與 createdAt 相同，以本機時區解讀。
+ */
+@Component
+@Slf4j
+public class OrderExpiryService {
+
+  private final OrderBookEngine orderBookEngine;
+  private final ObjectProvider<OrderIntake> orderIntake;
+  private final OrderReleasePublisher releasePublisher;
+  private final MatchEngineProperties.Expiry properties;
+  private final ExpiryWheel wheel;
+  private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+    Thread thread = new Thread(r, "order-expiry");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public OrderExpiryService(OrderBookEngine orderBookEngine,
+                            ObjectProvider<OrderIntake> orderIntake,
+                            OrderReleasePublisher releasePublisher,
+                            MatchEngineProperties properties) {
+    this.orderBookEngine = orderBookEngine;
+    this.orderIntake = orderIntake;
+    this.releasePublisher = releasePublisher;
+    this.properties = properties.getExpiry();
+    this.wheel = new ExpiryWheel(System.currentTimeMillis(), this.properties.getTick().toMillis(),
+        this.properties.getWheelSize());
+  }
+
+  /**
+   * 應用程式就緒後才開始推進時間輪，確保到期移除時 {@link OrderIntake} 已可使用
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    try {
+      List<OrderCreatedEvent> orders = orderBookEngine.expiringOrders();
+      orders.forEach(this::schedule);
+      if (!orders.isEmpty()) {
+        log.info("已重新登記 {} 筆帶期限的掛單", orders.size());
+      }
+    } catch (RuntimeException e) {
+      log.warn("無法取得帶期限的掛單，重啟前的 GTT 掛單不會自動到期: {}", e.getMessage());
+    }
+    long tick = properties.getTick().toMillis();
+    ticker.scheduleAtFixedRate(() -> tick(System.currentTimeMillis()), tick, tick, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * 登記已入簿訂單的到期時間；未設定 expireAt 的訂單忽略
+   */
+  public void schedule(OrderCreatedEvent order) {
+    if (order.getExpireAt() != null) {
+      wheel.schedule(SymbolConstants.normalize(order.getSymbol()), order.getOrderId(), toMillis(order.getExpireAt()));
+    }
+  }
+
+  /**
+   * 訂單是否在撮合前就已到期
+   */
+  public boolean isExpired(OrderCreatedEvent order) {
+    return order.getExpireAt() != null && toMillis(order.getExpireAt()) <= System.currentTimeMillis();
+  }
+
+  void tick(long nowMillis) {
+    try {
+      Map<String, List<UUID>> expired = new HashMap<>();
+      wheel.advance(nowMillis,
+          entry -> expired.computeIfAbsent(entry.getSymbol(), s -> new ArrayList<>()).add(entry.getOrderId()));
+      expired.forEach((symbol, orderIds) -> expire(symbol, orderIds, nowMillis));
+    } catch (RuntimeException e) {
+      log.error("掛單到期處理失敗", e);
+    }
+  }
+
+  private void expire(String symbol, List<UUID> orderIds, long nowMillis) {
+    int batchSize = properties.getBatchSize();
+    for (int from = 0; from < orderIds.size(); from += batchSize) {
+      List<UUID> batch = orderIds.subList(from, Math.min(from + batchSize, orderIds.size()));
+      orderIntake.getObject().expire(symbol, new ArrayList<>(batch)).whenComplete((removed, e) -> {
+        if (e != null) {
+          // 時間輪已移除這批訂單，延後重新登記；已不在簿中的訂單重試時只會被略過
+          long retryAt = nowMillis + properties.getRetryBackoff().toMillis();
+          log.error("移除 {} 到期掛單失敗: {} 筆，{} 後重試", symbol, batch.size(), properties.getRetryBackoff(), e);
+          batch.forEach(orderId -> wheel.schedule(symbol, orderId, retryAt));
+          return;
+        }
+        if (!removed.isEmpty()) {
+          log.info("已移除 {} 到期掛單 {} 筆", symbol, removed.size());
+          releasePublisher.publish(removed, OrderReleasePublisher.REASON_EXPIRED);
+        }
+      });
+    }
+  }
+
+  private static long toMillis(LocalDateTime time) {
+    return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    ticker.shutdownNow();
+  }
+}
@@ -0,0 +1,55 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderCancelEvent;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMassCancelEvent;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Entry point for everything that changes the order book.
+ * The implementation is selected by {@code eap.match-engine.sequencer.enabled}:
+ * {@link DirectOrderIntake} (default) matches on the calling listener thread,
+ * {@link MatchingSequencer} enqueues into a ring buffer drained by a single matching thread.
+ */
+public interface OrderIntake {
+
+    /**
+     * Submits an incoming order for matching.
+     * The listener acknowledges the message only once the returned future completes.
+     *
+     * @return completes once the order has been matched and its fills have been confirmed by the broker
+     *         (or parked), or the order has been released
+     */
+    CompletableFuture<Void> submit(OrderCreatedEvent incomingOrder);
+
+    /**
+     * Submits a batch of incoming orders, preserving their order.
+     *
+     * @return completes once every order of the batch has completed as in {@link #submit}
+     */
+    CompletableFuture<Void> submitAll(List<OrderCreatedEvent> incomingOrders);
+
+    /**
+     * Submits a cancel request.
+     *
+     * @return completes with true if the order was resting and has been removed
+     */
+    CompletableFuture<Boolean> cancel(OrderCancelEvent event);
+
+    /**
+     * Submits a mass cancel request for one symbol.
+     *
+     * @return completes with the ids of the removed orders
+     */
+    CompletableFuture<List<UUID>> massCancel(OrderMassCancelEvent event);
+
+    /**
+     * Submits the removal of expired orders of one symbol.
+     *
+     * @return completes with the removed orders and the amounts they still had
+     */
+    CompletableFuture<List<OrderCreatedEvent>> expire(String symbol, List<UUID> orderIds);
+}
@@ -1,6 +1,7 @@
 package com.eap.eap_matchengine.application;
 
 
+import com.eap.common.dto.UserOrderPageDto;
 import com.eap.common.event.OrderCreatedEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,4 +22,9 @@ public class OrderQueryService {
 
 
     }
+
+    public UserOrderPageDto excutePage(UUID userId, String cursor, int limit) {
+        log.info("Querying order page for user: {}, cursor: {}, limit: {}", userId, cursor, limit);
+        return redisOrderBookService.getOrderPageByUserId(userId, cursor, limit);
+    }
 }
@@ -0,0 +1,57 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.constants.SymbolConstants;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderReleasedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.eap.common.constants.RabbitMQConstants.ORDER_EXCHANGE;
+import static com.eap.common.constants.RabbitMQConstants.ORDER_RELEASED_KEY;
+
+/**
+ * 發出 {@link OrderReleasedEvent}，通知錢包解除訂單未成交部分的鎖定。
+ * GTT 掛單到期移除、IOC / FOK / MARKET 訂單撮合後不入簿的剩餘數量，驗證失敗的訂單與成交後入簿失敗的剩餘數量，
+ * 以及價格超出標的價格區間而無法入簿的訂單都經由這裡通知。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OrderReleasePublisher {
+
+  public static final String REASON_EXPIRED = "EXPIRED";
+  public static final String REASON_UNFILLED = "UNFILLED";
+  public static final String REASON_REJECTED = "REJECTED";
+  public static final String REASON_OUT_OF_BAND = "OUT_OF_BAND";
+
+  private final RabbitTemplate rabbitTemplate;
+
+  /**
+   * 發出解除鎖定事件，amount 為各訂單尚未成交的數量
+   */
+  public void publish(List<OrderCreatedEvent> orders, String reason) {
+    LocalDateTime releasedAt = LocalDateTime.now();
+    for (OrderCreatedEvent order : orders) {
+      OrderReleasedEvent event = OrderReleasedEvent.builder()
+          .orderId(order.getOrderId())
+          .userId(order.getUserId())
+          .price(order.getPrice())
+          .amount(order.getAmount())
+          .orderType(order.getOrderType())
+          .symbol(SymbolConstants.normalize(order.getSymbol()))
+          .reason(reason)
+          .releasedAt(releasedAt)
+          .build();
+      try {
+        rabbitTemplate.convertAndSend(ORDER_EXCHANGE, ORDER_RELEASED_KEY, event);
+      } catch (RuntimeException e) {
+        log.error("發送解除鎖定事件失敗: orderId={}", order.getOrderId(), e);
+      }
+    }
+  }
+}
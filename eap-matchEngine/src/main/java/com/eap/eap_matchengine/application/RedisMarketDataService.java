@@ -1,21 +1,27 @@
 package com.eap.eap_matchengine.application;
 
-import com.eap.common.event.OrderCreatedEvent;
 import com.eap.common.dto.OrderBookResponseDto;
 import com.eap.common.dto.MarketSummaryDto;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.eap.eap_matchengine.configuration.constants.RedisKeyLayout;
 import lombok.RequiredArgsConstructor;
+import lombok.Value;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Redis 市場數據查詢服務
  * 專門用於從 Redis 訂單簿中提取市場數據，供 WebSocket 推送使用
  * 與 RedisOrderBookService 分離，保持各自職責單一
+ * 讀取的是每次新增、成交、取消時原子更新的價格層級聚合，查詢成本只與深度有關，與訂單簿大小無關
+ * 訂單簿與市場統計以訂單簿版本號快取，版本號未變時只需一次 GET，不重新讀取價格層級
+ * 訂單簿深度、市場統計與層級數經由 {@link RedisReadPool} 讀取，腳本以 EVALSHA_RO 執行，與版本號 GET 一樣依 read-from 讀取 replica；
+ * 撮合路徑的增量與快照（readBookLevels）一律讀主節點，增量序號存在 Redis 並與價格層級在同一個腳本內讀取，確保兩者一致
  */
 @Service
 @RequiredArgsConstructor
@@ -23,26 +29,72 @@ import java.util.stream.Collectors;
 public class RedisMarketDataService {
     
     private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper;
-    
-    private static final String BUY_ORDERBOOK_KEY = "orderbook:buy";
-    private static final String SELL_ORDERBOOK_KEY = "orderbook:sell";
+    private final RedisKeyLayout keyLayout;
+    private final RedisReadPool readPool;
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ORDERBOOK_DEPTH_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/orderbook_depth.lua"), List.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ORDERBOOK_LEVELS_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/orderbook_levels.lua"), List.class);
+
+    /**
+     * 產生 L2 增量所需的價格層級：雙方前 N 層與指定價格的目前聚合值（已不存在的價格數量為 0）
+     */
+    @Value
+    public static class BookLevels {
+        List<OrderBookResponseDto.OrderBookLevel> bids;
+        List<OrderBookResponseDto.OrderBookLevel> asks;
+        List<OrderBookResponseDto.OrderBookLevel> buyLevels;
+        List<OrderBookResponseDto.OrderBookLevel> sellLevels;
+        long version;
+        // 增量 epoch 與序號，尚未發出過增量的標的為 0
+        long epoch;
+        long sequence;
+    }
+
+    /**
+     * 某標的某深度的快取快照；response 建立後不再修改，所有讀者共用同一個物件
+     */
+    @Value
+    private static class CachedSnapshot {
+        long version;
+        long loadStartedAt; // 開始讀取時的 System.nanoTime()
+        OrderBookResponseDto response;
+    }
+
+    /**
+     * 快取的深度：查詢深度向上取到其中一個讀取後截斷，最大值以上的查詢直接讀取 Redis，
+     * 任意深度參數最多只產生這幾個快照
+     */
+    private static final int[] CACHED_DEPTHS = {1, 10, 25, 100};
+
+    /**
+     * 快取的標的數上限，超過時淘汰最久未查詢的標的；標的由查詢參數帶入，不可讓任意字串無限增長快取
+     */
+    static final int MAX_CACHED_SYMBOLS = 256;
+
+    // key 為 symbol，value 依 CACHED_DEPTHS 的順序存放各深度的快照，同時作為該快照重建的鎖；依存取順序淘汰
+    private final Map<String, List<AtomicReference<CachedSnapshot>>> snapshots = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, List<AtomicReference<CachedSnapshot>>> eldest) {
+                    return size() > MAX_CACHED_SYMBOLS;
+                }
+            });
     
     /**
      * 獲取訂單簿數據（買盤和賣盤的聚合數據）
+     * 讀取失敗時回傳空訂單簿，供 WebSocket 推送與訂單簿查詢使用；需要區分「無掛單」與「讀取失敗」時改用 {@link #readOrderBookData}
+     * @param symbol 交易標的
      * @param depth 深度（返回多少個價格層級，默認10層）
      * @return 訂單簿響應DTO
      */
-    public OrderBookResponseDto getOrderBookData(int depth) {
+    public OrderBookResponseDto getOrderBookData(String symbol, int depth) {
         try {
-            List<OrderBookResponseDto.OrderBookLevel> bids = getBuyOrderBookLevels(depth);
-            List<OrderBookResponseDto.OrderBookLevel> asks = getSellOrderBookLevels(depth);
-            
-            return OrderBookResponseDto.builder()
-                    .bids(bids)
-                    .asks(asks)
-                    .build();
-                    
+            return readOrderBookData(symbol, depth);
         } catch (Exception e) {
             log.error("獲取訂單簿數據失敗: {}", e.getMessage());
             return OrderBookResponseDto.builder()
@@ -53,101 +105,197 @@ public class RedisMarketDataService {
     }
     
     /**
-     * 獲取買盤數據（價格從高到低排序）
+     * 與 {@link #getOrderBookData} 相同，但 Redis 讀取失敗時直接拋出例外，不回傳空訂單簿
+     * @param symbol 交易標的
+     * @param depth 深度
+     * @return 訂單簿響應DTO
+     */
+    public OrderBookResponseDto readOrderBookData(String symbol, int depth) {
+        int cachedDepth = cachedDepthIndex(depth);
+        if (cachedDepth >= 0) {
+            return truncate(cachedSnapshot(symbol, cachedDepth), depth);
+        }
+        List<OrderBookResponseDto.OrderBookLevel> bids = readLevels(symbol, true, depth); // 價格從高到低
+        List<OrderBookResponseDto.OrderBookLevel> asks = readLevels(symbol, false, depth); // 價格從低到高
+
+        return OrderBookResponseDto.builder()
+                .bids(bids)
+                .asks(asks)
+                .build();
+    }
+
+    /**
+     * @return 可容納 depth 的最小快取深度在 CACHED_DEPTHS 中的位置，無法快取時為 -1
      */
-    private List<OrderBookResponseDto.OrderBookLevel> getBuyOrderBookLevels(int depth) {
-        try {
-            // 獲取買盤訂單ID（價格從高到低）
-            Set<String> buyOrderIds = redisTemplate.opsForZSet().reverseRange(BUY_ORDERBOOK_KEY, 0, -1);
-            Map<Integer, PriceLevelData> buyLevels = new LinkedHashMap<>();
-            
-            if (buyOrderIds != null) {
-                for (String orderId : buyOrderIds) {
-                    String orderJson = redisTemplate.opsForValue().get("order:" + orderId);
-                    if (orderJson != null) {
-                        OrderCreatedEvent order = objectMapper.readValue(orderJson, OrderCreatedEvent.class);
-                        buyLevels.computeIfAbsent(order.getPrice(), price -> 
-                            new PriceLevelData(price))
-                            .addOrder(order.getAmount());
-                    }
-                }
+    private static int cachedDepthIndex(int depth) {
+        if (depth <= 0) {
+            return -1;
+        }
+        for (int i = 0; i < CACHED_DEPTHS.length; i++) {
+            if (depth <= CACHED_DEPTHS[i]) {
+                return i;
             }
-            
-            // 轉換為響應DTO並限制深度
-            return buyLevels.values().stream()
-                    .limit(depth)
-                    .map(level -> OrderBookResponseDto.OrderBookLevel.builder()
-                            .price(level.getPrice())
-                            .amount(level.getQuantity())
-                            .orderCount(level.getOrderCount())
-                            .build())
-                    .collect(Collectors.toList());
-                    
-        } catch (Exception e) {
-            log.error("獲取買盤數據失敗: {}", e.getMessage());
-            return List.of();
         }
+        return -1;
     }
-    
+
+    private static OrderBookResponseDto truncate(OrderBookResponseDto book, int depth) {
+        if (book.getBids().size() <= depth && book.getAsks().size() <= depth) {
+            return book;
+        }
+        return OrderBookResponseDto.builder()
+                .bids(book.getBids().subList(0, Math.min(depth, book.getBids().size())))
+                .asks(book.getAsks().subList(0, Math.min(depth, book.getAsks().size())))
+                .build();
+    }
+
     /**
-     * 獲取賣盤數據（價格從低到高排序）
+     * 回傳與目前訂單簿版本號相符的快照，版本號已變更時重建
+     * 同一標的、同一深度同時只有一個執行緒重建（single-flight），其餘讀者等待後直接取用重建結果：
+     * 只要快照是在讀者到達之後才開始讀取，內容就不會比讀者自己重讀更舊。
+     * 版本號與價格層級在同一個腳本中讀取，快照標記的版本號必定對應其內容。
+     * 版本號只會遞增；讀取 replica 時版本號 GET 與腳本可能落在不同步進度的節點，
+     * 快照版本號不小於讀到的版本號即視為最新，落後的 replica 不會讓快照反覆重建。
+     * 沒有版本號的標的（從未有過掛單，包括查詢帶入的任意字串）不建立快取，直接讀取
+     *
+     * @param depthIndex 快取深度在 CACHED_DEPTHS 中的位置
      */
-    private List<OrderBookResponseDto.OrderBookLevel> getSellOrderBookLevels(int depth) {
-        try {
-            // 獲取賣盤訂單ID（價格從低到高）
-            Set<String> sellOrderIds = redisTemplate.opsForZSet().range(SELL_ORDERBOOK_KEY, 0, -1);
-            Map<Integer, PriceLevelData> sellLevels = new LinkedHashMap<>();
-            
-            if (sellOrderIds != null) {
-                for (String orderId : sellOrderIds) {
-                    String orderJson = redisTemplate.opsForValue().get("order:" + orderId);
-                    if (orderJson != null) {
-                        OrderCreatedEvent order = objectMapper.readValue(orderJson, OrderCreatedEvent.class);
-                        sellLevels.computeIfAbsent(order.getPrice(), price -> 
-                            new PriceLevelData(price))
-                            .addOrder(order.getAmount());
-                    }
-                }
+    private OrderBookResponseDto cachedSnapshot(String symbol, int depthIndex) {
+        long arrivedAt = System.nanoTime();
+        int depth = CACHED_DEPTHS[depthIndex];
+        long version = currentVersion(symbol);
+        if (version == 0) {
+            return toResponse(readBookLevels(true, symbol, depth, List.of(), List.of(), 0));
+        }
+        AtomicReference<CachedSnapshot> entry = snapshots.computeIfAbsent(symbol, k -> newSymbolSnapshots()).get(depthIndex);
+        CachedSnapshot cached = entry.get();
+        if (cached != null && cached.getVersion() >= version) {
+            return cached.getResponse();
+        }
+        synchronized (entry) {
+            cached = entry.get();
+            if (cached != null && (cached.getVersion() >= version || cached.getLoadStartedAt() - arrivedAt >= 0)) {
+                return cached.getResponse();
             }
-            
-            // 轉換為響應DTO並限制深度
-            return sellLevels.values().stream()
-                    .limit(depth)
-                    .map(level -> OrderBookResponseDto.OrderBookLevel.builder()
-                            .price(level.getPrice())
-                            .amount(level.getQuantity())
-                            .orderCount(level.getOrderCount())
-                            .build())
-                    .collect(Collectors.toList());
-                    
-        } catch (Exception e) {
-            log.error("獲取賣盤數據失敗: {}", e.getMessage());
+            long loadStartedAt = System.nanoTime();
+            BookLevels levels = readBookLevels(true, symbol, depth, List.of(), List.of(), 0);
+            OrderBookResponseDto response = toResponse(levels);
+            entry.set(new CachedSnapshot(levels.getVersion(), loadStartedAt, response));
+            return response;
+        }
+    }
+
+    /**
+     * 目前有快照的標的數
+     */
+    int cachedSymbolCount() {
+        return snapshots.size();
+    }
+
+    private static List<AtomicReference<CachedSnapshot>> newSymbolSnapshots() {
+        List<AtomicReference<CachedSnapshot>> entries = new ArrayList<>(CACHED_DEPTHS.length);
+        for (int i = 0; i < CACHED_DEPTHS.length; i++) {
+            entries.add(new AtomicReference<>());
+        }
+        return entries;
+    }
+
+    private static OrderBookResponseDto toResponse(BookLevels levels) {
+        return OrderBookResponseDto.builder()
+                .bids(List.copyOf(levels.getBids()))
+                .asks(List.copyOf(levels.getAsks()))
+                .build();
+    }
+
+    private long currentVersion(String symbol) {
+        String version = readPool.template().opsForValue().get(keyLayout.versionKey(symbol));
+        return version == null ? 0 : Long.parseLong(version);
+    }
+
+    /**
+     * 以單次腳本呼叫從撮合連線讀取雙方前 depth 層、指定買賣價格的目前聚合值與目前的增量序號
+     */
+    public BookLevels readBookLevels(String symbol, int depth, Collection<Integer> buyPrices, Collection<Integer> sellPrices) {
+        return readBookLevels(false, symbol, depth, buyPrices, sellPrices, 0);
+    }
+
+    /**
+     * 與 {@link #readBookLevels(String, int, Collection, Collection)} 相同，但在同一個腳本內分配下一個增量序號；
+     * 標的尚無增量序號時以 epoch 起算
+     */
+    public BookLevels readDeltaLevels(String symbol, int depth, Collection<Integer> buyPrices,
+                                      Collection<Integer> sellPrices, long epoch) {
+        return readBookLevels(false, symbol, depth, buyPrices, sellPrices, epoch);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BookLevels readBookLevels(boolean fromReadPool, String symbol, int depth,
+                                      Collection<Integer> buyPrices, Collection<Integer> sellPrices, long epoch) {
+        List<String> keys = new ArrayList<>(8);
+        keys.addAll(keyLayout.levelKeys(symbol, true));
+        keys.addAll(keyLayout.levelKeys(symbol, false));
+        keys.add(keyLayout.versionKey(symbol));
+        keys.add(keyLayout.feedKey(symbol));
+        List<String> args = new ArrayList<>(3 + buyPrices.size() + sellPrices.size());
+        args.add(Integer.toString(depth));
+        args.add(Integer.toString(buyPrices.size()));
+        args.add(Long.toString(epoch));
+        buyPrices.forEach(price -> args.add(price.toString()));
+        sellPrices.forEach(price -> args.add(price.toString()));
+        List<Object> result = fromReadPool
+                ? readPool.executeReadOnly(ORDERBOOK_LEVELS_SCRIPT, keys, args.toArray())
+                : redisTemplate.execute(ORDERBOOK_LEVELS_SCRIPT, keys, args.toArray());
+        return new BookLevels(toLevels((List<Object>) result.get(0)), toLevels((List<Object>) result.get(1)),
+                toLevels((List<Object>) result.get(2)), toLevels((List<Object>) result.get(3)),
+                Long.parseLong((String) result.get(4)), Long.parseLong((String) result.get(5)),
+                Long.parseLong((String) result.get(6)));
+    }
+
+    /**
+     * 以單次腳本呼叫讀取某一側前 depth 個價格層級
+     */
+    private List<OrderBookResponseDto.OrderBookLevel> readLevels(String symbol, boolean buy, int depth) {
+        return toLevels(readPool.executeReadOnly(ORDERBOOK_DEPTH_SCRIPT, keyLayout.levelKeys(symbol, buy),
+                Integer.toString(depth), buy ? "1" : "0"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<OrderBookResponseDto.OrderBookLevel> toLevels(List<Object> rows) {
+        if (rows == null || rows.isEmpty()) {
             return List.of();
         }
+        List<OrderBookResponseDto.OrderBookLevel> levels = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            List<String> level = (List<String>) row;
+            levels.add(OrderBookResponseDto.OrderBookLevel.builder()
+                    .price(Integer.parseInt(level.get(0)))
+                    .amount(Integer.parseInt(level.get(1)))
+                    .orderCount(Integer.parseInt(level.get(2)))
+                    .build());
+        }
+        return levels;
     }
     
+    /**
+     * 某一側的價格層級數
+     */
+    public int getLevelCount(String symbol, boolean buy) {
+        Long count = readPool.template().opsForZSet().zCard(keyLayout.levelKeys(symbol, buy).get(0));
+        return count == null ? 0 : count.intValue();
+    }
+
     /**
      * 獲取市場簡要統計
+     * @param symbol 交易標的
      * @return 包含最佳買價、最佳賣價等基本信息
      */
-    public MarketSummaryDto getMarketSummary() {
+    public MarketSummaryDto getMarketSummary(String symbol) {
         try {
-            // 獲取最佳買價（最高買價）
-            Set<String> topBuyOrder = redisTemplate.opsForZSet().reverseRange(BUY_ORDERBOOK_KEY, 0, 0);
-            Integer bestBidPrice = null;
-            if (topBuyOrder != null && !topBuyOrder.isEmpty()) {
-                Double price = redisTemplate.opsForZSet().score(BUY_ORDERBOOK_KEY, topBuyOrder.iterator().next());
-                bestBidPrice = price != null ? price.intValue() : null;
-            }
-            
-            // 獲取最佳賣價（最低賣價）
-            Set<String> topSellOrder = redisTemplate.opsForZSet().range(SELL_ORDERBOOK_KEY, 0, 0);
-            Integer bestAskPrice = null;
-            if (topSellOrder != null && !topSellOrder.isEmpty()) {
-                Double price = redisTemplate.opsForZSet().score(SELL_ORDERBOOK_KEY, topSellOrder.iterator().next());
-                bestAskPrice = price != null ? price.intValue() : null;
-            }
-            
+            // 最佳買賣價取自深度 1 的快取快照，訂單簿未異動時不需讀取價格層級
+            OrderBookResponseDto top = cachedSnapshot(symbol, 0);
+            Integer bestBidPrice = top.getBids().isEmpty() ? null : top.getBids().get(0).getPrice();
+            Integer bestAskPrice = top.getAsks().isEmpty() ? null : top.getAsks().get(0).getPrice();
+
             MarketSummaryDto summary = new MarketSummaryDto();
             summary.setBestBidPrice(bestBidPrice);
             summary.setBestAskPrice(bestAskPrice);
@@ -161,26 +309,4 @@ public class RedisMarketDataService {
             return summary;
         }
     }
-    
-    /**
-     * 內部類：價格層級數據聚合
-     */
-    private static class PriceLevelData {
-        private final Integer price;
-        private Integer quantity = 0;
-        private Integer orderCount = 0;
-        
-        public PriceLevelData(Integer price) {
-            this.price = price;
-        }
-        
-        public void addOrder(Integer amount) {
-            this.quantity += amount;
-            this.orderCount++;
-        }
-        
-        public Integer getPrice() { return price; }
-        public Integer getQuantity() { return quantity; }
-        public Integer getOrderCount() { return orderCount; }
-    }
 }
@@ -0,0 +1,247 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.constants.SymbolConstants;
+import com.eap.common.constants.TimeInForce;
+import com.eap.common.dto.MarketQuoteDto;
+import com.eap.common.dto.MarketSummaryDto;
+import com.eap.common.dto.OrderBookResponseDto;
+import com.eap.common.event.OrderBookDeltaEvent;
+import com.eap.common.event.OrderCancelEvent;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMassCancelEvent;
+import com.eap.eap_matchengine.domain.book.BookSummary;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Order book backend that matches directly against the Redis order book.
+ * The whole sweep across price levels runs in one Lua script call; only an unfilled
+ * remainder of the incoming order costs an extra write.
+ * When the L2 delta feed is enabled, operations on the same symbol are serialized in this process and
+ * every operation reads back the touched levels to emit a delta; the delta epoch and sequence live in Redis
+ * next to the book, so they are shared by every instance.
+ */
+@Service
+@ConditionalOnProperty(prefix = "eap.match-engine", name = "book-backend", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class RedisOrderBookEngine implements OrderBookEngine {
+
+  // 試算先讀取的層數，不足時每次放大 4 倍
+  private static final int QUOTE_INITIAL_DEPTH = 25;
+
+  private final RedisOrderBookService orderBookService;
+  private final RedisMarketDataService marketDataService;
+  private final OrderBookDeltaFeed deltaFeed;
+  private final MatchEngineMetrics metrics;
+  private final OrderReleasePublisher orderReleasePublisher;
+
+  @Override
+  public List<MatchFill> match(OrderCreatedEvent incomingOrder) {
+    if (!deltaFeed.isEnabled()) {
+      return doMatch(incomingOrder);
+    }
+    String symbol = SymbolConstants.normalize(incomingOrder.getSymbol());
+    boolean isBuy = incomingOrder.getOrderType().equalsIgnoreCase("BUY");
+    synchronized (deltaFeed.lock(symbol)) {
+      List<MatchFill> fills = doMatch(incomingOrder);
+      Set<Integer> makerPrices = new LinkedHashSet<>();
+      for (MatchFill fill : fills) {
+        makerPrices.add(fill.getDealPrice());
+      }
+      boolean rested = incomingOrder.getAmount() > 0 && TimeInForce.of(incomingOrder.getTimeInForce()).rests();
+      List<Integer> restedPrice = rested ? List.of(incomingOrder.getPrice()) : List.of();
+      emitDeltas(symbol, isBuy ? restedPrice : makerPrices, isBuy ? makerPrices : restedPrice);
+      return fills;
+    }
+  }
+
+  private List<MatchFill> doMatch(OrderCreatedEvent incomingOrder) {
+    boolean isBuy = incomingOrder.getOrderType().equalsIgnoreCase("BUY");
+    TimeInForce timeInForce = TimeInForce.of(incomingOrder.getTimeInForce());
+    // 單次 EVALSHA 走訪對手盤，取回全部成交；FOK 的流動性檢查也在同一個 script 內完成
+    List<MatchFill> fills = metrics.stage(MatchEngineMetrics.Stage.BOOK).record(() -> orderBookService.sweepMatch(
+        SymbolConstants.normalize(incomingOrder.getSymbol()), isBuy,
+        timeInForce.limitPrice(isBuy, incomingOrder.getPrice()), incomingOrder.getAmount(),
+        timeInForce == TimeInForce.FOK));
+    int matchedAmount = 0;
+    for (MatchFill fill : fills) {
+      matchedAmount += fill.getAmount();
+    }
+    incomingOrder.setAmount(incomingOrder.getAmount() - matchedAmount);
+    if (incomingOrder.getAmount() > 0 && timeInForce.rests()) {
+      // 剩餘數量加回 orderbook；成交已寫入訂單簿，入簿失敗時不拋出，保留成交並只解除剩餘數量的鎖定
+      try {
+        metrics.stage(MatchEngineMetrics.Stage.REST).record(() -> orderBookService.addOrder(incomingOrder));
+        log.debug("Remaining order added to order book: {}", incomingOrder);
+      } catch (RuntimeException e) {
+        log.error("Failed to rest order {} after {} fill(s), releasing its remaining {}",
+            incomingOrder.getOrderId(), fills.size(), incomingOrder.getAmount(), e);
+        orderReleasePublisher.publish(List.of(incomingOrder), OrderReleasePublisher.REASON_REJECTED);
+        incomingOrder.setAmount(0);
+      }
+    }
+    return fills;
+  }
+
+  @Override
+  public boolean cancel(OrderCancelEvent event) {
+    if (!deltaFeed.isEnabled()) {
+      return orderBookService.cancelOrder(event);
+    }
+    String symbol = SymbolConstants.normalize(event.getSymbol());
+    synchronized (deltaFeed.lock(symbol)) {
+      OrderCreatedEvent order = orderBookService.cancel(symbol, event.getOrderId());
+      if (order == null) {
+        return false;
+      }
+      List<Integer> price = List.of(order.getPrice());
+      boolean buy = order.getOrderType().equalsIgnoreCase("BUY");
+      emitDeltas(symbol, buy ? price : List.of(), buy ? List.of() : price);
+      return true;
+    }
+  }
+
+  @Override
+  public List<UUID> massCancel(OrderMassCancelEvent event) {
+    if (!deltaFeed.isEnabled()) {
+      return orderIds(orderBookService.massCancel(event));
+    }
+    String symbol = SymbolConstants.normalize(event.getSymbol());
+    synchronized (deltaFeed.lock(symbol)) {
+      List<OrderCreatedEvent> cancelled = orderBookService.massCancel(event);
+      emitRemovals(symbol, cancelled);
+      return orderIds(cancelled);
+    }
+  }
+
+  @Override
+  public List<OrderCreatedEvent> expire(String symbol, Collection<UUID> orderIds) {
+    if (!deltaFeed.isEnabled()) {
+      return orderBookService.cancelOrders(symbol, orderIds);
+    }
+    synchronized (deltaFeed.lock(symbol)) {
+      List<OrderCreatedEvent> removed = orderBookService.cancelOrders(symbol, orderIds);
+      emitRemovals(symbol, removed);
+      return removed;
+    }
+  }
+
+  /**
+   * Reads every resting order; only run once on startup.
+   */
+  @Override
+  public List<OrderCreatedEvent> expiringOrders() {
+    List<OrderCreatedEvent> expiring = new ArrayList<>();
+    for (OrderCreatedEvent order : orderBookService.getRestingOrders()) {
+      if (order.getExpireAt() != null) {
+        expiring.add(order);
+      }
+    }
+    return expiring;
+  }
+
+  /**
+   * Emits the levels that lost one of {@code removed}; called under the symbol's lock.
+   */
+  private void emitRemovals(String symbol, List<OrderCreatedEvent> removed) {
+    if (removed.isEmpty()) {
+      return;
+    }
+    Set<Integer> buyPrices = new LinkedHashSet<>();
+    Set<Integer> sellPrices = new LinkedHashSet<>();
+    for (OrderCreatedEvent order : removed) {
+      (order.getOrderType().equalsIgnoreCase("BUY") ? buyPrices : sellPrices).add(order.getPrice());
+    }
+    emitDeltas(symbol, buyPrices, sellPrices);
+  }
+
+  private static List<UUID> orderIds(List<OrderCreatedEvent> orders) {
+    List<UUID> orderIds = new ArrayList<>(orders.size());
+    for (OrderCreatedEvent order : orders) {
+      orderIds.add(order.getOrderId());
+    }
+    return orderIds;
+  }
+
+  /**
+   * The epoch and sequence are read from Redis in the same script call as the levels, so a snapshot served by
+   * any instance lines up with the deltas emitted by every other instance.
+   */
+  @Override
+  public OrderBookResponseDto snapshot(String symbol, int depth) {
+    int levels = Math.max(depth, deltaFeed.getChecksumDepth());
+    RedisMarketDataService.BookLevels book = marketDataService.readBookLevels(symbol, levels, List.of(), List.of());
+    return deltaFeed.toSnapshot(symbol, book.getEpoch(), book.getSequence(), book.getBids(), book.getAsks());
+  }
+
+  /**
+   * Reads the aggregated levels through the version-cached snapshot of {@link RedisMarketDataService}, so a
+   * repeated quote on an unchanged book costs one GET; the depth grows until the amount is covered or the
+   * side is exhausted. A failed Redis read propagates instead of being quoted as an empty book.
+   */
+  @Override
+  public MarketQuoteDto quote(String symbol, boolean buy, int amount) {
+    for (int depth = QUOTE_INITIAL_DEPTH; ; depth *= 4) {
+      OrderBookResponseDto book = marketDataService.readOrderBookData(symbol, depth);
+      List<OrderBookResponseDto.OrderBookLevel> levels = buy ? book.getAsks() : book.getBids();
+      MarketQuoteBuilder quote = new MarketQuoteBuilder(symbol, buy, amount);
+      for (OrderBookResponseDto.OrderBookLevel level : levels) {
+        if (!quote.add(level.getPrice(), level.getAmount())) {
+          break;
+        }
+      }
+      if (!quote.needsMore() || levels.size() < depth) {
+        return quote.build();
+      }
+    }
+  }
+
+  @Override
+  public BookSummary summary(String symbol) {
+    MarketSummaryDto top = marketDataService.getMarketSummary(symbol);
+    return new BookSummary(marketDataService.getLevelCount(symbol, true), marketDataService.getLevelCount(symbol, false),
+        top.getBestBidPrice(), top.getBestAskPrice());
+  }
+
+  @Override
+  public Set<String> symbols() {
+    return orderBookService.getSymbols();
+  }
+
+  /**
+   * Reads back the touched levels and the top levels in one script call, which also takes the next sequence
+   * from the symbol's Redis feed key, and emits the delta.
+   * The book change has already been applied, so a failed read is only logged; consumers detect
+   * the resulting divergence through the checksum of the next delta and resync.
+   */
+  private void emitDeltas(String symbol, Collection<Integer> buyPrices, Collection<Integer> sellPrices) {
+    if (buyPrices.isEmpty() && sellPrices.isEmpty()) {
+      return;
+    }
+    try {
+      RedisMarketDataService.BookLevels book = marketDataService.readDeltaLevels(
+          symbol, deltaFeed.getChecksumDepth(), buyPrices, sellPrices, deltaFeed.getEpoch());
+      List<OrderBookDeltaEvent.LevelChange> changes = new ArrayList<>(buyPrices.size() + sellPrices.size());
+      for (OrderBookResponseDto.OrderBookLevel level : book.getBuyLevels()) {
+        changes.add(OrderBookDeltaFeed.change(true, level.getPrice(), level.getAmount(), level.getOrderCount()));
+      }
+      for (OrderBookResponseDto.OrderBookLevel level : book.getSellLevels()) {
+        changes.add(OrderBookDeltaFeed.change(false, level.getPrice(), level.getAmount(), level.getOrderCount()));
+      }
+      deltaFeed.emit(symbol, book.getEpoch(), book.getSequence(), changes, book.getBids(), book.getAsks());
+    } catch (RuntimeException e) {
+      log.error("Failed to emit order book delta for {}", symbol, e);
+    }
+  }
+}
@@ -1,53 +1,248 @@
 package com.eap.eap_matchengine.application;
 
+import com.eap.common.constants.SymbolConstants;
+import com.eap.common.dto.UserOrderPageDto;
 import com.eap.common.event.OrderCancelEvent;
 import com.eap.common.event.OrderCreatedEvent;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.eap.common.event.OrderMassCancelEvent;
+import com.eap.eap_matchengine.configuration.constants.RedisKeyLayout;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import com.eap.eap_matchengine.domain.book.RestingOrder;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
 import java.util.List;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+import static com.eap.eap_matchengine.configuration.constants.RedisKeyConstants.*;
+
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.redis.connection.ReturnType;
-import org.springframework.data.redis.core.RedisCallback;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 
 /**
  * Redis-based implementation of an order book service for managing buy and sell orders.
- * Uses Redis Sorted Sets (ZSet) to maintain order books with price-based sorting.
+ * Uses Redis Sorted Sets (ZSet) to maintain order books with price-based sorting, one pair of books per symbol.
+ * Each resting order is stored as a Redis hash under {@code order:{id}} with the fields
+ * orderId, userId, price, amount, orderType, createdAt, symbol and expireAt, so partial fills update the
+ * amount in place and partial reads skip a full decode.
+ * Every mutating script also increments the symbol's book version ({@code orderbook:{symbol}:version}),
+ * which {@link RedisMarketDataService} uses to tell whether a cached snapshot is still current.
+ * Key names come from the configured {@link RedisKeyLayout}: with {@link RedisKeyLayout#CLUSTER} every key a
+ * script touches carries the symbol as a hash tag, order hashes and user indexes are kept per symbol, and the
+ * symbol set is written outside the scripts, so the service runs unchanged against Redis Cluster.
+ * User order queries read through {@link RedisReadPool} and never queue behind the matching scripts.
  * Provides functionality for adding, removing, and matching orders.
  */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class RedisOrderBookService {
 
-    private final String BUY_ORDERBOOK_KEY = "orderbook:buy";
-    private final String SELL_ORDERBOOK_KEY = "orderbook:sell";
+    static final String FIELD_ORDER_ID = "orderId";
+    static final String FIELD_USER_ID = "userId";
+    static final String FIELD_PRICE = "price";
+    static final String FIELD_AMOUNT = "amount";
+    static final String FIELD_ORDER_TYPE = "orderType";
+    static final String FIELD_CREATED_AT = "createdAt";
+    static final String FIELD_SYMBOL = "symbol";
+    static final String FIELD_EXPIRE_AT = "expireAt";
+
+    // 更新價格層級聚合的腳本共用的 updateLevel
+    private static final String UPDATE_LEVEL_LIBRARY = "scripts/lib/update_level.lua";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> SWEEP_MATCH_SCRIPT =
+            levelScript("scripts/sweep_match.lua", List.class);
+    private static final RedisScript<Long> MIGRATE_ORDER_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/migrate_order_json.lua"), Long.class);
+    private static final RedisScript<Long> ADD_ORDER_SCRIPT =
+            levelScript("scripts/add_order.lua", Long.class);
+    private static final RedisScript<Long> REMOVE_ORDER_SCRIPT =
+            levelScript("scripts/remove_order.lua", Long.class);
+    private static final RedisScript<Long> DECREASE_AMOUNT_SCRIPT =
+            levelScript("scripts/decrease_amount.lua", Long.class);
+    private static final RedisScript<Long> REBUILD_LEVELS_SCRIPT =
+            levelScript("scripts/rebuild_levels.lua", Long.class);
+    private static final RedisScript<Long> MIGRATE_SINGLE_SYMBOL_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/migrate_single_symbol.lua"), Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CANCEL_ORDER_SCRIPT =
+            levelScript("scripts/cancel_order.lua", List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> MASS_CANCEL_SCRIPT =
+            levelScript("scripts/mass_cancel.lua", List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CANCEL_ORDERS_SCRIPT =
+            levelScript("scripts/cancel_orders.lua", List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GET_ORDERS_SCRIPT =
+            RedisScript.of(new ClassPathResource("scripts/get_orders.lua"), List.class);
+
+    /**
+     * Loads a script that updates the level aggregates with {@link #UPDATE_LEVEL_LIBRARY} prepended, so the
+     * shared helper is defined once; the SHA is computed over the combined source.
+     */
+    private static <T> RedisScript<T> levelScript(String path, Class<T> resultType) {
+        return RedisScript.of(readScript(UPDATE_LEVEL_LIBRARY) + "\n" + readScript(path), resultType);
+    }
+
+    private static String readScript(String path) {
+        try {
+            return StreamUtils.copyToString(new ClassPathResource(path).getInputStream(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read Lua script " + path, e);
+        }
+    }
+
+    /**
+     * Order hashes read per script call by the user order queries; keeps a single call short for users with
+     * very many resting orders.
+     */
+    static final int USER_ORDER_FETCH_CHUNK = 500;
+
     private final RedisTemplate<String, String> redisTemplate;
-    private final ObjectMapper objectMapper; // 注入Spring配置的ObjectMapper
+    private final RedisKeyLayout keyLayout;
+    private final RedisReadPool readPool;
+
+    /**
+     * Symbols already written to the symbol set by this instance (cluster layout only).
+     */
+    private final Set<String> registeredSymbols = ConcurrentHashMap.newKeySet();
+
+    @Value("${eap.match-engine.migrate-legacy-orders:true}")
+    private boolean migrateLegacyOrders;
+
+    /**
+     * Brings data written by older versions up to the current layout before the listeners start consuming:
+     * converts legacy JSON orders to hashes, moves the single-symbol book under the default symbol
+     * and builds the price-level aggregates if they are missing.
+     */
+    @PostConstruct
+    public void initialize() {
+        if (keyLayout == RedisKeyLayout.STANDALONE) {
+            // 舊版資料只存在於單機配置；cluster 配置由空的 keyspace 開始
+            migrateLegacyOrders();
+            migrateSingleSymbolBook(true);
+            migrateSingleSymbolBook(false);
+        }
+        for (String symbol : getSymbols()) {
+            rebuildLevelAggregatesIfMissing(symbol, true);
+            rebuildLevelAggregatesIfMissing(symbol, false);
+        }
+    }
+
+    /**
+     * Converts orders written by older versions as JSON strings under {@code order:{id}} into hashes.
+     * A no-op when every order key is already a hash. Each key is converted atomically by a Lua script.
+     */
+    public void migrateLegacyOrders() {
+        if (!migrateLegacyOrders) {
+            return;
+        }
+        long migrated = 0;
+        ScanOptions options = ScanOptions.scanOptions().match("order:*").count(1000).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                Long converted = redisTemplate.execute(MIGRATE_ORDER_SCRIPT, List.of(cursor.next()));
+                if (converted != null && converted > 0) {
+                    migrated++;
+                }
+            }
+        } catch (Exception e) {
+            log.error("舊版 JSON 訂單轉換為 hash 失敗: {}", e.getMessage());
+        }
+        if (migrated > 0) {
+            log.info("已將 {} 筆舊版 JSON 訂單轉換為 hash 格式", migrated);
+        }
+    }
+
+    /**
+     * Moves one side of the book written by the single-symbol version ({@code orderbook:buy} / {@code orderbook:sell})
+     * under the default symbol. Order hashes without a symbol field are read as the default symbol.
+     */
+    private void migrateSingleSymbolBook(boolean buy) {
+        List<String> keys = new ArrayList<>(9);
+        keys.add(buy ? LEGACY_BUY_ORDERBOOK_KEY : LEGACY_SELL_ORDERBOOK_KEY);
+        keys.addAll(legacyLevelKeys(buy));
+        keys.add(keyLayout.bookKey(SymbolConstants.DEFAULT_SYMBOL, buy));
+        keys.addAll(keyLayout.levelKeys(SymbolConstants.DEFAULT_SYMBOL, buy));
+        keys.add(SYMBOLS_KEY);
+        Long migrated = redisTemplate.execute(MIGRATE_SINGLE_SYMBOL_SCRIPT, keys, SymbolConstants.DEFAULT_SYMBOL);
+        if (migrated != null && migrated > 0) {
+            redisTemplate.opsForValue().increment(keyLayout.versionKey(SymbolConstants.DEFAULT_SYMBOL));
+            log.info("已將單一標的{}訂單簿搬移至標的 {}", buy ? "買盤" : "賣盤", SymbolConstants.DEFAULT_SYMBOL);
+        }
+    }
+
+    /**
+     * Rebuilds the price-level aggregates of one side from the order book when they do not exist yet,
+     * i.e. on the first start after upgrading from a version without aggregates.
+     * The order hashes are read from the book first so every key the script touches is declared in KEYS.
+     */
+    private void rebuildLevelAggregatesIfMissing(String symbol, boolean buy) {
+        String bookKey = keyLayout.bookKey(symbol, buy);
+        List<String> levelKeys = keyLayout.levelKeys(symbol, buy);
+        Long bookSize = redisTemplate.opsForZSet().zCard(bookKey);
+        if (bookSize == null || bookSize == 0 || Boolean.TRUE.equals(redisTemplate.hasKey(levelKeys.get(0)))) {
+            return;
+        }
+        Set<String> orderIds = redisTemplate.opsForZSet().range(bookKey, 0, -1);
+        List<String> keys = new ArrayList<>(4 + orderIds.size());
+        keys.add(bookKey);
+        keys.addAll(levelKeys);
+        orderIds.forEach(orderId -> keys.add(keyLayout.orderKey(symbol, orderId)));
+        Long rebuilt = redisTemplate.execute(REBUILD_LEVELS_SCRIPT, keys, orderIds.toArray());
+        redisTemplate.opsForValue().increment(keyLayout.versionKey(symbol));
+        log.info("已重建 {} {} 價格層級聚合，共 {} 筆訂單", symbol, buy ? "買盤" : "賣盤", rebuilt);
+    }
 
     /**
      * Adds a new order to the appropriate order book (buy/sell).
      * Orders are stored in Redis ZSet with price as the score for sorting.
+     * The order hash, the user index and the price-level aggregates are updated in the same script.
+     * With the cluster layout the symbol set lives in another slot, so the symbol is registered before the script runs.
      *
      * @param event The order event to be added
-     * @throws JsonProcessingException if the order cannot be serialized to JSON
      */
-    public void addOrder(OrderCreatedEvent event) throws JsonProcessingException {
-        String key = event.getOrderType().equalsIgnoreCase("BUY") ? BUY_ORDERBOOK_KEY : SELL_ORDERBOOK_KEY;
-        // 1. 存入 orderbook ZSet，value 為 orderId
-        redisTemplate.opsForZSet().add(key, event.getOrderId().toString(), event.getPrice());
-        // 2. 存入 orderId 對應內容
-        String orderIdKey = "order:" + event.getOrderId();
-        String orderJson = objectMapper.writeValueAsString(event);
-        redisTemplate.opsForValue().set(orderIdKey, orderJson);
-        // 3. 存入 user 對應的 set
-        String userOrdersKey = "user:" + event.getUserId() + ":orders";
-        redisTemplate.opsForSet().add(userOrdersKey, event.getOrderId().toString());
+    public void addOrder(OrderCreatedEvent event) {
+        boolean buy = event.getOrderType().equalsIgnoreCase("BUY");
+        String symbol = SymbolConstants.normalize(event.getSymbol());
+        List<String> keys = orderKeys(symbol, buy, event.getOrderId(), event.getUserId());
+        if (keyLayout == RedisKeyLayout.CLUSTER) {
+            registerSymbol(symbol);
+        } else {
+            keys.add(SYMBOLS_KEY);
+        }
+        redisTemplate.execute(ADD_ORDER_SCRIPT, keys,
+                event.getOrderId().toString(),
+                event.getUserId().toString(),
+                event.getPrice().toString(),
+                event.getAmount().toString(),
+                event.getOrderType(),
+                event.getCreatedAt() != null ? event.getCreatedAt().toString() : "",
+                symbol,
+                event.getExpireAt() != null ? event.getExpireAt().toString() : "");
     }
 
     /**
@@ -56,103 +251,372 @@ public class RedisOrderBookService {
      * @param event The order event to be removed
      */
     public void removeOrder(OrderCreatedEvent event) {
-        String key = event.getOrderType().equalsIgnoreCase("BUY") ? BUY_ORDERBOOK_KEY : SELL_ORDERBOOK_KEY;
-        redisTemplate.opsForZSet().remove(key, event.getOrderId().toString());
-        String orderIdKey = "order:" + event.getOrderId();
-        redisTemplate.delete(orderIdKey);
-        String userOrdersKey = "user:" + event.getUserId() + ":orders";
-        redisTemplate.opsForSet().remove(userOrdersKey, event.getOrderId().toString());
+        boolean buy = event.getOrderType().equalsIgnoreCase("BUY");
+        redisTemplate.execute(REMOVE_ORDER_SCRIPT,
+                orderKeys(SymbolConstants.normalize(event.getSymbol()), buy, event.getOrderId(), event.getUserId()),
+                event.getOrderId().toString());
+    }
+
+    /**
+     * Applies a partial fill to a resting order by decrementing its amount in place (HINCRBY)
+     * together with the aggregate of its price level.
+     *
+     * @param symbol symbol of the resting order
+     * @param orderId the resting order
+     * @param buy whether the resting order is a buy order
+     * @param matchedAmount the filled quantity
+     */
+    public void decreaseAmount(String symbol, UUID orderId, boolean buy, int matchedAmount) {
+        List<String> keys = new ArrayList<>(5);
+        keys.add(keyLayout.orderKey(symbol, orderId));
+        keys.addAll(keyLayout.levelKeys(symbol, buy));
+        keys.add(keyLayout.versionKey(symbol));
+        redisTemplate.execute(DECREASE_AMOUNT_SCRIPT, keys, Integer.toString(matchedAmount));
     }
 
 
     public boolean cancelOrder(OrderCancelEvent event) {
-        String orderIdKey = "order:" + event.getOrderId();
-        String orderJson = redisTemplate.opsForValue().get(orderIdKey);
-        if (orderJson != null) {
-            try {
-                OrderCreatedEvent order = objectMapper.readValue(orderJson, OrderCreatedEvent.class);
-                String bookKey = order.getOrderType().equalsIgnoreCase("BUY") ? BUY_ORDERBOOK_KEY : SELL_ORDERBOOK_KEY;
-                // 從 ZSet 中移除 orderId
-                boolean removed = redisTemplate.opsForZSet().remove(bookKey, event.getOrderId().toString()) > 0;
-                // 從 ID 映射中移除
-                if (removed) {
-                    redisTemplate.delete(orderIdKey);
-                    String userOrdersKey = "user:" + order.getUserId() + ":orders";
-                    redisTemplate.opsForSet().remove(userOrdersKey, event.getOrderId().toString());
-                }
-                return removed;
-            } catch (Exception e) {
-                e.printStackTrace();
+        return cancel(SymbolConstants.normalize(event.getSymbol()), event.getOrderId()) != null;
+    }
+
+    /**
+     * Cancels a resting order: the order's user, side and symbol are read from its hash first so the script
+     * can be given every key it touches, then one script call removes it from the book, the order hash,
+     * the user index and the level aggregates. Those fields never change once the order is stored, so the keys
+     * stay valid; an order already taken by a concurrent sweep is no longer in the book and is not cancelled.
+     * The symbol only locates the order hash with the cluster layout; the standalone layout reads it from the hash.
+     *
+     * @return the cancelled order with the amount it still had, or null if it was not resting
+     */
+    @SuppressWarnings("unchecked")
+    public OrderCreatedEvent cancel(String symbol, UUID orderId) {
+        List<Object> fields = redisTemplate.opsForHash().multiGet(keyLayout.orderKey(symbol, orderId),
+                List.<Object>of(FIELD_USER_ID, FIELD_ORDER_TYPE, FIELD_SYMBOL));
+        if (fields.get(0) == null || fields.get(1) == null) {
+            return null;
+        }
+        String orderSymbol = keyLayout == RedisKeyLayout.CLUSTER ? symbol : SymbolConstants.normalize((String) fields.get(2));
+        boolean buy = "BUY".equalsIgnoreCase((String) fields.get(1));
+        List<Object> row = redisTemplate.execute(CANCEL_ORDER_SCRIPT, orderKeys(orderSymbol, buy, orderId, fields.get(0)),
+                orderId.toString(), orderSymbol);
+        return row == null || row.isEmpty() ? null : fromRow((List<String>) (List<?>) row);
+    }
+
+    /**
+     * Cancels every resting order of a user matching the optional symbol, side and inclusive price range.
+     * The orders of the {@code user:{id}:orders} index are read and filtered first, then one script call per
+     * symbol removes the matching ones, with every key it touches declared in KEYS; a request without a symbol
+     * runs one script per symbol.
+     *
+     * @return the cancelled orders with the amounts they still had
+     */
+    public List<OrderCreatedEvent> massCancel(OrderMassCancelEvent event) {
+        if (event.getSymbol() != null) {
+            return massCancel(SymbolConstants.normalize(event.getSymbol()), event);
+        }
+        List<OrderCreatedEvent> cancelled = new ArrayList<>();
+        for (String symbol : getSymbols()) {
+            cancelled.addAll(massCancel(symbol, event));
+        }
+        return cancelled;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<OrderCreatedEvent> massCancel(String symbol, OrderMassCancelEvent event) {
+        String userOrdersKey = keyLayout.userOrdersKey(symbol, event.getUserId());
+        Set<String> members = redisTemplate.opsForSet().members(userOrdersKey);
+        if (members == null || members.isEmpty()) {
+            return List.of();
+        }
+        Map<String, OrderCreatedEvent> stored = new HashMap<>();
+        fetchOrders(false, symbol, new ArrayList<>(members))
+                .forEach(order -> stored.put(order.getOrderId().toString(), order));
+        List<String> keys = new ArrayList<>(10 + members.size());
+        keys.add(userOrdersKey);
+        keys.addAll(bookKeys(symbol));
+        List<String> args = new ArrayList<>(1 + members.size());
+        args.add(symbol);
+        for (String orderId : members) {
+            OrderCreatedEvent order = stored.get(orderId);
+            // 已成交或已取消的訂單也交給腳本，清除殘留的索引
+            if (order == null || matches(order, symbol, event)) {
+                keys.add(keyLayout.orderKey(symbol, orderId));
+                args.add(orderId);
             }
         }
-        return false;
+        if (args.size() == 1) {
+            return List.of();
+        }
+        List<Object> rows = redisTemplate.execute(MASS_CANCEL_SCRIPT, keys, args.toArray());
+        if (rows == null || rows.isEmpty()) {
+            return List.of();
+        }
+        List<OrderCreatedEvent> cancelled = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            cancelled.add(fromRow((List<String>) row));
+        }
+        return cancelled;
     }
 
-    public List<OrderCreatedEvent> getOrderByUserId(UUID userId) {
-        String userOrdersKey = "user:" + userId + ":orders";
-        Set<String> orderIds = redisTemplate.opsForSet().members(userOrdersKey);
-        if (orderIds == null || orderIds.isEmpty()) {
+    /**
+     * Removes the given resting orders of one symbol in one script call, e.g. a batch of expired good-till-time orders.
+     * Orders that are no longer resting are skipped.
+     *
+     * @return the removed orders with the amounts they still had
+     */
+    @SuppressWarnings("unchecked")
+    public List<OrderCreatedEvent> cancelOrders(String symbol, Collection<UUID> orderIds) {
+        if (orderIds.isEmpty()) {
             return List.of();
         }
-        return orderIds.stream()
-                .map(orderId -> {
-                    String orderJson = redisTemplate.opsForValue().get("order:" + orderId);
-                    if (orderJson != null) {
-                        try {
-                            return objectMapper.readValue(orderJson, OrderCreatedEvent.class);
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                        }
-                    }
-                    return null;
-                })
-                .filter(o -> o != null)
-                .collect(Collectors.toList());
+        // 先讀出各訂單的用戶，讓腳本用到的訂單 hash 與用戶索引都列在 KEYS 中
+        List<OrderCreatedEvent> stored = fetchOrders(false, symbol,
+                orderIds.stream().map(UUID::toString).toList());
+        List<String> keys = new ArrayList<>(9 + 2 * stored.size());
+        keys.addAll(bookKeys(symbol));
+        List<String> args = new ArrayList<>(1 + stored.size());
+        args.add(symbol);
+        for (OrderCreatedEvent order : stored) {
+            if (symbol.equals(order.getSymbol())) {
+                keys.add(keyLayout.orderKey(symbol, order.getOrderId()));
+                keys.add(keyLayout.userOrdersKey(symbol, order.getUserId()));
+                args.add(order.getOrderId().toString());
+            }
+        }
+        if (args.size() == 1) {
+            return List.of();
+        }
+        List<Object> rows = redisTemplate.execute(CANCEL_ORDERS_SCRIPT, keys, args.toArray());
+        if (rows == null || rows.isEmpty()) {
+            return List.of();
+        }
+        List<OrderCreatedEvent> removed = new ArrayList<>(rows.size());
+        for (Object row : rows) {
+            removed.add(fromRow((List<String>) row));
+        }
+        return removed;
     }
 
     /**
-     * 使用 Lua script 原子性取得並移除一筆最優先的對手單 orderId
+     * Looks up the symbol of a resting order. The cluster layout keys orders by symbol,
+     * so there the order hash is looked up under each known symbol in turn.
      *
-     * @param isBuy 是否為買單
-     * @param price 撮合價格
-     * @return 對手單的 OrderCreatedEvent，若無則回傳 null
+     * @return the symbol, or null if the order is not stored
      */
-    public OrderCreatedEvent getAndRemoveBestMatchOrderLua(boolean isBuy, int price) {
-        String zsetKey = isBuy ? SELL_ORDERBOOK_KEY : BUY_ORDERBOOK_KEY;
+    public String getOrderSymbol(UUID orderId) {
+        if (keyLayout == RedisKeyLayout.CLUSTER) {
+            for (String symbol : getSymbols()) {
+                if (redisTemplate.opsForHash().hasKey(keyLayout.orderKey(symbol, orderId), FIELD_ORDER_ID)) {
+                    return symbol;
+                }
+            }
+            return null;
+        }
+        List<Object> fields = redisTemplate.opsForHash().multiGet(keyLayout.orderKey(null, orderId),
+                List.<Object>of(FIELD_ORDER_ID, FIELD_SYMBOL));
+        if (fields.get(0) == null) {
+            return null;
+        }
+        return SymbolConstants.normalize((String) fields.get(1));
+    }
 
-        final String buyLua =
-                "local r = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, 1); " +
-        "if #r > 0 then redis.call('ZREM', KEYS[1], r[1]); return r[1]; else return nil; end";
+    /**
+     * Symbols that have (or had) resting orders.
+     */
+    public Set<String> getSymbols() {
+        Set<String> symbols = redisTemplate.opsForSet().members(SYMBOLS_KEY);
+        return symbols == null ? Set.of() : symbols;
+    }
 
-        final String sellLua =
-                "local r = redis.call('ZREVRANGEBYSCORE', KEYS[1], '+inf', ARGV[1], 'LIMIT', 0, 1); " +
-        "if #r > 0 then redis.call('ZREM', KEYS[1], r[1]); return r[1]; else return nil; end";
+    /**
+     * All resting orders of a user. The order ids come from the user index in one SMEMBERS per index key
+     * and the orders are then read in chunks of {@value #USER_ORDER_FETCH_CHUNK}, one script call per chunk,
+     * instead of one HGETALL round trip per order.
+     */
+    public List<OrderCreatedEvent> getOrderByUserId(UUID userId) {
+        RedisTemplate<String, String> reads = readPool.template();
+        List<OrderCreatedEvent> orders = new ArrayList<>();
+        userOrderIds(reads, userId).forEach((symbol, orderIds) -> orders.addAll(fetchOrders(true, symbol, orderIds)));
+        return orders;
+    }
 
+    /**
+     * One page of a user's resting orders, ordered by order id. The cursor is the last order id of the
+     * previous page, so orders added or filled between pages do not shift the remaining ones.
+     * Only the orders of the requested page are read.
+     *
+     * @param cursor {@code nextCursor} of the previous page, null or empty for the first page
+     * @param limit  maximum number of orders in the page
+     */
+    public UserOrderPageDto getOrderPageByUserId(UUID userId, String cursor, int limit) {
+        RedisTemplate<String, String> reads = readPool.template();
+        // orderId -> symbol (null with the standalone layout)
+        TreeMap<String, String> orderSymbols = new TreeMap<>();
+        userOrderIds(reads, userId).forEach((symbol, orderIds) -> orderIds.forEach(id -> orderSymbols.put(id, symbol)));
+        NavigableMap<String, String> remaining = cursor == null || cursor.isEmpty()
+                ? orderSymbols : orderSymbols.tailMap(cursor, false);
 
+        Map<String, List<String>> page = new HashMap<>();
+        String last = null;
+        int taken = 0;
+        for (Map.Entry<String, String> entry : remaining.entrySet()) {
+            if (taken++ == limit) {
+                break;
+            }
+            page.computeIfAbsent(entry.getValue(), symbol -> new ArrayList<>()).add(entry.getKey());
+            last = entry.getKey();
+        }
+        List<OrderCreatedEvent> orders = new ArrayList<>();
+        page.forEach((symbol, orderIds) -> orders.addAll(fetchOrders(true, symbol, orderIds)));
+        orders.sort(Comparator.comparing(order -> order.getOrderId().toString()));
+        return UserOrderPageDto.builder()
+                .orders(orders)
+                .nextCursor(last != null && remaining.higherKey(last) != null ? last : null)
+                .totalCount(orderSymbols.size())
+                .build();
+    }
 
+    /**
+     * Order ids in the user index, keyed by symbol; the standalone layout has a single index under the null symbol.
+     */
+    private Map<String, List<String>> userOrderIds(RedisTemplate<String, String> reads, UUID userId) {
+        Map<String, List<String>> orderIds = new HashMap<>();
+        if (keyLayout == RedisKeyLayout.STANDALONE) {
+            Set<String> members = reads.opsForSet().members(keyLayout.userOrdersKey(null, userId));
+            if (members != null && !members.isEmpty()) {
+                orderIds.put(null, new ArrayList<>(members));
+            }
+            return orderIds;
+        }
+        Set<String> symbols = reads.opsForSet().members(SYMBOLS_KEY);
+        if (symbols == null) {
+            return orderIds;
+        }
+        for (String symbol : symbols) {
+            Set<String> members = reads.opsForSet().members(keyLayout.userOrdersKey(symbol, userId));
+            if (members != null && !members.isEmpty()) {
+                orderIds.put(symbol, new ArrayList<>(members));
+            }
+        }
+        return orderIds;
+    }
 
-        final String lua = isBuy ? buyLua : sellLua;
-        String priceArg = Integer.toString(price);
+    /**
+     * Reads the given orders of one symbol, {@value #USER_ORDER_FETCH_CHUNK} order hashes per script call.
+     * All keys of a call are declared to the script and, with the cluster layout, share the symbol's slot.
+     * Orders that are no longer stored are skipped.
+     *
+     * @param fromReadPool read through the read pool as EVALSHA_RO, which follows its read-from like the other
+     *                     queries; otherwise read from the primary, as the cancel paths need
+     */
+    @SuppressWarnings("unchecked")
+    private List<OrderCreatedEvent> fetchOrders(boolean fromReadPool, String symbol, List<String> orderIds) {
+        List<OrderCreatedEvent> orders = new ArrayList<>(orderIds.size());
+        for (int from = 0; from < orderIds.size(); from += USER_ORDER_FETCH_CHUNK) {
+            List<String> keys = orderIds.subList(from, Math.min(orderIds.size(), from + USER_ORDER_FETCH_CHUNK)).stream()
+                    .map(orderId -> keyLayout.orderKey(symbol, orderId))
+                    .toList();
+            List<Object> rows = fromReadPool
+                    ? readPool.executeReadOnly(GET_ORDERS_SCRIPT, keys)
+                    : redisTemplate.execute(GET_ORDERS_SCRIPT, keys);
+            if (rows == null) {
+                continue;
+            }
+            for (Object row : rows) {
+                orders.add(fromFields((List<String>) row));
+            }
+        }
+        return orders;
+    }
 
-        String orderId = redisTemplate.execute((RedisCallback<String>) (connection) -> {
-            Object res = connection.eval(
-                    lua.getBytes(),
-                    ReturnType.VALUE,
-                    1,
-                    zsetKey.getBytes(),
-                    priceArg.getBytes()
-            );
-            return res != null ? new String((byte[]) res) : null;
-        });
-        if (orderId == null) return null;
-        String orderJson = redisTemplate.opsForValue().get("order:" + orderId);
-        if (orderJson == null) return null;
-        try {
-            return objectMapper.readValue(orderJson, OrderCreatedEvent.class);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+    /**
+     * Reads a single resting order.
+     *
+     * @param symbol symbol of the order; only used to build the key with the cluster layout
+     * @return the order, or null if it is not stored
+     */
+    public OrderCreatedEvent getOrder(String symbol, String orderId) {
+        Map<Object, Object> hash = redisTemplate.opsForHash().entries(keyLayout.orderKey(symbol, orderId));
+        return hash.isEmpty() ? null : fromHash(hash);
+    }
+
+    /**
+     * Loads every resting order of both sides of every symbol, oldest first.
+     * Used to rebuild the in-memory order book on startup; replaying in creation order
+     * restores time priority within each price level.
+     *
+     * @return all resting orders sorted by creation time
+     */
+    public List<OrderCreatedEvent> getRestingOrders() {
+        List<OrderCreatedEvent> orders = new ArrayList<>();
+        for (String symbol : getSymbols()) {
+            for (boolean buy : new boolean[]{true, false}) {
+                Set<String> orderIds = redisTemplate.opsForZSet().range(keyLayout.bookKey(symbol, buy), 0, -1);
+                if (orderIds == null) {
+                    continue;
+                }
+                for (String orderId : orderIds) {
+                    OrderCreatedEvent order = getOrder(symbol, orderId);
+                    if (order != null) {
+                        orders.add(order);
+                    }
+                }
+            }
         }
+        orders.sort(Comparator.comparing(OrderCreatedEvent::getCreatedAt,
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        return orders;
+    }
+
+    /**
+     * Matches an incoming order against the opposite book of its symbol in a single round trip.
+     * The sweep script walks the book in price priority up to the limit price, decrements
+     * partially filled counter-orders in place, removes fully filled ones and returns every fill.
+     * The script is sent by SHA (EVALSHA) and only re-sent in full if Redis does not have it cached.
+     * The incoming order itself is not modified or rested here.
+     *
+     * @param symbol symbol of the incoming order
+     * @param isBuy  whether the incoming order is a buy order
+     * @param price  limit price of the incoming order
+     * @param amount quantity of the incoming order
+     * @return fills in execution order, empty if nothing crossed
+     */
+    public List<MatchFill> sweepMatch(String symbol, boolean isBuy, int price, int amount) {
+        return sweepMatch(symbol, isBuy, price, amount, false);
+    }
+
+    /**
+     * Same as {@link #sweepMatch(String, boolean, int, int)}; with {@code fillOrKill} the script first sums the
+     * crossing level aggregates and returns no fill without touching any order when they cannot fill the
+     * whole amount, so the check and the sweep are atomic.
+     */
+    @SuppressWarnings("unchecked")
+    public List<MatchFill> sweepMatch(String symbol, boolean isBuy, int price, int amount, boolean fillOrKill) {
+        List<String> keys = new ArrayList<>(5);
+        keys.add(keyLayout.bookKey(symbol, !isBuy));
+        keys.addAll(keyLayout.levelKeys(symbol, !isBuy));
+        keys.add(keyLayout.versionKey(symbol));
+        List<Object> result = redisTemplate.execute(SWEEP_MATCH_SCRIPT, keys,
+                isBuy ? "1" : "0", Integer.toString(price), Integer.toString(amount), fillOrKill ? "1" : "0",
+                keyLayout.orderKeyPrefix(symbol), keyLayout.userOrdersKeyPrefix(symbol));
+        if (result == null || result.isEmpty()) {
+            return List.of();
+        }
+        List<MatchFill> fills = new ArrayList<>(result.size());
+        for (Object row : result) {
+            List<String> fill = (List<String>) row;
+            String createdAt = fill.get(5);
+            RestingOrder maker = new RestingOrder(
+                    UUID.fromString(fill.get(0)),
+                    UUID.fromString(fill.get(1)),
+                    symbol,
+                    Integer.parseInt(fill.get(2)),
+                    Integer.parseInt(fill.get(4)),
+                    !isBuy,
+                    createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt));
+            fills.add(new MatchFill(maker, Integer.parseInt(fill.get(3)), maker.getRemaining()));
+        }
+        return fills;
     }
 
     /**
@@ -165,7 +629,8 @@ public class RedisOrderBookService {
      */
     public List<OrderCreatedEvent> getMatchableOrders(OrderCreatedEvent incomingOrder) {
         boolean isBuy = incomingOrder.getOrderType().equalsIgnoreCase("BUY");
-        String oppositeKey = isBuy ? SELL_ORDERBOOK_KEY : BUY_ORDERBOOK_KEY;
+        String symbol = SymbolConstants.normalize(incomingOrder.getSymbol());
+        String oppositeKey = keyLayout.bookKey(symbol, !isBuy);
 
 
         Set<String> results;
@@ -181,22 +646,107 @@ public class RedisOrderBookService {
             return List.of();
         }
 
-        try {
-            return results.stream()
-                    .map(str -> {
-                        try {
-                            return objectMapper.readValue(str, OrderCreatedEvent.class);
-                        } catch (Exception e) {
-                            e.printStackTrace();
-                            return null;
-                        }
-                    })
-                    .filter(event -> event != null)
-                    .collect(Collectors.toList());
-        } catch (Exception e) {
-            e.printStackTrace();
-            return List.of();
+        return results.stream()
+                .map(orderId -> getOrder(symbol, orderId))
+                .filter(event -> event != null)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * KEYS for the add/remove scripts: book, order hash, user index, the side's level aggregates, then the book version.
+     */
+    private List<String> orderKeys(String symbol, boolean buy, Object orderId, Object userId) {
+        List<String> keys = new ArrayList<>(8);
+        keys.add(keyLayout.bookKey(symbol, buy));
+        keys.add(keyLayout.orderKey(symbol, orderId));
+        keys.add(keyLayout.userOrdersKey(symbol, userId));
+        keys.addAll(keyLayout.levelKeys(symbol, buy));
+        keys.add(keyLayout.versionKey(symbol));
+        return keys;
+    }
+
+    /**
+     * KEYS for the batch cancel scripts: the buy book and its level aggregates, the sell book and its level
+     * aggregates, then the book version.
+     */
+    private List<String> bookKeys(String symbol) {
+        List<String> keys = new ArrayList<>(9);
+        keys.add(keyLayout.bookKey(symbol, true));
+        keys.addAll(keyLayout.levelKeys(symbol, true));
+        keys.add(keyLayout.bookKey(symbol, false));
+        keys.addAll(keyLayout.levelKeys(symbol, false));
+        keys.add(keyLayout.versionKey(symbol));
+        return keys;
+    }
+
+    /**
+     * Whether a resting order of the symbol matches the side and inclusive price range of a mass cancel.
+     */
+    private static boolean matches(OrderCreatedEvent order, String symbol, OrderMassCancelEvent event) {
+        return symbol.equals(order.getSymbol())
+                && (event.getSide() == null || event.getSide().equalsIgnoreCase(order.getOrderType()))
+                && (event.getMinPrice() == null || order.getPrice() >= event.getMinPrice())
+                && (event.getMaxPrice() == null || order.getPrice() <= event.getMaxPrice());
+    }
+
+    /**
+     * Adds the symbol to the symbol set once per instance; SADD is idempotent, so concurrent or repeated
+     * registrations from several instances are harmless.
+     */
+    private void registerSymbol(String symbol) {
+        if (!registeredSymbols.contains(symbol)) {
+            redisTemplate.opsForSet().add(SYMBOLS_KEY, symbol);
+            registeredSymbols.add(symbol);
         }
     }
 
+    /**
+     * Row returned by the cancel scripts: orderId, userId, price, amount, orderType, symbol, createdAt.
+     */
+    private static OrderCreatedEvent fromRow(List<String> row) {
+        String createdAt = row.get(6);
+        return OrderCreatedEvent.builder()
+                .orderId(UUID.fromString(row.get(0)))
+                .userId(UUID.fromString(row.get(1)))
+                .price(Integer.parseInt(row.get(2)))
+                .amount(Integer.parseInt(row.get(3)))
+                .orderType(row.get(4))
+                .symbol(row.get(5))
+                .createdAt(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt))
+                .build();
+    }
+
+    /**
+     * Row returned by the get orders script: orderId, userId, price, amount, orderType, createdAt, symbol, expireAt.
+     */
+    private static OrderCreatedEvent fromFields(List<String> row) {
+        String createdAt = row.get(5);
+        String expireAt = row.get(7);
+        return OrderCreatedEvent.builder()
+                .orderId(UUID.fromString(row.get(0)))
+                .userId(UUID.fromString(row.get(1)))
+                .price(Integer.parseInt(row.get(2)))
+                .amount(Integer.parseInt(row.get(3)))
+                .orderType(row.get(4))
+                .symbol(SymbolConstants.normalize(row.get(6)))
+                .createdAt(createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt))
+                .expireAt(expireAt.isEmpty() ? null : LocalDateTime.parse(expireAt))
+                .build();
+    }
+
+    private OrderCreatedEvent fromHash(Map<Object, Object> hash) {
+        String createdAt = (String) hash.get(FIELD_CREATED_AT);
+        String expireAt = (String) hash.get(FIELD_EXPIRE_AT);
+        return OrderCreatedEvent.builder()
+                .orderId(UUID.fromString((String) hash.get(FIELD_ORDER_ID)))
+                .userId(UUID.fromString((String) hash.get(FIELD_USER_ID)))
+                .price(Integer.parseInt((String) hash.get(FIELD_PRICE)))
+                .amount(Integer.parseInt((String) hash.get(FIELD_AMOUNT)))
+                .orderType((String) hash.get(FIELD_ORDER_TYPE))
+                .symbol(SymbolConstants.normalize((String) hash.get(FIELD_SYMBOL)))
+                .createdAt(createdAt == null || createdAt.isEmpty() ? null : LocalDateTime.parse(createdAt))
+                .expireAt(expireAt == null || expireAt.isEmpty() ? null : LocalDateTime.parse(expireAt))
+                .build();
+    }
+
 }
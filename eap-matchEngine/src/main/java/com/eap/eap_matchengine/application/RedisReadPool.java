@@ -0,0 +1,248 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import io.lettuce.core.LettuceFutures;
+import io.lettuce.core.ReadFrom;
+import io.lettuce.core.RedisCommandExecutionException;
+import io.lettuce.core.RedisFuture;
+import io.lettuce.core.RedisNoScriptException;
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.api.StatefulConnection;
+import io.lettuce.core.api.async.RedisScriptingAsyncCommands;
+import io.lettuce.core.metrics.MicrometerCommandLatencyRecorder;
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.lettuce.core.resource.ClientResources;
+import io.lettuce.core.resource.DefaultClientResources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.commonspool2.CommonsObjectPool2Metrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.pool2.impl.GenericObjectPoolConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.RedisConfiguration;
+import org.springframework.data.redis.connection.RedisPassword;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.connection.lettuce.LettuceExceptionConverter;
+import org.springframework.data.redis.connection.lettuce.LettucePoolingClientConfiguration;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 查詢用的 Redis 連線
+ * OrderController GET 端點背後的讀取（訂單簿深度、市場統計、用戶掛單）走獨立的連線池，可指向 replica，
+ * 大量查詢不會排在撮合路徑共用的 pipelined 連線後面，也不會在 replica 模式下佔用主節點。
+ * Lettuce 依指令是否唯讀決定是否套用 read-from：GET、ZCARD、SMEMBERS 等會送往 replica，EVALSHA 則一律送往主節點，
+ * 因此查詢腳本經由 {@link #executeReadOnly} 以 EVALSHA_RO 執行（Redis 7 起），才會與其他查詢一樣讀取 replica。
+ * 未開啟（eap.match-engine.redis.read-pool.enabled=false）時直接使用撮合的 RedisTemplate。
+ * 撮合與查詢連線的 Lettuce 指令延遲分別以 lettuce.command.completion{pool=match|read} 發布，
+ * 查詢連線池另有 commons.pool2.*（借用等待時間、使用中 / 閒置連線數）gauge。
+ */
+@Component
+@Slf4j
+public class RedisReadPool {
+
+    /**
+     * 區分撮合與查詢連線的 metric tag
+     */
+    public static final String POOL_TAG = "pool";
+
+    private static final String JMX_NAME_PREFIX = "redis-read";
+
+    private static final Duration DEFAULT_COMMAND_TIMEOUT = Duration.ofSeconds(60);
+
+    private final RedisTemplate<String, String> template;
+    private final LettuceConnectionFactory connectionFactory;
+    private final ClientResources clientResources;
+    private final CommonsObjectPool2Metrics poolMetrics;
+    private final Duration commandTimeout;
+    private final LettuceExceptionConverter exceptionConverter = new LettuceExceptionConverter();
+    // 伺服器不支援 EVALSHA_RO（Redis 7 以前）時改為 false，之後的查詢腳本直接以 EVALSHA 在主節點執行
+    private volatile boolean readOnlyScripts = true;
+
+    @Autowired
+    public RedisReadPool(RedisTemplate<String, String> redisTemplate, RedisProperties redisProperties,
+                         MatchEngineProperties properties, MeterRegistry meterRegistry) {
+        MatchEngineProperties.ReadPool readPool = properties.getRedis().getReadPool();
+        if (!readPool.isEnabled()) {
+            this.template = redisTemplate;
+            this.connectionFactory = null;
+            this.clientResources = null;
+            this.poolMetrics = null;
+            this.commandTimeout = DEFAULT_COMMAND_TIMEOUT;
+            return;
+        }
+        commandTimeout = redisProperties.getTimeout() != null ? redisProperties.getTimeout() : DEFAULT_COMMAND_TIMEOUT;
+        clientResources = DefaultClientResources.builder()
+                .commandLatencyRecorder(new MicrometerCommandLatencyRecorder(meterRegistry,
+                        MicrometerOptions.builder().tags(Tags.of(POOL_TAG, "read")).build()))
+                .build();
+        connectionFactory = new LettuceConnectionFactory(configuration(redisProperties, readPool),
+                clientConfiguration(redisProperties, readPool));
+        // 每次查詢向連線池借用自己的連線，不共用單一 native 連線
+        connectionFactory.setShareNativeConnection(false);
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+        poolMetrics = new CommonsObjectPool2Metrics(Tags.of(POOL_TAG, "read"));
+        poolMetrics.bindTo(meterRegistry);
+        log.info("查詢連線池已啟用：最多 {} 條連線{}", readPool.getMaxActive(),
+                StringUtils.hasText(readPool.getHost()) ? "，讀取 " + readPool.getHost() : "");
+    }
+
+    private RedisReadPool(RedisTemplate<String, String> template) {
+        this.template = template;
+        this.connectionFactory = null;
+        this.clientResources = null;
+        this.poolMetrics = null;
+        this.commandTimeout = DEFAULT_COMMAND_TIMEOUT;
+    }
+
+    /**
+     * 查詢與撮合共用同一個 RedisTemplate（基準測試與未開啟查詢連線池時）
+     */
+    public static RedisReadPool shared(RedisTemplate<String, String> template) {
+        return new RedisReadPool(template);
+    }
+
+    /**
+     * 查詢用的 RedisTemplate；讀到的資料在 replica 模式下可能落後主節點
+     */
+    public RedisTemplate<String, String> template() {
+        return template;
+    }
+
+    /**
+     * 以唯讀方式執行回傳 List 的查詢腳本：開啟查詢連線池時送出 EVALSHA_RO（腳本尚未載入時為 EVAL_RO），
+     * Lettuce 將其視為唯讀指令並依 read-from 選擇節點；腳本本身不得寫入。
+     * 未開啟查詢連線池，或伺服器不支援 EVALSHA_RO 時，以一般 EVALSHA 在主節點執行
+     */
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    public List<Object> executeReadOnly(RedisScript<List> script, List<String> keys, Object... args) {
+        if (connectionFactory == null || !readOnlyScripts) {
+            return template.execute(script, keys, args);
+        }
+        byte[][] keyBytes = keys.stream().map(RedisReadPool::bytes).toArray(byte[][]::new);
+        byte[][] argBytes = new byte[args.length][];
+        for (int i = 0; i < args.length; i++) {
+            argBytes[i] = bytes(args[i].toString());
+        }
+        try {
+            return template.execute((RedisCallback<List<Object>>) connection -> {
+                RedisScriptingAsyncCommands<byte[], byte[]> commands =
+                        (RedisScriptingAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+                Object result;
+                try {
+                    result = await(commands.evalshaReadOnly(script.getSha1(), ScriptOutputType.MULTI, keyBytes, argBytes));
+                } catch (RedisNoScriptException e) {
+                    result = await(commands.evalReadOnly(bytes(script.getScriptAsString()), ScriptOutputType.MULTI,
+                            keyBytes, argBytes));
+                }
+                return (List<Object>) deserialize(result);
+            });
+        } catch (RedisCommandExecutionException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("unknown command")) {
+                throw translate(e);
+            }
+            readOnlyScripts = false;
+            log.warn("Redis 不支援 EVALSHA_RO，查詢腳本改在主節點執行: {}", e.getMessage());
+            return template.execute(script, keys, args);
+        } catch (RuntimeException e) {
+            throw translate(e);
+        }
+    }
+
+    /**
+     * 與 RedisTemplate 一致，將 Lettuce 例外轉為 DataAccessException
+     */
+    private RuntimeException translate(RuntimeException e) {
+        RuntimeException converted = exceptionConverter.convert(e);
+        return converted != null ? converted : e;
+    }
+
+    private <T> T await(RedisFuture<T> future) {
+        return LettuceFutures.awaitOrCancel(future, commandTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 與 StringRedisTemplate 執行腳本的結果一致：bulk string 轉為 String，整數與巢狀陣列保留原結構
+     */
+    private static Object deserialize(Object value) {
+        if (value instanceof byte[] raw) {
+            return new String(raw, StandardCharsets.UTF_8);
+        }
+        if (value instanceof List<?> list) {
+            List<Object> converted = new ArrayList<>(list.size());
+            list.forEach(item -> converted.add(deserialize(item)));
+            return converted;
+        }
+        return value;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (connectionFactory == null) {
+            return;
+        }
+        poolMetrics.close();
+        connectionFactory.destroy();
+        clientResources.shutdown();
+    }
+
+    /**
+     * 有設定 spring.data.redis.cluster.nodes 時連線 cluster 並依 read-from 選擇節點；
+     * 否則連線 read-pool.host / port（未設定時為主節點）
+     */
+    private static RedisConfiguration configuration(RedisProperties redisProperties, MatchEngineProperties.ReadPool readPool) {
+        RedisProperties.Cluster cluster = redisProperties.getCluster();
+        if (cluster != null && cluster.getNodes() != null && !cluster.getNodes().isEmpty()) {
+            RedisClusterConfiguration configuration = new RedisClusterConfiguration(cluster.getNodes());
+            configuration.setUsername(redisProperties.getUsername());
+            configuration.setPassword(RedisPassword.of(redisProperties.getPassword()));
+            return configuration;
+        }
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                StringUtils.hasText(readPool.getHost()) ? readPool.getHost() : redisProperties.getHost(),
+                readPool.getPort() > 0 ? readPool.getPort() : redisProperties.getPort());
+        configuration.setDatabase(redisProperties.getDatabase());
+        configuration.setUsername(redisProperties.getUsername());
+        configuration.setPassword(RedisPassword.of(redisProperties.getPassword()));
+        return configuration;
+    }
+
+    private LettucePoolingClientConfiguration clientConfiguration(RedisProperties redisProperties,
+                                                                  MatchEngineProperties.ReadPool readPool) {
+        GenericObjectPoolConfig<StatefulConnection<?, ?>> pool = new GenericObjectPoolConfig<>();
+        pool.setMaxTotal(readPool.getMaxActive());
+        pool.setMaxIdle(readPool.getMaxActive());
+        pool.setMinIdle(readPool.getMinIdle());
+        pool.setMaxWait(readPool.getMaxWait());
+        pool.setJmxNamePrefix(JMX_NAME_PREFIX);
+        LettucePoolingClientConfiguration.LettucePoolingClientConfigurationBuilder builder =
+                LettucePoolingClientConfiguration.builder()
+                        .poolConfig(pool)
+                        .clientResources(clientResources)
+                        .readFrom(ReadFrom.valueOf(readPool.getReadFrom()));
+        if (redisProperties.getTimeout() != null) {
+            builder.commandTimeout(redisProperties.getTimeout());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,355 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.constants.RabbitMQConstants;
+import com.eap.common.event.OrderCancelEvent;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMassCancelEvent;
+import com.eap.common.event.OrderMatchedEvent;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * {@link MatchingSequencer} 的一條撮合通道：一個預先配置好的環形緩衝區、一個撮合執行緒與一個發送執行緒。
+ * 多個生產者（listener 執行緒）以原子遞增認領序號後寫入環，唯一的撮合執行緒依序號順序取出並撮合，
+ * 因此同一通道內的訂單簿操作完全循序。序號即事件在此通道上的位置，成交事件帶著該序號發出。
+ * 每筆訂單的 future 在其成交經 broker 確認後才完成，listener 據此延後 ack；
+ * 發送失敗時持續重試，每 {@value #PUBLISH_ATTEMPTS} 次失敗嘗試停放到 dead-letter 佇列，成交不會被丟棄。
+ */
+@Slf4j
+class SequencerLane {
+
+  private static final int PUBLISH_ATTEMPTS = 3;
+  private static final long MAX_PUBLISH_BACKOFF_MILLIS = 1_000;
+
+  private final int index;
+  private final MatchingEngineService matchingEngineService;
+  private final OrderBookEngine orderBookEngine;
+  private final MatchedEventPublisher matchedEventPublisher;
+
+  private final Slot[] ring;
+  private final int mask;
+  private final int maxDrainBatch;
+  // 最後一個被生產者認領的序號
+  private final AtomicLong claimed = new AtomicLong(-1);
+  // 最後一個已處理完成的序號，生產者據此判斷環是否已滿
+  private final AtomicLong consumed = new AtomicLong(-1);
+  private final BlockingQueue<Outbound> outbound;
+
+  private final Thread matchingThread;
+  private final Thread publisherThread;
+  private volatile boolean running = true;
+
+  SequencerLane(int index,
+                MatchEngineProperties.Sequencer config,
+                MatchingEngineService matchingEngineService,
+                OrderBookEngine orderBookEngine,
+                MatchedEventPublisher matchedEventPublisher) {
+    this.index = index;
+    this.matchingEngineService = matchingEngineService;
+    this.orderBookEngine = orderBookEngine;
+    this.matchedEventPublisher = matchedEventPublisher;
+    int size = config.getRingSize();
+    if (size <= 0 || Integer.bitCount(size) != 1) {
+      throw new IllegalArgumentException("eap.match-engine.sequencer.ring-size must be a power of two: " + size);
+    }
+    this.ring = new Slot[size];
+    for (int i = 0; i < size; i++) {
+      ring[i] = new Slot();
+    }
+    this.mask = size - 1;
+    this.maxDrainBatch = config.getMaxDrainBatch();
+    this.outbound = new ArrayBlockingQueue<>(config.getPublishQueueCapacity());
+    this.matchingThread = new Thread(this::matchLoop, "matching-engine-" + index);
+    this.publisherThread = new Thread(this::publishLoop, "match-publisher-" + index);
+    matchingThread.setDaemon(true);
+    publisherThread.setDaemon(true);
+  }
+
+  void start() {
+    matchingThread.start();
+    publisherThread.start();
+    log.info("Matching lane {} started with ring size {}", index, ring.length);
+  }
+
+  CompletableFuture<Void> submit(OrderCreatedEvent incomingOrder) {
+    CompletableFuture<Void> done = new CompletableFuture<>();
+    long sequence = claim();
+    Slot slot = ring[(int) (sequence & mask)];
+    slot.order = incomingOrder;
+    slot.orderDone = done;
+    slot.publish(sequence);
+    return done;
+  }
+
+  CompletableFuture<Boolean> cancel(OrderCancelEvent event) {
+    CompletableFuture<Boolean> result = new CompletableFuture<>();
+    long sequence = claim();
+    Slot slot = ring[(int) (sequence & mask)];
+    slot.cancel = event;
+    slot.cancelResult = result;
+    slot.publish(sequence);
+    return result;
+  }
+
+  CompletableFuture<List<UUID>> massCancel(OrderMassCancelEvent event) {
+    CompletableFuture<List<UUID>> result = new CompletableFuture<>();
+    long sequence = claim();
+    Slot slot = ring[(int) (sequence & mask)];
+    slot.massCancel = event;
+    slot.massCancelResult = result;
+    slot.publish(sequence);
+    return result;
+  }
+
+  CompletableFuture<List<OrderCreatedEvent>> expire(String symbol, List<UUID> orderIds) {
+    CompletableFuture<List<OrderCreatedEvent>> result = new CompletableFuture<>();
+    long sequence = claim();
+    Slot slot = ring[(int) (sequence & mask)];
+    slot.expireSymbol = symbol;
+    slot.expireOrderIds = orderIds;
+    slot.expireResult = result;
+    slot.publish(sequence);
+    return result;
+  }
+
+  /**
+   * 認領下一個序號；環已滿時等待撮合執行緒釋放位置（背壓）。
+   */
+  private long claim() {
+    if (!running) {
+      throw new IllegalStateException("Matching lane " + index + " is shutting down");
+    }
+    long sequence = claimed.incrementAndGet();
+    long wrapPoint = sequence - ring.length;
+    while (wrapPoint > consumed.get()) {
+      LockSupport.parkNanos(1_000);
+    }
+    return sequence;
+  }
+
+  private void matchLoop() {
+    long next = consumed.get() + 1;
+    Outbound pending = new Outbound();
+    int idle = 0;
+    while (running || next <= claimed.get()) {
+      Slot slot = ring[(int) (next & mask)];
+      if (slot.published != next) {
+        if (!pending.isEmpty()) {
+          handOff(pending);
+          pending = new Outbound();
+        }
+        idle = idleWait(idle);
+        continue;
+      }
+      idle = 0;
+      process(slot, next, pending);
+      slot.clear();
+      consumed.lazySet(next);
+      next++;
+      if (pending.events.size() >= maxDrainBatch || pending.done.size() >= maxDrainBatch) {
+        handOff(pending);
+        pending = new Outbound();
+      }
+    }
+    if (!pending.isEmpty()) {
+      handOff(pending);
+    }
+  }
+
+  private void process(Slot slot, long sequence, Outbound pending) {
+    if (slot.order != null) {
+      // 驗證失敗的訂單由 matchOrRelease 解除鎖定，同樣隨批次完成後 ack；
+      // 其他撮合失敗時訂單簿未異動，future 以例外完成，讓 listener 不 ack 而由 broker 重送
+      try {
+        List<OrderMatchedEvent> fills = matchingEngineService.matchOrRelease(slot.order, sequence);
+        if (!fills.isEmpty()) {
+          pending.events.addAll(fills);
+          pending.orderIds.add(slot.order.getOrderId());
+        }
+        pending.done.add(slot.orderDone);
+      } catch (RuntimeException e) {
+        log.error("Failed to match order {}, leaving it unacknowledged", slot.order.getOrderId(), e);
+        slot.orderDone.completeExceptionally(e);
+      }
+    } else if (slot.cancel != null) {
+      try {
+        slot.cancelResult.complete(orderBookEngine.cancel(slot.cancel));
+      } catch (RuntimeException e) {
+        slot.cancelResult.completeExceptionally(e);
+      }
+    } else if (slot.massCancel != null) {
+      try {
+        slot.massCancelResult.complete(orderBookEngine.massCancel(slot.massCancel));
+      } catch (RuntimeException e) {
+        slot.massCancelResult.completeExceptionally(e);
+      }
+    } else {
+      try {
+        slot.expireResult.complete(orderBookEngine.expire(slot.expireSymbol, slot.expireOrderIds));
+      } catch (RuntimeException e) {
+        slot.expireResult.completeExceptionally(e);
+      }
+    }
+  }
+
+  /**
+   * 先短暫自旋，之後逐步讓出 CPU，避免空閒時佔滿一個核心。
+   */
+  private int idleWait(int idle) {
+    if (idle < 100) {
+      Thread.onSpinWait();
+    } else if (idle < 200) {
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(50_000);
+    }
+    return idle + 1;
+  }
+
+  private void handOff(Outbound batch) {
+    try {
+      outbound.put(batch);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      log.error("Interrupted while handing off {} matched event(s); their orders stay unacknowledged",
+          batch.events.size());
+      batch.fail(e);
+    }
+  }
+
+  private void publishLoop() {
+    List<Outbound> drained = new ArrayList<>();
+    while (running || !outbound.isEmpty() || matchingThread.isAlive()) {
+      try {
+        Outbound first = outbound.poll(100, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        drained.add(first);
+        outbound.drainTo(drained);
+        List<OrderMatchedEvent> events = new ArrayList<>();
+        List<UUID> orderIds = new ArrayList<>();
+        drained.forEach(batch -> {
+          events.addAll(batch.events);
+          orderIds.addAll(batch.orderIds);
+        });
+        publish(events, orderIds);
+        drained.forEach(Outbound::complete);
+        drained.clear();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        drained.forEach(batch -> batch.fail(e));
+        return;
+      }
+    }
+  }
+
+  /**
+   * 送出成交直到 broker 確認；每 {@value #PUBLISH_ATTEMPTS} 次失敗改為停放到 dead-letter 佇列，
+   * 兩者都失敗時退避後繼續重試。期間撮合執行緒照常撮合，發送佇列滿時才對其形成背壓。
+   *
+   * @param orderIds 產生這些成交的訂單，停放時只記錄數量與訂單 ID，成交內容留在 dead-letter 佇列
+   */
+  private void publish(List<OrderMatchedEvent> events, List<UUID> orderIds) throws InterruptedException {
+    for (int attempt = 1; ; attempt++) {
+      try {
+        matchedEventPublisher.publish(events);
+        return;
+      } catch (RuntimeException e) {
+        log.warn("Publishing {} matched event(s) failed (attempt {})", events.size(), attempt, e);
+      }
+      if (attempt % PUBLISH_ATTEMPTS == 0) {
+        try {
+          matchedEventPublisher.park(events);
+          log.error("Parked {} matched event(s) of orders {} on {} after {} failed attempts",
+              events.size(), orderIds, RabbitMQConstants.ORDER_MATCHED_DLQ, attempt);
+          return;
+        } catch (RuntimeException e) {
+          log.error("Parking {} matched event(s) failed, retrying", events.size(), e);
+        }
+      }
+      Thread.sleep(Math.min(MAX_PUBLISH_BACKOFF_MILLIS, 50L * attempt));
+    }
+  }
+
+  /**
+   * 停止接收新事件，待環與發送佇列清空後結束執行緒。
+   */
+  void stop() {
+    running = false;
+  }
+
+  void awaitTermination(long timeoutMillis) throws InterruptedException {
+    matchingThread.join(timeoutMillis);
+    publisherThread.join(timeoutMillis);
+    if (matchingThread.isAlive() || publisherThread.isAlive()) {
+      log.warn("Matching lane {} did not drain within the shutdown timeout", index);
+    }
+  }
+
+  /**
+   * 環上的一格。物件在啟動時一次配置好並重複使用；published 記錄此格目前承載的序號，
+   * 撮合執行緒只在 published 等於期望序號時才讀取內容。
+   */
+  private static final class Slot {
+    OrderCreatedEvent order;
+    CompletableFuture<Void> orderDone;
+    OrderCancelEvent cancel;
+    CompletableFuture<Boolean> cancelResult;
+    OrderMassCancelEvent massCancel;
+    CompletableFuture<List<UUID>> massCancelResult;
+    String expireSymbol;
+    List<UUID> expireOrderIds;
+    CompletableFuture<List<OrderCreatedEvent>> expireResult;
+    volatile long published = -1;
+
+    void publish(long sequence) {
+      // volatile 寫入保證前面寫入的欄位對撮合執行緒可見
+      this.published = sequence;
+    }
+
+    void clear() {
+      order = null;
+      orderDone = null;
+      cancel = null;
+      cancelResult = null;
+      massCancel = null;
+      massCancelResult = null;
+      expireSymbol = null;
+      expireOrderIds = null;
+      expireResult = null;
+    }
+  }
+
+  /**
+   * 撮合執行緒交給發送執行緒的一批成交，以及產生這些成交（或沒有成交）的訂單在送出後要完成的 future。
+   */
+  private static final class Outbound {
+    final List<OrderMatchedEvent> events = new ArrayList<>();
+    // 有成交的訂單，只用於記錄
+    final List<UUID> orderIds = new ArrayList<>();
+    final List<CompletableFuture<Void>> done = new ArrayList<>();
+
+    boolean isEmpty() {
+      return events.isEmpty() && done.isEmpty();
+    }
+
+    void complete() {
+      done.forEach(future -> future.complete(null));
+    }
+
+    void fail(Throwable cause) {
+      done.forEach(future -> future.completeExceptionally(cause));
+    }
+  }
+}
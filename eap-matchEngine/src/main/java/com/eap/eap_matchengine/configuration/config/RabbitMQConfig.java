@@ -1,14 +1,29 @@
 package com.eap.eap_matchengine.configuration.config;
 
+import com.eap.common.codec.EventMessageConverter;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.CustomExchange;
+import org.springframework.amqp.core.Declarable;
+import org.springframework.amqp.core.Declarables;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.QueueBuilder;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 import static com.eap.common.constants.RabbitMQConstants.*;
 
 /**
@@ -42,6 +57,23 @@ public class RabbitMQConfig {
         return new Queue(WALLET_MATCHED_QUEUE);
     }
 
+    /**
+     * 錢包解除鎖定隊列（掛單到期移除）
+     */
+    @Bean
+    public Queue walletReleasedQueue() {
+        return new Queue(WALLET_RELEASED_QUEUE);
+    }
+
+    /**
+     * 成交事件的 dead-letter 佇列：撮合排序器重試後仍無法送出的成交停放在這裡，
+     * 待 broker 恢復後再搬回 order.exchange / order.matched（例如以 shovel），不會遺失
+     */
+    @Bean
+    public Queue orderMatchedDeadLetterQueue() {
+        return new Queue(ORDER_MATCHED_DLQ);
+    }
+
     /**
      * 訂單交換機
      */
@@ -57,9 +89,10 @@ public class RabbitMQConfig {
     }
 
     /**
-     * 訂單創建消息綁定
+     * 訂單創建消息綁定（未開啟分區時）
      */
     @Bean
+    @ConditionalOnProperty(prefix = "eap.match-engine.partition", name = "enabled", havingValue = "false", matchIfMissing = true)
     public Binding orderCreatedBinding(Queue orderCreatedQueue, TopicExchange orderExchange) {
         return BindingBuilder.bind(orderCreatedQueue)
                 .to(orderExchange)
@@ -78,12 +111,33 @@ public class RabbitMQConfig {
 
     /**
      * 錢包資產處理消息綁定
+     * 與訂單匹配隊列共用 ORDER_MATCHED_KEY，撮合引擎每筆成交只發送一次
      */
     @Bean
     public Binding walletMatchedBinding(Queue walletMatchedQueue, TopicExchange orderExchange) {
         return BindingBuilder.bind(walletMatchedQueue)
                 .to(orderExchange)
-                .with(WALLET_MATCHED_KEY);
+                .with(ORDER_MATCHED_KEY);
+    }
+
+    /**
+     * 錢包解除鎖定消息綁定
+     */
+    @Bean
+    public Binding walletReleasedBinding(Queue walletReleasedQueue, TopicExchange orderExchange) {
+        return BindingBuilder.bind(walletReleasedQueue)
+                .to(orderExchange)
+                .with(ORDER_RELEASED_KEY);
+    }
+
+    /**
+     * 成交事件 dead-letter 綁定；routing key 與 ORDER_MATCHED_KEY 不同，訂單與錢包服務不會收到停放中的成交
+     */
+    @Bean
+    public Binding orderMatchedDeadLetterBinding(Queue orderMatchedDeadLetterQueue, TopicExchange orderExchange) {
+        return BindingBuilder.bind(orderMatchedDeadLetterQueue)
+                .to(orderExchange)
+                .with(ORDER_MATCHED_DLQ_KEY);
     }
 
     @Bean
@@ -92,11 +146,80 @@ public class RabbitMQConfig {
                 .to(orderExchange)
                 .with(ORDER_CANCEL_KEY);
     }
+
+    /**
+     * 依標的分區：order.created 經 exchange-to-exchange 綁定進入 consistent-hash exchange，
+     * 再依 symbol header 的雜湊分配到各分區佇列，同一標的永遠落在同一個分區。
+     * 分區佇列開啟 single active consumer，同一時間只有一個撮合引擎實例消費某分區，確保同標的循序撮合。
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "eap.match-engine.partition", name = "enabled", havingValue = "true")
+    public Declarables orderCreatedPartitions(TopicExchange orderExchange, MatchEngineProperties properties) {
+        CustomExchange partitionExchange = new CustomExchange(ORDER_CREATED_PARTITION_EXCHANGE, "x-consistent-hash",
+                true, false, Map.of("hash-header", SYMBOL_HEADER));
+        List<Declarable> declarables = new ArrayList<>();
+        declarables.add(partitionExchange);
+        declarables.add(BindingBuilder.bind(partitionExchange).to(orderExchange).with(ORDER_CREATED_KEY));
+        for (String queueName : partitionQueueNames(properties.getPartition().getCount())) {
+            Queue queue = QueueBuilder.durable(queueName).singleActiveConsumer().build();
+            declarables.add(queue);
+            // consistent-hash exchange 的 routing key 為該佇列的權重
+            declarables.add(BindingBuilder.bind(queue).to(partitionExchange).with("1").noargs());
+        }
+        return new Declarables(declarables);
+    }
+
+    /**
+     * 撮合引擎消費的訂單佇列：未開啟分區時為 order.created.queue，否則為本實例負責的分區佇列
+     */
+    @Bean
+    public String[] orderCreatedQueueNames(MatchEngineProperties properties) {
+        MatchEngineProperties.Partition partition = properties.getPartition();
+        if (!partition.isEnabled()) {
+            return new String[] { ORDER_CREATED_QUEUE };
+        }
+        List<String> names = partitionQueueNames(partition.getCount());
+        if (partition.getOwned().isEmpty()) {
+            return names.toArray(new String[0]);
+        }
+        return partition.getOwned().stream().map(names::get).toArray(String[]::new);
+    }
+
+    private static List<String> partitionQueueNames(int count) {
+        List<String> names = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            names.add(ORDER_CREATED_PARTITION_QUEUE_PREFIX + i);
+        }
+        return names;
+    }
+
+    /**
+     * 批次消費訂單佇列用的 listener container。
+     * 累積到 batch-size 筆或等待下一則訊息超過 batch-max-wait 即把整批交給 listener，
+     * listener 正常返回後整批一起 ack。
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer,
+            ConnectionFactory connectionFactory,
+            MatchEngineProperties properties) {
+        MatchEngineProperties.Intake intake = properties.getIntake();
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(intake.getBatchSize());
+        factory.setReceiveTimeout(intake.getBatchMaxWait().toMillis());
+        // prefetch 至少要能裝滿一批，否則批次永遠湊不滿
+        factory.setPrefetchCount(Math.max(intake.getBatchSize(), 250));
+        return factory;
+    }
+
     /**
-     * 配置消息轉換器，使用 JSON 格式
+     * 配置消息轉換器：依 content-type 解碼 JSON 或二進位事件，發送時依 eap.messaging.binary-events 決定格式
      */
     @Bean
-    public MessageConverter jsonMessageConverter() {
-        return new Jackson2JsonMessageConverter();
+    public MessageConverter jsonMessageConverter(@Value("${eap.messaging.binary-events:false}") boolean binaryEvents) {
+        return new EventMessageConverter(new Jackson2JsonMessageConverter(), binaryEvents);
     }
 }
@@ -0,0 +1,34 @@
+package com.eap.eap_matchengine.configuration.config;
+
+import com.eap.eap_matchengine.application.RedisReadPool;
+import com.eap.eap_matchengine.configuration.constants.RedisKeyLayout;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import io.lettuce.core.metrics.MicrometerOptions;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Redis 配置類
+ * 撮合連線由 spring.data.redis.* 自動配置（設定 cluster.nodes 即為 Redis Cluster），此處提供訂單簿的 key 配置
+ * 與撮合連線的指令延遲 metric tag；查詢連線池見 {@link RedisReadPool}
+ */
+@Configuration
+public class RedisConfig {
+
+    /**
+     * 訂單簿 Redis key 配置，RedisOrderBookService 與 RedisMarketDataService 共用
+     */
+    @Bean
+    public RedisKeyLayout redisKeyLayout(MatchEngineProperties properties) {
+        return properties.getRedis().getKeyLayout();
+    }
+
+    /**
+     * 自動配置的 Lettuce 指令延遲 metric（lettuce.command.*）加上 pool=match，與查詢連線池的 pool=read 區分
+     */
+    @Bean
+    public MicrometerOptions micrometerOptions() {
+        return MicrometerOptions.builder().tags(Tags.of(RedisReadPool.POOL_TAG, "match")).build();
+    }
+}
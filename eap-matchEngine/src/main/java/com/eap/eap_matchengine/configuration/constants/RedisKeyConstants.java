@@ -0,0 +1,30 @@
+package com.eap.eap_matchengine.configuration.constants;
+
+import java.util.List;
+
+/**
+ * Redis key 常量配置
+ * 集中管理撮合引擎訂單簿使用的所有 key 名稱
+ * 每個標的各有一組訂單簿與價格層級 key（orderbook:{symbol}:buy ...），依標的組出的 key 見 {@link RedisKeyLayout}
+ */
+public class RedisKeyConstants {
+
+    // 目前有掛單的標的集合；CLUSTER 配置下不在腳本內更新，由服務在新增掛單前寫入
+    public static final String SYMBOLS_KEY = "orderbook:symbols";
+
+    // 單一標的版本使用的 key，啟動時搬移到預設標的底下
+    public static final String LEGACY_BUY_ORDERBOOK_KEY = "orderbook:buy";
+    public static final String LEGACY_SELL_ORDERBOOK_KEY = "orderbook:sell";
+
+    /**
+     * 單一標的版本的價格層級聚合 key
+     */
+    public static List<String> legacyLevelKeys(boolean buy) {
+        String prefix = (buy ? LEGACY_BUY_ORDERBOOK_KEY : LEGACY_SELL_ORDERBOOK_KEY) + ":level:";
+        return List.of(prefix + "prices", prefix + "amounts", prefix + "counts");
+    }
+
+    private RedisKeyConstants() {
+        // 私有構造函數防止實例化
+    }
+}
@@ -0,0 +1,81 @@
+package com.eap.eap_matchengine.configuration.constants;
+
+import java.util.List;
+
+/**
+ * 訂單簿 Redis key 的配置方式
+ * STANDALONE 為單機 Redis 既有的 key；CLUSTER 以 {symbol} hash tag 讓同一標的的訂單簿、價格層級、版本號、
+ * 訂單 hash 與用戶索引落在同一個 slot，每個 Lua 腳本用到的 key 都在同一個節點上，可在 Redis Cluster 上執行
+ * CLUSTER 配置下訂單 hash 與用戶索引依標的分開存放，依訂單 ID 或用戶查詢時需逐一走訪標的
+ */
+public enum RedisKeyLayout {
+
+    STANDALONE,
+    CLUSTER;
+
+    /**
+     * key 中代表標的的片段；CLUSTER 配置以 {} 包住作為 hash tag
+     */
+    public String tag(String symbol) {
+        return this == CLUSTER ? "{" + symbol + "}" : symbol;
+    }
+
+    /**
+     * 訂單 hash：STANDALONE 為 order:{id}，CLUSTER 為 order:{symbol}:{id}
+     */
+    public String orderKey(String symbol, Object orderId) {
+        return orderKeyPrefix(symbol) + orderId;
+    }
+
+    /**
+     * 訂單 hash key 在訂單 ID 之前的部分；傳給需要由訂單內容組出 key 的 Lua 腳本
+     */
+    public String orderKeyPrefix(String symbol) {
+        return this == CLUSTER ? "order:" + tag(symbol) + ":" : "order:";
+    }
+
+    /**
+     * 用戶掛單索引 set：STANDALONE 跨標的共用 user:{id}:orders，CLUSTER 每個標的各一份 user:{symbol}:{id}:orders
+     */
+    public String userOrdersKey(String symbol, Object userId) {
+        return userOrdersKeyPrefix(symbol) + userId + ":orders";
+    }
+
+    /**
+     * 用戶掛單索引 key 在用戶 ID 之前的部分；傳給需要由訂單內容組出 key 的 Lua 腳本
+     */
+    public String userOrdersKeyPrefix(String symbol) {
+        return this == CLUSTER ? "user:" + tag(symbol) + ":" : "user:";
+    }
+
+    /**
+     * 某標的某一側的訂單簿 ZSet（member 為 orderId，score 為價格）
+     */
+    public String bookKey(String symbol, boolean buy) {
+        return "orderbook:" + tag(symbol) + (buy ? ":buy" : ":sell");
+    }
+
+    /**
+     * 某標的訂單簿版本號，每次新增、成交、取消時於同一個腳本內遞增，供訂單簿快照快取判斷是否過期
+     */
+    public String versionKey(String symbol) {
+        return "orderbook:" + tag(symbol) + ":version";
+    }
+
+    /**
+     * 某標的 L2 增量的 epoch 與序號 hash，發出增量時與讀取價格層級在同一個腳本內遞增，
+     * 所有撮合引擎實例共用，快照與增量的序號因此一致
+     */
+    public String feedKey(String symbol) {
+        return "orderbook:" + tag(symbol) + ":feed";
+    }
+
+    /**
+     * 某標的某一側的價格層級聚合 key（L2）：價格索引 ZSet、各價格總數量 hash、各價格訂單數 hash，
+     * 順序為 prices、amounts、counts（與 Lua 腳本的 KEYS 順序一致）
+     */
+    public List<String> levelKeys(String symbol, boolean buy) {
+        String prefix = bookKey(symbol, buy) + ":level:";
+        return List.of(prefix + "prices", prefix + "amounts", prefix + "counts");
+    }
+}
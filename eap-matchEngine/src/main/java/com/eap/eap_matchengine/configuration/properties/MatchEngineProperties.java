@@ -0,0 +1,339 @@
+package com.eap.eap_matchengine.configuration.properties;
+
+import com.eap.common.constants.SymbolConstants;
+import com.eap.eap_matchengine.configuration.constants.RedisKeyLayout;
+import lombok.Data;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+import org.springframework.stereotype.Component;
+
+/**
+ * Configuration properties for the match engine ({@code eap.match-engine.*}).
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "eap.match-engine")
+public class MatchEngineProperties {
+
+    /**
+     * 訂單簿後端：redis 直接在 Redis 上撮合；memory 在記憶體中撮合，Redis 僅作非同步持久化
+     */
+    private BookBackend bookBackend = BookBackend.REDIS;
+
+    /**
+     * order.created.queue 消費設定
+     */
+    private Intake intake = new Intake();
+
+    /**
+     * 成交事件發送設定
+     */
+    private Publish publish = new Publish();
+
+    /**
+     * 單一撮合執行緒排序器設定
+     */
+    private Sequencer sequencer = new Sequencer();
+
+    /**
+     * 依標的分區消費 order.created 設定
+     */
+    private Partition partition = new Partition();
+
+    /**
+     * 記憶體訂單簿 journal 與快照設定
+     */
+    private Journal journal = new Journal();
+
+    /**
+     * 訂單簿價格層級增量（L2 delta）設定
+     */
+    private MarketData marketData = new MarketData();
+
+    /**
+     * GTT（good-till-time）掛單到期設定
+     */
+    private Expiry expiry = new Expiry();
+
+    /**
+     * 記憶體訂單簿（book-backend=memory）價格層級的存放方式
+     */
+    private PriceLadder priceLadder = new PriceLadder();
+
+    /**
+     * 撮合迴圈的配置（allocation）設定
+     */
+    private Matching matching = new Matching();
+
+    /**
+     * Redis 訂單簿 key 配置
+     */
+    private Redis redis = new Redis();
+
+    public enum BookBackend {
+        REDIS,
+        MEMORY
+    }
+
+    @Data
+    public static class Intake {
+
+        /**
+         * 是否以批次方式消費訂單，一次撮合一整批並一併 ack
+         */
+        private boolean batchEnabled = false;
+
+        /**
+         * 每批最多訊息數
+         */
+        private int batchSize = 100;
+
+        /**
+         * 湊批時等待下一則訊息的最長時間，逾時即送出未滿的批次
+         */
+        private Duration batchMaxWait = Duration.ofMillis(20);
+    }
+
+    @Data
+    public static class Publish {
+
+        /**
+         * 等待 publisher confirm 的最長時間
+         */
+        private Duration confirmTimeout = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class Sequencer {
+
+        /**
+         * 是否由單一撮合執行緒經環形緩衝區處理所有訂單與取消
+         */
+        private boolean enabled = false;
+
+        /**
+         * 撮合通道數；每條通道一個撮合執行緒，標的依雜湊固定分配到其中一條
+         */
+        private int lanes = 1;
+
+        /**
+         * 環形緩衝區大小（每條通道），必須為 2 的次方
+         */
+        private int ringSize = 65536;
+
+        /**
+         * 撮合執行緒累積多少筆成交（或多少筆訂單）就交給發送執行緒；訂單在這批成交確認送出後才 ack
+         */
+        private int maxDrainBatch = 512;
+
+        /**
+         * 撮合執行緒與發送執行緒之間的佇列容量（以成交批次計）
+         */
+        private int publishQueueCapacity = 1024;
+    }
+
+    @Data
+    public static class Partition {
+
+        /**
+         * 是否改由 consistent-hash exchange 依標的分配到多個分區佇列消費
+         * （需要 RabbitMQ rabbitmq_consistent_hash_exchange plugin）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 分區佇列數；每個分區佇列同一時間只有一個消費者（single active consumer）
+         */
+        private int count = 8;
+
+        /**
+         * 本實例消費的分區編號（0 起算），未設定時消費全部分區。
+         * 多個實例以此分攤分區；同一分區列在多個實例時只有一個實例在消費，停止時由另一個接手。
+         * 記憶體訂單簿（book-backend=memory）將訂單簿保存在行程內，多實例分區僅適用於 redis 後端。
+         */
+        private List<Integer> owned = new ArrayList<>();
+    }
+
+    @Data
+    public static class Journal {
+
+        /**
+         * 是否將記憶體訂單簿（book-backend=memory）的輸入與成交寫入 memory-mapped journal，
+         * 並以快照 + journal 尾端重播取代啟動時從 Redis 重建
+         */
+        private boolean enabled = false;
+
+        /**
+         * journal segment 與快照檔案所在目錄
+         */
+        private String directory = "data/journal";
+
+        /**
+         * 單一 journal segment 檔案大小，寫滿後換下一個檔案
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+        /**
+         * 快照間隔；間隔越短，啟動時需重播的 journal 尾端越短
+         */
+        private Duration snapshotInterval = Duration.ofMinutes(5);
+
+        /**
+         * 保留的快照檔案數
+         */
+        private int retainedSnapshots = 2;
+
+        /**
+         * 啟動後保留 journal 重播成交的時間；當機前未 ack 的 order.created 在 listener 啟動後重送，
+         * 期間內重送的訂單回傳重播的成交而不重新撮合，之後全部丟棄。需長於重啟後消化訂單佇列積壓的時間
+         */
+        private Duration recoveredFillsRetention = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class MarketData {
+
+        /**
+         * 是否在每次新增、成交、取消後發出帶序號與 checksum 的價格層級增量（routing key orderbook.delta）。
+         * redis 後端開啟後同一標的的撮合在本實例內依序執行，以確保序號與 Redis 異動順序一致
+         */
+        private boolean deltaEnabled = false;
+
+        /**
+         * checksum 涵蓋的買賣各層數
+         */
+        private int checksumDepth = 10;
+    }
+
+    @Data
+    public static class Expiry {
+
+        /**
+         * 時間輪每格長度；掛單最晚在到期後一格移除
+         */
+        private Duration tick = Duration.ofMillis(100);
+
+        /**
+         * 時間輪格數，必須為 2 的次方；超過一圈的期限以圈數記錄
+         */
+        private int wheelSize = 512;
+
+        /**
+         * 同一標的單次移除的最多訂單數
+         */
+        private int batchSize = 500;
+
+        /**
+         * 移除失敗的批次重新登記到時間輪前的等待時間
+         */
+        private Duration retryBackoff = Duration.ofSeconds(1);
+    }
+
+    @Data
+    public static class PriceLadder {
+
+        /**
+         * 以價格區間為索引、用陣列存放價格層級的標的；未列出的標的使用排序 map。
+         * 價格超出區間的 GTC 訂單不撮合，以 OUT_OF_BAND 解除鎖定；縮小區間前需確認沒有掛單落在新區間外，否則啟動重建會失敗
+         */
+        private Map<String, PriceBand> symbols = new HashMap<>();
+
+        /**
+         * @return 標的設定的價格區間，未設定時為 null
+         */
+        public PriceBand band(String symbol) {
+            for (Map.Entry<String, PriceBand> entry : symbols.entrySet()) {
+                if (SymbolConstants.normalize(entry.getKey()).equals(symbol)) {
+                    return entry.getValue();
+                }
+            }
+            return null;
+        }
+    }
+
+    @Data
+    public static class Matching {
+
+        /**
+         * 記憶體訂單簿（book-backend=memory）是否將成交寫入每個撮合執行緒重複使用的成交緩衝區，
+         * 撮合迴圈本身不再為每筆成交配置物件；回傳的成交只在同一執行緒下一次撮合前有效，
+         * MatchingEngineService 在同一執行緒內即轉為成交事件
+         */
+        private boolean pooledFills = true;
+    }
+
+    @Data
+    public static class Redis {
+
+        /**
+         * key 配置：standalone 沿用單機 Redis 的 key；cluster 以 {symbol} hash tag 讓每個腳本的 key 落在同一個 slot，
+         * 訂單 hash 與用戶索引依標的分開存放，可搭配 spring.data.redis.cluster.nodes 連線 Redis Cluster
+         */
+        private RedisKeyLayout keyLayout = RedisKeyLayout.STANDALONE;
+
+        /**
+         * OrderController GET 端點使用的查詢連線池
+         */
+        private ReadPool readPool = new ReadPool();
+    }
+
+    @Data
+    public static class ReadPool {
+
+        /**
+         * 是否為查詢開啟獨立的連線池；關閉時查詢與撮合共用同一條 pipelined 連線
+         */
+        private boolean enabled = false;
+
+        /**
+         * 查詢連線的主機（例如 replica），留空為 spring.data.redis.host；連線 Redis Cluster 時不使用
+         */
+        private String host;
+
+        /**
+         * 查詢連線的 port，0 為 spring.data.redis.port
+         */
+        private int port = 0;
+
+        /**
+         * Lettuce ReadFrom：replicaPreferred 會讀取主節點底下的 replica（無 replica 時讀主節點），upstream 只讀主節點；
+         * 查詢腳本（訂單簿深度、用戶掛單）以 EVALSHA_RO 送出，同樣依 read-from 選擇節點；Redis 7 以前不支援 EVALSHA_RO，
+         * 腳本改以 EVALSHA 在主節點執行，其餘查詢仍讀取 replica
+         */
+        private String readFrom = "replicaPreferred";
+
+        /**
+         * 連線池最多連線數
+         */
+        private int maxActive = 16;
+
+        /**
+         * 連線池保留的最少閒置連線數
+         */
+        private int minIdle = 2;
+
+        /**
+         * 連線池耗盡時等待借用連線的最長時間
+         */
+        private Duration maxWait = Duration.ofMillis(500);
+    }
+
+    @Data
+    public static class PriceBand {
+
+        /**
+         * 可掛單的最低價格（含）
+         */
+        private int minPrice;
+
+        /**
+         * 可掛單的最高價格（含）
+         */
+        private int maxPrice;
+    }
+}
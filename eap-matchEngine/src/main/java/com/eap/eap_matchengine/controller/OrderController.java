@@ -1,13 +1,21 @@
 package com.eap.eap_matchengine.controller;
 
+import com.eap.common.constants.SymbolConstants;
 import com.eap.common.event.OrderCancelEvent;
 import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMassCancelEvent;
+import com.eap.common.dto.MarketQuoteDto;
 import com.eap.common.dto.OrderBookResponseDto;
 import com.eap.common.dto.MarketSummaryDto;
+import com.eap.common.dto.UserOrderPageDto;
+import com.eap.eap_matchengine.application.OrderBookEngine;
 import com.eap.eap_matchengine.application.OrderCancelService;
 import com.eap.eap_matchengine.application.OrderQueryService;
 import com.eap.eap_matchengine.application.RedisMarketDataService;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,7 +24,10 @@ import java.util.List;
 
 @RestController
 @RequestMapping("v1/order")
+@Slf4j
 public class OrderController {
+    private static final int MAX_PAGE_LIMIT = 500;
+
     @Autowired
     OrderCancelService orderCancelService;
 
@@ -26,36 +37,115 @@ public class OrderController {
     @Autowired
     RedisMarketDataService redisMarketDataService;
 
+    @Autowired
+    OrderBookEngine orderBookEngine;
+
     @DeleteMapping("cancel")
     public boolean cancelOrder(@RequestBody OrderCancelEvent event) {
     return  orderCancelService.execute(event);
     }
 
+    /**
+     * 批次取消某用戶的掛單，可依標的、方向與價格區間篩選
+     * @param event 批次取消條件（userId 必填）
+     * @return 已取消的訂單 ID
+     */
+    @PostMapping("cancel/mass")
+    public ResponseEntity<List<UUID>> massCancelOrders(@RequestBody OrderMassCancelEvent event) {
+        if (event.getUserId() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(orderCancelService.massCancel(event));
+    }
+
     @GetMapping("query/{userId}")
     public ResponseEntity<List<OrderCreatedEvent>> queryOrder(@PathVariable UUID userId) {
         List<OrderCreatedEvent> orders = orderQueryService.excute(userId);
         return ResponseEntity.ok(orders);
     }
+
+    /**
+     * 分頁查詢用戶掛單，依 orderId 排序
+     * @param userId 用戶 ID
+     * @param cursor 上一頁回傳的 nextCursor（可選，第一頁不帶）
+     * @param limit 每頁筆數（可選，默認 100，最多 500）
+     * @return 本頁掛單與下一頁游標
+     */
+    @GetMapping("query/{userId}/page")
+    public ResponseEntity<UserOrderPageDto> queryOrderPage(
+            @PathVariable UUID userId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", defaultValue = "100") int limit) {
+        if (limit <= 0 || limit > MAX_PAGE_LIMIT) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(orderQueryService.excutePage(userId, cursor, limit));
+    }
     
     /**
      * 獲取訂單簿數據
      * @param depth 深度（可選，默認10層）
+     * @param symbol 交易標的（可選，默認 ELC）
      * @return 訂單簿數據
      */
     @GetMapping("orderbook")
     public ResponseEntity<OrderBookResponseDto> getOrderBook(
-            @RequestParam(value = "depth", defaultValue = "10") int depth) {
-        OrderBookResponseDto orderBook = redisMarketDataService.getOrderBookData(depth);
+            @RequestParam(value = "depth", defaultValue = "10") int depth,
+            @RequestParam(value = "symbol", required = false) String symbol) {
+        OrderBookResponseDto orderBook = redisMarketDataService.getOrderBookData(SymbolConstants.normalize(symbol), depth);
         return ResponseEntity.ok(orderBook);
     }
     
+    /**
+     * 獲取訂單簿快照，附帶對應的增量序號、epoch 與 checksum
+     * 消費端先取快照，再套用 sequence 大於快照序號的 OrderBookDeltaEvent
+     * @param depth 深度（可選，默認10層；至少回傳 checksum 層數）
+     * @param symbol 交易標的（可選，默認 ELC）
+     * @return 訂單簿快照
+     */
+    @GetMapping("orderbook/snapshot")
+    public ResponseEntity<OrderBookResponseDto> getOrderBookSnapshot(
+            @RequestParam(value = "depth", defaultValue = "10") int depth,
+            @RequestParam(value = "symbol", required = false) String symbol) {
+        return ResponseEntity.ok(orderBookEngine.snapshot(SymbolConstants.normalize(symbol), depth));
+    }
+
+    /**
+     * 市場衝擊試算：假設以市價送出指定方向與數量的訂單，依目前價格層級回傳逐層成交、均價、最差價與滑價，不異動訂單簿
+     * @param side 方向（BUY / SELL）
+     * @param amount 數量
+     * @param symbol 交易標的（可選，默認 ELC）
+     * @return 試算結果；無法讀取訂單簿時為 503 與帶 error 的試算結果，而不是以空訂單簿試算
+     */
+    @GetMapping("quote")
+    public ResponseEntity<MarketQuoteDto> getQuote(
+            @RequestParam("side") String side,
+            @RequestParam("amount") int amount,
+            @RequestParam(value = "symbol", required = false) String symbol) {
+        boolean buy = "BUY".equalsIgnoreCase(side);
+        if ((!buy && !"SELL".equalsIgnoreCase(side)) || amount <= 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        String normalized = SymbolConstants.normalize(symbol);
+        try {
+            return ResponseEntity.ok(orderBookEngine.quote(normalized, buy, amount));
+        } catch (DataAccessException e) {
+            // 例外內容只記錄在伺服器端，回應不帶 Redis 的錯誤訊息
+            log.error("Failed to read the {} order book for a quote", normalized, e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(MarketQuoteDto.failure(
+                    normalized, buy ? "BUY" : "SELL", amount, "Order book unavailable"));
+        }
+    }
+
     /**
      * 獲取市場簡要統計
+     * @param symbol 交易標的（可選，默認 ELC）
      * @return 最佳買賣價等基本信息
      */
     @GetMapping("market/summary")
-    public ResponseEntity<MarketSummaryDto> getMarketSummary() {
-        MarketSummaryDto summary = redisMarketDataService.getMarketSummary();
+    public ResponseEntity<MarketSummaryDto> getMarketSummary(
+            @RequestParam(value = "symbol", required = false) String symbol) {
+        MarketSummaryDto summary = redisMarketDataService.getMarketSummary(SymbolConstants.normalize(symbol));
         return ResponseEntity.ok(summary);
     }
 }
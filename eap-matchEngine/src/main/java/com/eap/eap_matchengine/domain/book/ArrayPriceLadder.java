@@ -0,0 +1,101 @@
+package com.eap.eap_matchengine.domain.book;
+
+/**
+ * Price levels in an array indexed by {@code price - minPrice}, for symbols whose prices stay within a known
+ * band. Lookup by price is a single array access; the best and next non-empty level are found through a
+ * {@link HierarchicalBitSet} of occupied ticks instead of a tree walk. Level objects are kept in the array
+ * once created and reused when their price is occupied again, so a warmed-up ladder does not allocate.
+ * <p>
+ * Memory is one reference per tick plus about one bit per tick for the bitset, e.g. under 1 MB for a
+ * 100,000-tick band.
+ */
+public class ArrayPriceLadder implements PriceLadder {
+
+    private final int minPrice;
+    private final int maxPrice;
+    private final boolean descending;
+    private final PriceLevel[] levels;
+    private final HierarchicalBitSet occupied;
+    private int size;
+
+    /**
+     * @param minPrice   lowest price an order may rest at, inclusive
+     * @param maxPrice   highest price an order may rest at, inclusive
+     * @param descending true for bids (highest price first), false for asks
+     */
+    public ArrayPriceLadder(int minPrice, int maxPrice, boolean descending) {
+        if (maxPrice < minPrice) {
+            throw new IllegalArgumentException("maxPrice " + maxPrice + " is below minPrice " + minPrice);
+        }
+        long ticks = (long) maxPrice - minPrice + 1;
+        if (ticks > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Price band too wide for an array ladder: " + ticks + " ticks");
+        }
+        this.minPrice = minPrice;
+        this.maxPrice = maxPrice;
+        this.descending = descending;
+        this.levels = new PriceLevel[(int) ticks];
+        this.occupied = new HierarchicalBitSet((int) ticks);
+    }
+
+    @Override
+    public PriceLevel get(int price) {
+        if (!accepts(price)) {
+            return null;
+        }
+        int index = price - minPrice;
+        return occupied.get(index) ? levels[index] : null;
+    }
+
+    @Override
+    public PriceLevel getOrCreate(int price) {
+        if (!accepts(price)) {
+            throw new IllegalArgumentException("Price " + price + " outside ladder band [" + minPrice + ", " + maxPrice + "]");
+        }
+        int index = price - minPrice;
+        PriceLevel level = levels[index];
+        if (level == null) {
+            level = new PriceLevel(price);
+            levels[index] = level;
+        }
+        if (!occupied.get(index)) {
+            occupied.set(index);
+            size++;
+        }
+        return level;
+    }
+
+    @Override
+    public void remove(int price) {
+        int index = price - minPrice;
+        if (accepts(price) && occupied.get(index)) {
+            occupied.clear(index);
+            size--;
+        }
+    }
+
+    @Override
+    public PriceLevel best() {
+        return level(descending ? occupied.previous(levels.length - 1) : occupied.next(0));
+    }
+
+    @Override
+    public PriceLevel next(int price) {
+        int index = price - minPrice;
+        return level(descending ? occupied.previous(index - 1) : occupied.next(index + 1));
+    }
+
+    @Override
+    public boolean accepts(int price) {
+        return price >= minPrice && price <= maxPrice;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private PriceLevel level(int index) {
+        return index < 0 ? null : levels[index];
+    }
+}
@@ -0,0 +1,25 @@
+package com.eap.eap_matchengine.domain.book;
+
+/**
+ * Depth and top of book of one symbol, used for the order book gauges.
+ * Best prices are null when the side is empty.
+ */
+public class BookSummary {
+
+    private final int bidLevels;
+    private final int askLevels;
+    private final Integer bestBid;
+    private final Integer bestAsk;
+
+    public BookSummary(int bidLevels, int askLevels, Integer bestBid, Integer bestAsk) {
+        this.bidLevels = bidLevels;
+        this.askLevels = askLevels;
+        this.bestBid = bestBid;
+        this.bestAsk = bestAsk;
+    }
+
+    public int getBidLevels() { return bidLevels; }
+    public int getAskLevels() { return askLevels; }
+    public Integer getBestBid() { return bestBid; }
+    public Integer getBestAsk() { return bestAsk; }
+}
@@ -0,0 +1,122 @@
+package com.eap.eap_matchengine.domain.book;
+
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel holding the expiry deadlines of good-till-time orders.
+ * Time is cut into ticks of a fixed length; a deadline lands in bucket {@code tick & mask} together with the
+ * number of full wheel rotations still to wait, so scheduling is O(1) and each tick only visits its own bucket
+ * instead of scanning every resting order. An entry is never fired before its deadline, and at most one tick
+ * after it.
+ * <p>
+ * {@link #schedule} may be called from any thread: new entries are queued and moved into their buckets by the
+ * next {@link #advance}. {@link #advance} must be called by a single thread. Entries are not removed when their
+ * order is filled or cancelled; firing them is a no-op for the book, which keeps the matching path free of any
+ * extra bookkeeping.
+ */
+public class ExpiryWheel {
+
+    private final long startMillis;
+    private final long tickMillis;
+    private final Entry[] buckets;
+    private final int mask;
+    private final Queue<Entry> pending = new ConcurrentLinkedQueue<>();
+    // 下一個要處理的 tick
+    private long tick;
+    private int size;
+
+    /**
+     * @param startMillis epoch millis of tick 0
+     * @param tickMillis  length of one tick
+     * @param wheelSize   number of buckets, a power of two
+     */
+    public ExpiryWheel(long startMillis, long tickMillis, int wheelSize) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive: " + tickMillis);
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two: " + wheelSize);
+        }
+        this.startMillis = startMillis;
+        this.tickMillis = tickMillis;
+        this.buckets = new Entry[wheelSize];
+        this.mask = wheelSize - 1;
+    }
+
+    /**
+     * Schedules an order to expire at {@code deadlineMillis}; a deadline already in the past fires on the next tick.
+     */
+    public void schedule(String symbol, UUID orderId, long deadlineMillis) {
+        pending.add(new Entry(symbol, orderId, deadlineMillis));
+    }
+
+    /**
+     * Processes every tick that has elapsed by {@code nowMillis} and hands each expired entry to {@code expired}.
+     */
+    public void advance(long nowMillis, Consumer<Entry> expired) {
+        transferPending();
+        while (startMillis + tick * tickMillis <= nowMillis) {
+            int index = (int) (tick & mask);
+            Entry previous = null;
+            Entry entry = buckets[index];
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.rounds > 0) {
+                    entry.rounds--;
+                    previous = entry;
+                } else {
+                    if (previous == null) {
+                        buckets[index] = next;
+                    } else {
+                        previous.next = next;
+                    }
+                    entry.next = null;
+                    size--;
+                    expired.accept(entry);
+                }
+                entry = next;
+            }
+            tick++;
+        }
+    }
+
+    /**
+     * Number of entries placed in buckets, excluding those scheduled since the last {@link #advance}.
+     */
+    public int size() {
+        return size;
+    }
+
+    private void transferPending() {
+        Entry entry;
+        while ((entry = pending.poll()) != null) {
+            long deadlineTick = Math.max(Math.floorDiv(entry.deadlineMillis - startMillis + tickMillis - 1, tickMillis), tick);
+            entry.rounds = (deadlineTick - tick) / buckets.length;
+            int index = (int) (deadlineTick & mask);
+            entry.next = buckets[index];
+            buckets[index] = entry;
+            size++;
+        }
+    }
+
+    public static final class Entry {
+        private final String symbol;
+        private final UUID orderId;
+        private final long deadlineMillis;
+        private long rounds;
+        private Entry next;
+
+        private Entry(String symbol, UUID orderId, long deadlineMillis) {
+            this.symbol = symbol;
+            this.orderId = orderId;
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        public String getSymbol() { return symbol; }
+        public UUID getOrderId() { return orderId; }
+        public long getDeadlineMillis() { return deadlineMillis; }
+    }
+}
@@ -0,0 +1,58 @@
+package com.eap.eap_matchengine.domain.book;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Reusable list of the fills of one match. The {@link MatchFill} instances are pooled: {@link #clear()} keeps
+ * them and the next fills overwrite them, so once the buffer has grown to the largest sweep seen, matching
+ * into it allocates nothing. The list and the fills it returned are only valid until the next {@link #clear()}.
+ * <p>
+ * Not thread-safe; each matching thread owns its own buffer.
+ */
+public class FillBuffer extends AbstractList<MatchFill> implements RandomAccess {
+
+    private MatchFill[] fills = new MatchFill[16];
+    private int size;
+
+    /**
+     * Records a fill, reusing a pooled instance when one is available.
+     */
+    public void add(RestingOrder maker, int amount, int makerRemaining) {
+        if (size == fills.length) {
+            fills = Arrays.copyOf(fills, size << 1);
+        }
+        MatchFill fill = fills[size];
+        if (fill == null) {
+            fills[size] = new MatchFill(maker, amount, makerRemaining);
+        } else {
+            fill.set(maker, amount, makerRemaining);
+        }
+        size++;
+    }
+
+    @Override
+    public MatchFill get(int index) {
+        if (index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return fills[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Empties the buffer, keeping the pooled fills but dropping their makers so filled orders can be collected.
+     */
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            fills[i].set(null, 0, 0);
+        }
+        size = 0;
+    }
+}
@@ -0,0 +1,123 @@
+package com.eap.eap_matchengine.domain.book;
+
+/**
+ * Fixed-size bitset with summary layers: bit {@code i} of layer {@code n + 1} is set when word {@code i} of
+ * layer {@code n} is non-zero. Finding the next or previous set bit skips empty 64-bit words a whole summary
+ * word at a time, so a search costs a few word operations per layer regardless of how sparse the set is.
+ * For a million bits there are four layers.
+ */
+class HierarchicalBitSet {
+
+    private final int size;
+    // layers[0] 為實際位元，其上每層彙總下一層的非零 word
+    private final long[][] layers;
+
+    HierarchicalBitSet(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        this.size = size;
+        int depth = 1;
+        for (int words = wordCount(size); words > 1; words = wordCount(words)) {
+            depth++;
+        }
+        this.layers = new long[depth][];
+        int bits = size;
+        for (int layer = 0; layer < depth; layer++) {
+            layers[layer] = new long[wordCount(bits)];
+            bits = layers[layer].length;
+        }
+    }
+
+    boolean get(int index) {
+        return (layers[0][index >>> 6] & (1L << index)) != 0;
+    }
+
+    void set(int index) {
+        for (long[] words : layers) {
+            int word = index >>> 6;
+            boolean wasEmpty = words[word] == 0;
+            words[word] |= 1L << index;
+            if (!wasEmpty) {
+                return;
+            }
+            index = word;
+        }
+    }
+
+    void clear(int index) {
+        for (long[] words : layers) {
+            int word = index >>> 6;
+            words[word] &= ~(1L << index);
+            if (words[word] != 0) {
+                return;
+            }
+            index = word;
+        }
+    }
+
+    /**
+     * @return the lowest set bit at or above {@code from}, or -1 if there is none
+     */
+    int next(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        if (from >= size) {
+            return -1;
+        }
+        int index = from;
+        for (int layer = 0; layer < layers.length; layer++) {
+            long[] words = layers[layer];
+            int word = index >>> 6;
+            if (word >= words.length) {
+                return -1;
+            }
+            long bits = words[word] & (-1L << index);
+            if (bits != 0) {
+                index = (word << 6) + Long.numberOfTrailingZeros(bits);
+                for (int below = layer - 1; below >= 0; below--) {
+                    index = (index << 6) + Long.numberOfTrailingZeros(layers[below][index]);
+                }
+                return index;
+            }
+            index = word + 1;
+        }
+        return -1;
+    }
+
+    /**
+     * @return the highest set bit at or below {@code from}, or -1 if there is none
+     */
+    int previous(int from) {
+        if (from < 0) {
+            return -1;
+        }
+        int index = Math.min(from, size - 1);
+        for (int layer = 0; layer < layers.length; layer++) {
+            long[] words = layers[layer];
+            int word = index >>> 6;
+            long bits = words[word] & (-1L >>> (63 - (index & 63)));
+            if (bits != 0) {
+                index = (word << 6) + 63 - Long.numberOfLeadingZeros(bits);
+                for (int below = layer - 1; below >= 0; below--) {
+                    index = (index << 6) + 63 - Long.numberOfLeadingZeros(layers[below][index]);
+                }
+                return index;
+            }
+            if (word == 0) {
+                return -1;
+            }
+            index = word - 1;
+        }
+        return -1;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static int wordCount(int bits) {
+        return (bits + 63) >>> 6;
+    }
+}
@@ -0,0 +1,34 @@
+package com.eap.eap_matchengine.domain.book;
+
+/**
+ * A single fill between an incoming (taker) order and a resting (maker) order.
+ * The deal price is always the maker's price.
+ * Fills handed out by a {@link FillBuffer} are pooled and overwritten once the buffer is cleared.
+ */
+public class MatchFill {
+
+    private RestingOrder maker;
+    private int amount;
+    private int makerRemaining;
+
+    public MatchFill(RestingOrder maker, int amount, int makerRemaining) {
+        this.maker = maker;
+        this.amount = amount;
+        this.makerRemaining = makerRemaining;
+    }
+
+    void set(RestingOrder maker, int amount, int makerRemaining) {
+        this.maker = maker;
+        this.amount = amount;
+        this.makerRemaining = makerRemaining;
+    }
+
+    public RestingOrder getMaker() { return maker; }
+    public int getAmount() { return amount; }
+    public int getDealPrice() { return maker.getPrice(); }
+
+    /**
+     * Remaining amount of the maker order right after this fill; 0 means the maker left the book.
+     */
+    public int getMakerRemaining() { return makerRemaining; }
+}
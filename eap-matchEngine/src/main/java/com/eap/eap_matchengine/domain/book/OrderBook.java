@@ -0,0 +1,244 @@
+package com.eap.eap_matchengine.domain.book;
+
+import com.eap.common.constants.TimeInForce;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * In-memory price-level order book of a single symbol.
+ * Bids and asks are kept as price levels ordered by integer price in a {@link PriceLadder}, each level holding
+ * a FIFO queue of resting orders: a sorted map by default, or an array indexed by tick for a symbol with a
+ * bounded price band. The best bid and best ask levels are cached so the matching loop reads them in O(1);
+ * the cache is only recomputed when the best level becomes empty. Orders are found by id through an
+ * {@link OrderIndex} keyed by the primitive halves of the UUID.
+ * <p>
+ * This class is not thread-safe; callers must serialize access (the matching engine owns the book).
+ */
+public class OrderBook {
+
+    private final PriceLadder bids;
+    private final PriceLadder asks;
+    private final OrderIndex ordersById = new OrderIndex();
+    private PriceLevel bestBid;
+    private PriceLevel bestAsk;
+    private long sequence;
+
+    /**
+     * Creates a book accepting any price.
+     */
+    public OrderBook() {
+        this(new TreeMapPriceLadder(true), new TreeMapPriceLadder(false));
+    }
+
+    /**
+     * Creates a book whose orders may only rest within {@code [minPrice, maxPrice]}, backed by array ladders.
+     */
+    public OrderBook(int minPrice, int maxPrice) {
+        this(new ArrayPriceLadder(minPrice, maxPrice, true), new ArrayPriceLadder(minPrice, maxPrice, false));
+    }
+
+    public OrderBook(PriceLadder bids, PriceLadder asks) {
+        this.bids = bids;
+        this.asks = asks;
+    }
+
+    /**
+     * Whether an order at {@code price} can rest in this book.
+     */
+    public boolean accepts(int price) {
+        return bids.accepts(price) && asks.accepts(price);
+    }
+
+    /**
+     * Rests an order at the tail of its price level.
+     *
+     * @throws IllegalArgumentException if the order's price is outside the book's price band
+     */
+    public void add(RestingOrder order) {
+        PriceLevel level = (order.isBuy() ? bids : asks).getOrCreate(order.getPrice());
+        level.append(order);
+        ordersById.put(order);
+        if (order.isBuy()) {
+            if (bestBid == null || order.getPrice() > bestBid.getPrice()) {
+                bestBid = level;
+            }
+        } else if (bestAsk == null || order.getPrice() < bestAsk.getPrice()) {
+            bestAsk = level;
+        }
+    }
+
+    /**
+     * Removes a resting order from the book.
+     *
+     * @return the removed order, or null if it is not in the book
+     */
+    public RestingOrder remove(UUID orderId) {
+        RestingOrder order = get(orderId);
+        if (order == null) {
+            return null;
+        }
+        unlink(order);
+        return order;
+    }
+
+    /**
+     * Matches the taker against the opposite side while prices cross the limit of its time in force.
+     * Makers are consumed in price-time priority; fully filled makers leave the book.
+     * A FOK taker that the crossing levels cannot fill completely matches nothing.
+     * The taker's remaining amount is reduced but the taker itself is never rested here.
+     *
+     * @return fills in execution order
+     */
+    public List<MatchFill> match(RestingOrder taker) {
+        FillBuffer fills = new FillBuffer();
+        match(taker, fills);
+        return fills;
+    }
+
+    /**
+     * Same as {@link #match(RestingOrder)}, appending the fills to a caller-owned buffer instead of a new list;
+     * with a warmed-up buffer the matching loop allocates nothing.
+     */
+    public void match(RestingOrder taker, FillBuffer fills) {
+        if (taker.getTimeInForce() == TimeInForce.FOK && availableAmount(taker, taker.getRemaining()) < taker.getRemaining()) {
+            return;
+        }
+        while (taker.getRemaining() > 0) {
+            PriceLevel level = taker.isBuy() ? bestAsk : bestBid;
+            if (level == null || !crosses(taker, level.getPrice())) {
+                break;
+            }
+            RestingOrder maker = level.getHead();
+            int matchedAmount = Math.min(taker.getRemaining(), maker.getRemaining());
+            taker.fill(matchedAmount);
+            level.fill(maker, matchedAmount);
+            fills.add(maker, matchedAmount, maker.getRemaining());
+            if (maker.getRemaining() == 0) {
+                unlink(maker);
+            }
+        }
+    }
+
+    /**
+     * Sums the level aggregates on the opposite side that cross the taker's limit, best price first,
+     * stopping as soon as {@code needed} is reached. No order is visited.
+     */
+    public long availableAmount(RestingOrder taker, long needed) {
+        long available = 0;
+        PriceLadder side = taker.isBuy() ? asks : bids;
+        for (PriceLevel level = side.best(); level != null; level = side.next(level.getPrice())) {
+            if (available >= needed || !crosses(taker, level.getPrice())) {
+                break;
+            }
+            available += level.getTotalAmount();
+        }
+        return available;
+    }
+
+    private boolean crosses(RestingOrder taker, int makerPrice) {
+        int limit = taker.getTimeInForce().limitPrice(taker.isBuy(), taker.getPrice());
+        return taker.isBuy() ? makerPrice <= limit : makerPrice >= limit;
+    }
+
+    private void unlink(RestingOrder order) {
+        PriceLevel level = order.level;
+        level.unlink(order);
+        ordersById.remove(order.orderIdHigh(), order.orderIdLow());
+        if (!level.isEmpty()) {
+            return;
+        }
+        if (order.isBuy()) {
+            bids.remove(level.getPrice());
+            if (level == bestBid) {
+                bestBid = bids.best();
+            }
+        } else {
+            asks.remove(level.getPrice());
+            if (level == bestAsk) {
+                bestAsk = asks.best();
+            }
+        }
+    }
+
+    public RestingOrder get(UUID orderId) {
+        return ordersById.get(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits());
+    }
+
+    /**
+     * @return the level at {@code price} on one side, or null if no order rests there
+     */
+    public PriceLevel level(boolean buy, int price) {
+        return (buy ? bids : asks).get(price);
+    }
+
+    public PriceLevel getBestBid() {
+        return bestBid;
+    }
+
+    public PriceLevel getBestAsk() {
+        return bestAsk;
+    }
+
+    /**
+     * Returns up to {@code depth} price levels of one side, best price first.
+     */
+    public List<PriceLevel> levels(boolean buy, int depth) {
+        List<PriceLevel> result = new ArrayList<>(Math.max(0, Math.min(depth, 64)));
+        PriceLadder side = buy ? bids : asks;
+        for (PriceLevel level = side.best(); level != null && result.size() < depth; level = side.next(level.getPrice())) {
+            result.add(level);
+        }
+        return result;
+    }
+
+    /**
+     * Visits the price levels of one side, best price first, until {@code visitor} returns false.
+     */
+    public void forEachLevel(boolean buy, Predicate<PriceLevel> visitor) {
+        PriceLadder side = buy ? bids : asks;
+        for (PriceLevel level = side.best(); level != null && visitor.test(level); level = side.next(level.getPrice())) {
+        }
+    }
+
+    /**
+     * Visits every resting order, bids first, each side in price-time priority.
+     */
+    public void forEachOrder(Consumer<RestingOrder> visitor) {
+        forEachOrder(bids, visitor);
+        forEachOrder(asks, visitor);
+    }
+
+    private static void forEachOrder(PriceLadder side, Consumer<RestingOrder> visitor) {
+        for (PriceLevel level = side.best(); level != null; level = side.next(level.getPrice())) {
+            for (RestingOrder o = level.getHead(); o != null; o = o.next) {
+                visitor.accept(o);
+            }
+        }
+    }
+
+    public int size() {
+        return ordersById.size();
+    }
+
+    /**
+     * Number of non-empty price levels on one side.
+     */
+    public int levelCount(boolean buy) {
+        return (buy ? bids : asks).size();
+    }
+
+    /**
+     * Journal sequence of the last event applied to this book, 0 when the book is not journaled.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+}
@@ -0,0 +1,127 @@
+package com.eap.eap_matchengine.domain.book;
+
+/**
+ * Resting orders of one book by order id, in an open-addressing table keyed by the two 64-bit halves of the
+ * UUID. Keys are stored in parallel {@code long[]} arrays, so an entry costs 20 bytes of table space and no
+ * per-entry node or boxed key, where a {@code HashMap<UUID, RestingOrder>} allocates a 32-byte node per entry
+ * and needs the UUID object kept alive as the key. Collisions are resolved by linear probing and deletion
+ * shifts later entries of the probe run back, so lookups never pass tombstones.
+ * <p>
+ * Not thread-safe; used under the owning {@link OrderBook}'s lock.
+ */
+class OrderIndex {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] highs;
+    private long[] lows;
+    // null 表示空槽
+    private RestingOrder[] orders;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    OrderIndex() {
+        allocate(MIN_CAPACITY);
+    }
+
+    RestingOrder get(long high, long low) {
+        for (int i = slot(high, low); ; i = (i + 1) & mask) {
+            RestingOrder order = orders[i];
+            if (order == null || (highs[i] == high && lows[i] == low)) {
+                return order;
+            }
+        }
+    }
+
+    void put(RestingOrder order) {
+        if (size >= resizeAt) {
+            resize(orders.length << 1);
+        }
+        long high = order.orderIdHigh();
+        long low = order.orderIdLow();
+        int i = slot(high, low);
+        while (orders[i] != null) {
+            if (highs[i] == high && lows[i] == low) {
+                orders[i] = order;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        highs[i] = high;
+        lows[i] = low;
+        orders[i] = order;
+        size++;
+    }
+
+    /**
+     * @return the removed order, or null if the id is not indexed
+     */
+    RestingOrder remove(long high, long low) {
+        for (int i = slot(high, low); ; i = (i + 1) & mask) {
+            RestingOrder order = orders[i];
+            if (order == null) {
+                return null;
+            }
+            if (highs[i] == high && lows[i] == low) {
+                shiftBack(i);
+                size--;
+                return order;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Fills the hole at {@code hole} with the next entry of the probe run whose home slot allows it,
+     * repeating until the run ends.
+     */
+    private void shiftBack(int hole) {
+        for (int i = (hole + 1) & mask; orders[i] != null; i = (i + 1) & mask) {
+            int home = slot(highs[i], lows[i]);
+            // 只有當空洞位於 home 與 i 之間（循環意義下）時才能前移
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                highs[hole] = highs[i];
+                lows[hole] = lows[i];
+                orders[hole] = orders[i];
+                hole = i;
+            }
+        }
+        orders[hole] = null;
+    }
+
+    private int slot(long high, long low) {
+        long hash = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize(int capacity) {
+        long[] oldHighs = highs;
+        long[] oldLows = lows;
+        RestingOrder[] oldOrders = orders;
+        allocate(capacity);
+        for (int i = 0; i < oldOrders.length; i++) {
+            if (oldOrders[i] != null) {
+                int j = slot(oldHighs[i], oldLows[i]);
+                while (orders[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                highs[j] = oldHighs[i];
+                lows[j] = oldLows[i];
+                orders[j] = oldOrders[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        highs = new long[capacity];
+        lows = new long[capacity];
+        orders = new RestingOrder[capacity];
+        mask = capacity - 1;
+        // 負載上限 0.75
+        resizeAt = capacity - (capacity >>> 2);
+    }
+}
@@ -0,0 +1,45 @@
+package com.eap.eap_matchengine.domain.book;
+
+/**
+ * The non-empty price levels of one side of an {@link OrderBook}, ordered best price first
+ * (highest first for bids, lowest first for asks).
+ */
+public interface PriceLadder {
+
+    /**
+     * @return the non-empty level at {@code price}, or null
+     */
+    PriceLevel get(int price);
+
+    /**
+     * Returns the level at {@code price}, creating an empty one if needed; the caller appends an order to it.
+     *
+     * @throws IllegalArgumentException if the ladder cannot hold {@code price}
+     */
+    PriceLevel getOrCreate(int price);
+
+    /**
+     * Drops the level at {@code price}, which has just become empty.
+     */
+    void remove(int price);
+
+    /**
+     * @return the best non-empty level, or null if the side is empty
+     */
+    PriceLevel best();
+
+    /**
+     * @return the next non-empty level after {@code price} in best-first order, or null
+     */
+    PriceLevel next(int price);
+
+    /**
+     * Whether an order at {@code price} can rest on this ladder.
+     */
+    boolean accepts(int price);
+
+    /**
+     * Number of non-empty levels.
+     */
+    int size();
+}
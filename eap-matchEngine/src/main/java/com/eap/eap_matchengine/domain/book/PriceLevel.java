@@ -0,0 +1,61 @@
+package com.eap.eap_matchengine.domain.book;
+
+/**
+ * One price level of the in-memory order book: a FIFO queue of resting orders at the same price
+ * together with the aggregated quantity and order count of the level.
+ */
+public class PriceLevel {
+
+    private final int price;
+    private RestingOrder head;
+    private RestingOrder tail;
+    private long totalAmount;
+    private int orderCount;
+
+    public PriceLevel(int price) {
+        this.price = price;
+    }
+
+    void append(RestingOrder order) {
+        order.level = this;
+        order.prev = tail;
+        order.next = null;
+        if (tail == null) {
+            head = order;
+        } else {
+            tail.next = order;
+        }
+        tail = order;
+        totalAmount += order.getRemaining();
+        orderCount++;
+    }
+
+    void unlink(RestingOrder order) {
+        if (order.prev == null) {
+            head = order.next;
+        } else {
+            order.prev.next = order.next;
+        }
+        if (order.next == null) {
+            tail = order.prev;
+        } else {
+            order.next.prev = order.prev;
+        }
+        totalAmount -= order.getRemaining();
+        orderCount--;
+        order.level = null;
+        order.prev = null;
+        order.next = null;
+    }
+
+    void fill(RestingOrder order, int amount) {
+        order.fill(amount);
+        totalAmount -= amount;
+    }
+
+    public int getPrice() { return price; }
+    public RestingOrder getHead() { return head; }
+    public long getTotalAmount() { return totalAmount; }
+    public int getOrderCount() { return orderCount; }
+    public boolean isEmpty() { return head == null; }
+}
@@ -0,0 +1,140 @@
+package com.eap.eap_matchengine.domain.book;
+
+import com.eap.common.constants.SymbolConstants;
+import com.eap.common.constants.TimeInForce;
+import com.eap.common.event.OrderCreatedEvent;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * An order resting in the in-memory order book.
+ * Immutable order attributes are copied from the incoming {@link OrderCreatedEvent};
+ * only the remaining amount changes while the order rests. Only {@link TimeInForce#GTC} orders ever rest;
+ * the time in force of other orders is carried while they take liquidity. The prev/next links form
+ * the FIFO queue of the owning {@link PriceLevel}, so removal from any position is O(1).
+ * <p>
+ * Ids and timestamps are held as primitives (the two halves of each UUID, epoch nanos) rather than as
+ * {@link UUID} and {@link LocalDateTime} objects, so a resting order is a single object of about 100 bytes;
+ * the getters materialize the objects on the way out to events, the journal and Redis.
+ */
+public class RestingOrder {
+
+    // 沒有時間時的 epoch 奈秒值
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private final long orderIdHigh;
+    private final long orderIdLow;
+    private final long userIdHigh;
+    private final long userIdLow;
+    private final String symbol;
+    private final int price;
+    private final boolean buy;
+    private final long createdAt;
+    private final long expireAt;
+    private final TimeInForce timeInForce;
+    private int remaining;
+
+    // 價格層級內的 FIFO 雙向鏈結
+    PriceLevel level;
+    RestingOrder prev;
+    RestingOrder next;
+
+    public RestingOrder(UUID orderId, UUID userId, String symbol, int price, int remaining, boolean buy,
+                        LocalDateTime createdAt) {
+        this(orderId, userId, symbol, price, remaining, buy, createdAt, null, TimeInForce.GTC);
+    }
+
+    /**
+     * @param expireAt    good-till-time expiry, null for an order that rests until filled or cancelled
+     * @param timeInForce how the unfilled remainder is handled when the order takes liquidity
+     */
+    public RestingOrder(UUID orderId, UUID userId, String symbol, int price, int remaining, boolean buy,
+                        LocalDateTime createdAt, LocalDateTime expireAt, TimeInForce timeInForce) {
+        this.orderIdHigh = orderId.getMostSignificantBits();
+        this.orderIdLow = orderId.getLeastSignificantBits();
+        this.userIdHigh = userId.getMostSignificantBits();
+        this.userIdLow = userId.getLeastSignificantBits();
+        this.symbol = symbol;
+        this.price = price;
+        this.remaining = remaining;
+        this.buy = buy;
+        this.createdAt = toNanos(createdAt);
+        this.expireAt = toNanos(expireAt);
+        this.timeInForce = timeInForce;
+    }
+
+    public static RestingOrder from(OrderCreatedEvent event) {
+        return new RestingOrder(
+                event.getOrderId(),
+                event.getUserId(),
+                SymbolConstants.normalize(event.getSymbol()),
+                event.getPrice(),
+                event.getAmount(),
+                event.getOrderType().equalsIgnoreCase("BUY"),
+                event.getCreatedAt(),
+                event.getExpireAt(),
+                TimeInForce.of(event.getTimeInForce()));
+    }
+
+    /**
+     * Creates a detached event snapshot of this order with its current remaining amount.
+     * Snapshots are safe to hand to other threads (e.g. the Redis persister).
+     */
+    public OrderCreatedEvent toEvent() {
+        return OrderCreatedEvent.builder()
+                .orderId(getOrderId())
+                .userId(getUserId())
+                .price(price)
+                .amount(remaining)
+                .orderType(buy ? "BUY" : "SELL")
+                .symbol(symbol)
+                .createdAt(getCreatedAt())
+                .expireAt(getExpireAt())
+                .timeInForce(timeInForce == TimeInForce.GTC ? null : timeInForce.name())
+                .build();
+    }
+
+    void fill(int amount) {
+        this.remaining -= amount;
+    }
+
+    /**
+     * Restores the remaining amount of a taker that did not rest, so allocation benchmarks can match the same
+     * order again without creating a new one.
+     */
+    void resetRemaining(int remaining) {
+        if (isResting()) {
+            throw new IllegalStateException("Cannot reset a resting order: " + getOrderId());
+        }
+        if (remaining <= 0) {
+            throw new IllegalArgumentException("remaining must be positive: " + remaining);
+        }
+        this.remaining = remaining;
+    }
+
+    private static long toNanos(LocalDateTime time) {
+        return time == null ? NO_TIME : time.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + time.getNano();
+    }
+
+    private static LocalDateTime toTime(long nanos) {
+        return nanos == NO_TIME ? null : LocalDateTime.ofEpochSecond(Math.floorDiv(nanos, 1_000_000_000L),
+                (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+
+    long orderIdHigh() { return orderIdHigh; }
+    long orderIdLow() { return orderIdLow; }
+
+    public UUID getOrderId() { return new UUID(orderIdHigh, orderIdLow); }
+    public UUID getUserId() { return new UUID(userIdHigh, userIdLow); }
+    public String getSymbol() { return symbol; }
+    public int getPrice() { return price; }
+    public boolean isBuy() { return buy; }
+    public LocalDateTime getCreatedAt() { return toTime(createdAt); }
+    public LocalDateTime getExpireAt() { return toTime(expireAt); }
+    public boolean hasExpiry() { return expireAt != NO_TIME; }
+    public TimeInForce getTimeInForce() { return timeInForce; }
+    public int getRemaining() { return remaining; }
+    public boolean isResting() { return level != null; }
+}
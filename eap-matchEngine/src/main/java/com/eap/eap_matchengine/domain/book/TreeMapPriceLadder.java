@@ -0,0 +1,58 @@
+package com.eap.eap_matchengine.domain.book;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Price levels in a sorted map; accepts any price. The default ladder of an {@link OrderBook}.
+ */
+public class TreeMapPriceLadder implements PriceLadder {
+
+    private final NavigableMap<Integer, PriceLevel> levels;
+
+    /**
+     * @param descending true for bids (highest price first), false for asks
+     */
+    public TreeMapPriceLadder(boolean descending) {
+        this.levels = descending ? new TreeMap<>(Collections.reverseOrder()) : new TreeMap<>();
+    }
+
+    @Override
+    public PriceLevel get(int price) {
+        return levels.get(price);
+    }
+
+    @Override
+    public PriceLevel getOrCreate(int price) {
+        return levels.computeIfAbsent(price, PriceLevel::new);
+    }
+
+    @Override
+    public void remove(int price) {
+        levels.remove(price);
+    }
+
+    @Override
+    public PriceLevel best() {
+        Map.Entry<Integer, PriceLevel> first = levels.firstEntry();
+        return first != null ? first.getValue() : null;
+    }
+
+    @Override
+    public PriceLevel next(int price) {
+        Map.Entry<Integer, PriceLevel> higher = levels.higherEntry(price);
+        return higher != null ? higher.getValue() : null;
+    }
+
+    @Override
+    public boolean accepts(int price) {
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return levels.size();
+    }
+}
@@ -0,0 +1,191 @@
+package com.eap.eap_matchengine.journal;
+
+import com.eap.eap_matchengine.domain.book.OrderBook;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Binary snapshots of the in-memory order books.
+ * <p>
+ * A snapshot file holds a header (magic, version, start sequence, book count) followed by one section per
+ * book: symbol, book sequence, order count and the orders of the book in price-time priority, so adding
+ * them back in file order restores the queue position of every order. The start sequence is the journal
+ * sequence read before the books were captured; replay after loading starts right after it and skips,
+ * per book, the events already contained in that book's section.
+ * <p>
+ * Files are written to a temporary name and atomically renamed, so a crash while writing never leaves
+ * a partial snapshot behind.
+ */
+public class BookSnapshotStore {
+
+    private static final int MAGIC = 0x45415053;
+    private static final int VERSION = 1;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final Path directory;
+    private final int retained;
+
+    /**
+     * One captured book, ready to be written without holding the book's lock.
+     */
+    public static final class BookImage {
+        private final String symbol;
+        private final long sequence;
+        private final int orderCount;
+        private final ByteBuffer orders;
+
+        private BookImage(String symbol, long sequence, int orderCount, ByteBuffer orders) {
+            this.symbol = symbol;
+            this.sequence = sequence;
+            this.orderCount = orderCount;
+            this.orders = orders;
+        }
+
+        public String getSymbol() { return symbol; }
+        public long getSequence() { return sequence; }
+        public int getOrderCount() { return orderCount; }
+    }
+
+    /**
+     * A loaded snapshot.
+     */
+    public static final class Snapshot {
+        private final long startSequence;
+        private final Map<String, OrderBook> books;
+
+        private Snapshot(long startSequence, Map<String, OrderBook> books) {
+            this.startSequence = startSequence;
+            this.books = books;
+        }
+
+        public long getStartSequence() { return startSequence; }
+        public Map<String, OrderBook> getBooks() { return books; }
+    }
+
+    public BookSnapshotStore(Path directory, int retained) throws IOException {
+        this.directory = directory;
+        this.retained = Math.max(1, retained);
+        Files.createDirectories(directory);
+    }
+
+    /**
+     * Copies a book into an image. The caller must hold the book's lock; this is a plain memory copy.
+     *
+     * @param sequence journal sequence up to which the book is complete
+     */
+    public static BookImage capture(String symbol, long sequence, OrderBook book) {
+        ByteBuffer orders = ByteBuffer.allocate(book.size() * JournalCodec.MAX_ORDER_SIZE);
+        book.forEachOrder(order -> JournalCodec.encodeOrder(orders, order));
+        orders.flip();
+        return new BookImage(symbol, sequence, book.size(), orders);
+    }
+
+    /**
+     * Writes a snapshot and removes snapshots beyond the retention count.
+     *
+     * @return the written file
+     */
+    public Path write(long startSequence, List<BookImage> images) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, startSequence, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(20);
+            header.putInt(MAGIC).putInt(VERSION).putLong(startSequence).putInt(images.size()).flip();
+            writeFully(channel, header);
+            for (BookImage image : images) {
+                ByteBuffer section = ByteBuffer.allocate(2 + image.symbol.length() * 3 + 12);
+                JournalCodec.putString(section, image.symbol);
+                section.putLong(image.sequence).putInt(image.orderCount).flip();
+                writeFully(channel, section);
+                writeFully(channel, image.orders.duplicate());
+            }
+            channel.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        prune();
+        return target;
+    }
+
+    /**
+     * Loads the newest snapshot.
+     *
+     * @return the snapshot, or null if none has been written yet
+     */
+    public Snapshot loadLatest() throws IOException {
+        return loadLatest(symbol -> new OrderBook());
+    }
+
+    /**
+     * Loads the newest snapshot into books created by {@code bookFactory}.
+     *
+     * @return the snapshot, or null if none has been written yet
+     */
+    public Snapshot loadLatest(Function<String, OrderBook> bookFactory) throws IOException {
+        List<Path> snapshots = snapshots();
+        if (snapshots.isEmpty()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshots.get(snapshots.size() - 1), READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Unsupported order book snapshot format: " + snapshots.get(snapshots.size() - 1));
+            }
+            long startSequence = buffer.getLong();
+            int bookCount = buffer.getInt();
+            Map<String, OrderBook> books = new HashMap<>();
+            for (int i = 0; i < bookCount; i++) {
+                String symbol = JournalCodec.getString(buffer);
+                OrderBook book = bookFactory.apply(symbol);
+                book.setSequence(buffer.getLong());
+                int orderCount = buffer.getInt();
+                for (int j = 0; j < orderCount; j++) {
+                    book.add(JournalCodec.decodeOrder(buffer, symbol));
+                }
+                books.put(symbol, book);
+            }
+            return new Snapshot(startSequence, books);
+        }
+    }
+
+    private void prune() throws IOException {
+        List<Path> snapshots = snapshots();
+        for (int i = 0; i < snapshots.size() - retained; i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    private List<Path> snapshots() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.eap.eap_matchengine.journal;
+
+import com.eap.common.constants.TimeInForce;
+import com.eap.eap_matchengine.domain.book.RestingOrder;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Binary layout of journal payloads and snapshot entries.
+ * <ul>
+ *   <li>CREATE: symbol, order</li>
+ *   <li>CANCEL: symbol, orderId</li>
+ *   <li>FILL: symbol, takerId, makerId, price, amount</li>
+ * </ul>
+ * An order is orderId, userId, price, amount, side, a presence flag byte and the present ones of createdAt
+ * and expireAt, at most {@link #MAX_ORDER_SIZE} bytes. Bits 2-3 of the flag byte hold the time in force code,
+ * so replaying a CREATE does not rest the remainder of an IOC/FOK/MARKET taker. Records written before
+ * expireAt and time in force existed only ever set the createdAt flag, so they decode unchanged as GTC.
+ */
+public final class JournalCodec {
+
+    // orderId(16) + userId(16) + price(4) + amount(4) + side(1) + flags(1) + createdAt(8 + 4) + expireAt(8 + 4)
+    public static final int MAX_ORDER_SIZE = 66;
+
+    private static final int HAS_CREATED_AT = 1;
+    private static final int HAS_EXPIRE_AT = 1 << 1;
+    private static final int TIME_IN_FORCE_SHIFT = 2;
+    private static final int TIME_IN_FORCE_MASK = 0b11;
+
+    private JournalCodec() {
+    }
+
+    public static void encodeCreate(ByteBuffer buffer, RestingOrder order) {
+        putString(buffer, order.getSymbol());
+        encodeOrder(buffer, order);
+    }
+
+    public static RestingOrder decodeCreate(ByteBuffer buffer) {
+        String symbol = getString(buffer);
+        return decodeOrder(buffer, symbol);
+    }
+
+    public static void encodeCancel(ByteBuffer buffer, String symbol, UUID orderId) {
+        putString(buffer, symbol);
+        putUuid(buffer, orderId);
+    }
+
+    public static void encodeFill(ByteBuffer buffer, String symbol, UUID takerId, UUID makerId, int price, int amount) {
+        putString(buffer, symbol);
+        putUuid(buffer, takerId);
+        putUuid(buffer, makerId);
+        buffer.putInt(price);
+        buffer.putInt(amount);
+    }
+
+    /**
+     * Writes an order without its symbol; the current remaining amount is written as the amount.
+     */
+    public static void encodeOrder(ByteBuffer buffer, RestingOrder order) {
+        putUuid(buffer, order.getOrderId());
+        putUuid(buffer, order.getUserId());
+        buffer.putInt(order.getPrice());
+        buffer.putInt(order.getRemaining());
+        buffer.put(order.isBuy() ? (byte) 1 : (byte) 0);
+        LocalDateTime createdAt = order.getCreatedAt();
+        LocalDateTime expireAt = order.getExpireAt();
+        buffer.put((byte) ((createdAt != null ? HAS_CREATED_AT : 0) | (expireAt != null ? HAS_EXPIRE_AT : 0)
+                | order.getTimeInForce().code() << TIME_IN_FORCE_SHIFT));
+        if (createdAt != null) {
+            putTime(buffer, createdAt);
+        }
+        if (expireAt != null) {
+            putTime(buffer, expireAt);
+        }
+    }
+
+    public static RestingOrder decodeOrder(ByteBuffer buffer, String symbol) {
+        UUID orderId = getUuid(buffer);
+        UUID userId = getUuid(buffer);
+        int price = buffer.getInt();
+        int amount = buffer.getInt();
+        boolean buy = buffer.get() == 1;
+        int flags = buffer.get();
+        LocalDateTime createdAt = (flags & HAS_CREATED_AT) != 0 ? getTime(buffer) : null;
+        LocalDateTime expireAt = (flags & HAS_EXPIRE_AT) != 0 ? getTime(buffer) : null;
+        TimeInForce timeInForce = TimeInForce.fromCode((byte) (flags >> TIME_IN_FORCE_SHIFT & TIME_IN_FORCE_MASK));
+        return new RestingOrder(orderId, userId, symbol, price, amount, buy, createdAt, expireAt, timeInForce);
+    }
+
+    public static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static UUID getUuid(ByteBuffer buffer) {
+        return new UUID(buffer.getLong(), buffer.getLong());
+    }
+
+    private static void putTime(ByteBuffer buffer, LocalDateTime value) {
+        buffer.putLong(value.toEpochSecond(ZoneOffset.UTC));
+        buffer.putInt(value.getNano());
+    }
+
+    private static LocalDateTime getTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong(), buffer.getInt(), ZoneOffset.UTC);
+    }
+
+    static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    static void putUuid(ByteBuffer buffer, UUID value) {
+        buffer.putLong(value.getMostSignificantBits());
+        buffer.putLong(value.getLeastSignificantBits());
+    }
+}
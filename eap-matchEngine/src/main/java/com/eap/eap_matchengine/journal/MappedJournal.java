@@ -0,0 +1,214 @@
+package com.eap.eap_matchengine.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only journal of sequenced match engine events, stored in fixed-size memory-mapped segment files.
+ * <p>
+ * Every record is {@code length | crc32 | type | sequence | payload}. The length is written last, so a
+ * record only becomes visible once it is complete; a torn or corrupt tail is detected by the CRC and
+ * cut off when the journal is reopened. Sequences start at 1 and increase by one per record.
+ * Segment files are named after the first sequence they contain, which lets replay skip whole segments.
+ * <p>
+ * Writes go to the page cache through the mapping and survive a process crash; {@link #flush()} forces
+ * them to disk. All mutating methods are synchronized.
+ */
+public class MappedJournal implements Closeable {
+
+    public static final byte CREATE = 1;
+    public static final byte CANCEL = 2;
+    public static final byte FILL = 3;
+
+    // length(int) + crc(int) + type(byte) + sequence(long)
+    static final int HEADER_SIZE = 17;
+    private static final String PREFIX = "journal-";
+    private static final String SUFFIX = ".log";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long lastSequence;
+
+    /**
+     * Receives journal records during {@link #replay}. The payload buffer is only valid during the call.
+     */
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(byte type, long sequence, ByteBuffer payload);
+    }
+
+    public MappedJournal(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        Files.createDirectories(directory);
+        List<Path> segments = segments();
+        if (segments.isEmpty()) {
+            openSegment(1);
+            return;
+        }
+        Path active = segments.get(segments.size() - 1);
+        lastSequence = firstSequence(active) - 1;
+        channel = FileChannel.open(active, READ, WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentSize));
+        int position = 0;
+        int next;
+        while ((next = nextRecord(buffer, position)) > 0) {
+            lastSequence = buffer.getLong(position + 9);
+            position = next;
+        }
+        // 截斷未寫完或損毀的尾端，之後的寫入從這裡覆蓋
+        if (position + 4 <= buffer.limit()) {
+            buffer.putInt(position, 0);
+        }
+        buffer.position(position);
+    }
+
+    /**
+     * Appends one record.
+     *
+     * @param type    record type ({@link #CREATE}, {@link #CANCEL}, {@link #FILL})
+     * @param payload encoded record body, read from its position to its limit
+     * @return the sequence assigned to the record
+     */
+    public synchronized long append(byte type, ByteBuffer payload) throws IOException {
+        int length = payload.remaining();
+        if (buffer.remaining() < HEADER_SIZE + length + 4) {
+            roll();
+            if (buffer.remaining() < HEADER_SIZE + length + 4) {
+                throw new IllegalArgumentException("Journal record of " + length + " bytes exceeds the segment size");
+            }
+        }
+        long sequence = lastSequence + 1;
+        int position = buffer.position();
+        buffer.put(position + 8, type);
+        buffer.putLong(position + 9, sequence);
+        buffer.put(position + HEADER_SIZE, payload, payload.position(), length);
+        crc.reset();
+        crc.update(buffer.slice(position + 8, HEADER_SIZE - 8 + length));
+        buffer.putInt(position + 4, (int) crc.getValue());
+        // 最後寫入長度，記錄才對讀取端可見
+        buffer.putInt(position, length);
+        buffer.position(position + HEADER_SIZE + length);
+        lastSequence = sequence;
+        return sequence;
+    }
+
+    /**
+     * Visits every record with a sequence greater than {@code afterSequence}, in sequence order.
+     */
+    public synchronized void replay(long afterSequence, RecordVisitor visitor) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i < segments.size(); i++) {
+            if (i + 1 < segments.size() && firstSequence(segments.get(i + 1)) <= afterSequence + 1) {
+                continue;
+            }
+            try (FileChannel segment = FileChannel.open(segments.get(i), READ)) {
+                MappedByteBuffer records = segment.map(FileChannel.MapMode.READ_ONLY, 0, segment.size());
+                int position = 0;
+                int next;
+                while ((next = nextRecord(records, position)) > 0) {
+                    long sequence = records.getLong(position + 9);
+                    if (sequence > afterSequence) {
+                        int length = records.getInt(position);
+                        visitor.visit(records.get(position + 8), sequence, records.slice(position + HEADER_SIZE, length));
+                    }
+                    position = next;
+                }
+            }
+        }
+    }
+
+    /**
+     * Deletes segments whose records all have a sequence of at most {@code sequence}.
+     * The active segment is never deleted.
+     */
+    public synchronized void deleteSegmentsUpTo(long sequence) throws IOException {
+        List<Path> segments = segments();
+        for (int i = 0; i + 1 < segments.size(); i++) {
+            if (firstSequence(segments.get(i + 1)) - 1 > sequence) {
+                break;
+            }
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    public synchronized long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Forces written records of the active segment to disk.
+     */
+    public synchronized void flush() {
+        buffer.force();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+
+    private void roll() throws IOException {
+        buffer.force();
+        channel.close();
+        openSegment(lastSequence + 1);
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+        channel = FileChannel.open(path, CREATE_NEW, READ, WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+    }
+
+    /**
+     * @return the position after the record at {@code position}, or -1 if there is no complete valid record there
+     */
+    private static int nextRecord(ByteBuffer records, int position) {
+        if (position + HEADER_SIZE > records.limit()) {
+            return -1;
+        }
+        int length = records.getInt(position);
+        if (length <= 0 || position + HEADER_SIZE + length > records.limit()) {
+            return -1;
+        }
+        CRC32 check = new CRC32();
+        check.update(records.slice(position + 8, HEADER_SIZE - 8 + length));
+        if ((int) check.getValue() != records.getInt(position + 4)) {
+            return -1;
+        }
+        return position + HEADER_SIZE + length;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                        String name = p.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static long firstSequence(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
@@ -0,0 +1,34 @@
+-- 新增掛單並同步更新價格層級聚合
+-- KEYS[1] 訂單簿 ZSet
+-- KEYS[2] order:{id} hash
+-- KEYS[3] user:{id}:orders set
+-- KEYS[4..6] 同側價格層級 prices / amounts / counts
+-- KEYS[7] 標的訂單簿版本號
+-- KEYS[8] 標的集合（CLUSTER 配置下不傳入，由服務另外寫入）
+-- ARGV orderId, userId, price, amount, orderType, createdAt, symbol, expireAt（未設定為空字串）
+
+-- updateLevel 定義於 lib/update_level.lua，載入腳本時加在最前面
+
+local previous = redis.call('HMGET', KEYS[2], 'price', 'amount')
+if previous[1] and redis.call('ZSCORE', KEYS[1], ARGV[1]) then
+  -- 覆寫既有掛單時先扣除舊的層級貢獻
+  updateLevel(KEYS[4], KEYS[5], KEYS[6], previous[1], -tonumber(previous[2]), -1)
+end
+
+redis.call('ZADD', KEYS[1], ARGV[3], ARGV[1])
+redis.call('HSET', KEYS[2],
+  'orderId', ARGV[1],
+  'userId', ARGV[2],
+  'price', ARGV[3],
+  'amount', ARGV[4],
+  'orderType', ARGV[5],
+  'createdAt', ARGV[6],
+  'symbol', ARGV[7],
+  'expireAt', ARGV[8])
+redis.call('SADD', KEYS[3], ARGV[1])
+if KEYS[8] then
+  redis.call('SADD', KEYS[8], ARGV[7])
+end
+updateLevel(KEYS[4], KEYS[5], KEYS[6], ARGV[3], tonumber(ARGV[4]), 1)
+redis.call('INCR', KEYS[7])
+return 1
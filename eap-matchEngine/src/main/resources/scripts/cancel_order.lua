@@ -0,0 +1,26 @@
+-- 原子取消單筆掛單：在同一個腳本中移除訂單簿、訂單、用戶索引，並更新價格層級聚合與訂單簿版本號；
+-- 與撮合腳本互斥，不會取消已被撮合取走的訂單
+-- 所有 key 皆由呼叫端依訂單的標的、方向與用戶組出（這些欄位建立後不會改變），腳本只存取 KEYS 中的 key
+-- KEYS[1] 訂單簿 ZSet
+-- KEYS[2] 訂單 hash
+-- KEYS[3] 用戶掛單索引 set
+-- KEYS[4..6] 同側價格層級 prices / amounts / counts
+-- KEYS[7] 標的訂單簿版本號
+-- ARGV[1] orderId
+-- ARGV[2] 標的
+-- 回傳：已取消的訂單 {orderId, userId, price, amount, orderType, symbol, createdAt}；訂單不在訂單簿中時回傳空陣列
+
+-- updateLevel 定義於 lib/update_level.lua，載入腳本時加在最前面
+
+local order = redis.call('HMGET', KEYS[2], 'userId', 'price', 'amount', 'orderType', 'createdAt')
+if not order[2] then
+  return {}
+end
+if redis.call('ZREM', KEYS[1], ARGV[1]) == 0 then
+  return {}
+end
+redis.call('DEL', KEYS[2])
+redis.call('SREM', KEYS[3], ARGV[1])
+updateLevel(KEYS[4], KEYS[5], KEYS[6], order[2], -tonumber(order[3]), -1)
+redis.call('INCR', KEYS[7])
+return { ARGV[1], order[1], order[2], order[3], order[4], ARGV[2], order[5] or '' }
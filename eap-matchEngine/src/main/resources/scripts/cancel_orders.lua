@@ -0,0 +1,41 @@
+-- 批次移除同一標的的指定掛單（例如到期的 GTT 訂單）：在同一個腳本中移除訂單簿、訂單、用戶索引並更新
+-- 價格層級聚合，有異動時遞增一次訂單簿版本號；已成交或已取消的訂單略過
+-- 所有 key 皆由呼叫端依各訂單的方向與用戶組出，腳本只存取 KEYS 中的 key
+-- KEYS[1] 買盤 ZSet，KEYS[2..4] 買盤價格層級 prices / amounts / counts
+-- KEYS[5] 賣盤 ZSet，KEYS[6..8] 賣盤價格層級 prices / amounts / counts
+-- KEYS[9] 標的訂單簿版本號
+-- KEYS[10..] 每筆訂單依序兩個 key：訂單 hash、用戶掛單索引 set，與 ARGV[2..] 的 orderId 依序對應
+-- ARGV[1] 標的
+-- ARGV[2..] orderId
+-- 回傳：{ {orderId, userId, price, amount, orderType, symbol, createdAt}, ... }，amount 為移除時尚未成交的數量
+
+-- updateLevel 定義於 lib/update_level.lua，載入腳本時加在最前面
+
+-- 由 KEYS[1..8] 中依方向取得訂單簿與價格層級，移除一筆掛單；訂單已不在訂單簿中時回傳 nil
+local function removeOrder(orderKey, userOrdersKey, orderId)
+  local order = redis.call('HMGET', orderKey, 'userId', 'price', 'amount', 'orderType', 'createdAt')
+  if not order[2] then
+    return nil
+  end
+  local side = string.upper(order[4]) == 'BUY' and 0 or 4
+  if redis.call('ZREM', KEYS[side + 1], orderId) == 0 then
+    return nil
+  end
+  redis.call('DEL', orderKey)
+  redis.call('SREM', userOrdersKey, orderId)
+  updateLevel(KEYS[side + 2], KEYS[side + 3], KEYS[side + 4], order[2], -tonumber(order[3]), -1)
+  return { orderId, order[1], order[2], order[3], order[4], ARGV[1], order[5] or '' }
+end
+
+local removed = {}
+for i = 2, #ARGV do
+  local row = removeOrder(KEYS[2 * i + 6], KEYS[2 * i + 7], ARGV[i])
+  if row then
+    table.insert(removed, row)
+  end
+end
+
+if #removed > 0 then
+  redis.call('INCR', KEYS[9])
+end
+return removed
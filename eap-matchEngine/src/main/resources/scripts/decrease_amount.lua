@@ -0,0 +1,18 @@
+-- 部分成交：原地扣減掛單剩餘數量並同步更新價格層級聚合
+-- KEYS[1] order:{id} hash
+-- KEYS[2..4] 同側價格層級 prices / amounts / counts
+-- KEYS[5] 標的訂單簿版本號
+-- ARGV[1] 成交數量
+-- 回傳：1 已更新，0 訂單不存在
+
+-- updateLevel 定義於 lib/update_level.lua，載入腳本時加在最前面
+
+local price = redis.call('HGET', KEYS[1], 'price')
+if not price then
+  return 0
+end
+local matched = tonumber(ARGV[1])
+redis.call('HINCRBY', KEYS[1], 'amount', -matched)
+updateLevel(KEYS[2], KEYS[3], KEYS[4], price, -matched, 0)
+redis.call('INCR', KEYS[5])
+return 1
@@ -0,0 +1,16 @@
+-- 批次讀取訂單 hash：一次往返取回一批訂單的所有欄位，取代逐筆 HGETALL；不存在（已成交或已取消）的訂單略過
+-- KEYS[1..] 訂單 hash（CLUSTER 配置下同一批的訂單屬於同一個標的，落在同一個 slot）
+-- 回傳：{ {orderId, userId, price, amount, orderType, createdAt, symbol, expireAt}, ... }，缺少的欄位為空字串
+-- 唯讀腳本：查詢連線池以 EVALSHA_RO 執行以便讀取 replica，不得加入寫入指令
+
+local rows = {}
+for i = 1, #KEYS do
+  local order = redis.call('HMGET', KEYS[i], 'orderId', 'userId', 'price', 'amount', 'orderType', 'createdAt', 'symbol', 'expireAt')
+  if order[1] then
+    for j = 1, 8 do
+      order[j] = order[j] or ''
+    end
+    table.insert(rows, order)
+  end
+end
+return rows
@@ -0,0 +1,18 @@
+-- 各訂單簿寫入腳本共用的價格層級聚合更新
+-- RedisOrderBookService 載入腳本時把本檔加在腳本最前面再計算 SHA，腳本本身不重複定義；
+-- Redis 回報的錯誤行號因此包含本檔的行數
+
+-- 更新價格層級聚合；訂單數歸零時移除整個價格層級
+local function updateLevel(pricesKey, amountsKey, countsKey, price, amountDelta, countDelta)
+  local count = redis.call('HINCRBY', countsKey, price, countDelta)
+  if count <= 0 then
+    redis.call('HDEL', amountsKey, price)
+    redis.call('HDEL', countsKey, price)
+    redis.call('ZREM', pricesKey, price)
+  else
+    redis.call('HINCRBY', amountsKey, price, amountDelta)
+    if countDelta > 0 then
+      redis.call('ZADD', pricesKey, price, price)
+    end
+  end
+end
@@ -0,0 +1,39 @@
+-- 批次取消某用戶在某標的的掛單：呼叫端由用戶掛單索引讀出訂單並依方向與價格篩選，符合條件的掛單
+-- 在同一個腳本中全部移除，並更新價格層級聚合與訂單簿版本號；已不存在的訂單只清除殘留的索引
+-- 所有 key 皆由呼叫端組出，腳本只存取 KEYS 中的 key
+-- KEYS[1] 用戶掛單索引 set
+-- KEYS[2] 買盤 ZSet，KEYS[3..5] 買盤價格層級 prices / amounts / counts
+-- KEYS[6] 賣盤 ZSet，KEYS[7..9] 賣盤價格層級 prices / amounts / counts
+-- KEYS[10] 標的訂單簿版本號
+-- KEYS[11..] 訂單 hash，與 ARGV[2..] 的 orderId 依序對應
+-- ARGV[1] 標的
+-- ARGV[2..] orderId
+-- 回傳：{ {orderId, userId, price, amount, orderType, symbol, createdAt}, ... }
+
+-- updateLevel 定義於 lib/update_level.lua，載入腳本時加在最前面
+
+local userOrdersKey = KEYS[1]
+local cancelled = {}
+
+for i = 2, #ARGV do
+  local orderId = ARGV[i]
+  local orderKey = KEYS[i + 9]
+  local order = redis.call('HMGET', orderKey, 'userId', 'price', 'amount', 'orderType', 'createdAt')
+  if not order[2] then
+    -- 訂單已成交或已取消，清除殘留的索引
+    redis.call('SREM', userOrdersKey, orderId)
+  else
+    local side = string.upper(order[4]) == 'BUY' and 1 or 5
+    if redis.call('ZREM', KEYS[side + 1], orderId) == 1 then
+      redis.call('DEL', orderKey)
+      redis.call('SREM', userOrdersKey, orderId)
+      updateLevel(KEYS[side + 2], KEYS[side + 3], KEYS[side + 4], order[2], -tonumber(order[3]), -1)
+      table.insert(cancelled, { orderId, order[1], order[2], order[3], order[4], ARGV[1], order[5] or '' })
+    end
+  end
+end
+
+if #cancelled > 0 then
+  redis.call('INCR', KEYS[10])
+end
+return cancelled
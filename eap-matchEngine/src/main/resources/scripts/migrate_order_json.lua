@@ -0,0 +1,22 @@
+-- 將舊版以 JSON 字串儲存的訂單原子性轉換為 hash
+-- KEYS[1] order:{id}
+-- 回傳：1 已轉換，0 無需轉換
+if redis.call('TYPE', KEYS[1]).ok ~= 'string' then
+  return 0
+end
+
+local order = cjson.decode(redis.call('GET', KEYS[1]))
+local createdAt = order['createdAt']
+if type(createdAt) ~= 'string' then
+  createdAt = ''
+end
+
+redis.call('DEL', KEYS[1])
+redis.call('HSET', KEYS[1],
+  'orderId', order['orderId'],
+  'userId', order['userId'],
+  'price', tostring(order['price']),
+  'amount', tostring(order['amount']),
+  'orderType', order['orderType'],
+  'createdAt', createdAt)
+return 1
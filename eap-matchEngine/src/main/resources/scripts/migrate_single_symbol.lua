@@ -0,0 +1,17 @@
+-- 將單一標的版本的訂單簿與價格層級 key 原子性搬移到預設標的底下
+-- KEYS[1..4] 舊 key：訂單簿 ZSet、prices、amounts、counts
+-- KEYS[5..8] 新 key：訂單簿 ZSet、prices、amounts、counts
+-- KEYS[9] 標的集合
+-- ARGV[1] 預設標的
+-- 回傳：1 已搬移，0 無需搬移（舊 key 不存在或新 key 已存在）
+if redis.call('EXISTS', KEYS[1]) == 0 or redis.call('EXISTS', KEYS[5]) == 1 then
+  return 0
+end
+
+for i = 1, 4 do
+  if redis.call('EXISTS', KEYS[i]) == 1 then
+    redis.call('RENAME', KEYS[i], KEYS[i + 4])
+  end
+end
+redis.call('SADD', KEYS[9], ARGV[1])
+return 1
@@ -0,0 +1,23 @@
+-- 讀取某一側前 N 個價格層級的聚合數量與訂單數
+-- KEYS[1..3] 價格層級 prices / amounts / counts
+-- ARGV[1] 深度
+-- ARGV[2] 是否由高至低（買盤 1，賣盤 0）
+-- 回傳：{ {price, amount, orderCount}, ... }
+-- 唯讀腳本：查詢連線池以 EVALSHA_RO 執行以便讀取 replica，不得加入寫入指令
+local depth = tonumber(ARGV[1])
+if depth <= 0 then
+  return {}
+end
+
+local prices
+if ARGV[2] == '1' then
+  prices = redis.call('ZREVRANGE', KEYS[1], 0, depth - 1)
+else
+  prices = redis.call('ZRANGE', KEYS[1], 0, depth - 1)
+end
+
+local levels = {}
+for i, price in ipairs(prices) do
+  levels[i] = { price, redis.call('HGET', KEYS[2], price) or '0', redis.call('HGET', KEYS[3], price) or '0' }
+end
+return levels
@@ -0,0 +1,55 @@
+-- 單次讀取產生 L2 增量所需的價格層級：買賣雙方前 N 層，以及指定價格的目前聚合值
+-- KEYS[1..3] 買盤價格層級 prices / amounts / counts
+-- KEYS[4..6] 賣盤價格層級 prices / amounts / counts
+-- KEYS[7] 標的訂單簿版本號
+-- KEYS[8] 標的增量序號 hash（epoch、sequence）
+-- ARGV[1] 深度 N
+-- ARGV[2] 指定的買盤價格數 k
+-- ARGV[3] 為 0 時只讀取；否則分配下一個增量序號，hash 不存在時以此值作為 epoch
+-- ARGV[4..] 指定的買盤價格（k 個），之後為指定的賣盤價格
+-- 回傳：{ 買盤前 N 層, 賣盤前 N 層, 指定買盤價格, 指定賣盤價格, 版本號, epoch, 序號 }，每層為 {price, amount, orderCount}，
+-- 不存在的價格數量為 0；序號與價格層級在同一個腳本內取得，任何實例發出的增量都與快照使用同一組序號
+-- 查詢連線池以 EVALSHA_RO 執行以便讀取 replica，此時 ARGV[3] 必須為 0，不會執行寫入指令
+
+local function top(pricesKey, amountsKey, countsKey, depth, desc)
+  if depth <= 0 then
+    return {}
+  end
+  local prices
+  if desc then
+    prices = redis.call('ZREVRANGE', pricesKey, 0, depth - 1)
+  else
+    prices = redis.call('ZRANGE', pricesKey, 0, depth - 1)
+  end
+  local levels = {}
+  for i, price in ipairs(prices) do
+    levels[i] = { price, redis.call('HGET', amountsKey, price) or '0', redis.call('HGET', countsKey, price) or '0' }
+  end
+  return levels
+end
+
+local function at(amountsKey, countsKey, from, to)
+  local levels = {}
+  for i = from, to do
+    local price = ARGV[i]
+    table.insert(levels, { price, redis.call('HGET', amountsKey, price) or '0', redis.call('HGET', countsKey, price) or '0' })
+  end
+  return levels
+end
+
+local depth = tonumber(ARGV[1])
+local buyCount = tonumber(ARGV[2])
+if ARGV[3] ~= '0' then
+  redis.call('HSETNX', KEYS[8], 'epoch', ARGV[3])
+  redis.call('HINCRBY', KEYS[8], 'sequence', 1)
+end
+local feed = redis.call('HMGET', KEYS[8], 'epoch', 'sequence')
+return {
+  top(KEYS[1], KEYS[2], KEYS[3], depth, true),
+  top(KEYS[4], KEYS[5], KEYS[6], depth, false),
+  at(KEYS[2], KEYS[3], 4, 3 + buyCount),
+  at(KEYS[5], KEYS[6], 4 + buyCount, #ARGV),
+  redis.call('GET', KEYS[7]) or '0',
+  feed[1] or '0',
+  feed[2] or '0'
+}
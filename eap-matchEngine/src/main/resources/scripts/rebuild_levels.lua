@@ -0,0 +1,20 @@
+-- 由訂單簿重建某一側的價格層級聚合（升級時一次性執行）
+-- KEYS[1] 訂單簿 ZSet
+-- KEYS[2..4] 同側價格層級 prices / amounts / counts
+-- KEYS[5..] 訂單簿中各訂單的 hash（由呼叫端依 key 配置組出），與 ARGV 的 orderId 依序對應
+-- ARGV[1..] orderId
+-- 回傳：納入聚合的訂單數
+
+-- updateLevel 定義於 lib/update_level.lua，載入腳本時加在最前面
+
+redis.call('DEL', KEYS[2], KEYS[3], KEYS[4])
+local rebuilt = 0
+for i = 1, #ARGV do
+  -- 讀取訂單簿後到執行腳本前已移除的訂單略過
+  local order = redis.call('HMGET', KEYS[i + 4], 'price', 'amount')
+  if order[1] and order[2] and redis.call('ZSCORE', KEYS[1], ARGV[i]) then
+    updateLevel(KEYS[2], KEYS[3], KEYS[4], order[1], tonumber(order[2]), 1)
+    rebuilt = rebuilt + 1
+  end
+end
+return rebuilt
@@ -0,0 +1,22 @@
+-- 移除掛單並同步更新價格層級聚合
+-- KEYS[1] 訂單簿 ZSet
+-- KEYS[2] order:{id} hash
+-- KEYS[3] user:{id}:orders set
+-- KEYS[4..6] 同側價格層級 prices / amounts / counts
+-- KEYS[7] 標的訂單簿版本號
+-- ARGV[1] orderId
+-- 回傳：1 已移除，0 訂單不在訂單簿中
+
+-- updateLevel 定義於 lib/update_level.lua，載入腳本時加在最前面
+
+local order = redis.call('HMGET', KEYS[2], 'price', 'amount')
+local removed = redis.call('ZREM', KEYS[1], ARGV[1])
+if removed == 1 then
+  redis.call('DEL', KEYS[2])
+  redis.call('SREM', KEYS[3], ARGV[1])
+  if order[1] then
+    updateLevel(KEYS[4], KEYS[5], KEYS[6], order[1], -tonumber(order[2]), -1)
+  end
+  redis.call('INCR', KEYS[7])
+end
+return removed
@@ -0,0 +1,97 @@
+-- 單次往返撮合：依價格優先走訪對手盤，扣減或移除對手單，一次回傳全部成交
+-- KEYS[1] 對手盤 ZSet（orderbook:{symbol}:buy / orderbook:{symbol}:sell）
+-- KEYS[2..4] 對手盤價格層級 prices / amounts / counts
+-- KEYS[5] 標的訂單簿版本號（有任何異動時遞增）
+-- ARGV[1] 進場單是否為買單（1/0）
+-- ARGV[2] 進場單限價
+-- ARGV[3] 進場單數量
+-- ARGV[4] 是否為 FOK（1/0）：先由價格層級聚合確認可全部成交，不足時不動任何訂單、回傳空結果
+-- ARGV[5] 訂單 hash key 前綴（RedisKeyLayout.orderKeyPrefix）
+-- ARGV[6] 用戶掛單索引 key 前綴（RedisKeyLayout.userOrdersKeyPrefix）
+-- 被吃掉的掛單的訂單 hash 與用戶索引要到走訪對手盤時才知道，無法事先列入 KEYS；
+-- 這些 key 以呼叫端依 key 配置傳入的前綴組出，CLUSTER 配置下前綴帶有標的 hash tag，與 KEYS 落在同一個 slot
+-- 回傳：{ {orderId, userId, price, matchedAmount, makerRemaining, createdAt}, ... }
+
+-- updateLevel 定義於 lib/update_level.lua，載入腳本時加在最前面
+
+-- 由訂單內容推得的 key，與 RedisKeyLayout.orderKey / userOrdersKey 一致
+local function orderKey(orderId)
+  return ARGV[5] .. orderId
+end
+local function userOrdersKey(userId)
+  return ARGV[6] .. userId .. ':orders'
+end
+
+local isBuy = ARGV[1] == '1'
+local remaining = tonumber(ARGV[3])
+local fills = {}
+local changed = false
+
+-- FOK：依價格優先逐批讀取可成交價格層級的總量，湊足數量即停止
+if ARGV[4] == '1' then
+  local available = 0
+  local offset = 0
+  while available < remaining do
+    local prices
+    if isBuy then
+      prices = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[2], 'LIMIT', offset, 32)
+    else
+      prices = redis.call('ZREVRANGEBYSCORE', KEYS[2], '+inf', ARGV[2], 'LIMIT', offset, 32)
+    end
+    if #prices == 0 then
+      break
+    end
+    local amounts = redis.call('HMGET', KEYS[3], unpack(prices))
+    for i = 1, #amounts do
+      available = available + (tonumber(amounts[i]) or 0)
+    end
+    offset = offset + #prices
+  end
+  if available < remaining then
+    return fills
+  end
+end
+
+while remaining > 0 do
+  local best
+  if isBuy then
+    best = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[2], 'LIMIT', 0, 1)
+  else
+    best = redis.call('ZREVRANGEBYSCORE', KEYS[1], '+inf', ARGV[2], 'LIMIT', 0, 1)
+  end
+  if #best == 0 then
+    break
+  end
+
+  local orderId = best[1]
+  local key = orderKey(orderId)
+  local order = redis.call('HMGET', key, 'userId', 'price', 'amount', 'createdAt')
+  if not order[3] then
+    -- 訂單內容已不存在，清除殘留的 orderId
+    redis.call('ZREM', KEYS[1], orderId)
+    changed = true
+  else
+    local amount = tonumber(order[3])
+    local matched = math.min(remaining, amount)
+    remaining = remaining - matched
+    amount = amount - matched
+
+    if amount > 0 then
+      redis.call('HINCRBY', key, 'amount', -matched)
+      updateLevel(KEYS[2], KEYS[3], KEYS[4], order[2], -matched, 0)
+    else
+      redis.call('ZREM', KEYS[1], orderId)
+      redis.call('DEL', key)
+      redis.call('SREM', userOrdersKey(order[1]), orderId)
+      updateLevel(KEYS[2], KEYS[3], KEYS[4], order[2], -matched, -1)
+    end
+
+    changed = true
+    table.insert(fills, { orderId, order[1], order[2], tostring(matched), tostring(amount), order[4] or '' })
+  end
+end
+
+if changed then
+  redis.call('INCR', KEYS[5])
+end
+return fills
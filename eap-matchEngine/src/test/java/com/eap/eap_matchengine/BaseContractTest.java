@@ -1,9 +1,21 @@
 package com.eap.eap_matchengine;
 
+import com.eap.eap_matchengine.application.MatchClock;
+import com.eap.eap_matchengine.application.MatchEngineMetrics;
+import com.eap.eap_matchengine.application.MatchedEventPublisher;
 import com.eap.eap_matchengine.application.MatchingEngineService;
+import com.eap.eap_matchengine.application.OrderBookDeltaFeed;
+import com.eap.eap_matchengine.application.OrderBookGauges;
+import com.eap.eap_matchengine.application.OrderExpiryService;
+import com.eap.eap_matchengine.application.OrderReleasePublisher;
+import com.eap.eap_matchengine.application.RedisMarketDataService;
+import com.eap.eap_matchengine.application.RedisOrderBookEngine;
 import com.eap.eap_matchengine.application.RedisOrderBookService;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
 import com.eap.common.event.OrderCreatedEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.mockito.Mockito;
 import java.time.LocalDateTime;
@@ -22,7 +34,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 
 import static org.mockito.ArgumentMatchers.any;
 
-@SpringBootTest(classes = { MatchingEngineService.class, BaseContractTest.TestConfiguration.class })
+@SpringBootTest(classes = { MatchingEngineService.class, MatchedEventPublisher.class, MatchEngineProperties.class, RedisOrderBookEngine.class, OrderBookDeltaFeed.class, MatchEngineMetrics.class, OrderBookGauges.class, OrderExpiryService.class, OrderReleasePublisher.class, MatchClock.class, BaseContractTest.TestConfiguration.class })
 @AutoConfigureMessageVerifier
 @ActiveProfiles("test")
 public class BaseContractTest {
@@ -34,6 +46,11 @@ public class BaseContractTest {
         public ObjectMapper objectMapper() {
             return new ObjectMapper().findAndRegisterModules();
         }
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
     }
 
     @Autowired
@@ -42,6 +59,9 @@ public class BaseContractTest {
     @MockitoBean
     private RedisOrderBookService redisOrderBookService;
 
+    @MockitoBean
+    private RedisMarketDataService redisMarketDataService;
+
     @MockitoBean
     private RabbitTemplate rabbitTemplate;
 
@@ -0,0 +1,132 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import com.eap.eap_matchengine.journal.OrderBookRecovery;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryOrderBookEngineTest {
+
+    @Mock
+    private RedisOrderBookService redisOrderBookService;
+    @Mock
+    private AsyncOrderBookPersister persister;
+    @Mock
+    private ObjectProvider<OrderBookJournal> journalProvider;
+    @Mock
+    private OrderBookDeltaFeed deltaFeed;
+    @Mock
+    private OrderReleasePublisher orderReleasePublisher;
+    @Mock
+    private OrderBookJournal journal;
+    @Mock
+    private OrderBookRecovery.Result recovery;
+
+    private InMemoryOrderBookEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        MatchEngineProperties.PriceBand band = new MatchEngineProperties.PriceBand();
+        band.setMinPrice(50);
+        band.setMaxPrice(150);
+        MatchEngineProperties properties = new MatchEngineProperties();
+        properties.getPriceLadder().getSymbols().put("ELC", band);
+        engine = new InMemoryOrderBookEngine(redisOrderBookService, persister, journalProvider, deltaFeed,
+                new MatchEngineMetrics(new SimpleMeterRegistry()), properties, orderReleasePublisher);
+    }
+
+    @Test
+    void testMatch_RestingOrderOutsidePriceBand_ShouldReleaseItWithoutFills() {
+        // Given
+        OrderCreatedEvent order = order(200, null);
+
+        // When
+        List<?> fills = engine.match(order);
+
+        // Then：不拋例外、不入簿，整筆以 OUT_OF_BAND 解除鎖定
+        assertTrue(fills.isEmpty());
+        assertEquals(0, order.getAmount());
+        verify(orderReleasePublisher).publish(List.of(order), OrderReleasePublisher.REASON_OUT_OF_BAND);
+        verify(persister, never()).persistAdd(any());
+    }
+
+    @Test
+    void testMatch_RestingOrderInsidePriceBand_ShouldRest() {
+        OrderCreatedEvent order = order(100, null);
+
+        List<?> fills = engine.match(order);
+
+        assertTrue(fills.isEmpty());
+        assertEquals(5, order.getAmount());
+        verify(persister).persistAdd(any());
+        verify(orderReleasePublisher, never()).publish(anyList(), anyString());
+    }
+
+    @Test
+    void testMatch_IocOrderOutsidePriceBand_ShouldStillMatch() {
+        // IOC 不入簿，不受價格區間限制
+        OrderCreatedEvent order = order(200, "IOC");
+
+        List<?> fills = engine.match(order);
+
+        assertTrue(fills.isEmpty());
+        assertEquals(5, order.getAmount());
+        verify(orderReleasePublisher, never()).publish(anyList(), anyString());
+    }
+
+    @Test
+    void testMatch_AfterRecoveredFillsAreEvicted_ShouldMatchAgain() {
+        // Given：journal 恢復出兩筆已撮合訂單的成交
+        OrderCreatedEvent redelivered = order(100, null);
+        OrderCreatedEvent late = order(100, null);
+        when(journalProvider.getIfAvailable()).thenReturn(journal);
+        when(journal.recover(any())).thenReturn(recovery);
+        when(recovery.isFromSnapshot()).thenReturn(true);
+        when(recovery.getBooks()).thenReturn(Map.of());
+        when(recovery.getTakerFills()).thenReturn(Map.of(redelivered.getOrderId(), List.of(), late.getOrderId(), List.of()));
+        when(recovery.getTouched()).thenReturn(List.of());
+        engine.restore();
+
+        // When / Then：保留期間內重送的訂單不重新撮合
+        assertTrue(engine.match(redelivered).isEmpty());
+        assertEquals(0, redelivered.getAmount());
+
+        // When / Then：丟棄後不再保留，訂單照常撮合入簿
+        engine.evictRecoveredFills();
+        engine.match(late);
+        assertEquals(5, late.getAmount());
+        verify(persister).persistAdd(any());
+    }
+
+    private OrderCreatedEvent order(int price, String timeInForce) {
+        return OrderCreatedEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .price(price)
+                .amount(5)
+                .orderType("BUY")
+                .symbol("ELC")
+                .timeInForce(timeInForce)
+                .build();
+    }
+}
@@ -0,0 +1,137 @@
+package com.eap.eap_matchengine.application;
+
+import io.lettuce.core.RedisClient;
+import io.lettuce.core.RedisURI;
+import io.lettuce.core.api.StatefulRedisConnection;
+import io.lettuce.core.api.sync.RedisCommands;
+import org.springframework.data.redis.connection.RedisClusterConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * 測試用的本機 Redis Cluster：以 embedded-redis 內附的 redis-server 啟動數個 cluster-enabled 節點，
+ * 平均分配 16384 個 slot 並互相 MEET，不需 docker 或外部 Redis。
+ * 與正式的 Redis Cluster 相同，腳本的 KEYS 不在同一個 slot 時會回傳 CROSSSLOT 錯誤。
+ */
+final class LocalRedisCluster implements AutoCloseable {
+
+    private static final String HOST = "127.0.0.1";
+    private static final int SLOTS = 16384;
+
+    private final List<RedisServer> servers = new ArrayList<>();
+    private final List<Integer> ports = new ArrayList<>();
+    private final LettuceConnectionFactory connectionFactory;
+    private final StringRedisTemplate template;
+
+    LocalRedisCluster(int nodes) throws IOException, InterruptedException {
+        Path directory = Files.createTempDirectory("redis-cluster");
+        for (int i = 0; i < nodes; i++) {
+            int port = freePort();
+            RedisServer server = RedisServer.newRedisServer()
+                    .port(port)
+                    .bind(HOST)
+                    .setting("cluster-enabled yes")
+                    .setting("cluster-config-file " + directory.resolve("nodes-" + port + ".conf"))
+                    .setting("cluster-node-timeout 5000")
+                    .setting("appendonly no")
+                    .setting("save \"\"")
+                    .build();
+            server.start();
+            servers.add(server);
+            ports.add(port);
+        }
+        formCluster();
+        connectionFactory = new LettuceConnectionFactory(
+                new RedisClusterConfiguration(ports.stream().map(port -> HOST + ":" + port).toList()));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        template = new StringRedisTemplate(connectionFactory);
+    }
+
+    StringRedisTemplate template() {
+        return template;
+    }
+
+    /**
+     * 每個節點各負責一段連續的 slot，再由第一個節點 MEET 其餘節點，等到每個節點都回報 cluster_state:ok
+     */
+    private void formCluster() throws InterruptedException {
+        int nodes = ports.size();
+        for (int i = 0; i < nodes; i++) {
+            int from = SLOTS * i / nodes;
+            int to = SLOTS * (i + 1) / nodes;
+            int node = i;
+            withNode(ports.get(i), commands -> {
+                commands.clusterAddSlots(IntStream.range(from, to).toArray());
+                if (node > 0) {
+                    commands.clusterMeet(HOST, ports.get(0));
+                }
+            });
+        }
+        long deadline = System.currentTimeMillis() + 30_000;
+        for (int port : ports) {
+            while (!clusterReady(port, nodes)) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw new IllegalStateException("Redis cluster did not become ready on port " + port);
+                }
+                Thread.sleep(100);
+            }
+        }
+    }
+
+    private boolean clusterReady(int port, int nodes) {
+        boolean[] ready = new boolean[1];
+        withNode(port, commands -> {
+            String info = commands.clusterInfo();
+            ready[0] = info.contains("cluster_state:ok") && info.contains("cluster_known_nodes:" + nodes);
+        });
+        return ready[0];
+    }
+
+    private static void withNode(int port, Consumer<RedisCommands<String, String>> action) {
+        RedisClient client = RedisClient.create(RedisURI.create(HOST, port));
+        try (StatefulRedisConnection<String, String> connection = client.connect()) {
+            action.accept(connection.sync());
+        } finally {
+            client.shutdown();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        connectionFactory.destroy();
+        for (RedisServer server : servers) {
+            server.stop();
+        }
+    }
+
+    /**
+     * cluster bus 使用 port + 10000，兩個 port 都必須可用
+     */
+    private static int freePort() throws IOException {
+        while (true) {
+            int port;
+            try (ServerSocket socket = new ServerSocket(0)) {
+                port = socket.getLocalPort();
+            }
+            if (port + 10000 > 65535) {
+                continue;
+            }
+            try (ServerSocket bus = new ServerSocket(port + 10000)) {
+                return port;
+            } catch (IOException ignored) {
+                // cluster bus port 已被占用，換一個
+            }
+        }
+    }
+}
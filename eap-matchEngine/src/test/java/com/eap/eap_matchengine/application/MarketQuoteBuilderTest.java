@@ -0,0 +1,68 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.dto.MarketQuoteDto;
+import com.eap.eap_matchengine.domain.book.OrderBook;
+import com.eap.eap_matchengine.domain.book.RestingOrder;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarketQuoteBuilderTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private RestingOrder order(boolean buy, int price, int amount) {
+        return new RestingOrder(UUID.randomUUID(), UUID.randomUUID(), "ELC", price, amount, buy, now);
+    }
+
+    @Test
+    void testQuote_ShouldWalkAskLevelsWithoutChangingTheBook() {
+        OrderBook book = new OrderBook();
+        book.add(order(false, 100, 5));
+        book.add(order(false, 100, 5));
+        book.add(order(false, 102, 10));
+        book.add(order(false, 105, 10));
+
+        MarketQuoteBuilder quote = new MarketQuoteBuilder("ELC", true, 15);
+        book.forEachLevel(false, level -> quote.add(level.getPrice(), level.getTotalAmount()));
+        MarketQuoteDto result = quote.build();
+
+        assertEquals(15, result.getFilledAmount());
+        assertTrue(result.isFullyFilled());
+        assertEquals(2, result.getFills().size());
+        assertEquals(100, result.getBestPrice());
+        assertEquals(102, result.getWorstPrice());
+        assertEquals(new BigDecimal("100.6667"), result.getAveragePrice());
+        assertEquals(new BigDecimal("0.6667"), result.getSlippage());
+        assertEquals(new BigDecimal("66.67"), result.getSlippageBps());
+        assertEquals(4, book.size());
+        assertEquals(10, book.level(false, 100).getTotalAmount());
+    }
+
+    @Test
+    void testQuote_Sell_WhenLiquidityIsShort_ShouldReportPartialFill() {
+        MarketQuoteBuilder quote = new MarketQuoteBuilder("ELC", false, 30);
+        quote.add(99, 10);
+        assertTrue(quote.add(95, 10));
+        MarketQuoteDto result = quote.build();
+
+        assertFalse(result.isFullyFilled());
+        assertEquals(20, result.getFilledAmount());
+        assertEquals(new BigDecimal("97.0000"), result.getAveragePrice());
+        assertEquals(new BigDecimal("2.0000"), result.getSlippage());
+        assertEquals(95, result.getWorstPrice());
+    }
+
+    @Test
+    void testQuote_WhenSideIsEmpty_ShouldExplain() {
+        MarketQuoteDto result = new MarketQuoteBuilder("ELC", true, 10).build();
+
+        assertEquals(0, result.getFilledAmount());
+        assertNull(result.getAveragePrice());
+        assertNotNull(result.getMessage());
+    }
+}
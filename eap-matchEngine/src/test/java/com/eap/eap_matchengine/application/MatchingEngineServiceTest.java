@@ -0,0 +1,132 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMatchedEvent;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import com.eap.eap_matchengine.domain.book.RestingOrder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MatchingEngineServiceTest {
+
+    @Mock
+    private OrderBookEngine orderBookEngine;
+    @Mock
+    private MatchedEventPublisher matchedEventPublisher;
+    @Mock
+    private MatchEngineMetrics metrics;
+    @Mock
+    private OrderBookGauges orderBookGauges;
+    @Mock
+    private OrderExpiryService orderExpiryService;
+    @Mock
+    private OrderReleasePublisher orderReleasePublisher;
+    @Mock
+    private MatchClock matchClock;
+
+    @InjectMocks
+    private MatchingEngineService matchingEngineService;
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    @Test
+    void testTryMatchBatch_WhenPublishFails_ShouldRepublishWithoutMatchingAgain() {
+        // Given：第一次發送失敗，整批重送
+        OrderCreatedEvent taker = order("BUY", 5);
+        OrderCreatedEvent resting = order("SELL", 3);
+        RestingOrder maker = new RestingOrder(UUID.randomUUID(), UUID.randomUUID(), "ELC", 100, 0, false, now);
+        when(orderBookEngine.match(taker)).thenReturn(List.of(new MatchFill(maker, 2, 0)));
+        when(orderBookEngine.match(resting)).thenReturn(List.of());
+        doThrow(new AmqpException("nack")).doNothing().when(matchedEventPublisher).publish(anyList());
+
+        // When
+        assertThrows(AmqpException.class, () -> matchingEngineService.tryMatchBatch(List.of(taker, resting)));
+        matchingEngineService.tryMatchBatch(List.of(taker, resting));
+
+        // Then：訂單簿只撮合一次，兩次發送同一筆成交
+        verify(orderBookEngine, times(1)).match(taker);
+        verify(orderBookEngine, times(1)).match(resting);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OrderMatchedEvent>> published = ArgumentCaptor.forClass(List.class);
+        verify(matchedEventPublisher, times(2)).publish(published.capture());
+        assertEquals(published.getAllValues().get(0), published.getAllValues().get(1));
+        assertEquals(2, published.getAllValues().get(1).get(0).getAmount());
+    }
+
+    @Test
+    void testTryMatchBatch_WhenOrderIsInvalid_ShouldReleaseItAndMatchTheRest() {
+        // Given
+        OrderCreatedEvent invalid = order("HOLD", 5);
+        OrderCreatedEvent next = order("SELL", 3);
+        when(orderBookEngine.match(next)).thenReturn(List.of());
+        doNothing().when(matchedEventPublisher).publish(anyList());
+
+        // When
+        matchingEngineService.tryMatchBatch(List.of(invalid, next));
+
+        // Then：無效訂單不進入訂單簿
+        verify(orderReleasePublisher).publish(List.of(invalid), OrderReleasePublisher.REASON_REJECTED);
+        verify(orderBookEngine, never()).match(invalid);
+        verify(matchedEventPublisher).publish(List.of());
+    }
+
+    @Test
+    void testTryMatchBatch_WhenMatchFails_ShouldPropagateWithoutReleasing() {
+        // Given：撮合失敗時訂單簿可能已部分異動，不可整筆解除鎖定
+        OrderCreatedEvent failing = order("BUY", 5);
+        when(orderBookEngine.match(failing)).thenThrow(new IllegalStateException("book unavailable"));
+
+        // When / Then：例外讓整批重送
+        assertThrows(IllegalStateException.class, () -> matchingEngineService.tryMatchBatch(List.of(failing)));
+        verify(orderReleasePublisher, never()).publish(anyList(), any());
+        verify(matchedEventPublisher, never()).publish(anyList());
+    }
+
+    @Test
+    void testTryMatch_WhenRedeliveredAfterRelease_ShouldNotReleaseAgain() {
+        // Given：無效訂單已解除鎖定，之後發送失敗導致重送
+        OrderCreatedEvent invalid = order("BUY", 0);
+        doThrow(new AmqpException("nack")).doNothing().when(matchedEventPublisher).publish(anyList());
+
+        // When
+        assertThrows(AmqpException.class, () -> matchingEngineService.tryMatch(invalid));
+        matchingEngineService.tryMatch(invalid);
+
+        // Then
+        verify(orderBookEngine, never()).match(any());
+        verify(orderReleasePublisher, times(1)).publish(List.of(invalid), OrderReleasePublisher.REASON_REJECTED);
+    }
+
+    private OrderCreatedEvent order(String type, int amount) {
+        return OrderCreatedEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .price(100)
+                .amount(amount)
+                .orderType(type)
+                .symbol("ELC")
+                .createdAt(now)
+                .build();
+    }
+}
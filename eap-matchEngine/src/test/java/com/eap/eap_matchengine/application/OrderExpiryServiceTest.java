@@ -0,0 +1,78 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExpiryServiceTest {
+
+    @Mock
+    private OrderBookEngine orderBookEngine;
+    @Mock
+    private ObjectProvider<OrderIntake> orderIntakeProvider;
+    @Mock
+    private OrderIntake orderIntake;
+    @Mock
+    private OrderReleasePublisher releasePublisher;
+
+    private OrderExpiryService expiryService;
+
+    @BeforeEach
+    void setUp() {
+        MatchEngineProperties properties = new MatchEngineProperties();
+        properties.getExpiry().setTick(Duration.ofMillis(100));
+        properties.getExpiry().setRetryBackoff(Duration.ofSeconds(1));
+        when(orderIntakeProvider.getObject()).thenReturn(orderIntake);
+        expiryService = new OrderExpiryService(orderBookEngine, orderIntakeProvider, releasePublisher, properties);
+    }
+
+    @Test
+    void testTick_WhenRemovalFails_ShouldRescheduleTheBatchAfterTheBackoff() {
+        // Given：第一次移除失敗，重試時成功
+        OrderCreatedEvent order = OrderCreatedEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .price(100)
+                .amount(5)
+                .orderType("BUY")
+                .symbol("ELC")
+                .expireAt(LocalDateTime.now().minusSeconds(1))
+                .build();
+        List<UUID> batch = List.of(order.getOrderId());
+        when(orderIntake.expire("ELC", batch)).thenReturn(
+                CompletableFuture.failedFuture(new IllegalStateException("book unavailable")),
+                CompletableFuture.completedFuture(List.of(order)));
+        expiryService.schedule(order);
+        long now = System.currentTimeMillis();
+
+        // When / Then：失敗後不解除鎖定，退避時間內不重試
+        expiryService.tick(now);
+        expiryService.tick(now + 500);
+        verify(orderIntake, times(1)).expire(anyString(), anyList());
+        verify(releasePublisher, never()).publish(anyList(), anyString());
+
+        // When / Then：退避時間過後重新移除並解除鎖定
+        expiryService.tick(now + 1_200);
+        verify(orderIntake, times(2)).expire("ELC", batch);
+        verify(releasePublisher).publish(List.of(order), OrderReleasePublisher.REASON_EXPIRED);
+    }
+}
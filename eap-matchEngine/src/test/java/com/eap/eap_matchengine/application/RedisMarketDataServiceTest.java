@@ -0,0 +1,104 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.dto.OrderBookResponseDto;
+import com.eap.eap_matchengine.configuration.constants.RedisKeyLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RedisMarketDataServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    @Mock
+    private RedisTemplate<String, String> readTemplate;
+    @Mock
+    private ValueOperations<String, String> values;
+    @Mock
+    private RedisReadPool readPool;
+
+    private RedisMarketDataService marketDataService;
+
+    @BeforeEach
+    void setUp() {
+        when(readPool.template()).thenReturn(readTemplate);
+        when(readTemplate.opsForValue()).thenReturn(values);
+        when(readPool.executeReadOnly(any(), anyList(), any(Object[].class))).thenReturn(levels(30, "3"));
+        marketDataService = new RedisMarketDataService(redisTemplate, RedisKeyLayout.STANDALONE, readPool);
+    }
+
+    @Test
+    void testReadOrderBookData_UnknownSymbols_ShouldNotBeCached() {
+        // Given：查詢帶入的任意標的沒有版本號
+        when(values.get(anyString())).thenReturn(null);
+
+        // When
+        for (int i = 0; i < 100; i++) {
+            marketDataService.readOrderBookData("FAKE" + i, 10);
+        }
+
+        // Then
+        assertEquals(0, marketDataService.cachedSymbolCount());
+    }
+
+    @Test
+    void testReadOrderBookData_ShouldEvictBeyondTheSymbolLimit() {
+        when(values.get(anyString())).thenReturn("3");
+
+        for (int i = 0; i < RedisMarketDataService.MAX_CACHED_SYMBOLS + 50; i++) {
+            marketDataService.readOrderBookData("S" + i, 10);
+        }
+
+        assertEquals(RedisMarketDataService.MAX_CACHED_SYMBOLS, marketDataService.cachedSymbolCount());
+    }
+
+    @Test
+    void testReadOrderBookData_ShouldServeSmallerDepthsFromOneCachedDepth() {
+        // Given
+        when(values.get(anyString())).thenReturn("3");
+
+        // When：5 與 7 層都取自同一個 10 層快照
+        OrderBookResponseDto five = marketDataService.readOrderBookData("ELC", 5);
+        OrderBookResponseDto seven = marketDataService.readOrderBookData("ELC", 7);
+
+        // Then
+        assertEquals(5, five.getAsks().size());
+        assertEquals(7, seven.getBids().size());
+        verify(readPool, times(1)).executeReadOnly(any(), anyList(), any(Object[].class));
+    }
+
+    /**
+     * orderbook_levels.lua 的回傳：雙方前 N 層、兩個空的指定價格列表、版本號與增量 epoch、序號
+     */
+    private static List<Object> levels(int count, String version) {
+        List<Object> rows = IntStream.range(0, count)
+                .mapToObj(i -> (Object) List.of(Integer.toString(100 + i), "1", "1"))
+                .toList();
+        List<Object> result = new ArrayList<>();
+        result.add(rows);
+        result.add(rows);
+        result.add(List.of());
+        result.add(List.of());
+        result.add(version);
+        result.add("0");
+        result.add("0");
+        return result;
+    }
+}
@@ -0,0 +1,124 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.dto.MarketQuoteDto;
+import com.eap.common.dto.OrderBookResponseDto;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import com.eap.eap_matchengine.domain.book.RestingOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RedisOrderBookEngineTest {
+
+    @Mock
+    private RedisOrderBookService orderBookService;
+    @Mock
+    private RedisMarketDataService marketDataService;
+    @Mock
+    private OrderBookDeltaFeed deltaFeed;
+    @Mock
+    private OrderReleasePublisher orderReleasePublisher;
+
+    private RedisOrderBookEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        engine = new RedisOrderBookEngine(orderBookService, marketDataService, deltaFeed,
+                new MatchEngineMetrics(new SimpleMeterRegistry()), orderReleasePublisher);
+    }
+
+    @Test
+    void testMatch_WhenRestingTheRemainderFails_ShouldKeepFillsAndReleaseOnlyTheRemainder() {
+        // Given：掃單已成交 3，剩餘 7 入簿時失敗
+        OrderCreatedEvent order = OrderCreatedEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .price(100)
+                .amount(10)
+                .orderType("BUY")
+                .symbol("ELC")
+                .build();
+        RestingOrder maker = new RestingOrder(UUID.randomUUID(), UUID.randomUUID(), "ELC", 99, 0, false,
+                LocalDateTime.of(2026, 1, 1, 9, 0));
+        List<MatchFill> fills = List.of(new MatchFill(maker, 3, 0));
+        when(orderBookService.sweepMatch("ELC", true, 100, 10, false)).thenReturn(fills);
+        doThrow(new RedisConnectionFailureException("connection reset")).when(orderBookService).addOrder(any());
+        List<Integer> released = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<OrderCreatedEvent> orders = invocation.getArgument(0);
+            released.add(orders.get(0).getAmount());
+            return null;
+        }).when(orderReleasePublisher).publish(eq(List.of(order)), eq(OrderReleasePublisher.REASON_REJECTED));
+
+        // When
+        List<MatchFill> result = engine.match(order);
+
+        // Then：成交照常回傳，只解除未入簿的 7
+        assertEquals(fills, result);
+        assertEquals(List.of(7), released);
+        assertEquals(0, order.getAmount());
+    }
+
+    @Test
+    void testQuote_WhenRedisReadFails_ShouldPropagateInsteadOfQuotingAnEmptyBook() {
+        when(marketDataService.readOrderBookData("ELC", 25))
+                .thenThrow(new RedisConnectionFailureException("connection refused"));
+
+        assertThrows(RedisConnectionFailureException.class, () -> engine.quote("ELC", true, 10));
+    }
+
+    @Test
+    void testQuote_EmptyBook_ShouldReportNoLiquidityWithoutError() {
+        when(marketDataService.readOrderBookData("ELC", 25))
+                .thenReturn(OrderBookResponseDto.builder().bids(List.of()).asks(List.of()).build());
+
+        MarketQuoteDto quote = engine.quote("ELC", true, 10);
+
+        assertEquals(0, quote.getFilledAmount());
+        assertNull(quote.getError());
+    }
+
+    @Test
+    void testQuote_ShouldDeepenUntilTheAmountIsCovered() {
+        // Given：前 25 層不足以成交，改讀 100 層
+        List<OrderBookResponseDto.OrderBookLevel> shallow = levels(25);
+        when(marketDataService.readOrderBookData("ELC", 25))
+                .thenReturn(OrderBookResponseDto.builder().bids(List.of()).asks(shallow).build());
+        when(marketDataService.readOrderBookData("ELC", 100))
+                .thenReturn(OrderBookResponseDto.builder().bids(List.of()).asks(levels(30)).build());
+
+        // When
+        MarketQuoteDto quote = engine.quote("ELC", true, 30);
+
+        // Then
+        assertEquals(30, quote.getFilledAmount());
+        assertEquals(30, quote.getFills().size());
+    }
+
+    private List<OrderBookResponseDto.OrderBookLevel> levels(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> OrderBookResponseDto.OrderBookLevel.builder().price(100 + i).amount(1).orderCount(1).build())
+                .toList();
+    }
+}
@@ -0,0 +1,278 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.dto.OrderBookResponseDto;
+import com.eap.common.dto.UserOrderPageDto;
+import com.eap.common.event.OrderCancelEvent;
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMassCancelEvent;
+import com.eap.eap_matchengine.configuration.constants.RedisKeyLayout;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import io.lettuce.core.cluster.SlotHash;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessException;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 在本機三節點 Redis Cluster 上執行訂單簿腳本：cluster key 配置下每個腳本的 key 都在同一個 slot，
+ * standalone key 配置則會被 Redis Cluster 以 CROSSSLOT 拒絕。
+ */
+class RedisOrderBookServiceClusterTest {
+
+    private static LocalRedisCluster cluster;
+
+    private RedisOrderBookService orderBookService;
+    private RedisMarketDataService marketDataService;
+    private LocalDateTime now;
+
+    @BeforeAll
+    static void startCluster() throws IOException, InterruptedException {
+        cluster = new LocalRedisCluster(3);
+    }
+
+    @AfterAll
+    static void stopCluster() throws IOException {
+        cluster.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        cluster.template().execute(connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        }, true);
+        orderBookService = new RedisOrderBookService(cluster.template(), RedisKeyLayout.CLUSTER,
+                RedisReadPool.shared(cluster.template()));
+        marketDataService = new RedisMarketDataService(cluster.template(), RedisKeyLayout.CLUSTER,
+                RedisReadPool.shared(cluster.template()));
+        now = LocalDateTime.of(2026, 1, 1, 9, 0);
+    }
+
+    private OrderCreatedEvent order(String symbol, UUID userId, boolean buy, int price, int amount) {
+        now = now.plusSeconds(1);
+        return OrderCreatedEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(userId)
+                .price(price)
+                .amount(amount)
+                .orderType(buy ? "BUY" : "SELL")
+                .symbol(symbol)
+                .createdAt(now)
+                .build();
+    }
+
+    @Test
+    void testKeyLayout_ShouldPlaceEveryKeyOfASymbolInOneSlot() {
+        RedisKeyLayout keys = RedisKeyLayout.CLUSTER;
+        UUID id = UUID.randomUUID();
+        List<String> symbolKeys = new ArrayList<>();
+        symbolKeys.add(keys.bookKey("ELC", true));
+        symbolKeys.add(keys.bookKey("ELC", false));
+        symbolKeys.addAll(keys.levelKeys("ELC", true));
+        symbolKeys.addAll(keys.levelKeys("ELC", false));
+        symbolKeys.add(keys.versionKey("ELC"));
+        symbolKeys.add(keys.feedKey("ELC"));
+        symbolKeys.add(keys.orderKey("ELC", id));
+        symbolKeys.add(keys.userOrdersKey("ELC", id));
+
+        Set<Integer> slots = symbolKeys.stream().map(SlotHash::getSlot).collect(Collectors.toSet());
+
+        assertEquals(Set.of(SlotHash.getSlot("ELC")), slots);
+        assertEquals(SlotHash.getSlot("ELC"), SlotHash.getSlot(keys.orderKeyPrefix("ELC")));
+        assertEquals(SlotHash.getSlot("ELC"), SlotHash.getSlot(keys.userOrdersKeyPrefix("ELC")));
+        assertEquals("order:" + id, RedisKeyLayout.STANDALONE.orderKeyPrefix("ELC") + id);
+        assertNotEquals(SlotHash.getSlot(RedisKeyLayout.STANDALONE.orderKey("ELC", id)),
+                SlotHash.getSlot(RedisKeyLayout.STANDALONE.bookKey("ELC", true)));
+    }
+
+    @Test
+    void testSweepMatch_ShouldRunScriptsAcrossNodes() {
+        // Given：四個標的分散在不同節點上
+        UUID maker = UUID.randomUUID();
+        List<String> symbols = List.of("ELC", "GAS", "H2", "CO2");
+        for (String symbol : symbols) {
+            orderBookService.addOrder(order(symbol, maker, false, 101, 5));
+            orderBookService.addOrder(order(symbol, maker, false, 100, 3));
+        }
+
+        // When
+        List<MatchFill> fills = orderBookService.sweepMatch("GAS", true, 101, 6);
+
+        // Then
+        assertEquals(2, fills.size());
+        assertEquals(100, fills.get(0).getMaker().getPrice());
+        assertEquals(3, fills.get(0).getAmount());
+        assertEquals(3, fills.get(1).getAmount());
+        assertEquals(2, fills.get(1).getMakerRemaining());
+        assertEquals(Set.copyOf(symbols), orderBookService.getSymbols());
+        OrderBookResponseDto book = marketDataService.getOrderBookData("GAS", 10);
+        assertEquals(1, book.getAsks().size());
+        assertEquals(2, book.getAsks().get(0).getAmount());
+        assertEquals(5, marketDataService.getOrderBookData("ELC", 10).getAsks().get(1).getAmount());
+        assertEquals(7, orderBookService.getOrderByUserId(maker).size());
+        assertEquals(7, orderBookService.getRestingOrders().size());
+    }
+
+    @Test
+    void testReadDeltaLevels_ShouldShareTheSequenceAcrossInstances() {
+        // Given：兩個撮合引擎實例共用同一個 Redis
+        RedisMarketDataService other = new RedisMarketDataService(cluster.template(), RedisKeyLayout.CLUSTER,
+                RedisReadPool.shared(cluster.template()));
+        orderBookService.addOrder(order("ELC", UUID.randomUUID(), false, 110, 2));
+        assertEquals(0, marketDataService.readBookLevels("ELC", 10, List.of(), List.of()).getSequence());
+
+        // When
+        RedisMarketDataService.BookLevels first = marketDataService.readDeltaLevels("ELC", 10, List.of(), List.of(110), 1_000);
+        RedisMarketDataService.BookLevels second = other.readDeltaLevels("ELC", 10, List.of(), List.of(110), 2_000);
+
+        // Then：epoch 由第一個發出增量的實例決定，序號連續，快照讀到同一組 epoch 與序號
+        assertEquals(1_000, first.getEpoch());
+        assertEquals(1, first.getSequence());
+        assertEquals(1_000, second.getEpoch());
+        assertEquals(2, second.getSequence());
+        assertEquals(2, second.getSellLevels().get(0).getAmount());
+        RedisMarketDataService.BookLevels snapshot = other.readBookLevels("ELC", 10, List.of(), List.of());
+        assertEquals(1_000, snapshot.getEpoch());
+        assertEquals(2, snapshot.getSequence());
+        assertEquals(0, marketDataService.readBookLevels("GAS", 10, List.of(), List.of()).getEpoch());
+    }
+
+    @Test
+    void testCancel_ShouldLocateOrdersThroughTheirSymbol() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        OrderCreatedEvent elc = order("ELC", userId, true, 90, 4);
+        OrderCreatedEvent gas = order("GAS", userId, true, 80, 4);
+        OrderCreatedEvent expiring = order("GAS", userId, false, 120, 2);
+        orderBookService.addOrder(elc);
+        orderBookService.addOrder(gas);
+        orderBookService.addOrder(expiring);
+
+        // When / Then
+        assertEquals("GAS", orderBookService.getOrderSymbol(gas.getOrderId()));
+        assertTrue(orderBookService.cancelOrder(new OrderCancelEvent(elc.getOrderId(), "ELC")));
+        assertFalse(orderBookService.cancelOrder(new OrderCancelEvent(elc.getOrderId(), "ELC")));
+        assertEquals(List.of(expiring.getOrderId()),
+                orderBookService.cancelOrders("GAS", List.of(expiring.getOrderId())).stream()
+                        .map(OrderCreatedEvent::getOrderId).toList());
+        assertEquals(List.of(gas.getOrderId()),
+                orderBookService.getOrderByUserId(userId).stream().map(OrderCreatedEvent::getOrderId).toList());
+        assertTrue(marketDataService.getOrderBookData("ELC", 10).getBids().isEmpty());
+    }
+
+    @Test
+    void testMassCancel_WithoutSymbol_ShouldCancelEveryPerSymbolIndex() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        orderBookService.addOrder(order("ELC", userId, true, 90, 1));
+        orderBookService.addOrder(order("GAS", userId, true, 91, 1));
+        orderBookService.addOrder(order("H2", userId, false, 150, 1));
+        orderBookService.addOrder(order("H2", other, false, 151, 1));
+
+        // When
+        List<OrderCreatedEvent> cancelled = orderBookService.massCancel(OrderMassCancelEvent.builder()
+                .userId(userId)
+                .build());
+
+        // Then
+        assertEquals(Set.of("ELC", "GAS", "H2"),
+                cancelled.stream().map(OrderCreatedEvent::getSymbol).collect(Collectors.toSet()));
+        assertTrue(orderBookService.getOrderByUserId(userId).isEmpty());
+        assertEquals(1, orderBookService.getOrderByUserId(other).size());
+    }
+
+    @Test
+    void testMassCancel_WithSideAndPriceRange_ShouldOnlyCancelMatchingOrders() {
+        // Given
+        UUID userId = UUID.randomUUID();
+        OrderCreatedEvent low = order("ELC", userId, true, 80, 1);
+        OrderCreatedEvent inRange = order("ELC", userId, true, 90, 2);
+        OrderCreatedEvent sell = order("ELC", userId, false, 95, 3);
+        orderBookService.addOrder(low);
+        orderBookService.addOrder(inRange);
+        orderBookService.addOrder(sell);
+
+        // When
+        List<OrderCreatedEvent> cancelled = orderBookService.massCancel(OrderMassCancelEvent.builder()
+                .userId(userId)
+                .symbol("ELC")
+                .side("BUY")
+                .minPrice(85)
+                .maxPrice(100)
+                .build());
+
+        // Then
+        assertEquals(List.of(inRange.getOrderId()), cancelled.stream().map(OrderCreatedEvent::getOrderId).toList());
+        assertEquals(Set.of(low.getOrderId(), sell.getOrderId()), orderBookService.getOrderByUserId(userId).stream()
+                .map(OrderCreatedEvent::getOrderId).collect(Collectors.toSet()));
+        assertEquals(List.of(80), marketDataService.getOrderBookData("ELC", 10).getBids().stream()
+                .map(OrderBookResponseDto.OrderBookLevel::getPrice).toList());
+    }
+
+    @Test
+    void testInitialize_ShouldRebuildMissingLevelAggregatesFromTheBook() {
+        // Given：價格層級聚合遺失，訂單簿與訂單 hash 仍在
+        orderBookService.addOrder(order("ELC", UUID.randomUUID(), false, 110, 2));
+        orderBookService.addOrder(order("ELC", UUID.randomUUID(), false, 110, 3));
+        orderBookService.addOrder(order("ELC", UUID.randomUUID(), false, 120, 1));
+        cluster.template().delete(RedisKeyLayout.CLUSTER.levelKeys("ELC", false));
+
+        // When
+        orderBookService.initialize();
+
+        // Then
+        List<OrderBookResponseDto.OrderBookLevel> asks = marketDataService.getOrderBookData("ELC", 10).getAsks();
+        assertEquals(List.of(110, 120), asks.stream().map(OrderBookResponseDto.OrderBookLevel::getPrice).toList());
+        assertEquals(List.of(5, 1), asks.stream().map(OrderBookResponseDto.OrderBookLevel::getAmount).toList());
+    }
+
+    @Test
+    void testGetOrderByUserId_ShouldFetchInChunksAndPageByOrderId() {
+        // Given：超過一個批次的掛單，分散在兩個標的
+        UUID maker = UUID.randomUUID();
+        List<UUID> orderIds = new ArrayList<>();
+        for (int i = 0; i < RedisOrderBookService.USER_ORDER_FETCH_CHUNK + 20; i++) {
+            OrderCreatedEvent event = order(i % 2 == 0 ? "ELC" : "GAS", maker, false, 100 + i % 5, 1);
+            orderBookService.addOrder(event);
+            orderIds.add(event.getOrderId());
+        }
+        orderBookService.addOrder(order("ELC", UUID.randomUUID(), false, 100, 1));
+
+        // When / Then：一次取回全部
+        assertEquals(Set.copyOf(orderIds), orderBookService.getOrderByUserId(maker).stream()
+                .map(OrderCreatedEvent::getOrderId).collect(Collectors.toSet()));
+
+        // When / Then：依游標翻頁，依 orderId 排序且不重複
+        List<String> paged = new ArrayList<>();
+        String cursor = null;
+        do {
+            UserOrderPageDto page = orderBookService.getOrderPageByUserId(maker, cursor, 100);
+            assertTrue(page.getOrders().size() <= 100);
+            assertEquals(orderIds.size(), page.getTotalCount());
+            page.getOrders().forEach(o -> paged.add(o.getOrderId().toString()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(orderIds.stream().map(UUID::toString).sorted().toList(), paged);
+    }
+
+    @Test
+    void testStandaloneLayout_ShouldBeRejectedByTheCluster() {
+        RedisOrderBookService standalone = new RedisOrderBookService(cluster.template(), RedisKeyLayout.STANDALONE,
+                RedisReadPool.shared(cluster.template()));
+
+        assertThrows(DataAccessException.class,
+                () -> standalone.addOrder(order("ELC", UUID.randomUUID(), true, 90, 1)));
+    }
+}
@@ -0,0 +1,140 @@
+package com.eap.eap_matchengine.application;
+
+import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMatchedEvent;
+import com.eap.eap_matchengine.configuration.properties.MatchEngineProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.AmqpException;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SequencerLaneTest {
+
+    @Mock
+    private MatchingEngineService matchingEngineService;
+    @Mock
+    private OrderBookEngine orderBookEngine;
+    @Mock
+    private MatchedEventPublisher matchedEventPublisher;
+
+    private SequencerLane lane;
+
+    @BeforeEach
+    void setUp() {
+        MatchEngineProperties.Sequencer config = new MatchEngineProperties.Sequencer();
+        config.setRingSize(16);
+        lane = new SequencerLane(0, config, matchingEngineService, orderBookEngine, matchedEventPublisher);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        lane.stop();
+        lane.awaitTermination(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Test
+    void testSubmit_ShouldCompleteOnlyAfterTheFillsAreConfirmed() throws Exception {
+        // Given：broker 確認前發送執行緒停在 publish
+        OrderCreatedEvent order = order();
+        List<OrderMatchedEvent> fills = List.of(OrderMatchedEvent.builder().amount(1).build());
+        when(matchingEngineService.matchOrRelease(eq(order), any())).thenReturn(fills);
+        CountDownLatch confirm = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            confirm.await();
+            return null;
+        }).when(matchedEventPublisher).publish(anyList());
+        lane.start();
+
+        // When
+        CompletableFuture<Void> done = lane.submit(order);
+
+        // Then
+        Thread.sleep(200);
+        assertFalse(done.isDone());
+        confirm.countDown();
+        done.get(5, TimeUnit.SECONDS);
+        verify(matchedEventPublisher).publish(fills);
+    }
+
+    @Test
+    void testSubmit_WhenPublishKeepsFailing_ShouldParkTheFillsInsteadOfDroppingThem() throws Exception {
+        // Given
+        OrderCreatedEvent order = order();
+        List<OrderMatchedEvent> fills = List.of(OrderMatchedEvent.builder().amount(1).build());
+        when(matchingEngineService.matchOrRelease(eq(order), any())).thenReturn(fills);
+        doThrow(new AmqpException("nack")).when(matchedEventPublisher).publish(anyList());
+        lane.start();
+
+        // When
+        lane.submit(order).get(5, TimeUnit.SECONDS);
+
+        // Then
+        verify(matchedEventPublisher, times(3)).publish(fills);
+        verify(matchedEventPublisher).park(fills);
+    }
+
+    @Test
+    void testSubmit_WithoutFills_ShouldCompleteWithoutPublishing() throws Exception {
+        OrderCreatedEvent order = order();
+        when(matchingEngineService.matchOrRelease(eq(order), any())).thenReturn(List.of());
+        lane.start();
+
+        lane.submit(order).get(5, TimeUnit.SECONDS);
+
+        verify(matchedEventPublisher, never()).park(anyList());
+    }
+
+    @Test
+    void testSubmit_WhenMatchFails_ShouldFailTheOrderAndKeepMatching() throws Exception {
+        // Given
+        OrderCreatedEvent failing = order();
+        OrderCreatedEvent next = order();
+        when(matchingEngineService.matchOrRelease(eq(failing), any())).thenThrow(new IllegalStateException("book unavailable"));
+        when(matchingEngineService.matchOrRelease(eq(next), any())).thenReturn(List.of());
+        lane.start();
+
+        // When
+        CompletableFuture<Void> failed = lane.submit(failing);
+        CompletableFuture<Void> done = lane.submit(next);
+
+        // Then：失敗的訂單不 ack，撮合執行緒繼續處理後續訂單
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failed.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+        done.get(5, TimeUnit.SECONDS);
+    }
+
+    private OrderCreatedEvent order() {
+        return OrderCreatedEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(UUID.randomUUID())
+                .price(100)
+                .amount(1)
+                .orderType("BUY")
+                .symbol("ELC")
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.eap.eap_matchengine.domain.book;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpiryWheelTest {
+
+    private static final long START = 1_000_000L;
+
+    private ExpiryWheel wheel;
+    private List<UUID> expired;
+
+    @BeforeEach
+    void setUp() {
+        // 10ms 一格，共 8 格，一圈 80ms
+        wheel = new ExpiryWheel(START, 10, 8);
+        expired = new ArrayList<>();
+    }
+
+    private void advance(long now) {
+        wheel.advance(now, entry -> expired.add(entry.getOrderId()));
+    }
+
+    @Test
+    void testAdvance_ShouldNotFireBeforeDeadline() {
+        UUID orderId = UUID.randomUUID();
+        wheel.schedule("ELC", orderId, START + 25);
+
+        advance(START + 24);
+        assertTrue(expired.isEmpty());
+
+        advance(START + 30);
+        assertEquals(List.of(orderId), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testAdvance_ShouldWaitFullRotationsForDistantDeadline() {
+        UUID near = UUID.randomUUID();
+        UUID far = UUID.randomUUID();
+        // 同一格，相差兩圈
+        wheel.schedule("ELC", near, START + 20);
+        wheel.schedule("ELC", far, START + 180);
+
+        advance(START + 20);
+        assertEquals(List.of(near), expired);
+
+        advance(START + 179);
+        assertEquals(1, expired.size());
+
+        advance(START + 180);
+        assertEquals(List.of(near, far), expired);
+    }
+
+    @Test
+    void testSchedule_PastDeadline_ShouldFireOnNextTick() {
+        advance(START + 50);
+        UUID orderId = UUID.randomUUID();
+        wheel.schedule("ELC", orderId, START);
+
+        advance(START + 60);
+
+        assertEquals(List.of(orderId), expired);
+    }
+
+    @Test
+    void testAdvance_ShouldReportSymbolOfEachEntry() {
+        wheel.schedule("ELC", UUID.randomUUID(), START + 5);
+        wheel.schedule("GRN", UUID.randomUUID(), START + 5);
+        List<String> symbols = new ArrayList<>();
+
+        wheel.advance(START + 10, entry -> symbols.add(entry.getSymbol()));
+
+        assertEquals(2, symbols.size());
+        assertTrue(symbols.containsAll(List.of("ELC", "GRN")));
+    }
+
+    @Test
+    void testConstructor_ShouldRejectNonPowerOfTwoWheelSize() {
+        assertThrows(IllegalArgumentException.class, () -> new ExpiryWheel(START, 10, 6));
+    }
+}
@@ -0,0 +1,73 @@
+package com.eap.eap_matchengine.domain.book;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 以目前執行緒的配置量檢查 pooled 撮合不配置物件，與 MatchAllocationBenchmark 的 pooled 情境相同：
+ * 賣盤 8 個價位各 8 筆近乎無限量的掛單，買單每次吃最佳價一筆，吃完把數量重設回去重複使用。
+ * 配置量受 JIT 與執行環境影響，不在預設的 test 執行：./gradlew :eap-matchEngine:allocationTest
+ */
+@Tag("allocation")
+class FillBufferAllocationTest {
+
+    private static final double MAX_BYTES_PER_MATCH = 1.0;
+    private static final int TAKER_AMOUNT = 10;
+    private static final int WARMUP_MATCHES = 200_000;
+    private static final int MEASURED_MATCHES = 100_000;
+
+    @Test
+    void testPooledMatch_ShouldNotAllocatePerMatch() {
+        // Given
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean,
+                "thread allocation counter not available");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "thread allocation counter not supported");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        LocalDateTime now = LocalDateTime.now();
+        UUID userId = UUID.randomUUID();
+        OrderBook book = new OrderBook();
+        for (int level = 0; level < 8; level++) {
+            for (int i = 0; i < 8; i++) {
+                book.add(new RestingOrder(UUID.randomUUID(), userId, "ELC", 10_000 + level, Integer.MAX_VALUE, false, now));
+            }
+        }
+        RestingOrder taker = new RestingOrder(UUID.randomUUID(), userId, "ELC", 20_000, TAKER_AMOUNT, true, now);
+        FillBuffer buffer = new FillBuffer();
+        // 先讓撮合迴圈經 JIT 編譯，緩衝區也長到需要的大小
+        long filled = matchRepeatedly(book, taker, buffer, WARMUP_MATCHES);
+        long threadId = Thread.currentThread().getId();
+
+        // When
+        long before = threads.getThreadAllocatedBytes(threadId);
+        filled += matchRepeatedly(book, taker, buffer, MEASURED_MATCHES);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Then
+        assertEquals(WARMUP_MATCHES + MEASURED_MATCHES, filled);
+        double bytesPerMatch = (double) allocated / MEASURED_MATCHES;
+        assertTrue(bytesPerMatch <= MAX_BYTES_PER_MATCH,
+                "Pooled matching allocated " + bytesPerMatch + " bytes per match");
+    }
+
+    private static long matchRepeatedly(OrderBook book, RestingOrder taker, FillBuffer buffer, int matches) {
+        long filled = 0;
+        for (int i = 0; i < matches; i++) {
+            buffer.clear();
+            book.match(taker, buffer);
+            filled += buffer.size();
+            // 把買單數量重設回原量，下一次撮合重複使用同一筆
+            taker.resetRemaining(TAKER_AMOUNT);
+        }
+        return filled;
+    }
+}
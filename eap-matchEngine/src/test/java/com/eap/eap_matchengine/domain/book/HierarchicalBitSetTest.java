@@ -0,0 +1,56 @@
+package com.eap.eap_matchengine.domain.book;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalBitSetTest {
+
+    @Test
+    void testNextAndPrevious_ShouldMatchBitSetUnderRandomUpdates() {
+        // 超過 64 * 64 位元，共三層
+        int size = 300_000;
+        HierarchicalBitSet bits = new HierarchicalBitSet(size);
+        BitSet expected = new BitSet(size);
+        Random random = new Random(7);
+
+        for (int i = 0; i < 20_000; i++) {
+            int index = random.nextInt(size);
+            if (random.nextInt(3) == 0) {
+                bits.clear(index);
+                expected.clear(index);
+            } else {
+                bits.set(index);
+                expected.set(index);
+            }
+            int from = random.nextInt(size);
+            assertEquals(expected.nextSetBit(from), bits.next(from));
+            assertEquals(expected.previousSetBit(from), bits.previous(from));
+            assertEquals(expected.get(index), bits.get(index));
+        }
+    }
+
+    @Test
+    void testNextAndPrevious_AtBoundaries() {
+        HierarchicalBitSet bits = new HierarchicalBitSet(130);
+
+        assertEquals(-1, bits.next(0));
+        assertEquals(-1, bits.previous(129));
+
+        bits.set(0);
+        bits.set(129);
+
+        assertEquals(0, bits.next(0));
+        assertEquals(129, bits.next(1));
+        assertEquals(-1, bits.next(130));
+        assertEquals(129, bits.previous(500));
+        assertEquals(0, bits.previous(128));
+        assertEquals(-1, bits.previous(-1));
+
+        bits.clear(0);
+        assertEquals(-1, bits.previous(128));
+    }
+}
@@ -0,0 +1,213 @@
+package com.eap.eap_matchengine.domain.book;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Price-level order book of a single symbol whose resting orders live in an {@link OffHeapOrderStore}.
+ * Matching follows the same price-time priority as {@link OrderBook}, but the on-heap footprint no longer
+ * grows with the number of resting orders: each order is a 64-byte off-heap record plus a 4-byte index slot,
+ * and only the price levels (one small object per non-empty price) stay on the heap. The matching loop sees
+ * makers through an {@link OrderRecord} flyweight.
+ * <p>
+ * The off-heap store is an experiment measured by {@code OffHeapBookBenchmark} and is not wired into a
+ * backend, so it lives with the test sources, which the JMH source set compiles against.
+ * <p>
+ * This class is not thread-safe; callers must serialize access.
+ */
+public class OffHeapOrderBook {
+
+    /**
+     * Receives each fill of {@link #match}; {@code maker} shows the maker after the fill and is only valid
+     * during the call.
+     */
+    @FunctionalInterface
+    public interface FillHandler {
+        void onFill(OrderRecord maker, int amount);
+    }
+
+    private final OffHeapOrderStore store = new OffHeapOrderStore();
+    private final SlotIndex index = new SlotIndex(store);
+    private final OrderRecord maker = new OrderRecord(store);
+    private final OrderRecord lookup = new OrderRecord(store);
+    private final NavigableMap<Integer, Level> bids = new TreeMap<>(Collections.reverseOrder());
+    private final NavigableMap<Integer, Level> asks = new TreeMap<>();
+    private Level bestBid;
+    private Level bestAsk;
+
+    private static final class Level {
+        final int price;
+        int head = OffHeapOrderStore.NIL;
+        int tail = OffHeapOrderStore.NIL;
+        long totalAmount;
+        int orderCount;
+
+        Level(int price) {
+            this.price = price;
+        }
+    }
+
+    /**
+     * Rests an order at the tail of its price level.
+     *
+     * @return the slot of the order
+     */
+    public int add(UUID orderId, UUID userId, int price, int amount, boolean buy, LocalDateTime createdAt) {
+        int slot = store.allocate(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits(),
+                userId.getMostSignificantBits(), userId.getLeastSignificantBits(), price, amount, buy, createdAt);
+        index.put(slot);
+        Level level = (buy ? bids : asks).computeIfAbsent(price, Level::new);
+        store.setPrev(slot, level.tail);
+        if (level.tail == OffHeapOrderStore.NIL) {
+            level.head = slot;
+        } else {
+            store.setNext(level.tail, slot);
+        }
+        level.tail = slot;
+        level.totalAmount += amount;
+        level.orderCount++;
+        if (buy) {
+            if (bestBid == null || price > bestBid.price) {
+                bestBid = level;
+            }
+        } else if (bestAsk == null || price < bestAsk.price) {
+            bestAsk = level;
+        }
+        return slot;
+    }
+
+    /**
+     * Removes a resting order.
+     *
+     * @return whether the order was in the book
+     */
+    public boolean remove(UUID orderId) {
+        int slot = index.remove(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits());
+        if (slot == OffHeapOrderStore.NIL) {
+            return false;
+        }
+        boolean buy = store.isBuy(slot);
+        unlink((buy ? bids : asks).get(store.price(slot)), slot, buy);
+        store.release(slot);
+        return true;
+    }
+
+    /**
+     * Matches a taker against the opposite side while prices cross {@code limitPrice}; the taker itself is
+     * never rested here.
+     *
+     * @return the taker's unfilled amount
+     */
+    public int match(boolean buy, int limitPrice, int amount, FillHandler handler) {
+        int remaining = amount;
+        while (remaining > 0) {
+            Level level = buy ? bestAsk : bestBid;
+            if (level == null || (buy ? level.price > limitPrice : level.price < limitPrice)) {
+                break;
+            }
+            int slot = level.head;
+            int makerRemaining = store.remaining(slot);
+            int matched = Math.min(remaining, makerRemaining);
+            remaining -= matched;
+            store.setRemaining(slot, makerRemaining - matched);
+            level.totalAmount -= matched;
+            handler.onFill(maker.wrap(slot), matched);
+            if (makerRemaining == matched) {
+                index.remove(store.orderIdHigh(slot), store.orderIdLow(slot));
+                unlink(level, slot, !buy);
+                store.release(slot);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * Sums the opposite-side level aggregates crossing {@code limitPrice}, stopping once {@code needed} is reached.
+     */
+    public long availableAmount(boolean buy, int limitPrice, long needed) {
+        long available = 0;
+        for (Level level : (buy ? asks : bids).values()) {
+            if (available >= needed || (buy ? level.price > limitPrice : level.price < limitPrice)) {
+                break;
+            }
+            available += level.totalAmount;
+        }
+        return available;
+    }
+
+    /**
+     * @return a flyweight over the resting order, or null if it is not in the book; the same instance is
+     *         returned by every call, so it is only valid until the next call
+     */
+    public OrderRecord get(UUID orderId) {
+        int slot = index.get(orderId.getMostSignificantBits(), orderId.getLeastSignificantBits());
+        return slot == OffHeapOrderStore.NIL ? null : lookup.wrap(slot);
+    }
+
+    /**
+     * @return the best price of one side, or null if the side is empty
+     */
+    public Integer bestPrice(boolean buy) {
+        Level level = buy ? bestBid : bestAsk;
+        return level != null ? level.price : null;
+    }
+
+    /**
+     * @return the aggregated amount resting at {@code price} on one side
+     */
+    public long levelAmount(boolean buy, int price) {
+        Level level = (buy ? bids : asks).get(price);
+        return level != null ? level.totalAmount : 0;
+    }
+
+    public int size() {
+        return store.size();
+    }
+
+    public int levelCount(boolean buy) {
+        return (buy ? bids : asks).size();
+    }
+
+    /**
+     * Off-heap bytes reserved by the order records.
+     */
+    public long offHeapBytes() {
+        return store.reservedBytes();
+    }
+
+    private void unlink(Level level, int slot, boolean buy) {
+        int prev = store.prev(slot);
+        int next = store.next(slot);
+        if (prev == OffHeapOrderStore.NIL) {
+            level.head = next;
+        } else {
+            store.setNext(prev, next);
+        }
+        if (next == OffHeapOrderStore.NIL) {
+            level.tail = prev;
+        } else {
+            store.setPrev(next, prev);
+        }
+        level.totalAmount -= store.remaining(slot);
+        level.orderCount--;
+        if (level.orderCount > 0) {
+            return;
+        }
+        NavigableMap<Integer, Level> side = buy ? bids : asks;
+        side.remove(level.price);
+        if (buy && level == bestBid) {
+            bestBid = firstLevel(side);
+        } else if (!buy && level == bestAsk) {
+            bestAsk = firstLevel(side);
+        }
+    }
+
+    private static Level firstLevel(NavigableMap<Integer, Level> side) {
+        Map.Entry<Integer, Level> first = side.firstEntry();
+        return first != null ? first.getValue() : null;
+    }
+}
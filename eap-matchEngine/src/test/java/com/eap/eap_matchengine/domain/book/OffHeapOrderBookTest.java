@@ -0,0 +1,88 @@
+package com.eap.eap_matchengine.domain.book;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapOrderBookTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2026, 1, 1, 9, 0);
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void testMatch_ShouldFillByPriceThenTimeThroughFlyweight() {
+        OffHeapOrderBook book = new OffHeapOrderBook();
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID cheaper = UUID.randomUUID();
+        book.add(first, userId, 101, 5, false, now);
+        book.add(second, userId, 101, 5, false, now.plusSeconds(1));
+        book.add(cheaper, userId, 100, 3, false, now.plusSeconds(2));
+
+        List<UUID> makers = new ArrayList<>();
+        List<Integer> fills = new ArrayList<>();
+        int remaining = book.match(true, 101, 10, (maker, amount) -> {
+            makers.add(maker.getOrderId());
+            fills.add(amount);
+        });
+
+        assertEquals(0, remaining);
+        assertEquals(List.of(cheaper, first, second), makers);
+        assertEquals(List.of(3, 5, 2), fills);
+        assertEquals(1, book.size());
+        assertEquals(101, book.bestPrice(false));
+        assertEquals(3, book.levelAmount(false, 101));
+        OrderRecord rest = book.get(second);
+        assertEquals(3, rest.getRemaining());
+        assertEquals(userId, rest.getUserId());
+        assertEquals(now.plusSeconds(1), rest.getCreatedAt());
+        assertSame(rest, book.get(second));
+        assertNull(book.get(first));
+    }
+
+    @Test
+    void testMatch_ShouldStopAtLimitPrice() {
+        OffHeapOrderBook book = new OffHeapOrderBook();
+        book.add(UUID.randomUUID(), userId, 99, 4, true, now);
+        book.add(UUID.randomUUID(), userId, 97, 4, true, now);
+
+        int remaining = book.match(false, 98, 10, (maker, amount) -> { });
+
+        assertEquals(6, remaining);
+        assertEquals(97, book.bestPrice(true));
+        assertEquals(4, book.availableAmount(false, 0, 100));
+    }
+
+    @Test
+    void testRemove_ShouldReuseSlotsAndKeepLevelsConsistent() {
+        OffHeapOrderBook book = new OffHeapOrderBook();
+        List<UUID> ids = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 10_000; i++) {
+            UUID id = UUID.randomUUID();
+            book.add(id, userId, 100 + random.nextInt(10), 1, true, now);
+            ids.add(id);
+        }
+        long reserved = book.offHeapBytes();
+
+        for (UUID id : ids) {
+            assertTrue(book.remove(id));
+        }
+        assertFalse(book.remove(ids.get(0)));
+        assertEquals(0, book.size());
+        assertEquals(0, book.levelCount(true));
+        assertNull(book.bestPrice(true));
+
+        for (int i = 0; i < 10_000; i++) {
+            book.add(UUID.randomUUID(), userId, 100, 1, true, now);
+        }
+        assertEquals(reserved, book.offHeapBytes());
+        assertEquals(10_000, book.levelAmount(true, 100));
+    }
+}
@@ -0,0 +1,128 @@
+package com.eap.eap_matchengine.domain.book;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Fixed-size order records in direct {@link ByteBuffer} chunks outside the Java heap, addressed by an int slot.
+ * The slot is the order's internal id; {@code prev}/{@code next} hold the slots of the neighbours in the
+ * price-level queue, so the whole queue lives off-heap and the garbage collector never traces it.
+ * Released slots are reused through a free list threaded through the {@code next} field.
+ * <p>
+ * Record layout, {@value #RECORD_SIZE} bytes in native byte order:
+ * orderId (16) | userId (16) | createdAt epoch nanos (8) | price (4) | remaining (4) | prev (4) | next (4) |
+ * flags (4) | unused (4).
+ * <p>
+ * Not thread-safe; used under the owning book's lock.
+ */
+public class OffHeapOrderStore {
+
+    public static final int NIL = -1;
+    public static final int RECORD_SIZE = 64;
+
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    private static final int ORDER_ID_HIGH = 0;
+    private static final int ORDER_ID_LOW = 8;
+    private static final int USER_ID_HIGH = 16;
+    private static final int USER_ID_LOW = 24;
+    private static final int CREATED_AT = 32;
+    private static final int PRICE = 40;
+    private static final int REMAINING = 44;
+    private static final int PREV = 48;
+    private static final int NEXT = 52;
+    private static final int FLAGS = 56;
+
+    private static final int FLAG_BUY = 1;
+
+    // 每個 chunk 65536 筆（4 MB）
+    private static final int CHUNK_SHIFT = 16;
+    private static final int CHUNK_MASK = (1 << CHUNK_SHIFT) - 1;
+
+    private ByteBuffer[] chunks = new ByteBuffer[0];
+    private int allocated;
+    private int freeHead = NIL;
+    private int size;
+
+    /**
+     * Writes a new record and returns its slot; the links start as {@link #NIL}.
+     */
+    public int allocate(long orderIdHigh, long orderIdLow, long userIdHigh, long userIdLow, int price, int remaining,
+                        boolean buy, LocalDateTime createdAt) {
+        int slot;
+        if (freeHead != NIL) {
+            slot = freeHead;
+            freeHead = next(slot);
+        } else {
+            slot = allocated++;
+            if ((slot >>> CHUNK_SHIFT) >= chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length + 1);
+                chunks[chunks.length - 1] = ByteBuffer.allocateDirect(RECORD_SIZE << CHUNK_SHIFT).order(ByteOrder.nativeOrder());
+            }
+        }
+        ByteBuffer chunk = chunk(slot);
+        int base = offset(slot);
+        chunk.putLong(base + ORDER_ID_HIGH, orderIdHigh);
+        chunk.putLong(base + ORDER_ID_LOW, orderIdLow);
+        chunk.putLong(base + USER_ID_HIGH, userIdHigh);
+        chunk.putLong(base + USER_ID_LOW, userIdLow);
+        chunk.putLong(base + CREATED_AT, createdAt == null ? NO_TIME
+                : createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000_000L + createdAt.getNano());
+        chunk.putInt(base + PRICE, price);
+        chunk.putInt(base + REMAINING, remaining);
+        chunk.putInt(base + PREV, NIL);
+        chunk.putInt(base + NEXT, NIL);
+        chunk.putInt(base + FLAGS, buy ? FLAG_BUY : 0);
+        size++;
+        return slot;
+    }
+
+    /**
+     * Returns a slot to the free list; the record must already be unlinked from its level.
+     */
+    public void release(int slot) {
+        setNext(slot, freeHead);
+        freeHead = slot;
+        size--;
+    }
+
+    public long orderIdHigh(int slot) { return chunk(slot).getLong(offset(slot) + ORDER_ID_HIGH); }
+    public long orderIdLow(int slot) { return chunk(slot).getLong(offset(slot) + ORDER_ID_LOW); }
+    public long userIdHigh(int slot) { return chunk(slot).getLong(offset(slot) + USER_ID_HIGH); }
+    public long userIdLow(int slot) { return chunk(slot).getLong(offset(slot) + USER_ID_LOW); }
+    public long createdAt(int slot) { return chunk(slot).getLong(offset(slot) + CREATED_AT); }
+    public int price(int slot) { return chunk(slot).getInt(offset(slot) + PRICE); }
+    public int remaining(int slot) { return chunk(slot).getInt(offset(slot) + REMAINING); }
+    public boolean isBuy(int slot) { return (chunk(slot).getInt(offset(slot) + FLAGS) & FLAG_BUY) != 0; }
+    public int prev(int slot) { return chunk(slot).getInt(offset(slot) + PREV); }
+    public int next(int slot) { return chunk(slot).getInt(offset(slot) + NEXT); }
+
+    void setRemaining(int slot, int remaining) { chunk(slot).putInt(offset(slot) + REMAINING, remaining); }
+    void setPrev(int slot, int prev) { chunk(slot).putInt(offset(slot) + PREV, prev); }
+    void setNext(int slot, int next) { chunk(slot).putInt(offset(slot) + NEXT, next); }
+
+    /**
+     * Number of live records.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Off-heap bytes reserved so far; chunks are kept when records are released.
+     */
+    public long reservedBytes() {
+        return (long) chunks.length * (RECORD_SIZE << CHUNK_SHIFT);
+    }
+
+    private ByteBuffer chunk(int slot) {
+        return chunks[slot >>> CHUNK_SHIFT];
+    }
+
+    private static int offset(int slot) {
+        return (slot & CHUNK_MASK) * RECORD_SIZE;
+    }
+}
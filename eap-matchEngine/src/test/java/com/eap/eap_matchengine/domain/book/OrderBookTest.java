@@ -0,0 +1,228 @@
+package com.eap.eap_matchengine.domain.book;
+
+import com.eap.common.constants.TimeInForce;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookTest {
+
+    private OrderBook orderBook;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        orderBook = new OrderBook();
+        now = LocalDateTime.now();
+    }
+
+    private RestingOrder order(boolean buy, int price, int amount) {
+        now = now.plusNanos(1000);
+        return new RestingOrder(UUID.randomUUID(), UUID.randomUUID(), "ELC", price, amount, buy, now);
+    }
+
+    private RestingOrder taker(boolean buy, int price, int amount, TimeInForce timeInForce) {
+        now = now.plusNanos(1000);
+        return new RestingOrder(UUID.randomUUID(), UUID.randomUUID(), "ELC", price, amount, buy, now, null, timeInForce);
+    }
+
+    @Test
+    void testAdd_ShouldTrackBestBidAndBestAsk() {
+        orderBook.add(order(true, 100, 5));
+        orderBook.add(order(true, 102, 5));
+        orderBook.add(order(false, 110, 5));
+        orderBook.add(order(false, 108, 5));
+
+        assertEquals(102, orderBook.getBestBid().getPrice());
+        assertEquals(108, orderBook.getBestAsk().getPrice());
+        assertEquals(4, orderBook.size());
+    }
+
+    @Test
+    void testMatch_ShouldFillInPriceTimePriority() {
+        // Given
+        RestingOrder first = order(false, 100, 5);
+        RestingOrder second = order(false, 100, 5);
+        RestingOrder cheaper = order(false, 99, 3);
+        orderBook.add(first);
+        orderBook.add(second);
+        orderBook.add(cheaper);
+
+        // When
+        RestingOrder taker = order(true, 100, 10);
+        List<MatchFill> fills = orderBook.match(taker);
+
+        // Then
+        assertEquals(3, fills.size());
+        assertSame(cheaper, fills.get(0).getMaker());
+        assertEquals(99, fills.get(0).getDealPrice());
+        assertSame(first, fills.get(1).getMaker());
+        assertEquals(5, fills.get(1).getAmount());
+        assertSame(second, fills.get(2).getMaker());
+        assertEquals(2, fills.get(2).getAmount());
+        assertEquals(3, fills.get(2).getMakerRemaining());
+        assertEquals(0, taker.getRemaining());
+
+        assertEquals(1, orderBook.size());
+        assertEquals(100, orderBook.getBestAsk().getPrice());
+        assertEquals(3, orderBook.getBestAsk().getTotalAmount());
+    }
+
+    @Test
+    void testMatch_WhenPricesDoNotCross_ShouldNotFill() {
+        orderBook.add(order(false, 105, 5));
+
+        RestingOrder taker = order(true, 100, 5);
+        List<MatchFill> fills = orderBook.match(taker);
+
+        assertTrue(fills.isEmpty());
+        assertEquals(5, taker.getRemaining());
+    }
+
+    @Test
+    void testMatch_Fok_WhenLiquidityIsShort_ShouldNotTouchAnyOrder() {
+        orderBook.add(order(false, 100, 4));
+        orderBook.add(order(false, 101, 4));
+        orderBook.add(order(false, 105, 10));
+
+        RestingOrder taker = taker(true, 101, 10, TimeInForce.FOK);
+        List<MatchFill> fills = orderBook.match(taker);
+
+        assertTrue(fills.isEmpty());
+        assertEquals(10, taker.getRemaining());
+        assertEquals(3, orderBook.size());
+        assertEquals(4, orderBook.getBestAsk().getTotalAmount());
+    }
+
+    @Test
+    void testMatch_Fok_WhenLiquidityIsEnough_ShouldFillCompletely() {
+        orderBook.add(order(false, 100, 4));
+        orderBook.add(order(false, 101, 8));
+
+        RestingOrder taker = taker(true, 101, 10, TimeInForce.FOK);
+        List<MatchFill> fills = orderBook.match(taker);
+
+        assertEquals(2, fills.size());
+        assertEquals(0, taker.getRemaining());
+        assertEquals(2, orderBook.getBestAsk().getTotalAmount());
+    }
+
+    @Test
+    void testMatch_MarketSell_ShouldIgnoreLimitPrice() {
+        orderBook.add(order(true, 90, 3));
+        orderBook.add(order(true, 80, 3));
+
+        RestingOrder taker = taker(false, 100, 10, TimeInForce.MARKET);
+        List<MatchFill> fills = orderBook.match(taker);
+
+        assertEquals(2, fills.size());
+        assertEquals(80, fills.get(1).getDealPrice());
+        assertEquals(4, taker.getRemaining());
+        assertEquals(0, orderBook.size());
+    }
+
+    @Test
+    void testMatch_MarketBuy_ShouldStayWithinSubmittedPrice() {
+        orderBook.add(order(false, 100, 3));
+        orderBook.add(order(false, 110, 3));
+
+        RestingOrder taker = taker(true, 105, 6, TimeInForce.MARKET);
+        List<MatchFill> fills = orderBook.match(taker);
+
+        assertEquals(1, fills.size());
+        assertEquals(3, taker.getRemaining());
+        assertEquals(110, orderBook.getBestAsk().getPrice());
+    }
+
+    @Test
+    void testMatchIntoBuffer_ShouldReusePooledFills() {
+        RestingOrder first = order(false, 100, 5);
+        RestingOrder second = order(false, 101, 5);
+        orderBook.add(first);
+        orderBook.add(second);
+        FillBuffer buffer = new FillBuffer();
+
+        orderBook.match(order(true, 100, 2), buffer);
+        MatchFill pooled = buffer.get(0);
+        buffer.clear();
+        orderBook.match(order(true, 101, 6), buffer);
+
+        assertEquals(2, buffer.size());
+        assertSame(pooled, buffer.get(0));
+        assertSame(first, buffer.get(0).getMaker());
+        assertEquals(3, buffer.get(0).getAmount());
+        assertEquals(0, buffer.get(0).getMakerRemaining());
+        assertSame(second, buffer.get(1).getMaker());
+        assertEquals(3, buffer.get(1).getAmount());
+
+        buffer.clear();
+        assertTrue(buffer.isEmpty());
+        assertNull(pooled.getMaker());
+    }
+
+    @Test
+    void testAvailableAmount_ShouldStopOnceNeededAmountIsReached() {
+        orderBook.add(order(false, 100, 5));
+        orderBook.add(order(false, 101, 5));
+        orderBook.add(order(false, 102, 5));
+
+        assertEquals(10, orderBook.availableAmount(order(true, 102, 0), 6));
+        assertEquals(15, orderBook.availableAmount(order(true, 102, 0), 100));
+        assertEquals(0, orderBook.availableAmount(order(true, 99, 0), 100));
+    }
+
+    @Test
+    void testArrayLadder_ShouldMatchInPriceTimePriorityAndTrackBestPrices() {
+        OrderBook banded = new OrderBook(0, 1000);
+        RestingOrder first = order(false, 101, 5);
+        RestingOrder second = order(false, 101, 5);
+        banded.add(order(false, 900, 5));
+        banded.add(first);
+        banded.add(second);
+        banded.add(order(false, 100, 3));
+        banded.add(order(true, 90, 5));
+        banded.add(order(true, 95, 5));
+
+        RestingOrder taker = order(true, 101, 10);
+        List<MatchFill> fills = banded.match(taker);
+
+        assertEquals(3, fills.size());
+        assertEquals(100, fills.get(0).getDealPrice());
+        assertSame(first, fills.get(1).getMaker());
+        assertSame(second, fills.get(2).getMaker());
+        assertEquals(101, banded.getBestAsk().getPrice());
+        assertEquals(95, banded.getBestBid().getPrice());
+        assertEquals(List.of(101, 900), banded.levels(false, 10).stream().map(PriceLevel::getPrice).toList());
+        assertEquals(2, banded.levelCount(true));
+    }
+
+    @Test
+    void testArrayLadder_ShouldRejectPriceOutsideBand() {
+        OrderBook banded = new OrderBook(100, 200);
+
+        assertFalse(banded.accepts(201));
+        assertThrows(IllegalArgumentException.class, () -> banded.add(order(true, 201, 1)));
+        assertNull(banded.level(true, 201));
+        assertEquals(0, banded.size());
+    }
+
+    @Test
+    void testRemove_ShouldUpdateLevelAndBestPrice() {
+        RestingOrder best = order(true, 101, 5);
+        RestingOrder other = order(true, 100, 7);
+        orderBook.add(best);
+        orderBook.add(other);
+
+        assertSame(best, orderBook.remove(best.getOrderId()));
+        assertNull(orderBook.remove(best.getOrderId()));
+
+        assertEquals(100, orderBook.getBestBid().getPrice());
+        assertEquals(1, orderBook.getBestBid().getOrderCount());
+        assertFalse(best.isResting());
+    }
+}
@@ -0,0 +1,64 @@
+package com.eap.eap_matchengine.domain.book;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderIndexTest {
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    private RestingOrder order(UUID orderId) {
+        return new RestingOrder(orderId, UUID.randomUUID(), "ELC", 100, 1, true, now);
+    }
+
+    @Test
+    void testPutGetRemove_ShouldMatchHashMapUnderRandomUpdates() {
+        OrderIndex index = new OrderIndex();
+        Map<UUID, RestingOrder> expected = new HashMap<>();
+        List<UUID> ids = new ArrayList<>();
+        Random random = new Random(3);
+
+        for (int i = 0; i < 100_000; i++) {
+            // 小範圍的 id 讓探測序列經常碰撞與刪除後回移
+            UUID id = new UUID(random.nextInt(16), random.nextInt(2000));
+            int op = random.nextInt(10);
+            if (op < 5) {
+                RestingOrder order = order(id);
+                index.put(order);
+                if (expected.put(id, order) == null) {
+                    ids.add(id);
+                }
+            } else if (op < 8 && !ids.isEmpty()) {
+                UUID removed = ids.remove(random.nextInt(ids.size()));
+                assertSame(expected.remove(removed),
+                        index.remove(removed.getMostSignificantBits(), removed.getLeastSignificantBits()));
+            } else {
+                assertSame(expected.get(id), index.get(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+            }
+            assertEquals(expected.size(), index.size());
+        }
+        expected.forEach((id, order) ->
+                assertSame(order, index.get(id.getMostSignificantBits(), id.getLeastSignificantBits())));
+    }
+
+    @Test
+    void testRemove_MissingId_ShouldReturnNull() {
+        OrderIndex index = new OrderIndex();
+        RestingOrder order = order(UUID.randomUUID());
+        index.put(order);
+
+        assertNull(index.remove(1, 2));
+        assertSame(order, index.remove(order.orderIdHigh(), order.orderIdLow()));
+        assertNull(index.get(order.orderIdHigh(), order.orderIdLow()));
+        assertEquals(0, index.size());
+    }
+}
@@ -0,0 +1,44 @@
+package com.eap.eap_matchengine.domain.book;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * Flyweight view of one record of an {@link OffHeapOrderStore}. A single instance is repositioned with
+ * {@link #wrap} for every order it shows, so reading orders in the matching loop allocates nothing;
+ * the view is only valid until it is wrapped again or its record is released.
+ */
+public final class OrderRecord {
+
+    private final OffHeapOrderStore store;
+    private int slot = OffHeapOrderStore.NIL;
+
+    public OrderRecord(OffHeapOrderStore store) {
+        this.store = store;
+    }
+
+    public OrderRecord wrap(int slot) {
+        this.slot = slot;
+        return this;
+    }
+
+    public int slot() { return slot; }
+    public int getPrice() { return store.price(slot); }
+    public int getRemaining() { return store.remaining(slot); }
+    public boolean isBuy() { return store.isBuy(slot); }
+
+    public UUID getOrderId() {
+        return new UUID(store.orderIdHigh(slot), store.orderIdLow(slot));
+    }
+
+    public UUID getUserId() {
+        return new UUID(store.userIdHigh(slot), store.userIdLow(slot));
+    }
+
+    public LocalDateTime getCreatedAt() {
+        long nanos = store.createdAt(slot);
+        return nanos == OffHeapOrderStore.NO_TIME ? null : LocalDateTime.ofEpochSecond(
+                Math.floorDiv(nanos, 1_000_000_000L), (int) Math.floorMod(nanos, 1_000_000_000L), ZoneOffset.UTC);
+    }
+}
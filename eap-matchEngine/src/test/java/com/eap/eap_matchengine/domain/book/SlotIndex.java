@@ -0,0 +1,118 @@
+package com.eap.eap_matchengine.domain.book;
+
+import java.util.Arrays;
+
+/**
+ * Order id to slot index of an {@link OffHeapOrderStore}: an open-addressing {@code int[]} of slots whose keys
+ * are read back from the records themselves, so the table costs 4 bytes per entry and holds no references.
+ * Probing and deletion work as in {@link OrderIndex}.
+ */
+class SlotIndex {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private final OffHeapOrderStore store;
+    // NIL 表示空槽
+    private int[] slots;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    SlotIndex(OffHeapOrderStore store) {
+        this.store = store;
+        allocate(MIN_CAPACITY);
+    }
+
+    /**
+     * @return the slot of the order, or {@link OffHeapOrderStore#NIL}
+     */
+    int get(long high, long low) {
+        for (int i = hash(high, low); ; i = (i + 1) & mask) {
+            int slot = slots[i];
+            if (slot == OffHeapOrderStore.NIL || matches(slot, high, low)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Indexes a record by the order id stored in it; the id must not be indexed yet.
+     */
+    void put(int slot) {
+        if (size >= resizeAt) {
+            resize(slots.length << 1);
+        }
+        insert(slot);
+        size++;
+    }
+
+    /**
+     * @return the removed slot, or {@link OffHeapOrderStore#NIL}
+     */
+    int remove(long high, long low) {
+        for (int i = hash(high, low); ; i = (i + 1) & mask) {
+            int slot = slots[i];
+            if (slot == OffHeapOrderStore.NIL) {
+                return slot;
+            }
+            if (matches(slot, high, low)) {
+                shiftBack(i);
+                size--;
+                return slot;
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private boolean matches(int slot, long high, long low) {
+        return store.orderIdHigh(slot) == high && store.orderIdLow(slot) == low;
+    }
+
+    private void shiftBack(int hole) {
+        for (int i = (hole + 1) & mask; slots[i] != OffHeapOrderStore.NIL; i = (i + 1) & mask) {
+            int home = home(slots[i]);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                slots[hole] = slots[i];
+                hole = i;
+            }
+        }
+        slots[hole] = OffHeapOrderStore.NIL;
+    }
+
+    private void insert(int slot) {
+        int i = home(slot);
+        while (slots[i] != OffHeapOrderStore.NIL) {
+            i = (i + 1) & mask;
+        }
+        slots[i] = slot;
+    }
+
+    private int home(int slot) {
+        return hash(store.orderIdHigh(slot), store.orderIdLow(slot));
+    }
+
+    private int hash(long high, long low) {
+        long hash = (high ^ Long.rotateLeft(low, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private void resize(int capacity) {
+        int[] old = slots;
+        allocate(capacity);
+        for (int slot : old) {
+            if (slot != OffHeapOrderStore.NIL) {
+                insert(slot);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new int[capacity];
+        Arrays.fill(slots, OffHeapOrderStore.NIL);
+        mask = capacity - 1;
+        resizeAt = capacity - (capacity >>> 2);
+    }
+}
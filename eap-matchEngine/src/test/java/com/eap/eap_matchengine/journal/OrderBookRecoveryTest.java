@@ -0,0 +1,199 @@
+package com.eap.eap_matchengine.journal;
+
+import com.eap.common.constants.TimeInForce;
+import com.eap.eap_matchengine.domain.book.MatchFill;
+import com.eap.eap_matchengine.domain.book.OrderBook;
+import com.eap.eap_matchengine.domain.book.RestingOrder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderBookRecoveryTest {
+
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private MappedJournal journal;
+    private BookSnapshotStore snapshots;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        journal = new MappedJournal(directory, SEGMENT_SIZE);
+        snapshots = new BookSnapshotStore(directory, 2);
+        now = LocalDateTime.of(2025, 1, 1, 0, 0);
+    }
+
+    private RestingOrder order(String symbol, boolean buy, int price, int amount) {
+        now = now.plusNanos(1000);
+        return new RestingOrder(UUID.randomUUID(), UUID.randomUUID(), symbol, price, amount, buy, now);
+    }
+
+    private long create(RestingOrder order) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        JournalCodec.encodeCreate(buffer, order);
+        return journal.append(MappedJournal.CREATE, buffer.flip());
+    }
+
+    private long cancel(String symbol, UUID orderId) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        JournalCodec.encodeCancel(buffer, symbol, orderId);
+        return journal.append(MappedJournal.CANCEL, buffer.flip());
+    }
+
+    @Test
+    void testRecover_WithoutSnapshot_ShouldReplayWholeJournal() throws IOException {
+        // Given
+        RestingOrder maker = order("ELC", false, 100, 10);
+        RestingOrder cancelled = order("ELC", false, 105, 3);
+        RestingOrder other = order("GAS", true, 50, 7);
+        create(maker);
+        create(cancelled);
+        create(other);
+        cancel("ELC", cancelled.getOrderId());
+        create(order("ELC", true, 100, 4));
+        journal.close();
+
+        // When
+        OrderBookRecovery.Result result = OrderBookRecovery.recover(snapshots, new MappedJournal(directory, SEGMENT_SIZE));
+
+        // Then
+        assertFalse(result.isFromSnapshot());
+        assertEquals(5, result.getReplayed());
+        OrderBook elc = result.getBooks().get("ELC");
+        assertEquals(1, elc.size());
+        assertEquals(6, elc.get(maker.getOrderId()).getRemaining());
+        assertNull(elc.get(cancelled.getOrderId()));
+        assertEquals(1, result.getBooks().get("GAS").size());
+        assertTrue(result.isRecovered(cancelled.getOrderId()));
+    }
+
+    @Test
+    void testRecover_ShouldNotRestRemainderOfImmediateOrCancelTaker() throws IOException {
+        RestingOrder maker = order("ELC", false, 100, 4);
+        now = now.plusNanos(1000);
+        RestingOrder ioc = new RestingOrder(UUID.randomUUID(), UUID.randomUUID(), "ELC", 100, 10, true, now,
+                null, TimeInForce.IOC);
+        create(maker);
+        create(ioc);
+        journal.close();
+
+        OrderBookRecovery.Result result = OrderBookRecovery.recover(snapshots, new MappedJournal(directory, SEGMENT_SIZE));
+
+        OrderBook elc = result.getBooks().get("ELC");
+        assertEquals(0, elc.size());
+        assertTrue(result.isRecovered(ioc.getOrderId()));
+    }
+
+    @Test
+    void testRecover_ShouldKeepReplayedFillsOfEachTaker() throws IOException {
+        // Given
+        RestingOrder maker = order("ELC", false, 100, 4);
+        RestingOrder resting = order("ELC", true, 90, 2);
+        RestingOrder taker = order("ELC", true, 101, 6);
+        create(maker);
+        create(resting);
+        create(taker);
+        journal.close();
+
+        // When
+        OrderBookRecovery.Result result = OrderBookRecovery.recover(snapshots, new MappedJournal(directory, SEGMENT_SIZE));
+
+        // Then：重送的 taker 可補發重播得出的成交
+        List<MatchFill> fills = result.getTakerFills().get(taker.getOrderId());
+        assertEquals(1, fills.size());
+        assertEquals(maker.getOrderId(), fills.get(0).getMaker().getOrderId());
+        assertEquals(maker.getUserId(), fills.get(0).getMaker().getUserId());
+        assertEquals(4, fills.get(0).getAmount());
+        assertEquals(100, fills.get(0).getDealPrice());
+        assertTrue(result.getTakerFills().get(resting.getOrderId()).isEmpty());
+    }
+
+    @Test
+    void testRecover_ShouldLoadSnapshotAndReplayOnlyTail() throws IOException {
+        // Given
+        RestingOrder first = order("ELC", false, 100, 5);
+        RestingOrder second = order("ELC", false, 100, 5);
+        OrderBook book = new OrderBook();
+        book.add(first);
+        book.add(second);
+        book.setSequence(create(first));
+        book.setSequence(create(second));
+        long start = journal.lastSequence();
+        snapshots.write(start, List.of(BookSnapshotStore.capture("ELC", start, book)));
+        create(order("ELC", true, 100, 6));
+
+        // When
+        OrderBookRecovery.Result result = OrderBookRecovery.recover(snapshots, journal);
+
+        // Then
+        assertTrue(result.isFromSnapshot());
+        assertEquals(1, result.getReplayed());
+        OrderBook recovered = result.getBooks().get("ELC");
+        assertEquals(1, recovered.size());
+        assertEquals(4, recovered.get(second.getOrderId()).getRemaining());
+        assertEquals(first.getCreatedAt(), result.getTouched().stream()
+                .filter(o -> o.getOrderId().equals(first.getOrderId())).findFirst().orElseThrow().getCreatedAt());
+    }
+
+    @Test
+    void testRecover_ShouldSkipEventsAlreadyInSnapshottedBook() throws IOException {
+        // Given: 快照起點之後、但在複製訂單簿之前已套用的事件
+        long start = journal.lastSequence();
+        RestingOrder order = order("ELC", true, 100, 5);
+        OrderBook book = new OrderBook();
+        book.add(order);
+        long sequence = create(order);
+        book.setSequence(sequence);
+        snapshots.write(start, List.of(BookSnapshotStore.capture("ELC", sequence, book)));
+
+        // When
+        OrderBookRecovery.Result result = OrderBookRecovery.recover(snapshots, journal);
+
+        // Then
+        assertEquals(0, result.getReplayed());
+        assertEquals(1, result.getBooks().get("ELC").size());
+        assertEquals(List.of(), result.getTakerFills().get(order.getOrderId()));
+    }
+
+    @Test
+    void testJournal_ShouldRollSegmentsAndContinueSequenceAfterReopen() throws IOException {
+        // Given
+        for (int i = 0; i < 100; i++) {
+            create(order("ELC", i % 2 == 0, 100 + i, 1));
+        }
+        long last = journal.lastSequence();
+        journal.close();
+        List<Path> segments;
+        try (var files = Files.list(directory)) {
+            segments = files.sorted().toList();
+        }
+        assertTrue(segments.size() > 1);
+
+        // When: 重新開啟後接續序號
+        MappedJournal reopened = new MappedJournal(directory, SEGMENT_SIZE);
+        long[] count = {0};
+        reopened.replay(0, (type, seq, payload) -> count[0]++);
+
+        // Then
+        assertEquals(last, reopened.lastSequence());
+        assertEquals(100, count[0]);
+        assertEquals(last + 1, reopened.append(MappedJournal.FILL, ByteBuffer.wrap(new byte[]{0, 0})));
+        reopened.deleteSegmentsUpTo(last);
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+}
@@ -51,4 +51,13 @@ public interface OrderServiceClient {
      */
     @GetMapping("/mcp/v1/metrics")
     ResponseEntity<MarketMetricsResponse> getMarketMetrics(@RequestParam(defaultValue = "10") int depth);
+
+    /**
+     * 市場衝擊試算（不下單）
+     */
+    @GetMapping("/mcp/v1/quote")
+    ResponseEntity<MarketQuoteDto> getQuote(
+            @RequestParam String side,
+            @RequestParam int qty,
+            @RequestParam(required = false) String symbol);
 }
@@ -2,6 +2,7 @@ package com.eap.mcp.config;
 
 import com.eap.mcp.tools.mcp.MarketMetricsMcpTool;
 import com.eap.mcp.tools.mcp.OrderBookMcpTool;
+import com.eap.mcp.tools.mcp.QuoteMcpTool;
 import com.eap.mcp.tools.mcp.SimulationMcpTool;
 import com.eap.mcp.tools.mcp.TradingMcpTool;
 import com.eap.mcp.tools.mcp.UserManagementMcpTool;
@@ -24,11 +25,12 @@ public class McpToolConfig {
             OrderBookMcpTool orderBook,
             TradingMcpTool trading,
             UserManagementMcpTool userManagement,
-            SimulationMcpTool simulationMcpTool) {
+            SimulationMcpTool simulationMcpTool,
+            QuoteMcpTool quote) {
 
         return MethodToolCallbackProvider
                 .builder()
-                .toolObjects(metrics, orderBook, trading, userManagement, simulationMcpTool)
+                .toolObjects(metrics, orderBook, trading, userManagement, simulationMcpTool, quote)
                 .build();
     }
 }
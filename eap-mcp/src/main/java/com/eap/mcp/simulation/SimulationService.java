@@ -1,6 +1,8 @@
 package com.eap.mcp.simulation;
 
+import com.eap.common.dto.MarketQuoteDto;
 import com.eap.mcp.tools.mcp.MarketMetricsMcpTool;
+import com.eap.mcp.tools.mcp.QuoteMcpTool;
 import com.eap.mcp.tools.mcp.TradingMcpTool;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,6 +17,7 @@ public class SimulationService {
 
     private final MarketMetricsMcpTool metricsTool;
     private final TradingMcpTool tradingTool;
+    private final QuoteMcpTool quoteTool;
     private volatile SimulationResult lastSimulationResult;
 
     public SimulationResult runSimulation(SimulationRequest req) {
@@ -106,7 +109,8 @@ public class SimulationService {
                                         result.getEvents().add("snapshot error:" + e.getMessage());
                                     }
                                 } else {
-                                    result.getEvents().add("simulated BUY: user=" + req.getUserId() + " " + price + "x" + qtyStr);
+                                    result.getEvents().add("simulated BUY: user=" + req.getUserId() + " " + price + "x" + qtyStr
+                                            + describeQuote(quoteTool.quoteMarketImpact("BUY", qty, req.getSymbol())));
                                 }
                             }
 
@@ -126,7 +130,8 @@ public class SimulationService {
                                         result.getEvents().add("snapshot error:" + e.getMessage());
                                     }
                                 } else {
-                                    result.getEvents().add("simulated SELL: user=" + req.getUserId() + " " + price + "x" + qtyStr);
+                                    result.getEvents().add("simulated SELL: user=" + req.getUserId() + " " + price + "x" + qtyStr
+                                            + describeQuote(quoteTool.quoteMarketImpact("SELL", qty, req.getSymbol())));
                                 }
                             }
                         }
@@ -151,6 +156,20 @@ public class SimulationService {
         return lastSimulationResult;
     }
 
+    /**
+     * 試算結果的簡短說明，附在模擬事件後面；不需實際下單即可得知這個數量以市價成交的價格
+     */
+    private String describeQuote(MarketQuoteDto quote) {
+        if (quote != null && quote.getError() != null) {
+            return " quote:error=" + quote.getError();
+        }
+        if (quote == null || quote.getAveragePrice() == null) {
+            return " quote:n/a";
+        }
+        return " quote:vwap=" + quote.getAveragePrice() + " worst=" + quote.getWorstPrice()
+                + " slippage=" + quote.getSlippage() + " filled=" + quote.getFilledAmount() + "/" + quote.getRequestedAmount();
+    }
+
     private BigDecimal selectPrice(BigDecimal topBid, BigDecimal topAsk, String strategy) {
         if ("topBid".equalsIgnoreCase(strategy) || "bid".equalsIgnoreCase(strategy)) {
             return topBid;
@@ -0,0 +1,52 @@
+package com.eap.mcp.tools.mcp;
+
+import com.eap.common.dto.MarketQuoteDto;
+import com.eap.mcp.client.OrderServiceClient;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.tool.annotation.Tool;
+import org.springframework.ai.tool.annotation.ToolParam;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+/**
+ * MCP 市場衝擊試算工具
+ * 使用 Spring AI @Tool 註解；只讀取目前價格層級，不會下單
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuoteMcpTool {
+
+    private final OrderServiceClient orderServiceClient;
+
+    @Tool(name = "quoteMarketImpact", description = "試算以市價買入或賣出指定數量時的逐層成交、成交均價（VWAP）、最差成交價與滑價，不會實際下單")
+    public MarketQuoteDto quoteMarketImpact(
+        @ToolParam(description = "訂單方向：BUY 或 SELL", required = true) String side,
+        @ToolParam(description = "試算數量", required = true) Integer qty,
+        @ToolParam(description = "交易標的代碼", required = false) String symbol
+    ) {
+        try {
+            if (side == null || (!side.equalsIgnoreCase("BUY") && !side.equalsIgnoreCase("SELL"))) {
+                return MarketQuoteDto.failure(symbol, side, qty, "side 參數必須是 'BUY' 或 'SELL'");
+            }
+            if (qty == null || qty <= 0) {
+                return MarketQuoteDto.failure(symbol, side, qty, "qty 必須大於 0");
+            }
+
+            log.info("市場衝擊試算: side={}, qty={}, symbol={}", side, qty, symbol);
+
+            ResponseEntity<MarketQuoteDto> response = orderServiceClient.getQuote(side.toUpperCase(), qty, symbol);
+
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                return response.getBody();
+            } else {
+                return MarketQuoteDto.failure(symbol, side, qty, "無法試算，狀態碼: " + response.getStatusCode().value());
+            }
+
+        } catch (Exception e) {
+            log.error("市場衝擊試算失敗", e);
+            return MarketQuoteDto.failure(symbol, side, qty, "市場衝擊試算失敗: " + e.getMessage());
+        }
+    }
+}
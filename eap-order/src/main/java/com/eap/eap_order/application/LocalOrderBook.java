@@ -0,0 +1,87 @@
+package com.eap.eap_order.application;
+
+import com.eap.common.dto.OrderBookResponseDto;
+import com.eap.common.event.OrderBookDeltaEvent;
+import com.eap.common.orderbook.OrderBookChecksum;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * 以撮合引擎快照為起點、依序套用 L2 增量維護的本地訂單簿（單一標的）
+ * 非執行緒安全，由增量 listener 單執行緒更新
+ */
+class LocalOrderBook {
+
+    enum ApplyResult {
+        /** 已套用且 checksum 相符 */
+        APPLIED,
+        /** 序號不大於目前序號，已包含在本地訂單簿中 */
+        STALE,
+        /** epoch 改變或序號不連續，需重新取得快照 */
+        GAP,
+        /** 套用後 checksum 不符，需重新取得快照 */
+        CHECKSUM_MISMATCH
+    }
+
+    private final NavigableMap<Integer, OrderBookResponseDto.OrderBookLevel> bids = new TreeMap<>(Collections.reverseOrder());
+    private final NavigableMap<Integer, OrderBookResponseDto.OrderBookLevel> asks = new TreeMap<>();
+    private final long epoch;
+    private long sequence;
+
+    LocalOrderBook(OrderBookResponseDto snapshot) {
+        this.epoch = snapshot.getEpoch();
+        this.sequence = snapshot.getSequence();
+        snapshot.getBids().forEach(level -> bids.put(level.getPrice(), level));
+        snapshot.getAsks().forEach(level -> asks.put(level.getPrice(), level));
+    }
+
+    ApplyResult apply(OrderBookDeltaEvent delta, int checksumDepth) {
+        if (delta.getEpoch() != epoch) {
+            return ApplyResult.GAP;
+        }
+        if (delta.getSequence() <= sequence) {
+            return ApplyResult.STALE;
+        }
+        if (delta.getSequence() != sequence + 1) {
+            return ApplyResult.GAP;
+        }
+        for (OrderBookDeltaEvent.LevelChange change : delta.getChanges()) {
+            NavigableMap<Integer, OrderBookResponseDto.OrderBookLevel> side =
+                    "BUY".equalsIgnoreCase(change.getSide()) ? bids : asks;
+            if (change.getAmount() <= 0) {
+                side.remove(change.getPrice());
+            } else {
+                side.put(change.getPrice(), OrderBookResponseDto.OrderBookLevel.builder()
+                        .price(change.getPrice())
+                        .amount(change.getAmount())
+                        .orderCount(change.getOrderCount())
+                        .build());
+            }
+        }
+        sequence = delta.getSequence();
+        long checksum = OrderBookChecksum.compute(top(true, checksumDepth), top(false, checksumDepth), checksumDepth);
+        return checksum == delta.getChecksum() ? ApplyResult.APPLIED : ApplyResult.CHECKSUM_MISMATCH;
+    }
+
+    /**
+     * 某一側最優的 depth 個價格層級
+     */
+    List<OrderBookResponseDto.OrderBookLevel> top(boolean buy, int depth) {
+        List<OrderBookResponseDto.OrderBookLevel> levels = new ArrayList<>(depth);
+        for (OrderBookResponseDto.OrderBookLevel level : (buy ? bids : asks).values()) {
+            if (levels.size() >= depth) {
+                break;
+            }
+            levels.add(level);
+        }
+        return levels;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+}
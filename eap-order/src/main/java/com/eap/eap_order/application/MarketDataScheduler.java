@@ -29,7 +29,7 @@ public class MarketDataScheduler {
     }
     
     /**
-     * 每10分鐘推送一次訂單簿數據
+     * 每10分鐘推送一次訂單簿數據；開啟增量訂閱時推送的是本地訂單簿與其增量序號
      */
     @Scheduled(fixedRate = 10000*60)
     public void pushOrderBookPeriodically() {
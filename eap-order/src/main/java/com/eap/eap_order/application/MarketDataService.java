@@ -1,5 +1,6 @@
 package com.eap.eap_order.application;
 
+import com.eap.common.constants.SymbolConstants;
 import com.eap.common.dto.OrderBookResponseDto;
 import com.eap.eap_order.application.OutBound.EapMatchEngine;
 import com.eap.eap_order.configuration.repository.MathedOrderRepository;
@@ -10,6 +11,7 @@ import com.eap.eap_order.controller.dto.RecentTradesDto;
 import com.eap.eap_order.domain.entity.MatchOrderEntity;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -28,6 +30,8 @@ public class MarketDataService {
     private final SimpMessagingTemplate messagingTemplate;
     private final MathedOrderRepository matchedOrderRepository;
     private final EapMatchEngine eapMatchEngine;
+    // 開啟 eap.market-data.delta-feed-enabled 時才存在
+    private final ObjectProvider<OrderBookDeltaListener> deltaListener;
     
     /**
      * 推送實時成交數據
@@ -140,40 +144,22 @@ public class MarketDataService {
     
     /**
      * 推送訂單簿數據
-     * 從 MatchEngine 獲取實時訂單簿數據並推送
+     * 從 MatchEngine 獲取實時訂單簿數據並推送；開啟增量訂閱時改由本地訂單簿推送，
+     * 版本號與增量推送一致為增量序號，不會以較舊的完整訂單簿覆蓋已套用增量的訂單簿
      */
     public void pushOrderBook() {
+        OrderBookDeltaListener listener = deltaListener.getIfAvailable();
+        if (listener != null) {
+            listener.pushLatest(SymbolConstants.DEFAULT_SYMBOL);
+            return;
+        }
         try {
             // 從 MatchEngine 獲取訂單簿數據
             OrderBookResponseDto orderBookResponse = eapMatchEngine.getOrderBook(10).getBody();
             
             if (orderBookResponse != null) {
-                // 轉換為 WebSocket 推送格式
-                List<OrderBookDto.OrderBookLevel> bids = orderBookResponse.getBids().stream()
-                        .map(level -> OrderBookDto.OrderBookLevel.builder()
-                                .price(level.getPrice())
-                                .amount(level.getAmount())
-                                .orderCount(level.getOrderCount())
-                                .build())
-                        .toList();
-                
-                List<OrderBookDto.OrderBookLevel> asks = orderBookResponse.getAsks().stream()
-                        .map(level -> OrderBookDto.OrderBookLevel.builder()
-                                .price(level.getPrice())
-                                .amount(level.getAmount())
-                                .orderCount(level.getOrderCount())
-                                .build())
-                        .toList();
-                
-                OrderBookDto orderBook = OrderBookDto.builder()
-                        .bids(bids)
-                        .asks(asks)
-                        .version(System.currentTimeMillis())
-                        .build();
-                
-                // 推送到所有訂閱訂單簿的客戶端
-                messagingTemplate.convertAndSend("/topic/orderbook", orderBook);
-                log.info("推送訂單簿數據，買盤層數: {}, 賣盤層數: {}", bids.size(), asks.size());
+                pushOrderBook(SymbolConstants.DEFAULT_SYMBOL, orderBookResponse.getBids(), orderBookResponse.getAsks(),
+                        System.currentTimeMillis());
             } else {
                 log.warn("無法獲取訂單簿數據，跳過推送");
             }
@@ -183,6 +169,36 @@ public class MarketDataService {
         }
     }
     
+    /**
+     * 推送指定標的的訂單簿數據
+     * 預設標的沿用 /topic/orderbook，其他標的推送到 /topic/orderbook/{symbol}
+     *
+     * @param version 訂單簿版本，增量訂閱時為已套用的增量序號
+     */
+    public void pushOrderBook(String symbol, List<OrderBookResponseDto.OrderBookLevel> bids,
+                              List<OrderBookResponseDto.OrderBookLevel> asks, long version) {
+        OrderBookDto orderBook = OrderBookDto.builder()
+                .bids(toLevels(bids))
+                .asks(toLevels(asks))
+                .version(version)
+                .build();
+
+        // 推送到所有訂閱訂單簿的客戶端
+        String destination = SymbolConstants.DEFAULT_SYMBOL.equals(symbol) ? "/topic/orderbook" : "/topic/orderbook/" + symbol;
+        messagingTemplate.convertAndSend(destination, orderBook);
+        log.debug("推送訂單簿數據 {}，買盤層數: {}, 賣盤層數: {}", symbol, bids.size(), asks.size());
+    }
+
+    private List<OrderBookDto.OrderBookLevel> toLevels(List<OrderBookResponseDto.OrderBookLevel> levels) {
+        return levels.stream()
+                .map(level -> OrderBookDto.OrderBookLevel.builder()
+                        .price(level.getPrice())
+                        .amount(level.getAmount())
+                        .orderCount(level.getOrderCount())
+                        .build())
+                .toList();
+    }
+
     /**
      * 定期推送市場數據 (可以配合定時任務使用)
      */
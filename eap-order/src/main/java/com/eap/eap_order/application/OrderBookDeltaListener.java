@@ -0,0 +1,117 @@
+package com.eap.eap_order.application;
+
+import com.eap.common.dto.OrderBookResponseDto;
+import com.eap.common.event.OrderBookDeltaEvent;
+import com.eap.eap_order.application.OutBound.EapMatchEngine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 訂單簿增量 listener
+ * 以撮合引擎快照加上依序套用的 L2 增量維護各標的的本地訂單簿，每次套用後即推送到 WebSocket，
+ * 取代定時向撮合引擎拉取完整訂單簿。遇到 epoch 改變、序號缺口或 checksum 不符時重新取得快照，
+ * 快照與增量仍對不上時不推送。定時推送與新訂閱也由本地訂單簿推送（{@link #pushLatest}），
+ * 所有推送的版本號都是增量序號；本地訂單簿的更新與推送以此物件為鎖循序進行。
+ */
+@Component
+@ConditionalOnProperty(prefix = "eap.market-data", name = "delta-feed-enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class OrderBookDeltaListener {
+
+    private static final int PUSH_DEPTH = 10;
+    private static final int RESYNC_ATTEMPTS = 2;
+
+    private final EapMatchEngine eapMatchEngine;
+    private final MarketDataService marketDataService;
+    private final Map<String, LocalOrderBook> books = new ConcurrentHashMap<>();
+
+    @Value("${eap.market-data.snapshot-depth:200}")
+    private int snapshotDepth;
+
+    @Value("${eap.market-data.checksum-depth:10}")
+    private int checksumDepth;
+
+    @RabbitListener(queues = "#{orderBookDeltaQueue.name}")
+    public synchronized void handleDelta(OrderBookDeltaEvent delta) {
+        String symbol = delta.getSymbol();
+        LocalOrderBook book = books.get(symbol);
+        LocalOrderBook.ApplyResult result = book == null ? LocalOrderBook.ApplyResult.GAP : book.apply(delta, checksumDepth);
+        if (result == LocalOrderBook.ApplyResult.STALE) {
+            return;
+        }
+        if (result != LocalOrderBook.ApplyResult.APPLIED) {
+            if (book != null) {
+                log.warn("訂單簿增量 {}，重新取得快照: symbol={}, sequence={}, local={}",
+                        result, symbol, delta.getSequence(), book.getSequence());
+            }
+            book = resyncAndApply(symbol, delta);
+            if (book == null) {
+                return;
+            }
+        }
+        push(symbol, book);
+    }
+
+    /**
+     * 推送本地訂單簿目前的內容與其增量序號；尚未同步的標的先取得快照，取得失敗時不推送
+     */
+    public synchronized void pushLatest(String symbol) {
+        LocalOrderBook book = books.get(symbol);
+        if (book == null) {
+            book = resync(symbol);
+        }
+        if (book != null) {
+            push(symbol, book);
+        }
+    }
+
+    private void push(String symbol, LocalOrderBook book) {
+        marketDataService.pushOrderBook(symbol, book.top(true, PUSH_DEPTH), book.top(false, PUSH_DEPTH), book.getSequence());
+    }
+
+    /**
+     * 重新取得快照後套用本筆增量；快照可能早於本筆增量（APPLIED）或已包含本筆增量（STALE），
+     * 其餘結果表示快照與增量對不上，重試後仍失敗則丟棄本地訂單簿，等下一筆增量再重新同步
+     */
+    private LocalOrderBook resyncAndApply(String symbol, OrderBookDeltaEvent delta) {
+        LocalOrderBook.ApplyResult result = null;
+        for (int attempt = 0; attempt < RESYNC_ATTEMPTS; attempt++) {
+            LocalOrderBook book = resync(symbol);
+            if (book == null) {
+                return null;
+            }
+            result = book.apply(delta, checksumDepth);
+            if (result == LocalOrderBook.ApplyResult.APPLIED || result == LocalOrderBook.ApplyResult.STALE) {
+                return book;
+            }
+        }
+        log.warn("重新同步後增量仍為 {}，丟棄本地訂單簿: symbol={}, sequence={}", result, symbol, delta.getSequence());
+        books.remove(symbol);
+        return null;
+    }
+
+    private LocalOrderBook resync(String symbol) {
+        try {
+            OrderBookResponseDto snapshot = eapMatchEngine.getOrderBookSnapshot(snapshotDepth, symbol).getBody();
+            if (snapshot == null || snapshot.getSequence() == null) {
+                books.remove(symbol);
+                return null;
+            }
+            LocalOrderBook book = new LocalOrderBook(snapshot);
+            books.put(symbol, book);
+            return book;
+        } catch (Exception e) {
+            log.error("取得訂單簿快照失敗: symbol={}", symbol, e);
+            books.remove(symbol);
+            return null;
+        }
+    }
+}
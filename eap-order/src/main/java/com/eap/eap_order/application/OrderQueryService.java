@@ -9,6 +9,7 @@ import java.util.stream.Collectors;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import com.eap.common.dto.UserOrderPageDto;
 import com.eap.common.event.OrderCreatedEvent;
 import com.eap.eap_order.application.OutBound.EapMatchEngine;
 import com.eap.eap_order.configuration.repository.MathedOrderRepository;
@@ -76,6 +77,37 @@ public class OrderQueryService {
         }
     }
 
+    /**
+     * 分頁查詢用戶的待處理訂單（從 Redis），掛單很多的用戶不會一次拉回整份清單
+     * @param userId 用戶ID
+     * @param cursor 上一頁回傳的 nextCursor（第一頁為 null）
+     * @param limit 每頁筆數
+     * @return 本頁待處理訂單與下一頁游標
+     */
+    public ListUserOrderRes getUserPendingOrderPage(String userId, String cursor, int limit) {
+        try {
+            UserOrderPageDto page = eapMatchEngine.queryOrderPage(userId, cursor, limit).getBody();
+
+            if (page == null || page.getOrders() == null) {
+                return ListUserOrderRes.builder()
+                    .userOrders(List.of())
+                    .build();
+            }
+
+            return ListUserOrderRes.builder()
+                .userOrders(page.getOrders().stream()
+                    .map(this::convertPendingOrderToUserOrder)
+                    .collect(Collectors.toList()))
+                .nextCursor(page.getNextCursor())
+                .build();
+
+        } catch (Exception e) {
+            return ListUserOrderRes.builder()
+                .userOrders(List.of())
+                .build();
+        }
+    }
+
     /**
      * 只查詢用戶的已成交訂單（從 SQL）
      * @param userId 用戶ID
@@ -2,15 +2,22 @@ package com.eap.eap_order.application.OutBound;
 
 import com.eap.common.event.OrderCancelEvent;
 import com.eap.common.event.OrderCreatedEvent;
+import com.eap.common.event.OrderMassCancelEvent;
+import com.eap.common.dto.MarketQuoteDto;
 import com.eap.common.dto.OrderBookResponseDto;
 import com.eap.common.dto.MarketSummaryDto;
+import com.eap.common.dto.UserOrderPageDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.util.List;
+import java.util.UUID;
 
 @FeignClient(name = "eap-matchEngine", url = "${eap.matchEngine.base-url}")
 public interface EapMatchEngine {
@@ -18,8 +25,28 @@ public interface EapMatchEngine {
     @DeleteMapping("/v1/order/cancel")
     public boolean cancelOrder(OrderCancelEvent event);
 
-    @GetMapping("/v1/order/query")
-    public ResponseEntity<List<OrderCreatedEvent>> queryOrder(@RequestParam("userId") String userId);
+    /**
+     * 批次取消某用戶的掛單
+     * @param event 批次取消條件（userId 必填，標的、方向、價格區間可選）
+     * @return 已取消的訂單 ID
+     */
+    @PostMapping("/v1/order/cancel/mass")
+    public List<UUID> massCancelOrders(@RequestBody OrderMassCancelEvent event);
+
+    @GetMapping("/v1/order/query/{userId}")
+    public ResponseEntity<List<OrderCreatedEvent>> queryOrder(@PathVariable("userId") String userId);
+
+    /**
+     * 分頁查詢用戶掛單，依 orderId 排序
+     * @param userId 用戶ID
+     * @param cursor 上一頁回傳的 nextCursor（第一頁為 null）
+     * @param limit 每頁筆數（最多 500）
+     * @return 本頁掛單與下一頁游標
+     */
+    @GetMapping("/v1/order/query/{userId}/page")
+    public ResponseEntity<UserOrderPageDto> queryOrderPage(@PathVariable("userId") String userId,
+                                                           @RequestParam(value = "cursor", required = false) String cursor,
+                                                           @RequestParam("limit") int limit);
     
     /**
      * 獲取訂單簿數據
@@ -28,7 +55,29 @@ public interface EapMatchEngine {
      */
     @GetMapping("/v1/order/orderbook")
     public ResponseEntity<OrderBookResponseDto> getOrderBook(@RequestParam(value = "depth", defaultValue = "10") int depth);
+
+    /**
+     * 獲取訂單簿快照，附帶對應的增量序號、epoch 與 checksum
+     * @param depth 深度
+     * @param symbol 交易標的
+     * @return 訂單簿快照
+     */
+    @GetMapping("/v1/order/orderbook/snapshot")
+    public ResponseEntity<OrderBookResponseDto> getOrderBookSnapshot(@RequestParam("depth") int depth,
+                                                                     @RequestParam("symbol") String symbol);
     
+    /**
+     * 市場衝擊試算，不異動訂單簿
+     * @param side 方向（BUY / SELL）
+     * @param amount 數量
+     * @param symbol 交易標的（可為 null，默認 ELC）
+     * @return 逐層成交、均價、最差價與滑價
+     */
+    @GetMapping("/v1/order/quote")
+    public ResponseEntity<MarketQuoteDto> getQuote(@RequestParam("side") String side,
+                                                   @RequestParam("amount") int amount,
+                                                   @RequestParam(value = "symbol", required = false) String symbol);
+
     /**
      * 獲取市場簡要統計
      * @return 最佳買賣價等基本信息
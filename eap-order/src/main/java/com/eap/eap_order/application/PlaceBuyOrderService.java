@@ -3,6 +3,8 @@ package com.eap.eap_order.application;
 // ...existing code...
 import com.eap.eap_order.controller.dto.req.PlaceBuyOrderReq;
 import com.eap.eap_order.domain.entity.Order.OrderType;
+import com.eap.common.constants.SymbolConstants;
+import com.eap.common.constants.TimeInForce;
 import com.eap.common.event.OrderCreateEvent;
 
 import lombok.extern.slf4j.Slf4j;
@@ -32,7 +34,10 @@ public class PlaceBuyOrderService {
                 .price(request.getBidPrice())
                 .amount(request.getAmount())
                 .orderType(OrderType.BUY.name())
+                .symbol(SymbolConstants.normalize(request.getSymbol()))
                 .createdAt(LocalDateTime.now())
+                .expireAt(request.getExpireAt())
+                .timeInForce(TimeInForce.of(request.getTimeInForce()).name())
                 .build();
         log.info("Creating buy order: {}", event);
 
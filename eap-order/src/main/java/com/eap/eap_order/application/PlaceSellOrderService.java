@@ -3,6 +3,8 @@ package com.eap.eap_order.application;
 // ...existing code...
 import com.eap.eap_order.controller.dto.req.PlaceSellOrderReq;
 import com.eap.eap_order.domain.entity.Order.OrderType;
+import com.eap.common.constants.SymbolConstants;
+import com.eap.common.constants.TimeInForce;
 import com.eap.common.event.OrderCreateEvent;
 
 import java.time.LocalDateTime;
@@ -31,7 +33,10 @@ public class PlaceSellOrderService {
                         .price(request.getSellPrice())
                         .amount(request.getAmount())
                         .orderType(OrderType.SELL.name())
+                        .symbol(SymbolConstants.normalize(request.getSymbol()))
                         .createdAt(LocalDateTime.now())
+                        .expireAt(request.getExpireAt())
+                        .timeInForce(TimeInForce.of(request.getTimeInForce()).name())
                         .build();
         log.info("Creating sell order: {}", event);
 
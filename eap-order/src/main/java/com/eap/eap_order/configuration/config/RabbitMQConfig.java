@@ -1,5 +1,7 @@
 package com.eap.eap_order.configuration.config;
 
+import com.eap.common.codec.EventMessageConverter;
+import org.springframework.amqp.core.AnonymousQueue;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
@@ -7,6 +9,8 @@ import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import static com.eap.common.constants.RabbitMQConstants.*;
@@ -14,9 +18,12 @@ import static com.eap.common.constants.RabbitMQConstants.*;
 @Configuration
 public class RabbitMQConfig {
 
+  /**
+   * 依 content-type 解碼 JSON 或二進位事件，發送時依 eap.messaging.binary-events 決定格式
+   */
   @Bean
-  public MessageConverter jsonMessageConverter() {
-    return new Jackson2JsonMessageConverter();
+  public MessageConverter jsonMessageConverter(@Value("${eap.messaging.binary-events:false}") boolean binaryEvents) {
+    return new EventMessageConverter(new Jackson2JsonMessageConverter(), binaryEvents);
   }
 
   @Bean
@@ -65,4 +72,20 @@ public class RabbitMQConfig {
   public Binding failedBinding(@Qualifier("orderFailedQueue") Queue orderFailedQueue, TopicExchange orderExchange) {
     return BindingBuilder.bind(orderFailedQueue).to(orderExchange).with(ORDER_FAILED_KEY);
   }
+
+  /**
+   * 訂單簿增量佇列：每個實例各自一個非持久的匿名佇列，各自維護本地訂單簿
+   */
+  @Bean
+  @ConditionalOnProperty(prefix = "eap.market-data", name = "delta-feed-enabled", havingValue = "true")
+  public Queue orderBookDeltaQueue() {
+    return new AnonymousQueue();
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "eap.market-data", name = "delta-feed-enabled", havingValue = "true")
+  public Binding orderBookDeltaBinding(@Qualifier("orderBookDeltaQueue") Queue orderBookDeltaQueue,
+      TopicExchange orderExchange) {
+    return BindingBuilder.bind(orderBookDeltaQueue).to(orderExchange).with(ORDERBOOK_DELTA_KEY);
+  }
 }
@@ -18,6 +18,7 @@ import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
@@ -75,6 +76,9 @@ public class McpApiController {
                     .bidPrice(request.getPriceAsInt())
                     .amount(request.getQtyAsInt())
                     .bidder(UUID.fromString(request.getUserId()))
+                    .symbol(request.getSymbol())
+                    .expireAt(request.getExpireAt())
+                    .timeInForce(request.getEffectiveTimeInForce())
                     .build();
                 orderId = placeBuyOrderService.execute(buyReq);
             } else if (request.isSell()) {
@@ -82,6 +86,9 @@ public class McpApiController {
                 sellReq.setSellPrice(request.getPriceAsInt());
                 sellReq.setAmount(request.getQtyAsInt());
                 sellReq.setSeller(UUID.fromString(request.getUserId()));
+                sellReq.setSymbol(request.getSymbol());
+                sellReq.setExpireAt(request.getExpireAt());
+                sellReq.setTimeInForce(request.getEffectiveTimeInForce());
                 orderId = placeSellOrderService.placeSellOrder(sellReq);
             } else {
                 return ResponseEntity.badRequest().body(
@@ -260,6 +267,35 @@ public class McpApiController {
         }
     }
 
+    @Operation(summary = "市場衝擊試算", description = "試算指定方向與數量以市價成交的均價、最差價與滑價，不會下單")
+    @ApiResponse(responseCode = "200", description = "試算成功")
+    @GetMapping("/quote")
+    public ResponseEntity<MarketQuoteDto> getQuote(
+            @Parameter(description = "方向 BUY / SELL") @RequestParam String side,
+            @Parameter(description = "數量") @RequestParam int qty,
+            @Parameter(description = "交易標的", required = false) @RequestParam(required = false) String symbol) {
+
+        log.info("收到 MCP 市場衝擊試算請求: side={}, qty={}, symbol={}", side, qty, symbol);
+
+        if ((!"BUY".equalsIgnoreCase(side) && !"SELL".equalsIgnoreCase(side)) || qty <= 0) {
+            return ResponseEntity.badRequest().body(
+                MarketQuoteDto.failure(symbol, side, qty, "side 必須為 BUY 或 SELL，qty 必須大於 0"));
+        }
+        try {
+            ResponseEntity<MarketQuoteDto> quote = eapMatchEngine.getQuote(side.toUpperCase(), qty, symbol);
+            if (quote.getStatusCode().is2xxSuccessful() && quote.getBody() != null) {
+                return ResponseEntity.ok(quote.getBody());
+            }
+            return ResponseEntity.badRequest().body(
+                MarketQuoteDto.failure(symbol, side, qty, "試算失敗，狀態碼: " + quote.getStatusCode().value()));
+        } catch (Exception e) {
+            // 撮合引擎無法讀取訂單簿（503）或無法連線：回報為服務錯誤，而不是參數錯誤；例外內容只記錄在伺服器端
+            log.error("市場衝擊試算失敗", e);
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(
+                MarketQuoteDto.failure(symbol, side, qty, "試算失敗: Order book unavailable"));
+        }
+    }
+
     /**
      * 健康檢查
      * GET /mcp/v1/health
@@ -109,6 +109,25 @@ public class OrderController {
         return ResponseEntity.ok(response);
     }
 
+    @Operation(operationId = "get-user-orders-pending-page", summary = "分頁查詢平台上的訂單", description = "依游標分頁取得用戶待處理的訂單，回傳 nextCursor 供下一頁使用")
+    @ApiResponse(responseCode = "200", description = "查詢成功")
+    @ApiResponse(responseCode = "400", description = "請求錯誤")
+    @GetMapping("/user-orders/pending/page")
+    public ResponseEntity<ListUserOrderRes> getUserOrdersPendingPage(
+            @Parameter(description = "驗證用戶登入") @RequestHeader(value = "ID_TOKEN", required = false) String idToken,
+            @Parameter(description = "交易編號") @RequestHeader(value = "txnSeq", required = false) String txnSeq,
+            @Parameter(description = "上一頁回傳的 nextCursor") @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "每頁筆數（1 - 500）") @RequestParam(value = "limit", defaultValue = "100") int limit) {
+
+        log.info("分頁查詢用戶待處理訂單，idToken: {}, txnSeq: {}, cursor: {}, limit: {}", idToken, txnSeq, cursor, limit);
+
+        if (limit <= 0 || limit > 500) {
+            return ResponseEntity.badRequest().build();
+        }
+        ListUserOrderRes response = orderQueryService.getUserPendingOrderPage(idToken, cursor, limit);
+        return ResponseEntity.ok(response);
+    }
+
     @Operation(operationId = "get-user-orders-matched", summary = "查詢已成交訂單", description = "取得用戶已成交的訂單")
     @ApiResponse(responseCode = "200", description = "查詢成功")
     @ApiResponse(responseCode = "400", description = "請求錯誤")
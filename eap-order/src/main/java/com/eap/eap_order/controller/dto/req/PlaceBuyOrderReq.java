@@ -1,8 +1,10 @@
 package com.eap.eap_order.controller.dto.req;
 
+import java.time.LocalDateTime;
 import java.util.UUID;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
 import lombok.Builder;
 import lombok.Data;
 
@@ -13,4 +15,10 @@ public class PlaceBuyOrderReq {
   @NotNull private Integer bidPrice;
   @NotNull private Integer amount;
   @NotNull private UUID bidder;
+  private String symbol;
+  private LocalDateTime expireAt; // 有效期限（GTT），未指定則掛到成交或取消為止
+
+  // GTC（預設）/ IOC / FOK / MARKET，非 GTC 的訂單未成交部分不入簿並解除鎖定；市價買單仍以 bidPrice 為上限
+  @Pattern(regexp = "(?i)GTC|IOC|FOK|MARKET")
+  private String timeInForce;
 }
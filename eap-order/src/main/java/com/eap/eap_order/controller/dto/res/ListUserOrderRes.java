@@ -10,6 +10,11 @@ import lombok.Data;
 public class ListUserOrderRes {
     private List<UserOrder> userOrders;
 
+    /**
+     * 分頁查詢時下一頁的游標，已是最後一頁或未分頁時為 null
+     */
+    private String nextCursor;
+
     @Data
     @Builder
     public static class UserOrder {
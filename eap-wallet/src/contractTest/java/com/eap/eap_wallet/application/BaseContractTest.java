@@ -7,6 +7,8 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.mockito.Mockito;
+import org.mockito.stubbing.Answer;
+import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -66,24 +68,33 @@ public class BaseContractTest {
     Mockito.when(walletRepository.findByUserId(testUserId)).thenReturn(wallet);
 
     // 捕獲 RabbitTemplate 的發送操作並轉發到測試 channel
-    Mockito.doAnswer(
-            invocation -> {
-              String exchange = invocation.getArgument(0);
-              String routingKey = invocation.getArgument(1);
-              Object message = invocation.getArgument(2);
+    Answer<Object> forwardToChannel =
+        invocation -> {
+          String exchange = invocation.getArgument(0);
+          String routingKey = invocation.getArgument(1);
+          Object message = invocation.getArgument(2);
 
-              if ("order.exchange".equals(exchange)) {
-                org.springframework.messaging.Message<?> msg =
-                    org.springframework.messaging.support.MessageBuilder.withPayload(message)
-                        .setHeader("rabbitmq_routingKey", routingKey)
-                        .build();
-                orderExchange.send(msg);
-              }
-              return null;
-            })
+          if ("order.exchange".equals(exchange)) {
+            org.springframework.messaging.Message<?> msg =
+                org.springframework.messaging.support.MessageBuilder.withPayload(message)
+                    .setHeader("rabbitmq_routingKey", routingKey)
+                    .build();
+            orderExchange.send(msg);
+          }
+          return null;
+        };
+    Mockito.doAnswer(forwardToChannel)
         .when(rabbitTemplate)
         .convertAndSend(
             Mockito.any(String.class), Mockito.any(String.class), Mockito.any(Object.class));
+    // order.created 以 MessagePostProcessor 附上標的 header
+    Mockito.doAnswer(forwardToChannel)
+        .when(rabbitTemplate)
+        .convertAndSend(
+            Mockito.any(String.class),
+            Mockito.any(String.class),
+            Mockito.any(Object.class),
+            Mockito.any(MessagePostProcessor.class));
   }
 
   public void processOrderCreate() { // 改名符合 contract 中的 triggeredBy
@@ -7,6 +7,7 @@ import org.springframework.stereotype.Component;
 
 import com.eap.eap_wallet.configuration.repository.WalletRepository;
 import com.eap.eap_wallet.domain.entity.WalletEntity;
+import com.eap.common.constants.SymbolConstants;
 import com.eap.common.event.OrderCreateEvent;
 import com.eap.common.event.OrderCreatedEvent;
 import com.eap.common.event.OrderFailedEvent;
@@ -50,9 +51,16 @@ public class CreateOrderListener {
                 .price(event.getPrice())
                 .amount(event.getAmount())
                 .orderType(event.getOrderType())
+                .symbol(SymbolConstants.normalize(event.getSymbol()))
                 .createdAt(event.getCreatedAt())
+                .expireAt(event.getExpireAt())
+                .timeInForce(event.getTimeInForce())
                 .build();
-        rabbitTemplate.convertAndSend(ORDER_EXCHANGE, ORDER_CREATED_KEY, orderCreatedEvent);
+        // 標的放在 header，撮合引擎開啟分區時由 consistent-hash exchange 依此分配分區
+        rabbitTemplate.convertAndSend(ORDER_EXCHANGE, ORDER_CREATED_KEY, orderCreatedEvent, message -> {
+            message.getMessageProperties().setHeader(SYMBOL_HEADER, orderCreatedEvent.getSymbol());
+            return message;
+        });
 
     }
 
@@ -0,0 +1,67 @@
+package com.eap.eap_wallet.application;
+
+import com.eap.common.event.OrderReleasedEvent;
+import com.eap.eap_wallet.configuration.repository.OrderReleaseRepository;
+import com.eap.eap_wallet.configuration.repository.WalletRepository;
+import com.eap.eap_wallet.domain.entity.OrderReleaseEntity;
+import com.eap.eap_wallet.domain.entity.WalletEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+import static com.eap.common.constants.RabbitMQConstants.WALLET_RELEASED_QUEUE;
+
+/**
+ * 掛單未成交部分被移除（例如到期）時，解除下單時鎖定的資產
+ * 事件至少送達一次，以 (orderId, reason) 記錄已處理的事件，與錢包更新同一交易提交；
+ * 重送的事件直接略過，同時送達的重複事件由唯一鍵擋下後回滾重送，再次處理時即被略過。
+ */
+@Component
+@Slf4j
+public class OrderReleasedListener {
+
+    @Autowired
+    WalletRepository walletRepository;
+
+    @Autowired
+    OrderReleaseRepository orderReleaseRepository;
+
+    @RabbitListener(queues = WALLET_RELEASED_QUEUE)
+    @Transactional
+    public void handleOrderReleased(OrderReleasedEvent event) {
+        if (orderReleaseRepository.existsByOrderIdAndReason(event.getOrderId(), event.getReason())) {
+            log.info("訂單已解除鎖定，略過重送的事件: orderId={}, reason={}", event.getOrderId(), event.getReason());
+            return;
+        }
+
+        WalletEntity wallet = walletRepository.findByUserId(event.getUserId());
+        if (wallet == null) {
+            log.warn("找不到使用者錢包，無法解除鎖定: userId={}, orderId={}", event.getUserId(), event.getOrderId());
+            return;
+        }
+
+        if ("BUY".equalsIgnoreCase(event.getOrderType())) {
+            // 買單：以掛單價解鎖剩餘數量對應的貨幣
+            int unlockCurrency = event.getPrice() * event.getAmount();
+            wallet.setLockedCurrency(wallet.getLockedCurrency() - unlockCurrency);
+            wallet.setAvailableCurrency(wallet.getAvailableCurrency() + unlockCurrency);
+        } else {
+            // 賣單：解鎖剩餘電量
+            wallet.setLockedAmount(wallet.getLockedAmount() - event.getAmount());
+            wallet.setAvailableAmount(wallet.getAvailableAmount() + event.getAmount());
+        }
+        orderReleaseRepository.saveAndFlush(OrderReleaseEntity.builder()
+                .orderId(event.getOrderId())
+                .reason(event.getReason())
+                .userId(event.getUserId())
+                .releasedAt(LocalDateTime.now())
+                .build());
+        walletRepository.save(wallet);
+
+        log.info("🔓 資產解除鎖定完成，用戶: {}, 訂單: {}, 原因: {}", event.getUserId(), event.getOrderId(), event.getReason());
+    }
+}
@@ -1,5 +1,6 @@
 package com.eap.eap_wallet.configuration.config;
 
+import com.eap.common.codec.EventMessageConverter;
 import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
@@ -7,6 +8,7 @@ import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import static com.eap.common.constants.RabbitMQConstants.*;
@@ -14,9 +16,12 @@ import static com.eap.common.constants.RabbitMQConstants.*;
 @Configuration
 public class RabbitMQConfig {
 
+  /**
+   * 依 content-type 解碼 JSON 或二進位事件，發送時依 eap.messaging.binary-events 決定格式
+   */
   @Bean
-  public MessageConverter jsonMessageConverter() {
-    return new Jackson2JsonMessageConverter();
+  public MessageConverter jsonMessageConverter(@Value("${eap.messaging.binary-events:false}") boolean binaryEvents) {
+    return new EventMessageConverter(new Jackson2JsonMessageConverter(), binaryEvents);
   }
 
   @Bean
@@ -39,6 +44,11 @@ public class RabbitMQConfig {
     return new Queue(WALLET_MATCHED_QUEUE);
   }
 
+  @Bean
+  public Queue orderReleasedQueue() {
+    return new Queue(WALLET_RELEASED_QUEUE);
+  }
+
   @Bean
   public Binding orderCreateBinding(@Qualifier("orderCreateQueue") Queue orderCreateQueue,
       TopicExchange orderExchange) {
@@ -54,4 +64,9 @@ public class RabbitMQConfig {
   public Binding matchedBinding(@Qualifier("orderMatchedQueue") Queue orderMatchedQueue, TopicExchange orderExchange) {
     return BindingBuilder.bind(orderMatchedQueue).to(orderExchange).with(ORDER_MATCHED_KEY);
   }
+
+  @Bean
+  public Binding releasedBinding(@Qualifier("orderReleasedQueue") Queue orderReleasedQueue, TopicExchange orderExchange) {
+    return BindingBuilder.bind(orderReleasedQueue).to(orderExchange).with(ORDER_RELEASED_KEY);
+  }
 }
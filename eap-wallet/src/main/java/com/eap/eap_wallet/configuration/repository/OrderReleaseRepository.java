@@ -0,0 +1,12 @@
+package com.eap.eap_wallet.configuration.repository;
+
+import java.util.UUID;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.eap.eap_wallet.domain.entity.OrderReleaseEntity;
+
+public interface OrderReleaseRepository extends JpaRepository<OrderReleaseEntity, Long> {
+
+    boolean existsByOrderIdAndReason(UUID orderId, String reason);
+}
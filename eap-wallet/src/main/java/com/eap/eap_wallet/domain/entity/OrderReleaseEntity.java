@@ -0,0 +1,40 @@
+package com.eap.eap_wallet.domain.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 已處理的 order.released 事件；(order_id, reason) 唯一，重送的事件不會重複解除鎖定
+ */
+@Entity
+@Table(name = "order_releases", schema = "wallet_service",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"order_id", "reason"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderReleaseEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "order_id", nullable = false)
+    private UUID orderId;
+
+    @Column(name = "reason", nullable = false)
+    private String reason;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "released_at", nullable = false)
+    private LocalDateTime releasedAt;
+}
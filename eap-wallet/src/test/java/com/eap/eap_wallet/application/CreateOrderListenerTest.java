@@ -12,6 +12,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
 import java.time.LocalDateTime;
@@ -73,7 +74,8 @@ class CreateOrderListenerTest {
 
         // Then
         ArgumentCaptor<OrderCreatedEvent> eventCaptor = ArgumentCaptor.forClass(OrderCreatedEvent.class);
-        verify(rabbitTemplate).convertAndSend(eq("order.exchange"), eq("order.created"), eventCaptor.capture());
+        verify(rabbitTemplate).convertAndSend(eq("order.exchange"), eq("order.created"), eventCaptor.capture(),
+                any(MessagePostProcessor.class));
 
         OrderCreatedEvent capturedEvent = eventCaptor.getValue();
         assertEquals(testOrderId, capturedEvent.getOrderId());
@@ -82,6 +84,7 @@ class CreateOrderListenerTest {
         assertEquals(50, capturedEvent.getAmount());
         assertEquals("BUY", capturedEvent.getOrderType());
         assertEquals(testCreatedAt, capturedEvent.getCreatedAt());
+        assertEquals("ELC", capturedEvent.getSymbol());
     }
 
     @Test
@@ -124,7 +127,8 @@ class CreateOrderListenerTest {
         assertNotNull(capturedFailedEvent.getFailedAt());
 
         // 驗證沒有發送 OrderCreatedEvent
-        verify(rabbitTemplate, never()).convertAndSend(anyString(), eq("order.created"), any(OrderCreatedEvent.class));
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), eq("order.created"), any(OrderCreatedEvent.class),
+                any(MessagePostProcessor.class));
         
         // 驗證沒有保存錢包（因為沒有鎖定資產）
         verify(walletRepository, never()).save(any(WalletEntity.class));
@@ -170,7 +174,8 @@ class CreateOrderListenerTest {
         assertNotNull(capturedFailedEvent.getFailedAt());
 
         // 驗證沒有發送 OrderCreatedEvent
-        verify(rabbitTemplate, never()).convertAndSend(anyString(), eq("order.created"), any(OrderCreatedEvent.class));
+        verify(rabbitTemplate, never()).convertAndSend(anyString(), eq("order.created"), any(OrderCreatedEvent.class),
+                any(MessagePostProcessor.class));
         
         // 驗證沒有保存錢包（因為沒有鎖定資產）
         verify(walletRepository, never()).save(any(WalletEntity.class));
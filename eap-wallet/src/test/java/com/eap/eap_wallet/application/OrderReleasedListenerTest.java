@@ -0,0 +1,123 @@
+package com.eap.eap_wallet.application;
+
+import com.eap.common.event.OrderReleasedEvent;
+import com.eap.eap_wallet.configuration.repository.OrderReleaseRepository;
+import com.eap.eap_wallet.configuration.repository.WalletRepository;
+import com.eap.eap_wallet.domain.entity.WalletEntity;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderReleasedListenerTest {
+
+    @Mock
+    private WalletRepository walletRepository;
+
+    @Mock
+    private OrderReleaseRepository orderReleaseRepository;
+
+    @InjectMocks
+    private OrderReleasedListener orderReleasedListener;
+
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void testHandleOrderReleased_ForBuyOrder_ShouldUnlockRemainingCurrency() {
+        WalletEntity wallet = wallet(500, 100, 1000, 300);
+        when(walletRepository.findByUserId(userId)).thenReturn(wallet);
+
+        orderReleasedListener.handleOrderReleased(released("BUY", 20, 10));
+
+        assertEquals(800, wallet.getLockedCurrency());
+        assertEquals(500, wallet.getAvailableCurrency());
+        assertEquals(100, wallet.getAvailableAmount());
+        verify(walletRepository).save(wallet);
+    }
+
+    @Test
+    void testHandleOrderReleased_ForSellOrder_ShouldUnlockRemainingAmount() {
+        WalletEntity wallet = wallet(500, 100, 1000, 300);
+        when(walletRepository.findByUserId(userId)).thenReturn(wallet);
+
+        orderReleasedListener.handleOrderReleased(released("SELL", 20, 40));
+
+        assertEquals(260, wallet.getLockedAmount());
+        assertEquals(140, wallet.getAvailableAmount());
+        assertEquals(1000, wallet.getLockedCurrency());
+        verify(walletRepository).save(wallet);
+    }
+
+    @Test
+    void testHandleOrderReleased_WhenWalletNotFound_ShouldNotSave() {
+        when(walletRepository.findByUserId(userId)).thenReturn(null);
+
+        orderReleasedListener.handleOrderReleased(released("BUY", 20, 10));
+
+        verify(walletRepository, never()).save(any());
+        verify(orderReleaseRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void testHandleOrderReleased_WhenRedelivered_ShouldNotUnlockTwice() {
+        // Given：同一訂單、同一原因的事件已處理過
+        OrderReleasedEvent event = released("BUY", 20, 10);
+        when(orderReleaseRepository.existsByOrderIdAndReason(event.getOrderId(), event.getReason())).thenReturn(true);
+
+        // When
+        orderReleasedListener.handleOrderReleased(event);
+
+        // Then
+        verify(walletRepository, never()).findByUserId(any());
+        verify(walletRepository, never()).save(any());
+    }
+
+    @Test
+    void testHandleOrderReleased_ShouldRecordTheReleasedOrder() {
+        WalletEntity wallet = wallet(500, 100, 1000, 300);
+        when(walletRepository.findByUserId(userId)).thenReturn(wallet);
+        OrderReleasedEvent event = released("SELL", 20, 40);
+
+        orderReleasedListener.handleOrderReleased(event);
+
+        verify(orderReleaseRepository).saveAndFlush(argThat(release ->
+                release.getOrderId().equals(event.getOrderId()) && release.getReason().equals("EXPIRED")));
+    }
+
+    private WalletEntity wallet(int availableCurrency, int availableAmount, int lockedCurrency, int lockedAmount) {
+        return WalletEntity.builder()
+                .id(1L)
+                .userId(userId)
+                .availableCurrency(availableCurrency)
+                .availableAmount(availableAmount)
+                .lockedCurrency(lockedCurrency)
+                .lockedAmount(lockedAmount)
+                .updateTime(LocalDateTime.now())
+                .build();
+    }
+
+    private OrderReleasedEvent released(String orderType, int price, int amount) {
+        return OrderReleasedEvent.builder()
+                .orderId(UUID.randomUUID())
+                .userId(userId)
+                .price(price)
+                .amount(amount)
+                .orderType(orderType)
+                .symbol("ELC")
+                .reason("EXPIRED")
+                .releasedAt(LocalDateTime.now())
+                .build();
+    }
+}